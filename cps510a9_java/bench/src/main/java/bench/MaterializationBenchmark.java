@@ -0,0 +1,93 @@
+package bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.swing.JTable;
+import javax.swing.table.DefaultTableModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * JMH benchmark of the code that turns query results into Swing table models, measured against SyntheticResultSet so that
+ * no database (or network) time is included. Each benchmark runs once per row count in "rows".
+ *
+ * The application lives in the unnamed package, which named packages cannot import and JMH benchmarks cannot use, so the
+ * measured methods are looked up once into static final method handles; the JIT inlines those like direct calls.
+ * Build and run from bench/ (see README.md):
+ *   mvn -B package && java -jar target/benchmarks.jar -prof gc
+ *   java -jar target/benchmarks.jar MaterializationBenchmark.columnarResult -p rows=1000000
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g", "-Djava.awt.headless=true"})
+public class MaterializationBenchmark {
+
+    private static final MethodHandle BUILD_TABLE_MODEL = staticMethod("DB_GUI", "buildTableModel", ResultSet.class);
+    private static final MethodHandle READ_ONLY_MODEL = staticMethod("Recruiter_GUI", "readOnlyModel", ResultSet.class);
+    private static final MethodHandle EXTRACT_ROW = staticMethod("Recruiter_GUI", "extractRow", JTable.class, int.class);
+    private static final MethodHandle COLUMNAR_RESULT = staticMethod("ColumnarResult", "from", ResultSet.class);
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int rows;
+
+    /* Table extractRow() reads from, and the row it reads next */
+    private JTable table;
+    private int row;
+
+    @Setup(Level.Trial)
+    public void loadTable() throws Throwable {
+        table = new JTable((DefaultTableModel) BUILD_TABLE_MODEL.invoke(SyntheticResultSet.create(rows)));
+    }
+
+    @Benchmark
+    public DefaultTableModel dbGuiBuildTableModel() throws Throwable {
+        return (DefaultTableModel) BUILD_TABLE_MODEL.invoke(SyntheticResultSet.create(rows));
+    }
+
+    @Benchmark
+    public DefaultTableModel recruiterReadOnlyModel() throws Throwable {
+        return (DefaultTableModel) READ_ONLY_MODEL.invoke(SyntheticResultSet.create(rows));
+    }
+
+    @Benchmark
+    public Object columnarResult() throws Throwable {
+        return COLUMNAR_RESULT.invoke(SyntheticResultSet.create(rows));
+    }
+
+    /* One row per call, walking the whole table so the rows read are not all in cache */
+    @Benchmark
+    public Map<?, ?> recruiterExtractRow() throws Throwable {
+        row = row + 1 == rows ? 0 : row + 1;
+        return (Map<?, ?>) EXTRACT_ROW.invoke(table, row);
+    }
+
+    /* A static method of an application class, private ones included */
+    private static MethodHandle staticMethod(String className, String name, Class<?>... parameterTypes) {
+        try {
+            Method method = Class.forName(className).getDeclaredMethod(name, parameterTypes);
+            method.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflect(method);
+            return handle.asType(MethodType.methodType(Object.class, parameterTypes));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package bench;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Calendar;
+import java.util.Map;
+
+/*
+ * In-memory, forward-only ResultSet with generated rows, for benchmarking the code that turns query results into table models
+ * without a database. A plain class rather than a java.lang.reflect.Proxy, so each call costs what a driver's method call
+ * would and not a reflective dispatch. Column values mimic what the Oracle driver returns for the Job table:
+ *  NUMBER -> BigDecimal, VARCHAR -> String, DATE -> Timestamp
+ * Only the methods used by the materialization code are implemented; the rest throw SQLFeatureNotSupportedException.
+ */
+public final class SyntheticResultSet implements ResultSet {
+
+    /* Column layout modelled on "SELECT * FROM Job" */
+    private static final String[] COLUMN_NAMES = {
+        "JOBID", "COMPANYID", "RECRUITERID", "SALARY", "WORKINGHOURS", "DATEPOSTED", "LOCATION", "TITLE", "DESCRIPTION"
+    };
+    private static final int[] COLUMN_TYPES = {
+        Types.NUMERIC, Types.NUMERIC, Types.NUMERIC, Types.NUMERIC, Types.NUMERIC, Types.TIMESTAMP, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR
+    };
+    /* Precision and scale as Oracle reports them: INTEGER is NUMBER(38,0), FLOAT has a scale of -127 */
+    private static final int[] PRECISION = {38, 38, 38, 126, 126, 0, 200, 200, 200};
+    private static final int[] SCALE = {0, 0, 0, -127, -127, 0, 0, 0, 0};
+    private static final String[] LOCATIONS = {"Toronto, Ontario", "Markham, Ontario", "Vancouver, British Columbia", "Ottawa, Ontario"};
+    private static final String[] TITLES = {"Software Developer", "Data Analyst", "Hardware Engineer", "Bank Teller", "QA Tester"};
+    private static final long BASE_DATE = Timestamp.valueOf("2025-01-01 00:00:00").getTime();
+
+    private final int rowCount;
+    private int row;  /* 1-based current row, 0 = before first */
+    private boolean closed;
+    private final ResultSetMetaData metaData = new MetaData();
+
+    private SyntheticResultSet(int rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    /* A fresh ResultSet positioned before the first of rowCount rows */
+    public static ResultSet create(int rowCount) {
+        return new SyntheticResultSet(rowCount);
+    }
+
+    public static int columnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public boolean next() throws SQLException {
+        checkOpen();
+        if (row < rowCount) {
+            row++;
+            return true;
+        }
+        row = rowCount + 1;
+        return false;
+    }
+
+    @Override public Object getObject(int column) throws SQLException { return value(column); }
+    @Override public Object getObject(String column) throws SQLException { return value(findColumn(column)); }
+    @Override public String getString(int column) throws SQLException { Object value = value(column); return value == null ? null : value.toString(); }
+    @Override public String getString(String column) throws SQLException { return getString(findColumn(column)); }
+    @Override public int getInt(int column) throws SQLException { return ((Number) value(column)).intValue(); }
+    @Override public int getInt(String column) throws SQLException { return getInt(findColumn(column)); }
+    @Override public long getLong(int column) throws SQLException { return ((Number) value(column)).longValue(); }
+    @Override public long getLong(String column) throws SQLException { return getLong(findColumn(column)); }
+    @Override public double getDouble(int column) throws SQLException { return ((Number) value(column)).doubleValue(); }
+    @Override public double getDouble(String column) throws SQLException { return getDouble(findColumn(column)); }
+    @Override public BigDecimal getBigDecimal(int column) throws SQLException { return (BigDecimal) value(column); }
+    @Override public BigDecimal getBigDecimal(String column) throws SQLException { return getBigDecimal(findColumn(column)); }
+    @Override public Timestamp getTimestamp(int column) throws SQLException { return (Timestamp) value(column); }
+    @Override public Timestamp getTimestamp(String column) throws SQLException { return getTimestamp(findColumn(column)); }
+
+    @Override public ResultSetMetaData getMetaData() { return metaData; }
+    @Override public int getRow() { return row > rowCount ? 0 : row; }
+    @Override public boolean wasNull() { return false; }
+    @Override public void close() { closed = true; }
+    @Override public boolean isClosed() { return closed; }
+    @Override public int getFetchSize() { return 0; }
+    @Override public void setFetchSize(int rows) { }
+    @Override public int getType() { return TYPE_FORWARD_ONLY; }
+    @Override public int getConcurrency() { return CONCUR_READ_ONLY; }
+
+    @Override
+    public int findColumn(String column) throws SQLException {
+        for (int i = 0; i < COLUMN_NAMES.length; i++) {
+            if (COLUMN_NAMES[i].equalsIgnoreCase(column)) {
+                return i + 1;
+            }
+        }
+        throw new SQLException("Invalid column name: " + column);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("SyntheticResultSet does not wrap " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    @Override
+    public String toString() {
+        return "SyntheticResultSet[rows=" + rowCount + "]";
+    }
+
+    private void checkOpen() throws SQLException {
+        if (closed) {
+            throw new SQLException("ResultSet is closed.");
+        }
+    }
+
+    /* Deterministic value for the current row, allocated fresh each call like a real driver would */
+    private Object value(int column) throws SQLException {
+        checkOpen();
+        if (row < 1 || row > rowCount) {
+            throw new SQLException("ResultSet is not positioned on a row.");
+        }
+        if (column < 1 || column > COLUMN_NAMES.length) {
+            throw new SQLException("Invalid column index: " + column);
+        }
+        switch (column) {
+            case 1: return BigDecimal.valueOf(row);
+            case 2: return BigDecimal.valueOf(row % 50 + 1);
+            case 3: return BigDecimal.valueOf(row % 200 + 1);
+            case 4: return BigDecimal.valueOf(2000 + row % 4000, 2);
+            case 5: return BigDecimal.valueOf(20 + row % 25);
+            case 6: return new Timestamp(BASE_DATE + (row % 365) * 86_400_000L);
+            case 7: return LOCATIONS[row % LOCATIONS.length];
+            case 8: return TITLES[row % TITLES.length] + " " + row;
+            default: return "Synthetic job posting number " + row + " used to measure result materialization.";
+        }
+    }
+
+    private static SQLException unsupported(String method) {
+        return new SQLFeatureNotSupportedException("SyntheticResultSet does not implement " + method);
+    }
+
+    /* Not used by the materialization code */
+    @Override public <T> T getObject(String column, Class<T> x) throws SQLException { throw unsupported("getObject"); }
+    @Override public <T> T getObject(int column, Class<T> x) throws SQLException { throw unsupported("getObject"); }
+    @Override public Array getArray(String column) throws SQLException { throw unsupported("getArray"); }
+    @Override public Array getArray(int column) throws SQLException { throw unsupported("getArray"); }
+    @Deprecated @Override public BigDecimal getBigDecimal(String column, int scale) throws SQLException { throw unsupported("getBigDecimal"); }
+    @Deprecated @Override public BigDecimal getBigDecimal(int column, int scale) throws SQLException { throw unsupported("getBigDecimal"); }
+    @Override public Blob getBlob(String column) throws SQLException { throw unsupported("getBlob"); }
+    @Override public Blob getBlob(int column) throws SQLException { throw unsupported("getBlob"); }
+    @Override public Clob getClob(String column) throws SQLException { throw unsupported("getClob"); }
+    @Override public Clob getClob(int column) throws SQLException { throw unsupported("getClob"); }
+    @Override public Date getDate(String column) throws SQLException { throw unsupported("getDate"); }
+    @Override public Date getDate(String column, Calendar x) throws SQLException { throw unsupported("getDate"); }
+    @Override public Date getDate(int column) throws SQLException { throw unsupported("getDate"); }
+    @Override public Date getDate(int column, Calendar x) throws SQLException { throw unsupported("getDate"); }
+    @Override public InputStream getAsciiStream(String column) throws SQLException { throw unsupported("getAsciiStream"); }
+    @Override public InputStream getAsciiStream(int column) throws SQLException { throw unsupported("getAsciiStream"); }
+    @Override public InputStream getBinaryStream(String column) throws SQLException { throw unsupported("getBinaryStream"); }
+    @Override public InputStream getBinaryStream(int column) throws SQLException { throw unsupported("getBinaryStream"); }
+    @Deprecated @Override public InputStream getUnicodeStream(String column) throws SQLException { throw unsupported("getUnicodeStream"); }
+    @Deprecated @Override public InputStream getUnicodeStream(int column) throws SQLException { throw unsupported("getUnicodeStream"); }
+    @Override public NClob getNClob(String column) throws SQLException { throw unsupported("getNClob"); }
+    @Override public NClob getNClob(int column) throws SQLException { throw unsupported("getNClob"); }
+    @Override public Object getObject(String column, Map<String, Class<?>> x) throws SQLException { throw unsupported("getObject"); }
+    @Override public Object getObject(int column, Map<String, Class<?>> x) throws SQLException { throw unsupported("getObject"); }
+    @Override public Reader getCharacterStream(String column) throws SQLException { throw unsupported("getCharacterStream"); }
+    @Override public Reader getCharacterStream(int column) throws SQLException { throw unsupported("getCharacterStream"); }
+    @Override public Reader getNCharacterStream(String column) throws SQLException { throw unsupported("getNCharacterStream"); }
+    @Override public Reader getNCharacterStream(int column) throws SQLException { throw unsupported("getNCharacterStream"); }
+    @Override public Ref getRef(String column) throws SQLException { throw unsupported("getRef"); }
+    @Override public Ref getRef(int column) throws SQLException { throw unsupported("getRef"); }
+    @Override public RowId getRowId(String column) throws SQLException { throw unsupported("getRowId"); }
+    @Override public RowId getRowId(int column) throws SQLException { throw unsupported("getRowId"); }
+    @Override public SQLWarning getWarnings() throws SQLException { throw unsupported("getWarnings"); }
+    @Override public SQLXML getSQLXML(String column) throws SQLException { throw unsupported("getSQLXML"); }
+    @Override public SQLXML getSQLXML(int column) throws SQLException { throw unsupported("getSQLXML"); }
+    @Override public Statement getStatement() throws SQLException { throw unsupported("getStatement"); }
+    @Override public String getCursorName() throws SQLException { throw unsupported("getCursorName"); }
+    @Override public String getNString(String column) throws SQLException { throw unsupported("getNString"); }
+    @Override public String getNString(int column) throws SQLException { throw unsupported("getNString"); }
+    @Override public Time getTime(String column) throws SQLException { throw unsupported("getTime"); }
+    @Override public Time getTime(String column, Calendar x) throws SQLException { throw unsupported("getTime"); }
+    @Override public Time getTime(int column) throws SQLException { throw unsupported("getTime"); }
+    @Override public Time getTime(int column, Calendar x) throws SQLException { throw unsupported("getTime"); }
+    @Override public Timestamp getTimestamp(String column, Calendar x) throws SQLException { throw unsupported("getTimestamp"); }
+    @Override public Timestamp getTimestamp(int column, Calendar x) throws SQLException { throw unsupported("getTimestamp"); }
+    @Override public URL getURL(String column) throws SQLException { throw unsupported("getURL"); }
+    @Override public URL getURL(int column) throws SQLException { throw unsupported("getURL"); }
+    @Override public boolean absolute(int row) throws SQLException { throw unsupported("absolute"); }
+    @Override public boolean first() throws SQLException { throw unsupported("first"); }
+    @Override public boolean getBoolean(String column) throws SQLException { throw unsupported("getBoolean"); }
+    @Override public boolean getBoolean(int column) throws SQLException { throw unsupported("getBoolean"); }
+    @Override public boolean isAfterLast() throws SQLException { throw unsupported("isAfterLast"); }
+    @Override public boolean isBeforeFirst() throws SQLException { throw unsupported("isBeforeFirst"); }
+    @Override public boolean isFirst() throws SQLException { throw unsupported("isFirst"); }
+    @Override public boolean isLast() throws SQLException { throw unsupported("isLast"); }
+    @Override public boolean last() throws SQLException { throw unsupported("last"); }
+    @Override public boolean previous() throws SQLException { throw unsupported("previous"); }
+    @Override public boolean relative(int rows) throws SQLException { throw unsupported("relative"); }
+    @Override public boolean rowDeleted() throws SQLException { throw unsupported("rowDeleted"); }
+    @Override public boolean rowInserted() throws SQLException { throw unsupported("rowInserted"); }
+    @Override public boolean rowUpdated() throws SQLException { throw unsupported("rowUpdated"); }
+    @Override public byte getByte(String column) throws SQLException { throw unsupported("getByte"); }
+    @Override public byte getByte(int column) throws SQLException { throw unsupported("getByte"); }
+    @Override public byte[] getBytes(String column) throws SQLException { throw unsupported("getBytes"); }
+    @Override public byte[] getBytes(int column) throws SQLException { throw unsupported("getBytes"); }
+    @Override public float getFloat(String column) throws SQLException { throw unsupported("getFloat"); }
+    @Override public float getFloat(int column) throws SQLException { throw unsupported("getFloat"); }
+    @Override public int getFetchDirection() throws SQLException { throw unsupported("getFetchDirection"); }
+    @Override public int getHoldability() throws SQLException { throw unsupported("getHoldability"); }
+    @Override public short getShort(String column) throws SQLException { throw unsupported("getShort"); }
+    @Override public short getShort(int column) throws SQLException { throw unsupported("getShort"); }
+    @Override public void afterLast() throws SQLException { throw unsupported("afterLast"); }
+    @Override public void beforeFirst() throws SQLException { throw unsupported("beforeFirst"); }
+    @Override public void cancelRowUpdates() throws SQLException { throw unsupported("cancelRowUpdates"); }
+    @Override public void clearWarnings() throws SQLException { throw unsupported("clearWarnings"); }
+    @Override public void deleteRow() throws SQLException { throw unsupported("deleteRow"); }
+    @Override public void insertRow() throws SQLException { throw unsupported("insertRow"); }
+    @Override public void moveToCurrentRow() throws SQLException { throw unsupported("moveToCurrentRow"); }
+    @Override public void moveToInsertRow() throws SQLException { throw unsupported("moveToInsertRow"); }
+    @Override public void refreshRow() throws SQLException { throw unsupported("refreshRow"); }
+    @Override public void setFetchDirection(int direction) throws SQLException { throw unsupported("setFetchDirection"); }
+    @Override public void updateArray(String column, Array x) throws SQLException { throw unsupported("updateArray"); }
+    @Override public void updateArray(int column, Array x) throws SQLException { throw unsupported("updateArray"); }
+    @Override public void updateAsciiStream(String column, InputStream x) throws SQLException { throw unsupported("updateAsciiStream"); }
+    @Override public void updateAsciiStream(String column, InputStream x, int length) throws SQLException { throw unsupported("updateAsciiStream"); }
+    @Override public void updateAsciiStream(String column, InputStream x, long length) throws SQLException { throw unsupported("updateAsciiStream"); }
+    @Override public void updateAsciiStream(int column, InputStream x) throws SQLException { throw unsupported("updateAsciiStream"); }
+    @Override public void updateAsciiStream(int column, InputStream x, int length) throws SQLException { throw unsupported("updateAsciiStream"); }
+    @Override public void updateAsciiStream(int column, InputStream x, long length) throws SQLException { throw unsupported("updateAsciiStream"); }
+    @Override public void updateBigDecimal(String column, BigDecimal x) throws SQLException { throw unsupported("updateBigDecimal"); }
+    @Override public void updateBigDecimal(int column, BigDecimal x) throws SQLException { throw unsupported("updateBigDecimal"); }
+    @Override public void updateBinaryStream(String column, InputStream x) throws SQLException { throw unsupported("updateBinaryStream"); }
+    @Override public void updateBinaryStream(String column, InputStream x, int length) throws SQLException { throw unsupported("updateBinaryStream"); }
+    @Override public void updateBinaryStream(String column, InputStream x, long length) throws SQLException { throw unsupported("updateBinaryStream"); }
+    @Override public void updateBinaryStream(int column, InputStream x) throws SQLException { throw unsupported("updateBinaryStream"); }
+    @Override public void updateBinaryStream(int column, InputStream x, int length) throws SQLException { throw unsupported("updateBinaryStream"); }
+    @Override public void updateBinaryStream(int column, InputStream x, long length) throws SQLException { throw unsupported("updateBinaryStream"); }
+    @Override public void updateBlob(String column, Blob x) throws SQLException { throw unsupported("updateBlob"); }
+    @Override public void updateBlob(String column, InputStream x) throws SQLException { throw unsupported("updateBlob"); }
+    @Override public void updateBlob(String column, InputStream x, long length) throws SQLException { throw unsupported("updateBlob"); }
+    @Override public void updateBlob(int column, Blob x) throws SQLException { throw unsupported("updateBlob"); }
+    @Override public void updateBlob(int column, InputStream x) throws SQLException { throw unsupported("updateBlob"); }
+    @Override public void updateBlob(int column, InputStream x, long length) throws SQLException { throw unsupported("updateBlob"); }
+    @Override public void updateBoolean(String column, boolean x) throws SQLException { throw unsupported("updateBoolean"); }
+    @Override public void updateBoolean(int column, boolean x) throws SQLException { throw unsupported("updateBoolean"); }
+    @Override public void updateByte(String column, byte x) throws SQLException { throw unsupported("updateByte"); }
+    @Override public void updateByte(int column, byte x) throws SQLException { throw unsupported("updateByte"); }
+    @Override public void updateBytes(String column, byte[] x) throws SQLException { throw unsupported("updateBytes"); }
+    @Override public void updateBytes(int column, byte[] x) throws SQLException { throw unsupported("updateBytes"); }
+    @Override public void updateCharacterStream(String column, Reader x) throws SQLException { throw unsupported("updateCharacterStream"); }
+    @Override public void updateCharacterStream(String column, Reader x, int length) throws SQLException { throw unsupported("updateCharacterStream"); }
+    @Override public void updateCharacterStream(String column, Reader x, long length) throws SQLException { throw unsupported("updateCharacterStream"); }
+    @Override public void updateCharacterStream(int column, Reader x) throws SQLException { throw unsupported("updateCharacterStream"); }
+    @Override public void updateCharacterStream(int column, Reader x, int length) throws SQLException { throw unsupported("updateCharacterStream"); }
+    @Override public void updateCharacterStream(int column, Reader x, long length) throws SQLException { throw unsupported("updateCharacterStream"); }
+    @Override public void updateClob(String column, Clob x) throws SQLException { throw unsupported("updateClob"); }
+    @Override public void updateClob(String column, Reader x) throws SQLException { throw unsupported("updateClob"); }
+    @Override public void updateClob(String column, Reader x, long length) throws SQLException { throw unsupported("updateClob"); }
+    @Override public void updateClob(int column, Clob x) throws SQLException { throw unsupported("updateClob"); }
+    @Override public void updateClob(int column, Reader x) throws SQLException { throw unsupported("updateClob"); }
+    @Override public void updateClob(int column, Reader x, long length) throws SQLException { throw unsupported("updateClob"); }
+    @Override public void updateDate(String column, Date x) throws SQLException { throw unsupported("updateDate"); }
+    @Override public void updateDate(int column, Date x) throws SQLException { throw unsupported("updateDate"); }
+    @Override public void updateDouble(String column, double x) throws SQLException { throw unsupported("updateDouble"); }
+    @Override public void updateDouble(int column, double x) throws SQLException { throw unsupported("updateDouble"); }
+    @Override public void updateFloat(String column, float x) throws SQLException { throw unsupported("updateFloat"); }
+    @Override public void updateFloat(int column, float x) throws SQLException { throw unsupported("updateFloat"); }
+    @Override public void updateInt(String column, int x) throws SQLException { throw unsupported("updateInt"); }
+    @Override public void updateInt(int column, int x) throws SQLException { throw unsupported("updateInt"); }
+    @Override public void updateLong(String column, long x) throws SQLException { throw unsupported("updateLong"); }
+    @Override public void updateLong(int column, long x) throws SQLException { throw unsupported("updateLong"); }
+    @Override public void updateNCharacterStream(String column, Reader x) throws SQLException { throw unsupported("updateNCharacterStream"); }
+    @Override public void updateNCharacterStream(String column, Reader x, long length) throws SQLException { throw unsupported("updateNCharacterStream"); }
+    @Override public void updateNCharacterStream(int column, Reader x) throws SQLException { throw unsupported("updateNCharacterStream"); }
+    @Override public void updateNCharacterStream(int column, Reader x, long length) throws SQLException { throw unsupported("updateNCharacterStream"); }
+    @Override public void updateNClob(String column, NClob x) throws SQLException { throw unsupported("updateNClob"); }
+    @Override public void updateNClob(String column, Reader x) throws SQLException { throw unsupported("updateNClob"); }
+    @Override public void updateNClob(String column, Reader x, long length) throws SQLException { throw unsupported("updateNClob"); }
+    @Override public void updateNClob(int column, NClob x) throws SQLException { throw unsupported("updateNClob"); }
+    @Override public void updateNClob(int column, Reader x) throws SQLException { throw unsupported("updateNClob"); }
+    @Override public void updateNClob(int column, Reader x, long length) throws SQLException { throw unsupported("updateNClob"); }
+    @Override public void updateNString(String column, String x) throws SQLException { throw unsupported("updateNString"); }
+    @Override public void updateNString(int column, String x) throws SQLException { throw unsupported("updateNString"); }
+    @Override public void updateNull(String column) throws SQLException { throw unsupported("updateNull"); }
+    @Override public void updateNull(int column) throws SQLException { throw unsupported("updateNull"); }
+    @Override public void updateObject(String column, Object x) throws SQLException { throw unsupported("updateObject"); }
+    @Override public void updateObject(String column, Object x, int length) throws SQLException { throw unsupported("updateObject"); }
+    @Override public void updateObject(int column, Object x) throws SQLException { throw unsupported("updateObject"); }
+    @Override public void updateObject(int column, Object x, int length) throws SQLException { throw unsupported("updateObject"); }
+    @Override public void updateRef(String column, Ref x) throws SQLException { throw unsupported("updateRef"); }
+    @Override public void updateRef(int column, Ref x) throws SQLException { throw unsupported("updateRef"); }
+    @Override public void updateRow() throws SQLException { throw unsupported("updateRow"); }
+    @Override public void updateRowId(String column, RowId x) throws SQLException { throw unsupported("updateRowId"); }
+    @Override public void updateRowId(int column, RowId x) throws SQLException { throw unsupported("updateRowId"); }
+    @Override public void updateSQLXML(String column, SQLXML x) throws SQLException { throw unsupported("updateSQLXML"); }
+    @Override public void updateSQLXML(int column, SQLXML x) throws SQLException { throw unsupported("updateSQLXML"); }
+    @Override public void updateShort(String column, short x) throws SQLException { throw unsupported("updateShort"); }
+    @Override public void updateShort(int column, short x) throws SQLException { throw unsupported("updateShort"); }
+    @Override public void updateString(String column, String x) throws SQLException { throw unsupported("updateString"); }
+    @Override public void updateString(int column, String x) throws SQLException { throw unsupported("updateString"); }
+    @Override public void updateTime(String column, Time x) throws SQLException { throw unsupported("updateTime"); }
+    @Override public void updateTime(int column, Time x) throws SQLException { throw unsupported("updateTime"); }
+    @Override public void updateTimestamp(String column, Timestamp x) throws SQLException { throw unsupported("updateTimestamp"); }
+    @Override public void updateTimestamp(int column, Timestamp x) throws SQLException { throw unsupported("updateTimestamp"); }
+
+    /* Column metadata of the synthetic Job table */
+    private static final class MetaData implements ResultSetMetaData {
+
+        @Override public int getColumnCount() { return COLUMN_NAMES.length; }
+        @Override public String getColumnName(int column) { return COLUMN_NAMES[column - 1]; }
+        @Override public String getColumnLabel(int column) { return COLUMN_NAMES[column - 1]; }
+        @Override public int getColumnType(int column) { return COLUMN_TYPES[column - 1]; }
+        @Override public int getPrecision(int column) { return PRECISION[column - 1]; }
+        @Override public int getScale(int column) { return SCALE[column - 1]; }
+        @Override public int getColumnDisplaySize(int column) { return COLUMN_TYPES[column - 1] == Types.VARCHAR ? 200 : 22; }
+
+        @Override
+        public <T> T unwrap(Class<T> iface) throws SQLException {
+            if (iface.isInstance(this)) {
+                return iface.cast(this);
+            }
+            throw new SQLException("SyntheticResultSet metadata does not wrap " + iface.getName());
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> iface) {
+            return iface.isInstance(this);
+        }
+
+        /* Not used by the materialization code */
+        @Override public String getCatalogName(int column) throws SQLException { throw unsupported("metadata getCatalogName"); }
+        @Override public String getColumnClassName(int column) throws SQLException { throw unsupported("metadata getColumnClassName"); }
+        @Override public String getColumnTypeName(int column) throws SQLException { throw unsupported("metadata getColumnTypeName"); }
+        @Override public String getSchemaName(int column) throws SQLException { throw unsupported("metadata getSchemaName"); }
+        @Override public String getTableName(int column) throws SQLException { throw unsupported("metadata getTableName"); }
+        @Override public boolean isAutoIncrement(int column) throws SQLException { throw unsupported("metadata isAutoIncrement"); }
+        @Override public boolean isCaseSensitive(int column) throws SQLException { throw unsupported("metadata isCaseSensitive"); }
+        @Override public boolean isCurrency(int column) throws SQLException { throw unsupported("metadata isCurrency"); }
+        @Override public boolean isDefinitelyWritable(int column) throws SQLException { throw unsupported("metadata isDefinitelyWritable"); }
+        @Override public boolean isReadOnly(int column) throws SQLException { throw unsupported("metadata isReadOnly"); }
+        @Override public boolean isSearchable(int column) throws SQLException { throw unsupported("metadata isSearchable"); }
+        @Override public boolean isSigned(int column) throws SQLException { throw unsupported("metadata isSigned"); }
+        @Override public boolean isWritable(int column) throws SQLException { throw unsupported("metadata isWritable"); }
+        @Override public int isNullable(int column) throws SQLException { throw unsupported("metadata isNullable"); }
+    }
+}
@@ -1,9 +1,13 @@
 import javax.swing.*;
 import java.awt.*;
 import java.sql.*; 
+import java.util.concurrent.CompletableFuture;
+import javax.swing.table.TableModel;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 public class AddToTables extends JPanel {
 
@@ -29,8 +33,9 @@ public class AddToTables extends JPanel {
         JButton t5 = new JButton("JobApplication Table");
         JButton t6 = new JButton("Resume Table");
         JButton t7 = new JButton("Interview Table");
+        JButton bulkImport = new JButton("Bulk Import (CSV/TSV)");
 
-        JButton[] buttons = {t1, t2, t3, t4, t5, t6, t7};
+        JButton[] buttons = {t1, t2, t3, t4, t5, t6, t7, bulkImport};
         for (JButton b : buttons) {
             b.setFont(new Font("Times New Roman", Font.BOLD, 18));
             buttonPanel.add(b);
@@ -59,6 +64,77 @@ public class AddToTables extends JPanel {
         attachJobApplicationButton(t5, query5);
         attachResumeButton(t6, query6);
         attachInterviewButton(t7, query7);
+        attachBulkImportButton(bulkImport);
+    }
+
+    // loads one or more CSV/TSV files, each into the table its file name starts with (e.g. Job.csv, jobapplicant_2024.tsv)
+    // the first line of each file names the columns, see BulkImporter for the details
+    private void attachBulkImportButton(JButton button) {
+        button.addActionListener(e -> {
+            JFileChooser fileChooser = new JFileChooser();
+            fileChooser.setMultiSelectionEnabled(true);
+            fileChooser.setDialogTitle("Pick CSV/TSV files to import");
+            if (fileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+                return;
+            }
+
+            // work out the table for each file, asking when the name does not tell
+            Map<TableSpec, File> files = new LinkedHashMap<>();
+            for (File file : fileChooser.getSelectedFiles()) {
+                TableSpec table = tableForFile(file);
+                if (table == null) {
+                    table = (TableSpec) JOptionPane.showInputDialog(this, "Which table should " + file.getName() + " be imported into?",
+                        "Bulk Import", JOptionPane.QUESTION_MESSAGE, null, TableSpec.ALL.toArray(), TableSpec.ALL.get(0));
+                    if (table == null) {
+                        return;
+                    }
+                }
+                if (files.containsKey(table)) {
+                    JOptionPane.showMessageDialog(this, "Pick only one file per table (" + table + ").", "Bulk Import", JOptionPane.WARNING_MESSAGE);
+                    return;
+                }
+                files.put(table, file);
+            }
+
+            // the import runs in the background outside a unit of work, each batch is committed as it goes
+            AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().submitWithOwnTransactions("Bulk import", () -> {
+                try {
+                    return new BulkImporter(dbConnection).importAll(files);
+                } catch (IOException ex) {
+                    throw new SQLException(ex.getMessage(), ex);
+                }
+            }), reports -> showImportReports(reports),
+                ex -> JOptionPane.showMessageDialog(this, "Import failed: " + AsyncQueryExecutor.unwrap(ex).getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+        });
+    }
+
+    // the table whose name is the longest match for the start of the file name, or null
+    private static TableSpec tableForFile(File file) {
+        String fileName = file.getName().toLowerCase();
+        TableSpec best = null;
+        for (TableSpec table : TableSpec.ALL) {
+            String name = table.getName().toLowerCase();
+            if (fileName.startsWith(name) && (best == null || name.length() > best.getName().length())) {
+                best = table;
+            }
+        }
+        return best;
+    }
+
+    private void showImportReports(List<BulkImporter.Report> reports) {
+        StringBuilder text = new StringBuilder();
+        for (BulkImporter.Report report : reports) {
+            text.append(report.describe()).append("\n\n");
+        }
+        JTextArea area = new JTextArea(text.toString().trim(), 15, 70);
+        area.setEditable(false);
+        JOptionPane.showMessageDialog(this, new JScrollPane(area), "Bulk Import Results", JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    // returns the ID typed into the field, or the next key from the table's sequence when the field is left blank
+    private int idOrNext(JTextField field, String table) throws SQLException {
+        String text = field.getText().trim();
+        return text.isEmpty() ? dbConnection.getKeyAllocator().nextId(table) : Integer.parseInt(text);
     }
 
     // function that provides specific functionality for the Company button
@@ -78,7 +154,7 @@ public class AddToTables extends JPanel {
 
                 // pass it into a dialog/input box
                 Object[] queryValues = {
-                    "Company ID (mandatory int, unique):", companyID,
+                    "Company ID (leave blank to generate):", companyID,
                     "Name (mandatory, unique):", name,
                     "Industry:", industry,
                     "Location:", location,
@@ -93,34 +169,36 @@ public class AddToTables extends JPanel {
 
                     //prepare an sql statement
                     String insertSQL = "INSERT INTO Company (companyID, name, industry, location, email, phone) VALUES (?, ?, ?, ?, ?, ?)"; 
-                    PreparedStatement pstmt = dbConnection.getConnection().prepareStatement(insertSQL); // 
-
-                    // the following here go into the question marks of the prepared statement in order, basically
-                    // 1 for the first question mark, 2 for the 2nd, etc.
-                    pstmt.setInt(1, Integer.parseInt(companyID.getText()));
-                    pstmt.setString(2, name.getText());
-                    pstmt.setString(3, industry.getText());
-                    pstmt.setString(4, location.getText());
-                    pstmt.setString(5, email.getText());
-                    pstmt.setString(6, phone.getText());
-
-                    int rowsAffected = pstmt.executeUpdate(); // how many rows were affected?
-                    if (rowsAffected > 0) { // if more than 0, you did it
-                        JOptionPane.showMessageDialog(null, "New company added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-
-                        // show the updated table
-                        ResultSet rs = dbConnection.executeQuery(query);
-                        JTable table = new JTable(DB_GUI.buildTableModel(rs));
-                        JOptionPane.showMessageDialog(null, new JScrollPane(table), "Updated Table", JOptionPane.INFORMATION_MESSAGE);
-
-                    } else { // else something went wrong
-                        JOptionPane.showMessageDialog(null, "Failed to add new company.", "Error", JOptionPane.ERROR_MESSAGE);
-                    }
+                    // the dialog is closed by now, so nothing edits the text fields while the background thread reads them
+                    AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().submit("Insert into Company", () -> { // runs in the background as one transaction, committed (and locks released) before any dialog below is shown
+                        int key = idOrNext(companyID, "Company");
+                        PreparedStatement pstmt = dbConnection.prepareCached(insertSQL); //
+
+                        // the following here go into the question marks of the prepared statement in order, basically
+                        // 1 for the first question mark, 2 for the 2nd, etc.
+                        pstmt.setInt(1, key);
+                        pstmt.setString(2, name.getText());
+                        pstmt.setString(3, industry.getText());
+                        pstmt.setString(4, location.getText());
+                        pstmt.setString(5, email.getText());
+                        pstmt.setString(6, phone.getText());
+
+                        return dbConnection.getChangeFeed().returning("Company", key, pstmt.executeUpdate()); // how many rows were affected, and the row as stored (see ChangeFeed.returning)
+                    }), written -> { // back on the Swing thread once the write has committed
+                        // nothing to invalidate in the company/recruiter cache - a new ID was never in it (see ReferenceDataCache)
+                        if (written.getRowsAffected() > 0) { // if more than 0, you did it
+                            JOptionPane.showMessageDialog(null, "New company added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+
+                            // show the updated table
+                            showUpdatedTable(dbConnection.getChangeFeed().modelAfter(query, written)); // the written row put in place, rather than the whole table read again
+
+                        } else { // else something went wrong
+                            JOptionPane.showMessageDialog(null, "Failed to add new company.", "Error", JOptionPane.ERROR_MESSAGE);
+                        }
+                    }, AddToTables::showWriteError);
                 }
 
-            } catch (SQLException ex) { // catch any sql errors - database end
-                JOptionPane.showMessageDialog(null, "Error executing query:\n" + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-            } catch (Exception ex) { // catch any other errors - java end (usually careless input)
+            } catch (Exception ex) { // catch errors on this side - usually careless input; the write itself reports through showWriteError
                 JOptionPane.showMessageDialog(null, "Error processing query:\n" + ex, "Error", JOptionPane.ERROR_MESSAGE);
             }
         });
@@ -138,7 +216,7 @@ public class AddToTables extends JPanel {
                 JTextField phone = new JTextField();
 
                 Object[] queryValues = {
-                    "RecruiterID (mandatory int, unique):", recruiterID,
+                    "RecruiterID (leave blank to generate):", recruiterID,
                     "CompanyID (mandatory, reference to Company table):", companyID,
                     "First Name:", first_name,
                     "Last Name:", last_name,
@@ -150,29 +228,29 @@ public class AddToTables extends JPanel {
 
                 if (option == JOptionPane.OK_OPTION) {
                     String insertSQL = "INSERT INTO Recruiter (recruiterID, companyID, first_name, last_name, email, phone) VALUES (?, ?, ?, ?, ?, ?)";
-                    PreparedStatement pstmt = dbConnection.getConnection().prepareStatement(insertSQL);
-                    pstmt.setInt(1, Integer.parseInt(recruiterID.getText()));
-                    pstmt.setInt(2, Integer.parseInt(companyID.getText()));
-                    pstmt.setString(3, first_name.getText());
-                    pstmt.setString(4, last_name.getText());
-                    pstmt.setString(5, email.getText());
-                    pstmt.setString(6, phone.getText());
-
-                    int rowsAffected = pstmt.executeUpdate();
-                    if (rowsAffected > 0) {
-                        JOptionPane.showMessageDialog(null, "New recruiter added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-
-                        ResultSet rs = dbConnection.executeQuery(query);
-                        JTable table = new JTable(DB_GUI.buildTableModel(rs));
-                        JOptionPane.showMessageDialog(null, new JScrollPane(table), "Updated Table", JOptionPane.INFORMATION_MESSAGE);
-
-                    } else {
-                        JOptionPane.showMessageDialog(null, "Failed to add new recruiter.", "Error", JOptionPane.ERROR_MESSAGE);
-                    }
+                    AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().submit("Insert into Recruiter", () -> {
+                        int key = idOrNext(recruiterID, "Recruiter");
+                        PreparedStatement pstmt = dbConnection.prepareCached(insertSQL);
+                        pstmt.setInt(1, key);
+                        pstmt.setInt(2, Integer.parseInt(companyID.getText()));
+                        pstmt.setString(3, first_name.getText());
+                        pstmt.setString(4, last_name.getText());
+                        pstmt.setString(5, email.getText());
+                        pstmt.setString(6, phone.getText());
+
+                        return dbConnection.getChangeFeed().returning("Recruiter", key, pstmt.executeUpdate());
+                    }), written -> { // back on the Swing thread once the write has committed
+                        if (written.getRowsAffected() > 0) {
+                            JOptionPane.showMessageDialog(null, "New recruiter added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+
+                            showUpdatedTable(dbConnection.getChangeFeed().modelAfter(query, written)); // the written row put in place, rather than the whole table read again
+
+                        } else {
+                            JOptionPane.showMessageDialog(null, "Failed to add new recruiter.", "Error", JOptionPane.ERROR_MESSAGE);
+                        }
+                    }, AddToTables::showWriteError);
                 }
 
-            } catch (SQLException ex) {
-                JOptionPane.showMessageDialog(null, "Error executing query:\n" + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(null, "Error processing query:\n" + ex, "Error", JOptionPane.ERROR_MESSAGE);
             }
@@ -194,7 +272,7 @@ public class AddToTables extends JPanel {
                 JTextField description = new JTextField();
 
                 Object[] queryValues = {
-                    "JobID (mandatory int, unique):", jobID,
+                    "JobID (leave blank to generate):", jobID,
                     "CompanyID (mandatory, reference to Company table):", companyID,
                     "RecruiterID (mandatory, reference to Recruiter table):", recruiterID,
                     "Salary:", salary,
@@ -209,32 +287,35 @@ public class AddToTables extends JPanel {
 
                 if (option == JOptionPane.OK_OPTION) {
                     String insertSQL = "INSERT INTO Job (jobID, companyID, recruiterID, salary, workingHours, datePosted, location, title, description) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-                    PreparedStatement pstmt = dbConnection.getConnection().prepareStatement(insertSQL);
-                    pstmt.setInt(1, Integer.parseInt(jobID.getText()));
-                    pstmt.setInt(2, Integer.parseInt(companyID.getText()));
-                    pstmt.setInt(3, Integer.parseInt(recruiterID.getText()));
-                    pstmt.setFloat(4, salary.getText() == null || salary.getText().isEmpty() ? 0 : Float.parseFloat(salary.getText()));
-                    pstmt.setFloat(5, workingHours.getText() == null || workingHours.getText().isEmpty() ? 0 : Float.parseFloat(workingHours.getText()));
-                    pstmt.setDate(6, Date.valueOf(datePosted.getText()));
-                    pstmt.setString(7, location.getText());
-                    pstmt.setString(8, title.getText());
-                    pstmt.setString(9, description.getText());
-
-                    int rowsAffected = pstmt.executeUpdate();
-                    if (rowsAffected > 0) {
-                        JOptionPane.showMessageDialog(null, "New job added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                        // show the updated table
-                        ResultSet rs = dbConnection.executeQuery(query);
-                        JTable table = new JTable(DB_GUI.buildTableModel(rs));
-                        JOptionPane.showMessageDialog(null, new JScrollPane(table), "Updated Table", JOptionPane.INFORMATION_MESSAGE);
-
-                    } else {
-                        JOptionPane.showMessageDialog(null, "Failed to add new job.", "Error", JOptionPane.ERROR_MESSAGE);
-                    }
+                    AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().submit("Insert into Job", () -> {
+                        int key = idOrNext(jobID, "Job");
+                        PreparedStatement pstmt = dbConnection.prepareCached(insertSQL);
+                        pstmt.setInt(1, key);
+                        pstmt.setInt(2, Integer.parseInt(companyID.getText()));
+                        pstmt.setInt(3, Integer.parseInt(recruiterID.getText()));
+                        pstmt.setFloat(4, salary.getText() == null || salary.getText().isEmpty() ? 0 : Float.parseFloat(salary.getText()));
+                        pstmt.setFloat(5, workingHours.getText() == null || workingHours.getText().isEmpty() ? 0 : Float.parseFloat(workingHours.getText()));
+                        pstmt.setDate(6, Date.valueOf(datePosted.getText()));
+                        pstmt.setString(7, location.getText());
+                        pstmt.setString(8, title.getText());
+                        pstmt.setString(9, description.getText());
+
+                        return dbConnection.getChangeFeed().returning("Job", key, pstmt.executeUpdate());
+                    }), written -> { // back on the Swing thread once the write has committed
+                        dbConnection.getJobBoard().markChanged(); // a new posting - applicants' job board is read again in the background
+                        if (written.getRowsAffected() > 0) {
+                            JOptionPane.showMessageDialog(null, "New job added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                            // show the updated table
+                            showUpdatedTable(dbConnection.getChangeFeed().modelAfter(query, written)); // the written row put in place, rather than the whole table read again
+
+                        } else {
+                            JOptionPane.showMessageDialog(null, "Failed to add new job.", "Error", JOptionPane.ERROR_MESSAGE);
+                        }
+                    }, AddToTables::showWriteError);
                 }
 
-            } catch (SQLException ex) {
-                JOptionPane.showMessageDialog(null, "Error executing query:\n" + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            } catch (Exception ex) {
+                JOptionPane.showMessageDialog(null, "Error processing query:\n" + ex, "Error", JOptionPane.ERROR_MESSAGE);
             }
         });
     }
@@ -253,7 +334,7 @@ public class AddToTables extends JPanel {
                 JTextField phone = new JTextField();
 
                 Object[] queryValues = {
-                    "ApplicantID (mandatory int, unique):", applicantID,
+                    "ApplicantID (leave blank to generate):", applicantID,
                     "First Name (mandatory):", first_name,
                     "Last Name:", last_name,
                     "Industry:", industry,
@@ -267,30 +348,30 @@ public class AddToTables extends JPanel {
 
                 if (option == JOptionPane.OK_OPTION) {
                     String insertSQL = "INSERT INTO JobApplicant (applicantID, first_name, last_name, industry, birthDate, address, email, phone) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-                    PreparedStatement pstmt = dbConnection.getConnection().prepareStatement(insertSQL);
-                    pstmt.setInt(1, Integer.parseInt(applicantID.getText()));
-                    pstmt.setString(2, first_name.getText());
-                    pstmt.setString(3, last_name.getText());
-                    pstmt.setString(4, industry.getText());
-                    pstmt.setDate(5, Date.valueOf(birthDate.getText()));
-                    pstmt.setString(6, address.getText());
-                    pstmt.setString(7, email.getText());
-                    pstmt.setString(8, phone.getText());
-
-                    int rowsAffected = pstmt.executeUpdate();
-                    if (rowsAffected > 0) {
-                        JOptionPane.showMessageDialog(null, "New job applicant added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                        ResultSet rs = dbConnection.executeQuery(query);
-                        JTable table = new JTable(DB_GUI.buildTableModel(rs));
-                        JOptionPane.showMessageDialog(null, new JScrollPane(table), "Updated Table", JOptionPane.INFORMATION_MESSAGE);
-
-                    } else {
-                        JOptionPane.showMessageDialog(null, "Failed to add new job applicant.", "Error", JOptionPane.ERROR_MESSAGE);
-                    }
+                    AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().submit("Insert into JobApplicant", () -> {
+                        int key = idOrNext(applicantID, "JobApplicant");
+                        PreparedStatement pstmt = dbConnection.prepareCached(insertSQL);
+                        pstmt.setInt(1, key);
+                        pstmt.setString(2, first_name.getText());
+                        pstmt.setString(3, last_name.getText());
+                        pstmt.setString(4, industry.getText());
+                        pstmt.setDate(5, Date.valueOf(birthDate.getText()));
+                        pstmt.setString(6, address.getText());
+                        pstmt.setString(7, email.getText());
+                        pstmt.setString(8, phone.getText());
+
+                        return dbConnection.getChangeFeed().returning("JobApplicant", key, pstmt.executeUpdate());
+                    }), written -> { // back on the Swing thread once the write has committed
+                        if (written.getRowsAffected() > 0) {
+                            JOptionPane.showMessageDialog(null, "New job applicant added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                            showUpdatedTable(dbConnection.getChangeFeed().modelAfter(query, written)); // the written row put in place, rather than the whole table read again
+
+                        } else {
+                            JOptionPane.showMessageDialog(null, "Failed to add new job applicant.", "Error", JOptionPane.ERROR_MESSAGE);
+                        }
+                    }, AddToTables::showWriteError);
                 }
 
-            } catch (SQLException ex) {
-                JOptionPane.showMessageDialog(null, "Error executing query:\n" + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(null, "Error processing query:\n" + ex, "Error", JOptionPane.ERROR_MESSAGE);
             }
@@ -308,7 +389,7 @@ public class AddToTables extends JPanel {
                 JTextField status = new JTextField();
 
                 Object[] queryValues = {
-                    "JobAppID (mandatory int, unique):", jobAppID,
+                    "JobAppID (leave blank to generate):", jobAppID,
                     "JobID (mandatory, reference to Job table):", jobID,
                     "ApplicantID (mandatory, reference to JobApplicant table):", applicantID,
                     "Date (YYYY-MM-DD):", dateTime,
@@ -319,27 +400,27 @@ public class AddToTables extends JPanel {
 
                 if (option == JOptionPane.OK_OPTION) {
                     String insertSQL = "INSERT INTO JobApplication (jobAppID, jobID, applicantID, dateTime, status) VALUES (?, ?, ?, ?, ?)";
-                    PreparedStatement pstmt = dbConnection.getConnection().prepareStatement(insertSQL);
-                    pstmt.setInt(1, Integer.parseInt(jobAppID.getText()));
-                    pstmt.setInt(2, Integer.parseInt(jobID.getText()));
-                    pstmt.setInt(3, Integer.parseInt(applicantID.getText()));
-                    pstmt.setDate(4, Date.valueOf(dateTime.getText()));
-                    pstmt.setString(5, status.getText());
-
-                    int rowsAffected = pstmt.executeUpdate();
-                    if (rowsAffected > 0) {
-                        JOptionPane.showMessageDialog(null, "New job application added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                        ResultSet rs = dbConnection.executeQuery(query);
-                        JTable table = new JTable(DB_GUI.buildTableModel(rs));
-                        JOptionPane.showMessageDialog(null, new JScrollPane(table), "Updated Table", JOptionPane.INFORMATION_MESSAGE);
-
-                    } else {
-                        JOptionPane.showMessageDialog(null, "Failed to add new job application.", "Error", JOptionPane.ERROR_MESSAGE);
-                    }
+                    AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().submit("Insert into JobApplication", () -> {
+                        int key = idOrNext(jobAppID, "JobApplication");
+                        PreparedStatement pstmt = dbConnection.prepareCached(insertSQL);
+                        pstmt.setInt(1, key);
+                        pstmt.setInt(2, Integer.parseInt(jobID.getText()));
+                        pstmt.setInt(3, Integer.parseInt(applicantID.getText()));
+                        pstmt.setDate(4, Date.valueOf(dateTime.getText()));
+                        pstmt.setString(5, status.getText());
+
+                        return dbConnection.getChangeFeed().returning("JobApplication", key, pstmt.executeUpdate());
+                    }), written -> { // back on the Swing thread once the write has committed
+                        if (written.getRowsAffected() > 0) {
+                            JOptionPane.showMessageDialog(null, "New job application added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                            showUpdatedTable(dbConnection.getChangeFeed().modelAfter(query, written)); // the written row put in place, rather than the whole table read again
+
+                        } else {
+                            JOptionPane.showMessageDialog(null, "Failed to add new job application.", "Error", JOptionPane.ERROR_MESSAGE);
+                        }
+                    }, AddToTables::showWriteError);
                 }
 
-            } catch (SQLException ex) {
-                JOptionPane.showMessageDialog(null, "Error executing query:\n" + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(null, "Error processing query:\n" + ex, "Error", JOptionPane.ERROR_MESSAGE);
             }
@@ -371,7 +452,7 @@ public class AddToTables extends JPanel {
 
                 // same as before, input dialog with the fields
                 Object[] queryValues = {
-                    "ResumeID (mandatory int, unique):", resumeID,
+                    "ResumeID (leave blank to generate):", resumeID,
                     "ApplicantID (mandatory, reference to JobApplicant table):", applicantID,
                     "Upload File (enter file path):", pickFileButton,
                     "Upload Date (YYYY-MM-DD):", uploadDate
@@ -380,45 +461,40 @@ public class AddToTables extends JPanel {
                 int option = JOptionPane.showConfirmDialog(null, queryValues, "Insert New Resume", JOptionPane.OK_CANCEL_OPTION);
 
                 if (option == JOptionPane.OK_OPTION) {
-                    String insertSQL = "INSERT INTO Resume (resumeID, applicantID, uploadFile, uploadDate) VALUES (?, ?, ?, ?)";
-                    PreparedStatement pstmt = dbConnection.getConnection().prepareStatement(insertSQL);
-                    // the following here go into the question marks of the prepared statem in order, basically
-                    pstmt.setInt(1, Integer.parseInt(resumeID.getText()));
-                    pstmt.setInt(2, Integer.parseInt(applicantID.getText()));
-                    pstmt.setBlob(3, convertFileToInputStream(pickFileButton.getText().equals("Pick a file") ? null : pickFileButton.getText())); // this part - use a helper function to convert the fileName from the text button to an input stream
-                    pstmt.setDate(4, Date.valueOf(uploadDate.getText()));
-
-                    int rowsAffected = pstmt.executeUpdate();
-                    if (rowsAffected > 0) {
-                        JOptionPane.showMessageDialog(null, "New resume added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                        // show the updated table
-                        ResultSet rs = dbConnection.executeQuery(query);
-                        JTable table = new JTable(DB_GUI.buildTableModel(rs));
-                        JOptionPane.showMessageDialog(null, new JScrollPane(table), "Updated Table", JOptionPane.INFORMATION_MESSAGE);
-
-                    } else {
-                        JOptionPane.showMessageDialog(null, "Failed to add new resume.", "Error", JOptionPane.ERROR_MESSAGE);
-                    }
+                    String insertSQL = "INSERT INTO Resume (resumeID, applicantID, contentHash, uploadDate) VALUES (?, ?, ?, ?)";
+                    AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().submit("Insert into Resume", () -> {
+                        int key = idOrNext(resumeID, "Resume");
+                        PreparedStatement pstmt = dbConnection.prepareCached(insertSQL);
+                        // the following here go into the question marks of the prepared statem in order, basically
+                        pstmt.setInt(1, key);
+                        pstmt.setInt(2, Integer.parseInt(applicantID.getText()));
+                        pstmt.setDate(4, Date.valueOf(uploadDate.getText()));
+                        pstmt.setString(3, storePickedFile(pickFileButton.getText())); // this part - store the file picked (its path is the button text) once, and point the resume at it by hash
+                        return dbConnection.getChangeFeed().returning("Resume", key, pstmt.executeUpdate());
+                    }), written -> { // back on the Swing thread once the write has committed
+                        if (written.getRowsAffected() > 0) {
+                            JOptionPane.showMessageDialog(null, "New resume added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                            // show the updated table
+                            showUpdatedTable(dbConnection.getChangeFeed().modelAfter(query, written)); // the written row put in place, rather than the whole table read again
+
+                        } else {
+                            JOptionPane.showMessageDialog(null, "Failed to add new resume.", "Error", JOptionPane.ERROR_MESSAGE);
+                        }
+                    }, AddToTables::showWriteError);
                 }
 
-            } catch (SQLException ex) {
-                JOptionPane.showMessageDialog(null, "Error executing query:\n" + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(null, "Error processing query:\n" + ex, "Error", JOptionPane.ERROR_MESSAGE);
             }
         });
     }
 
-    // the helper function in question - converts a filepath/filename into a FileInputStream for the blob insertion
-    private FileInputStream convertFileToInputStream(String fileName)  {
-        File file = new File(fileName);
-        try {
-            return new FileInputStream(file);
-        } catch (Exception e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(null, "Error reading file:\n" + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-            return null;
+    // the helper function in question - streams the file picked (the button text) into ResumeBlob unless it's already there, returns its hash
+    private String storePickedFile(String fileName) throws SQLException {
+        if (fileName.equals("Pick a file")) {
+            throw new SQLException("Pick a file to upload first.");
         }
+        return new ResumeStorage(dbConnection).store(new File(fileName)).getHash();
     }
 
     private void attachInterviewButton(JButton button, String query) {
@@ -431,7 +507,7 @@ public class AddToTables extends JPanel {
                 JTextField location = new JTextField();
 
                 Object[] queryValues = {
-                    "InterviewID (mandatory int, unique):", interviewID,
+                    "InterviewID (leave blank to generate):", interviewID,
                     "JobAppID (mandatory, reference to JobApplication table):", jobAppID,
                     "Date (YYYY-MM-DD):", dateTime,
                     "Location:", location
@@ -441,31 +517,47 @@ public class AddToTables extends JPanel {
 
                 if (option == JOptionPane.OK_OPTION) {
                     String insertSQL = "INSERT INTO Interview (interviewID, jobAppID, dateTime, location) VALUES (?, ?, ?, ?)";
-                    PreparedStatement pstmt = dbConnection.getConnection().prepareStatement(insertSQL);
-                    pstmt.setInt(1, Integer.parseInt(interviewID.getText()));
-                    pstmt.setInt(2, Integer.parseInt(jobAppID.getText()));
-                    pstmt.setDate(3, Date.valueOf(dateTime.getText()));
-                    pstmt.setString(4, location.getText());
-
-                    int rowsAffected = pstmt.executeUpdate();
-                    if (rowsAffected > 0) {
-                        JOptionPane.showMessageDialog(null, "New interview added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                        // show the updated table
-                        ResultSet rs = dbConnection.executeQuery(query);
-                        JTable table = new JTable(DB_GUI.buildTableModel(rs));
-                        JOptionPane.showMessageDialog(null, new JScrollPane(table), "Updated Table", JOptionPane.INFORMATION_MESSAGE);
-
-                    } else {
-                        JOptionPane.showMessageDialog(null, "Failed to add new interview.", "Error", JOptionPane.ERROR_MESSAGE);
-                    }
+                    AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().submit("Insert into Interview", () -> {
+                        int key = idOrNext(interviewID, "Interview");
+                        PreparedStatement pstmt = dbConnection.prepareCached(insertSQL);
+                        pstmt.setInt(1, key);
+                        pstmt.setInt(2, Integer.parseInt(jobAppID.getText()));
+                        pstmt.setDate(3, Date.valueOf(dateTime.getText()));
+                        pstmt.setString(4, location.getText());
+
+                        return dbConnection.getChangeFeed().returning("Interview", key, pstmt.executeUpdate());
+                    }), written -> { // back on the Swing thread once the write has committed
+                        if (written.getRowsAffected() > 0) {
+                            JOptionPane.showMessageDialog(null, "New interview added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                            // show the updated table
+                            showUpdatedTable(dbConnection.getChangeFeed().modelAfter(query, written)); // the written row put in place, rather than the whole table read again
+
+                        } else {
+                            JOptionPane.showMessageDialog(null, "Failed to add new interview.", "Error", JOptionPane.ERROR_MESSAGE);
+                        }
+                    }, AddToTables::showWriteError);
                 }
 
-            } catch (SQLException ex) {
-                JOptionPane.showMessageDialog(null, "Error executing query:\n" + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(null, "Error processing query:\n" + ex, "Error", JOptionPane.ERROR_MESSAGE);
             }
         });
     }
 
+    // show the updated table once it is ready - it is loaded (or the written row put in place) off the Swing thread, see ChangeFeed
+    private static void showUpdatedTable(CompletableFuture<TableModel> updated) {
+        AsyncQueryExecutor.deliver(updated, model -> {
+            JTable table = new JTable(model);
+            JOptionPane.showMessageDialog(null, new JScrollPane(table), "Updated Table", JOptionPane.INFORMATION_MESSAGE);
+        }, ex -> JOptionPane.showMessageDialog(null, "Error loading table:\n" + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    // errors from a background write, back on the Swing thread - database errors, or careless input (e.g. a number field that isn't a number)
+    private static void showWriteError(Throwable ex) {
+        if (ex instanceof SQLException) {
+            JOptionPane.showMessageDialog(null, "Error executing query:\n" + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        } else {
+            JOptionPane.showMessageDialog(null, "Error processing query:\n" + ex, "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
 }
\ No newline at end of file
@@ -1,7 +1,6 @@
 
 import java.awt.*;
 import java.io.File;
-import java.io.FileInputStream;
 import java.math.BigDecimal;
 
 import javax.swing.*;
@@ -59,30 +58,27 @@ public class Applicant_GUI extends JPanel{
     }
 
     private void showJobDetails(int jobID) {
-        try {
-            String sql =
-                "SELECT j.jobID, j.title, c.name, j.location, j.salary, j.workingHours, " +
-                "TO_CHAR(j.datePosted, 'YYYY-MM-DD'), j.description " +
-                "FROM Job j " +
-                "JOIN Company c ON j.companyID = c.companyID " +
-                "WHERE j.jobID = " + jobID;
-
-            ResultSet rs = dbConnection.executeQuery(sql);
-
-            if (!rs.next()) {
-                JOptionPane.showMessageDialog(this, "Error loading job details.", "Error", JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-
-            /* Build job details message */
-            String details =
+        String sql =
+            "SELECT j.jobID, j.title, j.companyID, j.location, j.salary, j.workingHours, " +
+            "TO_CHAR(j.datePosted, 'YYYY-MM-DD'), j.description " +
+            "FROM Job j " +
+            "WHERE j.jobID = ?";
+        ReferenceDataCache references = dbConnection.getReferenceData();
+
+        /* Build job details message in the background, then show it. The company name comes from the reference data cache */
+        AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().query("Job details", sql, rs -> !rs.next() ? null :
                 "Job Title: " + rs.getString(2) + "\n" +
-                "Company: " + rs.getString(3) + "\n" +
+                "Company: " + companyName(references, rs.getInt(3)) + "\n" +
                 "Location: " + rs.getString(4) + "\n" +
                 "Salary: $" + rs.getDouble(5) + "/hr\n" +
                 "Hours/Week: " + rs.getDouble(6) + "\n" +
                 "Date Posted: " + rs.getString(7) + "\n\n" +
-                "Description:\n" + rs.getString(8);
+                "Description:\n" + rs.getString(8), jobID), details -> {
+
+            if (details == null) {
+                JOptionPane.showMessageDialog(this, "Error loading job details.", "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
 
             /* Create detail window */
             JTextArea textArea = new JTextArea(details);
@@ -99,73 +95,48 @@ public class Applicant_GUI extends JPanel{
                 applyForJob(jobID);
             }
 
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, ex -> JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    /* Name of a company through the reference data cache, "" if it no longer exists */
+    private static String companyName(ReferenceDataCache references, int companyID) throws SQLException {
+        ReferenceDataCache.Company company = references.company(companyID);
+        return company == null ? "" : company.name;
     }
 
     /* From browseJobs() screen, applicant wants to apply for job they selected */
     private void applyForJob(int jobID) {
         int applicantID = this.applicantID;
 
-        try {
-            /* Check if already applied */
-            String dupCheckSQL = "SELECT COUNT(*) FROM JobApplication WHERE jobID = ? AND applicantID = ?";
-            PreparedStatement dupStmt = dbConnection.getConnection().prepareStatement(dupCheckSQL);
-            dupStmt.setInt(1, jobID);
-            dupStmt.setInt(2, applicantID);
-            ResultSet dupRS = dupStmt.executeQuery();
-            dupRS.next();
-
-            if (dupRS.getInt(1) > 0) {
+        /* A single INSERT in the background. The key comes from the client-side key block and repeated applications are
+         * rejected by the UNIQUE (jobID, applicantID) constraint, so no check query is needed. Result is null if already applied */
+        AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().submit("Apply for job", () -> insertApplication(jobID, applicantID)), jobAppID -> {
+
+            if (jobAppID == null) {
                 JOptionPane.showMessageDialog(this, "You have already applied for this job.", "Duplicate Application", JOptionPane.WARNING_MESSAGE);
                 return;
             }
 
-            /* Next jobAppID */
-            String nextIDSQL = "SELECT NVL(MAX(jobAppID), 0) + 1 FROM JobApplication";
-            ResultSet nextRS = dbConnection.executeQuery(nextIDSQL);
-            nextRS.next();
-            int nextID = nextRS.getInt(1);
-
-            /* Insert into JobApplication */
-            String insertSQL =
-                "INSERT INTO JobApplication (jobAppID, jobID, applicantID, dateTime, status) " +
-                "VALUES (?, ?, ?, SYSDATE, 'Submitted')";
-
-            PreparedStatement stmt = dbConnection.getConnection().prepareStatement(insertSQL);
-            stmt.setInt(1, nextID);
-            stmt.setInt(2, jobID);
-            stmt.setInt(3, applicantID);
-            stmt.executeUpdate();
-
             /* Ask user if they want to upload resume */
-            int choice = JOptionPane.showConfirmDialog(this, "Application submitted!\nWould you like to upload a resume?", "Upload Resume?", JOptionPane.YES_NO_OPTION);
+            int choice = JOptionPane.showConfirmDialog(this, "Application #" + jobAppID + " submitted!\nWould you like to upload a resume?", "Upload Resume?", JOptionPane.YES_NO_OPTION);
 
             if (choice == JOptionPane.YES_OPTION) {
                 uploadResume(applicantID);
+            } else {
+                JOptionPane.showMessageDialog(this, "Application complete.", "Success", JOptionPane.INFORMATION_MESSAGE);
             }
 
-            JOptionPane.showMessageDialog(this, "Application complete.", "Success", JOptionPane.INFORMATION_MESSAGE);
-
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage(), "SQL Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, ex -> JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage(), "SQL Error", JOptionPane.ERROR_MESSAGE));
     }
 
     /* Applicant accesses Apply for Job screen (from main menu), has to select Job to apply for */
     private void openApplyJobWindow() {
-        try {
-            String sql =
-                "SELECT j.jobID, j.title AS \"Job Title\", c.name AS \"Company\", " +
-                "j.location AS \"Location\", j.salary AS \"Salary ($/hr)\", " +
-                "j.workingHours AS \"Hours/Week\", TO_CHAR(j.datePosted, 'YYYY-MM-DD') AS \"Date Posted\", j.description " +
-                "FROM Job j " +
-                "JOIN Company c ON j.companyID = c.companyID " +
-                "ORDER BY j.datePosted DESC";
+        JobBoard jobBoard = dbConnection.getJobBoard();
+        ReferenceDataCache references = dbConnection.getReferenceData();
 
-            ResultSet rs = dbConnection.executeQuery(sql);
-            DefaultTableModel model = DB_GUI.buildTableModel(rs);
+        /* The shared job board snapshot (refreshed in the background, see JobBoard); company IDs are turned into names from the reference data cache */
+        AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().submit("Job listings",
+            () -> references.withCompanyNames(jobBoard.snapshot().toTableModel(), JobBoard.COMPANY_COLUMN)), model -> {
 
             /* Read-only table model */
             DefaultTableModel readOnlyModel = new DefaultTableModel(model.getDataVector(), getColumnNames(model)) {
@@ -206,9 +177,7 @@ public class Applicant_GUI extends JPanel{
 
             JOptionPane.showMessageDialog(this, panel, "Apply for Job", JOptionPane.PLAIN_MESSAGE);
 
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage(), "SQL Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, ex -> JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage(), "SQL Error", JOptionPane.ERROR_MESSAGE));
     }
 
     
@@ -221,6 +190,35 @@ public class Applicant_GUI extends JPanel{
         return names;
     }
 
+    /* Inserts the application in one round trip and returns its jobAppID, or null if the applicant already applied for the job */
+    private Integer insertApplication(int jobID, int applicantID) throws SQLException {
+        int jobAppID = dbConnection.getKeyAllocator().nextId("JobApplication");
+
+        String insertSQL =
+            "INSERT INTO JobApplication (jobAppID, jobID, applicantID, dateTime, status) " +
+            "VALUES (?, ?, ?, SYSDATE, 'Submitted')";
+
+        PreparedStatement stmt = dbConnection.prepareCached(insertSQL);
+        stmt.setInt(1, jobAppID);
+        stmt.setInt(2, jobID);
+        stmt.setInt(3, applicantID);
+        try {
+            stmt.executeUpdate();
+            return jobAppID;
+        } catch (SQLException ex) {
+            if (dbConnection.getDialect().isUniqueViolation(ex) && isRepeatedApplication(ex)) {
+                return null;
+            }
+            throw ex;
+        }
+    }
+
+    /* The unique violation came from the (jobID, applicantID) constraint rather than from a clashing jobAppID */
+    private static boolean isRepeatedApplication(SQLException ex) {
+        String message = ex.getMessage();
+        return message != null && message.toUpperCase().contains(DatabaseInitializer.UNIQUE_APPLICATION.toUpperCase());
+    }
+
     /* For applicants to upload resumes */
     private void uploadResume(int applicantID) {
         JFileChooser chooser = new JFileChooser();
@@ -232,66 +230,41 @@ public class Applicant_GUI extends JPanel{
             return;
         }
 
-        try {
-            File file = chooser.getSelectedFile();
-            FileInputStream fis = new FileInputStream(file);
-
-            /* Generate next resumeID */
-            ResultSet rs = dbConnection.executeQuery(
-                "SELECT NVL(MAX(resumeID),0) + 1 FROM Resume"
-            );
-            rs.next();
-            int nextResumeID = rs.getInt(1);
-
-            PreparedStatement ps = dbConnection.getConnection().prepareStatement(
-                "INSERT INTO Resume (resumeID, applicantID, uploadFile, uploadDate) " +
-                "VALUES (?, ?, ?, SYSDATE)"
-            );
+        File file = chooser.getSelectedFile();
 
-            ps.setInt(1, nextResumeID);
-            ps.setInt(2, applicantID);
-            ps.setBinaryStream(3, fis, (int) file.length());
-
-            ps.executeUpdate();
-
-            JOptionPane.showMessageDialog(this,
-                "Resume uploaded successfully!",
+        /* Streamed from disk in chunks, so any size of file works */
+        AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().submit("Upload resume",
+            () -> new ResumeStorage(dbConnection).upload(applicantID, file)), upload -> JOptionPane.showMessageDialog(this,
+                "Resume uploaded successfully!\n" + upload.describe(),
                 "Upload Complete",
                 JOptionPane.INFORMATION_MESSAGE
-            );
-
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this,
+            ), ex -> JOptionPane.showMessageDialog(this,
                 "Resume upload failed: " + ex.getMessage(),
                 "Upload Error",
-                JOptionPane.ERROR_MESSAGE);
-        }
+                JOptionPane.ERROR_MESSAGE));
     }
 
     /* View all applications submitted by the applicant */
     private void viewMyApplications() {
         int applicantID = this.applicantID;
 
-        try {
-            String sql =
-                "SELECT " +
-                "    j.title AS \"Job Title\", " +
-                "    c.name AS \"Company\", " +
-                "    j.location AS \"Location\", " +
-                "    a.status AS \"Status\", " +
-                "    TO_CHAR(a.dateTime, 'YYYY-MM-DD') AS \"Date Applied\", " +
-                "    j.jobID AS jobID /* hidden */ " +
-                "FROM JobApplication a " +
-                "JOIN Job j ON a.jobID = j.jobID " +
-                "JOIN Company c ON j.companyID = c.companyID " +
-                "WHERE a.applicantID = ? " +
-                "ORDER BY a.dateTime DESC";
-
-            PreparedStatement stmt = dbConnection.getConnection().prepareStatement(sql);
-            stmt.setInt(1, applicantID);
-            ResultSet rs = stmt.executeQuery();
-
-            DefaultTableModel model = DB_GUI.buildTableModel(rs);
+        String sql =
+            "SELECT " +
+            "    j.title AS \"Job Title\", " +
+            "    j.companyID AS \"Company\", " +
+            "    j.location AS \"Location\", " +
+            "    a.status AS \"Status\", " +
+            "    TO_CHAR(a.dateTime, 'YYYY-MM-DD') AS \"Date Applied\", " +
+            "    j.jobID AS jobID /* hidden */ " +
+            "FROM JobApplication a " +
+            "JOIN Job j ON a.jobID = j.jobID " +
+            "WHERE a.applicantID = ? " +
+            "ORDER BY a.dateTime DESC";
+        ReferenceDataCache references = dbConnection.getReferenceData();
+
+        /* Company names (column 1) come from the reference data cache */
+        AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().submit("My applications",
+            () -> references.withCompanyNames(dbConnection.query(sql, DB_GUI::buildTableModel, applicantID), 1)), model -> {
 
             /* Read-only model */
             DefaultTableModel readOnlyModel =
@@ -345,9 +318,7 @@ public class Applicant_GUI extends JPanel{
                 JOptionPane.INFORMATION_MESSAGE
             );
 
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage(), "SQL Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, ex -> JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage(), "SQL Error", JOptionPane.ERROR_MESSAGE));
     }
 
     /* Shows the selected job application details */
@@ -384,27 +355,24 @@ public class Applicant_GUI extends JPanel{
     private void viewMyInterviews() {
         int applicantID = this.applicantID;
 
-        try {
-            String sql =
-                "SELECT " +
-                "    j.title AS \"Job Title\", " +
-                "    c.name AS \"Company\", " +
-                "    i.location AS \"Interview Location\", " +
-                "    TO_CHAR(i.dateTime, 'YYYY-MM-DD HH24:MI') AS \"Interview Date\", " +
-                "    a.status AS \"Application Status\", " +
-                "    j.jobID AS jobID /* hidden */ " +
-                "FROM Interview i " +
-                "JOIN JobApplication a ON i.jobAppID = a.jobAppID " +
-                "JOIN Job j ON a.jobID = j.jobID " +
-                "JOIN Company c ON j.companyID = c.companyID " +
-                "WHERE a.applicantID = ? " +
-                "ORDER BY i.dateTime ASC";
-
-            PreparedStatement stmt = dbConnection.getConnection().prepareStatement(sql);
-            stmt.setInt(1, applicantID);
-            ResultSet rs = stmt.executeQuery();
-
-            DefaultTableModel model = DB_GUI.buildTableModel(rs);
+        String sql =
+            "SELECT " +
+            "    j.title AS \"Job Title\", " +
+            "    j.companyID AS \"Company\", " +
+            "    i.location AS \"Interview Location\", " +
+            "    TO_CHAR(i.dateTime, 'YYYY-MM-DD HH24:MI') AS \"Interview Date\", " +
+            "    a.status AS \"Application Status\", " +
+            "    j.jobID AS jobID /* hidden */ " +
+            "FROM Interview i " +
+            "JOIN JobApplication a ON i.jobAppID = a.jobAppID " +
+            "JOIN Job j ON a.jobID = j.jobID " +
+            "WHERE a.applicantID = ? " +
+            "ORDER BY i.dateTime ASC";
+        ReferenceDataCache references = dbConnection.getReferenceData();
+
+        /* Company names (column 1) come from the reference data cache */
+        AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().submit("My interviews",
+            () -> references.withCompanyNames(dbConnection.query(sql, DB_GUI::buildTableModel, applicantID), 1)), model -> {
 
             /* Read-only model */
             DefaultTableModel readOnlyModel =
@@ -453,9 +421,7 @@ public class Applicant_GUI extends JPanel{
 
             JOptionPane.showMessageDialog(this, panel, "My Interviews", JOptionPane.INFORMATION_MESSAGE);
 
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage(), "SQL Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, ex -> JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage(), "SQL Error", JOptionPane.ERROR_MESSAGE));
     }
 
     /* Shows the selected interview details */
@@ -492,31 +458,37 @@ public class Applicant_GUI extends JPanel{
     private void openUpdateProfileWindow() {
         int applicantID = this.applicantID;
 
-        try {
-            /* Fetch current data */
-            String sql =
-                "SELECT first_name, last_name, industry, " +
-                "TO_CHAR(birthdate, 'YYYY-MM-DD'), address, email, phone " +
-                "FROM JobApplicant WHERE applicantID = ?";
-
-            PreparedStatement stmt = dbConnection.getConnection().prepareStatement(sql);
-            stmt.setInt(1, applicantID);
+        /* Fetch current data */
+        String sql =
+            "SELECT first_name, last_name, industry, " +
+            "TO_CHAR(birthdate, 'YYYY-MM-DD'), address, email, phone " +
+            "FROM JobApplicant WHERE applicantID = ?";
 
-            ResultSet rs = stmt.executeQuery();
+        AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().query("Load profile", sql, rs -> {
             if (!rs.next()) {
+                return null;
+            }
+            String[] values = new String[7];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = rs.getString(i + 1);
+            }
+            return values;
+        }, applicantID), profile -> {
+
+            if (profile == null) {
                 JOptionPane.showMessageDialog(this, "Applicant profile not found.",
                         "Error", JOptionPane.ERROR_MESSAGE);
                 return;
             }
 
             /* Build form fields */
-            JTextField firstField = new JTextField(rs.getString(1), 20);
-            JTextField lastField = new JTextField(rs.getString(2), 20);
-            JTextField industryField = new JTextField(rs.getString(3), 20);
-            JTextField birthField = new JTextField(rs.getString(4), 20);
-            JTextField addressField = new JTextField(rs.getString(5), 20);
-            JTextField emailField = new JTextField(rs.getString(6), 20);
-            JTextField phoneField = new JTextField(rs.getString(7), 20);
+            JTextField firstField = new JTextField(profile[0], 20);
+            JTextField lastField = new JTextField(profile[1], 20);
+            JTextField industryField = new JTextField(profile[2], 20);
+            JTextField birthField = new JTextField(profile[3], 20);
+            JTextField addressField = new JTextField(profile[4], 20);
+            JTextField emailField = new JTextField(profile[5], 20);
+            JTextField phoneField = new JTextField(profile[6], 20);
 
             JPanel form = new JPanel(new GridLayout(7, 2, 10, 10));
             form.add(new JLabel("First Name:"));   form.add(firstField);
@@ -551,11 +523,9 @@ public class Applicant_GUI extends JPanel{
                 );
             }
 
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this,
-                    "Error loading profile: " + ex.getMessage(),
-                    "SQL Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, ex -> JOptionPane.showMessageDialog(this,
+                "Error loading profile: " + ex.getMessage(),
+                "SQL Error", JOptionPane.ERROR_MESSAGE));
     }
 
     /* Saves updated profile information to the database */
@@ -572,14 +542,14 @@ public class Applicant_GUI extends JPanel{
             return;
         }
 
-        try {
-            String sql =
-                "UPDATE JobApplicant " +
-                "SET first_name=?, last_name=?, industry=?, birthdate=TO_DATE(?, 'YYYY-MM-DD'), " +
-                "address=?, email=?, phone=? " +
-                "WHERE applicantID=?";
+        String sql =
+            "UPDATE JobApplicant " +
+            "SET first_name=?, last_name=?, industry=?, birthdate=TO_DATE(?, 'YYYY-MM-DD'), " +
+            "address=?, email=?, phone=? " +
+            "WHERE applicantID=?";
 
-            PreparedStatement stmt = dbConnection.getConnection().prepareStatement(sql);
+        AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().submit("Update profile", () -> {
+            PreparedStatement stmt = dbConnection.prepareCached(sql);
             stmt.setString(1, first);
             stmt.setString(2, last);
             stmt.setString(3, industry);
@@ -589,12 +559,8 @@ public class Applicant_GUI extends JPanel{
             stmt.setString(7, phone);
             stmt.setInt(8, applicantID);
 
-            stmt.executeUpdate();
-
-            JOptionPane.showMessageDialog(this, "Profile updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, "Error updating profile: " + ex.getMessage(), "SQL Error", JOptionPane.ERROR_MESSAGE);
-        }
+            return stmt.executeUpdate();
+        }), updated -> JOptionPane.showMessageDialog(this, "Profile updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE),
+            ex -> JOptionPane.showMessageDialog(this, "Error updating profile: " + ex.getMessage(), "SQL Error", JOptionPane.ERROR_MESSAGE));
     }
 }
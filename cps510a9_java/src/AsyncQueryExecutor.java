@@ -0,0 +1,215 @@
+import javax.swing.SwingUtilities;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/*
+ * Runs database work on a bounded set of background threads so the Swing Event Dispatch Thread never waits on JDBC.
+ *  Every submitted task returns a CompletableFuture; use deliver() (or the EDT executor) to get the result back onto the EDT
+ *  Each task runs as its own transaction (a UnitOfWork) on a pooled connection: committed when it succeeds, rolled back when it fails.
+ *  Long tasks that commit as they go (BulkImporter) use submitWithOwnTransactions() and open their units themselves
+ *  Progress listeners are told (on the EDT) whenever the number of in-flight tasks changes
+ *  Cancelling a task's future aborts the statement it is running (Statement.cancel()) and rolls the task back
+ */
+public class AsyncQueryExecutor {
+
+    /* Database work to run in the background. It may use any DBConnection method; getConnection() gives it a pooled connection */
+    public interface DatabaseTask<T> {
+        T call() throws SQLException;
+    }
+
+    /* Notified on the EDT whenever a task starts or finishes */
+    public interface ProgressListener {
+        void progressChanged(int inFlight, String description);
+    }
+
+    /* Executor that runs continuations on the Swing Event Dispatch Thread */
+    public static final Executor EDT = SwingUtilities::invokeLater;
+
+    private final DBConnection dbConnection;
+    private final ThreadPoolExecutor workers;
+
+    /* Task description -> number of copies currently queued or running */
+    private final Map<String, Integer> inFlight = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlightCount = new AtomicInteger();
+    private final CopyOnWriteArrayList<ProgressListener> listeners = new CopyOnWriteArrayList<>();
+
+    public AsyncQueryExecutor(DBConnection dbConnection, int threads) {
+        this.dbConnection = dbConnection;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "db-query-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.workers.allowCoreThreadTimeOut(true);
+    }
+
+    /* Runs the task on a worker thread. The future completes on that worker, not on the EDT */
+    public <T> QueryTask<T> submit(String description, DatabaseTask<T> task) {
+        return execute(description, () -> dbConnection.inTransaction(description, task));
+    }
+
+    /* Runs the task on a worker thread outside any unit of work: it groups its statements with dbConnection.inTransaction()
+     * itself, each unit committing on its own, e.g. one per batch of an import. Whatever it holds is released when it ends */
+    public <T> QueryTask<T> submitWithOwnTransactions(String description, DatabaseTask<T> task) {
+        return execute(description, () -> {
+            try {
+                return task.call();
+            } finally {
+                dbConnection.releaseConnection();
+            }
+        });
+    }
+
+    private <T> QueryTask<T> execute(String description, DatabaseTask<T> work) {
+        started(description);
+        QueryTask<T> future = new QueryTask<>(description);
+        try {
+            workers.execute(() -> {
+                /* Cancelled while still queued */
+                if (future.isDone()) {
+                    return;
+                }
+                CancellationToken.bind(future.token);
+                try {
+                    /* Worker threads are shared: the unit of work (or the task's own units) hands the connection back to the pool */
+                    future.complete(work.call());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                } finally {
+                    CancellationToken.unbind();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new SQLException("Database executor is shut down."));
+        }
+        future.whenComplete((result, error) -> finished(description));
+        return future;
+    }
+
+    /* Runs a SELECT in the background, see DBConnection.query */
+    public <T> QueryTask<T> query(String description, String sql, DBConnection.ResultSetHandler<T> handler, Object... params) {
+        return query(description, QueryOptions.DEFAULT, sql, handler, params);
+    }
+
+    /* Runs a SELECT in the background with per-query options such as a timeout */
+    public <T> QueryTask<T> query(String description, QueryOptions options, String sql, DBConnection.ResultSetHandler<T> handler, Object... params) {
+        return submit(description, () -> dbConnection.query(options, sql, handler, params));
+    }
+
+    /* Runs an INSERT/UPDATE/DELETE or DDL statement in the background */
+    public QueryTask<Void> update(String description, String sql) {
+        return submit(description, () -> {
+            dbConnection.executeUpdate(sql);
+            return null;
+        });
+    }
+
+    /* Hands the outcome of a background task to the EDT: onSuccess gets the result, onFailure the underlying exception.
+     * Background tasks that run for a while get a small window with a Cancel button (see CancelQueryDialog) */
+    public static <T> void deliver(CompletableFuture<T> future, Consumer<? super T> onSuccess, Consumer<? super Throwable> onFailure) {
+        if (future instanceof QueryTask) {
+            CancelQueryDialog.showIfSlow((QueryTask<?>) future);
+        }
+        future.whenCompleteAsync((result, error) -> {
+            if (error == null) {
+                onSuccess.accept(result);
+            } else {
+                onFailure.accept(unwrap(error));
+            }
+        }, EDT);
+    }
+
+    /* Strips the CompletionException/ExecutionException wrappers CompletableFuture adds around task failures.
+     * A cancelled task is reported as an SQLException so callers show a readable message and reset their buttons */
+    public static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException) && error.getCause() != null) {
+            error = error.getCause();
+        }
+        if (error instanceof CancellationException) {
+            return new SQLException("Query was cancelled.", error);
+        }
+        return error;
+    }
+
+    private void started(String description) {
+        inFlight.merge(description, 1, Integer::sum);
+        fireProgress(inFlightCount.incrementAndGet(), description);
+    }
+
+    private void finished(String description) {
+        inFlight.computeIfPresent(description, (key, count) -> count == 1 ? null : count - 1);
+        fireProgress(inFlightCount.decrementAndGet(), description);
+    }
+
+    private void fireProgress(int count, String description) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        EDT.execute(() -> {
+            for (ProgressListener listener : listeners) {
+                listener.progressChanged(count, description);
+            }
+        });
+    }
+
+    public void addProgressListener(ProgressListener listener) {
+        listeners.addIfAbsent(listener);
+    }
+
+    public void removeProgressListener(ProgressListener listener) {
+        listeners.remove(listener);
+    }
+
+    /* Number of tasks queued or running */
+    public int getInFlightCount() {
+        return inFlightCount.get();
+    }
+
+    /* Whether a task with this description is queued or running (used to ignore repeated clicks) */
+    public boolean isInFlight(String description) {
+        return inFlight.containsKey(description);
+    }
+
+    /* Descriptions of the tasks queued or running, e.g. "Query 3, Company jobs" */
+    public String describeInFlight() {
+        return String.join(", ", inFlight.keySet());
+    }
+
+    /* Stops accepting work. Tasks already running are interrupted */
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /* Future of one background task. cancel() stops the statement the task is running, not just the wait for its result */
+    public static final class QueryTask<T> extends CompletableFuture<T> {
+        private final String description;
+        private final CancellationToken token = new CancellationToken();
+        private final long startMillis = System.currentTimeMillis();
+
+        private QueryTask(String description) {
+            this.description = description;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                token.cancel();
+            }
+            return cancelled;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        /* Milliseconds since the task was submitted */
+        public long getElapsedMillis() {
+            return System.currentTimeMillis() - startMillis;
+        }
+    }
+}
@@ -0,0 +1,430 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Loads CSV or TSV files into the application's tables.
+ *  - The first line names the columns (case-insensitive, any order); columns left out are inserted as NULL
+ *  - Files are read a chunk of records at a time, so their size does not matter. Each chunk is validated and converted
+ *    (see TableSpec) on a pool of worker threads while earlier chunks are being inserted
+ *  - Rows are inserted with JDBC batches of -Ddb.import.batchSize rows (default 500), each its own unit of work
+ *    (DBConnection.inTransaction), committed on its own. If a batch fails, its unit rolls it back and its rows are
+ *    retried one at a time in a second unit, so only the bad rows are rejected
+ *  - Several files are loaded in foreign key order (companies before recruiters before jobs, ...)
+ *  - An empty primary key column gets a generated key (KeyAllocator). A file either gives every key or none: the first
+ *    record decides, and records that do the other are rejected, so generated keys never meet keys from the same file.
+ *    After a file with keys of its own, the table's sequence is moved past them (KeyAllocator.skipExistingKeys)
+ *  - Keys are generated on the inserting thread, so the worker threads never wait on each other for a block of keys
+ *  - File columns (resumes) are checked while converting. When their row is inserted the content is stored through
+ *    ResumeStorage (streamed from disk, once per distinct content) and the row gets the content hash
+ * Run it on a background thread outside a unit of work (AsyncQueryExecutor.submitWithOwnTransactions), since it commits
+ * batch by batch; it can be stopped with the task's CancellationToken.
+ */
+public class BulkImporter {
+
+    private static final int BATCH_SIZE = Math.max(1, Integer.getInteger("db.import.batchSize", 500));
+    /* Rows with file contents (resumes) are large, so fewer are held and sent at once */
+    private static final int FILE_BATCH_SIZE = Math.max(1, Integer.getInteger("db.import.fileBatchSize", 20));
+    private static final int THREADS = Math.max(1, Integer.getInteger("db.import.threads", Runtime.getRuntime().availableProcessors()));
+    /* Rejected lines kept for the report (all are counted) */
+    private static final int MAX_REPORTED_REJECTS = 100;
+
+    private final DBConnection dbConnection;
+    private final ResumeStorage resumeStorage;
+
+    public BulkImporter(DBConnection dbConnection) {
+        this.dbConnection = dbConnection;
+        this.resumeStorage = new ResumeStorage(dbConnection);
+    }
+
+    /* Imports each file into its table, parents first. Stops at the first file that cannot be read */
+    public List<Report> importAll(Map<TableSpec, File> files) throws IOException, SQLException {
+        List<TableSpec> tables = new ArrayList<>(files.keySet());
+        tables.sort((a, b) -> Integer.compare(a.dependencyOrder(), b.dependencyOrder()));
+        List<Report> reports = new ArrayList<>();
+        for (TableSpec table : tables) {
+            reports.add(importFile(table, files.get(table)));
+        }
+        return reports;
+    }
+
+    /* Imports one CSV (or, for .tsv/.tab files or a tab-separated header, TSV) file into the table */
+    public Report importFile(TableSpec table, File file) throws IOException, SQLException {
+        if (UnitOfWork.isActive()) {
+            throw new IllegalStateException("BulkImporter commits each batch on its own and cannot run inside a unit of work.");
+        }
+        Report report = new Report(table, file);
+        int batchSize = table.hasFiles() ? FILE_BATCH_SIZE : BATCH_SIZE;
+        String insertSql = table.insertSql();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService converters = Executors.newFixedThreadPool(THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "bulk-import-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        /* Chunks being converted, oldest first. Bounded so a fast reader cannot run ahead of the inserts */
+        Deque<Future<Chunk>> pending = new ArrayDeque<>();
+
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            RecordReader records = new RecordReader(new BufferedReader(reader), file.getName());
+            List<String> header = records.next();
+            if (header == null) {
+                throw new IOException(file.getName() + " is empty.");
+            }
+            int[] columnPositions = mapColumns(table, header, file.getName());
+            File baseDirectory = file.getAbsoluteFile().getParentFile();
+            String keyColumn = table.getKeyColumn().getName();
+            /* Whether the file gives its own keys, decided by its first record */
+            Boolean explicitKeys = null;
+
+            List<Record> chunk = new ArrayList<>(batchSize);
+            List<String> fields;
+            while ((fields = records.next()) != null) {
+                boolean hasKey = hasKey(fields, columnPositions[0]);
+                if (explicitKeys == null) {
+                    explicitKeys = hasKey;
+                } else if (hasKey != explicitKeys) {
+                    report.read++;
+                    report.reject("line " + records.getRecordLine() + ": " + keyColumn + (explicitKeys
+                        ? " is empty, but the first record gives one (a file gives every key or none)"
+                        : " is given, but the first record leaves it empty (a file gives every key or none)"));
+                    continue;
+                }
+                chunk.add(new Record(records.getRecordLine(), fields));
+                if (chunk.size() == batchSize) {
+                    List<Record> toConvert = chunk;
+                    pending.add(converters.submit(() -> convert(table, columnPositions, toConvert, baseDirectory)));
+                    chunk = new ArrayList<>(batchSize);
+                    if (pending.size() >= THREADS * 2) {
+                        insert(table, insertSql, await(pending.poll()), report);
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) {
+                List<Record> toConvert = chunk;
+                pending.add(converters.submit(() -> convert(table, columnPositions, toConvert, baseDirectory)));
+            }
+            while (!pending.isEmpty()) {
+                insert(table, insertSql, await(pending.poll()), report);
+            }
+            if (Boolean.TRUE.equals(explicitKeys) && report.inserted > 0) {
+                dbConnection.getKeyAllocator().skipExistingKeys(table.getName());
+            }
+        } finally {
+            converters.shutdownNow();
+        }
+        report.finish();
+        if (table.getName().equalsIgnoreCase("Job")) {
+            dbConnection.getJobBoard().markChanged();
+        }
+        System.out.println(report.describe());
+        return report;
+    }
+
+    /* Position of each table column in the file's records (-1 when the file does not have the column) */
+    private static int[] mapColumns(TableSpec table, List<String> header, String fileName) throws IOException {
+        List<TableSpec.Column> columns = table.getColumns();
+        int[] positions = new int[columns.size()];
+        boolean any = false;
+        for (int i = 0; i < columns.size(); i++) {
+            positions[i] = -1;
+            for (int j = 0; j < header.size(); j++) {
+                if (header.get(j).trim().equalsIgnoreCase(columns.get(i).getName())) {
+                    positions[i] = j;
+                    any = true;
+                }
+            }
+        }
+        if (!any) {
+            throw new IOException(fileName + " has no column of table " + table.getName() + " in its first line: " + header);
+        }
+        return positions;
+    }
+
+    /* Whether the record has a value in the key column (at position, -1 when the file has no key column) */
+    private static boolean hasKey(List<String> fields, int position) {
+        return position >= 0 && position < fields.size() && !fields.get(position).trim().isEmpty();
+    }
+
+    /* Runs on a worker thread: turns text records into bind values, setting aside the ones that do not validate.
+     * Missing keys stay null here and are generated by insert() */
+    private static Chunk convert(TableSpec table, int[] columnPositions, List<Record> records, File baseDirectory) {
+        Chunk chunk = new Chunk();
+        List<TableSpec.Column> columns = table.getColumns();
+        for (Record record : records) {
+            try {
+                Object[] row = new Object[columns.size()];
+                for (int i = 0; i < columns.size(); i++) {
+                    int position = columnPositions[i];
+                    String text = position >= 0 && position < record.fields.size() ? record.fields.get(position) : null;
+                    row[i] = columns.get(i).convert(text, baseDirectory);
+                }
+                chunk.lines.add(record.line);
+                chunk.rows.add(row);
+            } catch (IllegalArgumentException e) {
+                chunk.rejects.add("line " + record.line + ": " + e.getMessage());
+            }
+        }
+        return chunk;
+    }
+
+    /* Generates the missing keys, then inserts one converted chunk as a unit of work; on failure retries its rows one by one
+     * in another. File contents are stored in the same transaction as their rows, so they are stored again when the rows
+     * are retried */
+    private void insert(TableSpec table, String insertSql, Chunk chunk, Report report) throws SQLException {
+        CancellationToken token = CancellationToken.current();
+        if (token != null) {
+            token.throwIfCancelled();
+        }
+        report.read += chunk.rows.size() + chunk.rejects.size();
+        for (String reject : chunk.rejects) {
+            report.reject(reject);
+        }
+        if (chunk.rows.isEmpty()) {
+            return;
+        }
+        for (Object[] row : chunk.rows) {
+            if (row[0] == null) {
+                row[0] = dbConnection.getKeyAllocator().nextId(table.getName());
+            }
+        }
+        try {
+            dbConnection.inTransaction("Import batch into " + table.getName(), () -> {
+                List<Object[]> stored = new ArrayList<>(chunk.rows.size());
+                for (Object[] row : chunk.rows) {
+                    stored.add(storeFiles(table, row));
+                }
+                return dbConnection.executeBatch(insertSql, stored);
+            });
+            report.inserted += chunk.rows.size();
+            report.batches++;
+        } catch (SQLException batchError) {
+            if (token != null && token.isCancelled()) {
+                throw batchError;
+            }
+            /* A failed row only undoes its own statement, so the rows that went in are committed together */
+            report.inserted += dbConnection.inTransaction("Import rows into " + table.getName(), () -> {
+                int inserted = 0;
+                for (int i = 0; i < chunk.rows.size(); i++) {
+                    try {
+                        dbConnection.executeBatch(insertSql, Collections.singletonList(storeFiles(table, chunk.rows.get(i))));
+                        inserted++;
+                    } catch (SQLException rowError) {
+                        report.reject("line " + chunk.lines.get(i) + ": " + rowError.getMessage().trim());
+                    }
+                }
+                return inserted;
+            });
+            report.batches++;
+        }
+    }
+
+    /* The row as inserted: each file's content stored in ResumeBlob and replaced by its hash */
+    private Object[] storeFiles(TableSpec table, Object[] row) throws SQLException {
+        if (!table.hasFiles()) {
+            return row;
+        }
+        List<TableSpec.Column> columns = table.getColumns();
+        Object[] stored = row.clone();
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).isFile() && stored[i] != null) {
+                stored[i] = resumeStorage.store((File) stored[i]).getHash();
+            }
+        }
+        return stored;
+    }
+
+    private static Chunk await(Future<Chunk> future) throws SQLException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Import was interrupted.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new SQLException("Import failed: " + e.getCause(), e.getCause());
+        }
+    }
+
+    /* One record of the file and the line it starts on */
+    private static final class Record {
+        final int line;
+        final List<String> fields;
+
+        Record(int line, List<String> fields) {
+            this.line = line;
+            this.fields = fields;
+        }
+    }
+
+    /* Converted rows of one batch (with the line each came from) and the records rejected while converting */
+    private static final class Chunk {
+        final List<Integer> lines = new ArrayList<>();
+        final List<Object[]> rows = new ArrayList<>();
+        final List<String> rejects = new ArrayList<>();
+    }
+
+    /*
+     * Reads one record at a time. CSV follows RFC 4180: fields may be quoted, quotes inside are doubled, and quoted fields
+     * may span lines. TSV fields are split on tabs with no quoting.
+     */
+    static final class RecordReader {
+        private final BufferedReader reader;
+        private final String fileName;
+        private Character delimiter;
+        private int line;
+        private int recordLine;
+
+        RecordReader(BufferedReader reader, String fileName) {
+            this.reader = reader;
+            this.fileName = fileName;
+            String lower = fileName.toLowerCase(Locale.ROOT);
+            if (lower.endsWith(".tsv") || lower.endsWith(".tab")) {
+                delimiter = '\t';
+            }
+        }
+
+        /* Line the last record returned by next() started on */
+        int getRecordLine() {
+            return recordLine;
+        }
+
+        /* Fields of the next non-blank record, or null at the end of the file */
+        List<String> next() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                line++;
+                if (text == null) {
+                    return null;
+                }
+            } while (text.trim().isEmpty());
+            recordLine = line;
+            if (delimiter == null) {
+                /* Decided by the header line when the file name does not tell */
+                delimiter = text.indexOf('\t') >= 0 && text.indexOf(',') < 0 ? '\t' : ',';
+            }
+            if (delimiter == '\t') {
+                return new ArrayList<>(Arrays.asList(text.split("\t", -1)));
+            }
+            return parseCsv(text);
+        }
+
+        private List<String> parseCsv(String text) throws IOException {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int i = 0;
+            while (true) {
+                if (i == text.length()) {
+                    if (!quoted) {
+                        break;
+                    }
+                    /* Quoted field continues on the next line */
+                    text = reader.readLine();
+                    line++;
+                    if (text == null) {
+                        throw new IOException(fileName + " line " + recordLine + ": quoted field is never closed");
+                    }
+                    field.append('\n');
+                    i = 0;
+                    continue;
+                }
+                char c = text.charAt(i++);
+                if (quoted) {
+                    if (c == '"') {
+                        if (i < text.length() && text.charAt(i) == '"') {
+                            field.append('"');
+                            i++;
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    /* Outcome of importing one file */
+    public static final class Report {
+        private final TableSpec table;
+        private final File file;
+        private final long startNanos = System.nanoTime();
+        private long elapsedNanos;
+        private long read;
+        private long inserted;
+        private long rejected;
+        private long batches;
+        private final List<String> rejects = new ArrayList<>();
+
+        Report(TableSpec table, File file) {
+            this.table = table;
+            this.file = file;
+        }
+
+        void reject(String reason) {
+            rejected++;
+            if (rejects.size() < MAX_REPORTED_REJECTS) {
+                rejects.add(reason);
+            }
+        }
+
+        void finish() {
+            elapsedNanos = System.nanoTime() - startNanos;
+        }
+
+        public long getRowsRead() { return read; }
+        public long getRowsInserted() { return inserted; }
+        public long getRowsRejected() { return rejected; }
+        /* The first rejected lines with the reason for each */
+        public List<String> getRejects() { return rejects; }
+
+        public double getRowsPerSecond() {
+            return elapsedNanos == 0 ? 0 : inserted * 1e9 / elapsedNanos;
+        }
+
+        public String describe() {
+            StringBuilder text = new StringBuilder(String.format(
+                "%s <- %s: %,d rows read, %,d inserted in %,d batches, %,d rejected, %.1f s (%,.0f rows/s)",
+                table.getName(), file.getName(), read, inserted, batches, rejected, elapsedNanos / 1e9, getRowsPerSecond()));
+            for (String reject : rejects) {
+                text.append("\n  rejected ").append(reject);
+            }
+            if (rejected > rejects.size()) {
+                text.append("\n  ... and ").append(rejected - rejects.size()).append(" more");
+            }
+            return text.toString();
+        }
+    }
+}
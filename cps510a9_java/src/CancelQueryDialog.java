@@ -0,0 +1,75 @@
+import javax.swing.*;
+import java.awt.*;
+
+/* Small window offering to cancel a background query that is taking longer than expected.
+ * It only appears once the query has been running for a moment (-Ddb.query.cancelDialogDelayMs, default 1500)
+ * and closes by itself when the query finishes. Closing the window lets the query keep running. */
+public class CancelQueryDialog extends JDialog {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int SHOW_AFTER_MILLIS = Integer.getInteger("db.query.cancelDialogDelayMs", 1500);
+
+    private final Timer elapsedTimer; /* Refreshes the elapsed time once a second */
+
+    /* Shows the dialog for this task if it is still running after the delay */
+    public static void showIfSlow(AsyncQueryExecutor.QueryTask<?> task) {
+        Timer delay = new Timer(SHOW_AFTER_MILLIS, e -> {
+            if (!task.isDone()) {
+                CancelQueryDialog dialog = new CancelQueryDialog(task);
+                task.whenCompleteAsync((result, error) -> dialog.dispose(), AsyncQueryExecutor.EDT);
+                dialog.setVisible(true);
+            }
+        });
+        delay.setRepeats(false);
+        delay.start();
+    }
+
+    private CancelQueryDialog(AsyncQueryExecutor.QueryTask<?> task) {
+        super(KeyboardFocusManager.getCurrentKeyboardFocusManager().getActiveWindow(), "Query Running", ModalityType.MODELESS);
+        setLayout(new BorderLayout(10, 10));
+        setDefaultCloseOperation(JDialog.DISPOSE_ON_CLOSE);
+
+        /* What is running and for how long */
+        JLabel msg = new JLabel("Running: " + task.getDescription(), SwingConstants.CENTER);
+        msg.setFont(new Font("Times New Roman", Font.PLAIN, 16));
+        JLabel elapsed = new JLabel(elapsedText(task), SwingConstants.CENTER);
+        elapsed.setFont(new Font("Times New Roman", Font.PLAIN, 14));
+
+        JPanel info = new JPanel(new GridLayout(2, 1));
+        info.add(msg);
+        info.add(elapsed);
+        add(info, BorderLayout.NORTH);
+
+        JProgressBar bar = new JProgressBar();
+        bar.setIndeterminate(true);
+        add(bar, BorderLayout.CENTER);
+
+        /* Cancel stops the statement on the database, not just the wait */
+        JButton cancelButton = new JButton("Cancel");
+        cancelButton.setFont(new Font("Times New Roman", Font.BOLD, 16));
+        cancelButton.addActionListener(e -> {
+            task.cancel(true);
+            dispose();
+        });
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        buttons.add(cancelButton);
+        add(buttons, BorderLayout.SOUTH);
+
+        elapsedTimer = new Timer(1000, e -> elapsed.setText(elapsedText(task)));
+        elapsedTimer.start();
+
+        setSize(350, 150);
+        setLocationRelativeTo(getOwner());
+    }
+
+    private static String elapsedText(AsyncQueryExecutor.QueryTask<?> task) {
+        return "Elapsed: " + task.getElapsedMillis() / 1000 + " s";
+    }
+
+    @Override
+    public void dispose() {
+        elapsedTimer.stop();
+        super.dispose();
+    }
+}
@@ -0,0 +1,82 @@
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Lets one thread abort the statements another thread is running.
+ * A token is bound to the worker thread for the length of one background task (see AsyncQueryExecutor);
+ * DBConnection registers every statement it executes with the bound token, and cancel() calls Statement.cancel()
+ * on each of them so the database stops working on the query and the connection is freed.
+ */
+public class CancellationToken {
+
+    private static final ThreadLocal<CancellationToken> current = new ThreadLocal<>();
+
+    private final Set<Statement> statements = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+
+    /* Token bound to the calling thread, or null when the thread is not running a cancellable task */
+    public static CancellationToken current() {
+        return current.get();
+    }
+
+    static void bind(CancellationToken token) {
+        current.set(token);
+    }
+
+    static void unbind() {
+        current.remove();
+    }
+
+    /* Registers a statement with the calling thread's token, if any. Fails straight away if the task was already cancelled */
+    public static void register(Statement statement) throws SQLException {
+        CancellationToken token = current.get();
+        if (token != null) {
+            token.attach(statement);
+        }
+    }
+
+    /* Forgets a statement once it has finished, so a later cancel() cannot hit whoever reuses it */
+    public static void unregister(Statement statement) {
+        CancellationToken token = current.get();
+        if (token != null) {
+            token.statements.remove(statement);
+        }
+    }
+
+    private void attach(Statement statement) throws SQLException {
+        throwIfCancelled();
+        statements.add(statement);
+        /* cancel() may have run between the check and the add */
+        if (cancelled) {
+            cancelQuietly(statement);
+        }
+    }
+
+    /* Cancels every statement currently registered and any the task tries to start afterwards */
+    public void cancel() {
+        cancelled = true;
+        for (Statement statement : statements) {
+            cancelQuietly(statement);
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public void throwIfCancelled() throws SQLException {
+        if (cancelled) {
+            throw new SQLException("Query was cancelled.");
+        }
+    }
+
+    private static void cancelQuietly(Statement statement) {
+        try {
+            statement.cancel();
+        } catch (SQLException e) {
+            /* The statement already finished or was closed */
+        }
+    }
+}
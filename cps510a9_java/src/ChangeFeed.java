@@ -0,0 +1,553 @@
+import java.lang.ref.WeakReference;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.swing.SwingUtilities;
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
+import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableModel;
+
+/*
+ * Keeps open table models current from a change log instead of re-running SELECT * FROM <table> after every write.
+ *  - A trigger on each application table (SqlDialect.createChangeTrigger, installed by installTriggers()) appends
+ *    (changeSeq, table, I/U/D, key) to ChangeLog for every row written, by this application or any other client
+ *  - One background thread polls ChangeLog every -Ddb.changes.pollMillis (default 1000) for rows after the last sequence
+ *    number seen, reads only the changed rows (SELECT * ... WHERE key IN (...)), and applies them to the models on the EDT
+ *  - modelFor("SELECT * FROM <table>") gives the table's live model: loaded once on a background thread, then updated in
+ *    place. It asks for a poll straight away, so a write just committed shows up without waiting for the interval
+ *  - Changes seen are also passed on to TableVersions, ReferenceDataCache and JobBoard, so other users' writes reach them
+ *  - Single-row writes made here read their row back by key inside their own transaction (returning(), the equivalent of
+ *    RETURNING *), and modelAfter() puts it straight into the live model, without waiting for a poll or reading the table
+ *  - Neither runs a query on the EDT: both return a future to hand to AsyncQueryExecutor.deliver()
+ *  - A live model is dropped, and its rows freed, once no table listens to it any more (tables are only held weakly, so
+ *    closing a dialog is enough); the next modelFor() loads it again. So at most one model per table is kept, and only
+ *    while it is shown
+ * Sequence numbers are not committed in order, so a gap holds the watermark for up to -Ddb.changes.gapWaitMillis (default
+ * 10000) before it moves on. A number moved past is still watched for -Ddb.changes.lateCommitMillis (default 600000): polls
+ * re-read ChangeLog from just below it, so a long transaction that commits late is still applied. Past that it is taken to
+ * be rolled back or lost from the sequence cache. Without triggers (H2) modelFor() just runs the query.
+ * Every -Ddb.changes.purgeMillis (default 3600000) the poller deletes ChangeLog rows older than -Ddb.changes.retainHours
+ * (default 24). Each client does this; deleting the same old rows twice is harmless.
+ * The poller borrows a pooled connection for each round and hands it back; DBConnection keeps one connection of the pool
+ * free for it when sizing the background query threads.
+ */
+public class ChangeFeed {
+
+    private static final long POLL_MILLIS = Math.max(100, Long.getLong("db.changes.pollMillis", 1000L));
+    private static final long GAP_WAIT_MILLIS = Math.max(0, Long.getLong("db.changes.gapWaitMillis", 10000L));
+    private static final long LATE_COMMIT_MILLIS = Math.max(GAP_WAIT_MILLIS, Long.getLong("db.changes.lateCommitMillis", 600000L));
+    private static final long PURGE_MILLIS = Math.max(60000, Long.getLong("db.changes.purgeMillis", 3600000L));
+    /* Well past the late commit window, so no row a poll may still re-read is deleted */
+    private static final long RETAIN_HOURS = Math.max(1, Long.getLong("db.changes.retainHours", 24L));
+
+    /* Keys per IN (...) list when reading changed rows */
+    private static final int IN_LIST_SIZE = 100;
+
+    static final String SEQUENCE = "changelog_seq";
+
+    static final String CREATE_TABLE =
+        "CREATE TABLE ChangeLog (" +
+        "changeSeq INTEGER PRIMARY KEY, " +
+        "tableName VARCHAR(30) NOT NULL, " +
+        "operation CHAR(1) NOT NULL, " +
+        "rowKey INTEGER NOT NULL, " +
+        "changed DATE DEFAULT SYSDATE NOT NULL)";
+
+    private static final Pattern SELECT_ALL = Pattern.compile("\\s*SELECT\\s+\\*\\s+FROM\\s+(\\w+)\\s*", Pattern.CASE_INSENSITIVE);
+
+    private final DBConnection dbConnection;
+
+    /* Upper-case table name -> its live model */
+    private final Map<String, LiveModel> models = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService poller;
+    private Boolean available;
+
+    /* Poller thread only */
+    private Watermark watermark;
+
+    public ChangeFeed(DBConnection dbConnection) {
+        this.dbConnection = dbConnection;
+    }
+
+    /* Creates the ChangeLog sequence and a change trigger on every application table (ChangeLog itself is created with the
+     * other tables). Returns one line per table saying what was done */
+    public static List<String> installTriggers(DBConnection dbConnection) throws SQLException {
+        SqlDialect dialect = dbConnection.getDialect();
+        List<String> log = new ArrayList<>();
+        if (dialect.createChangeTrigger("Company", "companyID") == null) {
+            log.add("Change triggers: not supported on " + dialect.name() + " (tables are re-read after writes)");
+            return log;
+        }
+        try {
+            dbConnection.query(dialect.sequenceNextValueQuery(SEQUENCE), rs -> null);
+        } catch (SQLException e) {
+            if (!dialect.isMissingSequence(e)) {
+                throw e;
+            }
+            dbConnection.executeUpdate("CREATE SEQUENCE " + SEQUENCE);
+        }
+        for (TableSpec table : TableSpec.ALL) {
+            dbConnection.executeUpdate(dialect.createChangeTrigger(table.getName(), keyColumn(table)));
+            log.add("Change trigger on " + table.getName() + ": installed");
+        }
+        return log;
+    }
+
+    /* The table's live model when the query is "SELECT * FROM <application table>" and change capture is set up; otherwise
+     * the query's result as a plain model. Loaded on a background thread; hand the future to AsyncQueryExecutor.deliver() */
+    public CompletableFuture<TableModel> modelFor(String query) {
+        return dbConnection.getAsyncExecutor().submit("Load " + query.trim(), () -> load(query));
+    }
+
+    /* Runs on a worker thread. A new live model is registered before its rows are read, so changes polled meanwhile are
+     * kept for it (LiveModel.apply) instead of being lost; its rows are put in on the EDT, before the future's result is */
+    private TableModel load(String query) throws SQLException {
+        Matcher selectAll = SELECT_ALL.matcher(query);
+        TableSpec table = selectAll.matches() ? TableSpec.forName(selectAll.group(1)) : null;
+        if (table == null || !start()) {
+            return dbConnection.query(query, DB_GUI::buildTableModel);
+        }
+        String name = table.getName().toUpperCase(Locale.ROOT);
+        LiveModel created = new LiveModel();
+        LiveModel model = models.compute(name, (key, existing) -> existing == null ? created : existing.handOut());
+        if (model != created) {
+            pollNow();
+            return model;
+        }
+        try {
+            /* Loaded after start() read the watermark: changes in between are applied again, which leaves the rows as they are */
+            DefaultTableModel loaded = dbConnection.query(query, DB_GUI::buildTableModel);
+            SwingUtilities.invokeLater(() -> created.loaded(loaded));
+            return created;
+        } catch (SQLException | RuntimeException e) {
+            models.remove(name, created);
+            throw e;
+        }
+    }
+
+    /* Call inside the transaction of a single-row INSERT or UPDATE, right after it ran: reads the row back by key (one unique
+     * index lookup) when a live model shows the table, so modelAfter() can patch it. Oracle's RETURNING INTO would need the
+     * vendor statement classes and one out parameter per column, so the row is selected instead */
+    public RowWrite returning(String tableName, int key, int rowsAffected) throws SQLException {
+        TableSpec table = TableSpec.forName(tableName);
+        if (table == null || !models.containsKey(table.getName().toUpperCase(Locale.ROOT))) {
+            /* Nothing to patch: the table is loaded whole when it is first shown anyway */
+            return new RowWrite(tableName, key, rowsAffected, false, null);
+        }
+        DefaultTableModel read = dbConnection.query("SELECT * FROM " + table.getName() + " WHERE " + keyColumn(table) + " = ?",
+            DB_GUI::buildTableModel, key);
+        @SuppressWarnings("unchecked")
+        Vector<Object> row = read.getRowCount() == 0 ? null : (Vector<Object>) read.getDataVector().get(0);
+        return new RowWrite(tableName, key, rowsAffected, true, row);
+    }
+
+    /* The table's model once the write has committed: the live model with the row from returning() put in place (on the
+     * EDT, without a query), or, when it was not read back, whatever modelFor() gives. Hand it to AsyncQueryExecutor.deliver() */
+    public CompletableFuture<TableModel> modelAfter(String query, RowWrite write) {
+        LiveModel model = write.read
+            ? models.computeIfPresent(TableSpec.forName(write.tableName).getName().toUpperCase(Locale.ROOT), (key, existing) -> existing.handOut())
+            : null;
+        if (model == null) {
+            return modelFor(query);
+        }
+        /* A poll that read this row before the write may still be queued behind this; the poll that sees the write's own
+         * ChangeLog row puts it back */
+        return CompletableFuture.supplyAsync(() -> {
+            if (write.row != null) {
+                model.apply(Collections.singletonMap(write.key, write.row), Collections.<Integer>emptySet());
+            } else {
+                model.apply(Collections.<Integer, Vector<Object>>emptyMap(), Collections.singleton(write.key));
+            }
+            return model;
+        }, AsyncQueryExecutor.EDT);
+    }
+
+    /* Polls as soon as possible instead of waiting for the interval */
+    public synchronized void pollNow() {
+        if (poller != null) {
+            poller.execute(this::poll);
+        }
+    }
+
+    /* Drops the live models and stops polling, e.g. once the tables (and ChangeLog) were dropped. The next modelFor() starts again */
+    public synchronized void reset() {
+        stop();
+        models.clear();
+        available = null;
+    }
+
+    public synchronized void close() {
+        stop();
+    }
+
+    /* Reads the current end of the change log and starts the poller. False if there is no change log */
+    private synchronized boolean start() throws SQLException {
+        if (available != null) {
+            return available;
+        }
+        if (dbConnection.getDialect().createChangeTrigger("Company", "companyID") == null) {
+            available = false;
+            return false;
+        }
+        try {
+            long last = dbConnection.query("SELECT NVL(MAX(changeSeq), 0) FROM ChangeLog", rs -> { rs.next(); return rs.getLong(1); });
+            poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "db-change-poller");
+                thread.setDaemon(true);
+                return thread;
+            });
+            poller.execute(() -> watermark = new Watermark(last, GAP_WAIT_MILLIS, LATE_COMMIT_MILLIS));
+            poller.scheduleWithFixedDelay(this::poll, POLL_MILLIS, POLL_MILLIS, TimeUnit.MILLISECONDS);
+            poller.scheduleWithFixedDelay(this::purge, PURGE_MILLIS, PURGE_MILLIS, TimeUnit.MILLISECONDS);
+            available = true;
+        } catch (SQLException e) {
+            if (!dbConnection.getDialect().isMissingTable(e)) {
+                throw e;
+            }
+            /* Schema from before change capture; the next login installs it */
+            available = false;
+        }
+        return available;
+    }
+
+    private void stop() {
+        if (poller != null) {
+            poller.shutdownNow();
+            poller = null;
+        }
+    }
+
+    /* One round: new ChangeLog rows, then the changed rows of the tables with a live model. Runs on the poller thread */
+    private void poll() {
+        try {
+            dbConnection.inTransaction("Poll change log", () -> {
+                /* Table -> key -> last operation in this round */
+                Map<String, Map<Integer, Character>> changes = new LinkedHashMap<>();
+                dbConnection.forEachRow("SELECT changeSeq, tableName, operation, rowKey FROM ChangeLog WHERE changeSeq > ? ORDER BY changeSeq", rs -> {
+                    if (watermark.offer(rs.getLong(1))) {
+                        changes.computeIfAbsent(rs.getString(2).toUpperCase(Locale.ROOT), table -> new LinkedHashMap<>())
+                            .put(rs.getInt(4), rs.getString(3).charAt(0));
+                    }
+                }, watermark.lowWater());
+                watermark.advance(System.currentTimeMillis());
+                for (Map.Entry<String, Map<Integer, Character>> table : changes.entrySet()) {
+                    apply(table.getKey(), table.getValue());
+                }
+                return null;
+            });
+            if (!models.isEmpty()) {
+                SwingUtilities.invokeLater(this::dropUnusedModels);
+            }
+        } catch (SQLException | RuntimeException e) {
+            /* Tried again on the next round */
+            System.out.println("Could not poll the change log: " + e.getMessage());
+        }
+    }
+
+    /* Drops the live models no table listens to any more, so their rows can be collected. Runs on the EDT */
+    void dropUnusedModels() {
+        for (String name : models.keySet()) {
+            models.computeIfPresent(name, (key, model) -> model.isUnused() ? null : model);
+        }
+    }
+
+    /* Deletes the ChangeLog rows older than the retention period. Runs on the poller thread */
+    private void purge() {
+        try {
+            dbConnection.executeUpdate("DELETE FROM ChangeLog WHERE changed < SYSDATE - " + RETAIN_HOURS + " / 24");
+        } catch (SQLException | RuntimeException e) {
+            /* Tried again on the next round */
+            System.out.println("Could not purge the change log: " + e.getMessage());
+        }
+    }
+
+    private void apply(String tableName, Map<Integer, Character> changes) throws SQLException {
+        TableVersions versions = dbConnection.getTableVersions();
+        versions.bump(tableName);
+        for (Integer key : changes.keySet()) {
+            dbConnection.getReferenceData().invalidate(tableName, key);
+        }
+        if (tableName.equals("JOB")) {
+            dbConnection.getJobBoard().markChanged();
+        }
+
+        LiveModel model = models.get(tableName);
+        TableSpec table = TableSpec.forName(tableName);
+        if (model == null || table == null) {
+            return;
+        }
+        List<Integer> changed = new ArrayList<>();
+        Set<Integer> deleted = new HashSet<>();
+        for (Map.Entry<Integer, Character> change : changes.entrySet()) {
+            (change.getValue() == 'D' ? deleted : changed).add(change.getKey());
+        }
+        Map<Integer, Vector<Object>> rows = new HashMap<>();
+        for (int from = 0; from < changed.size(); from += IN_LIST_SIZE) {
+            List<Integer> chunk = changed.subList(from, Math.min(changed.size(), from + IN_LIST_SIZE));
+            StringBuilder sql = new StringBuilder("SELECT * FROM ").append(table.getName())
+                .append(" WHERE ").append(keyColumn(table)).append(" IN (");
+            for (int i = 0; i < chunk.size(); i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            sql.append(')');
+            DefaultTableModel read = dbConnection.query(sql.toString(), DB_GUI::buildTableModel, chunk.toArray());
+            for (Object row : read.getDataVector()) {
+                @SuppressWarnings("unchecked")
+                Vector<Object> cells = (Vector<Object>) row;
+                rows.put(((Number) cells.get(0)).intValue(), cells);
+            }
+        }
+        /* Changed, but gone again by the time it was read */
+        for (Integer key : changed) {
+            if (!rows.containsKey(key)) {
+                deleted.add(key);
+            }
+        }
+        SwingUtilities.invokeLater(() -> model.apply(rows, deleted));
+    }
+
+    /* The primary key is each table's first column */
+    private static String keyColumn(TableSpec table) {
+        return table.getColumns().get(0).getName();
+    }
+
+    /* Which ChangeLog sequence numbers have been applied. Every number up to the watermark has been applied or moved past;
+     * numbers moved past stay in skipped until their late commit window ends, and polls read from below the oldest of them.
+     * Not thread-safe: only the poller thread uses it */
+    static final class Watermark {
+        private final long gapWaitMillis;
+        private final long lateCommitMillis;
+        private long watermark;
+        /* Applied numbers above the low water, so a re-read does not apply them twice */
+        private final TreeSet<Long> seen = new TreeSet<>();
+        /* Number moved past -> when */
+        private final TreeMap<Long, Long> skipped = new TreeMap<>();
+        /* When the gap holding the watermark was first seen, or 0 */
+        private long gapSince;
+
+        Watermark(long start, long gapWaitMillis, long lateCommitMillis) {
+            this.watermark = start;
+            this.gapWaitMillis = gapWaitMillis;
+            this.lateCommitMillis = lateCommitMillis;
+        }
+
+        /* Polls read changeSeq > lowWater(): the watermark, or just below the oldest number still watched */
+        long lowWater() {
+            return skipped.isEmpty() ? watermark : skipped.firstKey() - 1;
+        }
+
+        long getWatermark() {
+            return watermark;
+        }
+
+        /* True the first time a sequence number is read, including a late commit of a number moved past */
+        boolean offer(long seq) {
+            if (skipped.remove(seq) != null) {
+                seen.add(seq);
+                return true;
+            }
+            return seq > lowWater() && seen.add(seq);
+        }
+
+        /* Moves the watermark over the numbers seen, and over gaps that have stayed open for gapWaitMillis; forgets the
+         * numbers moved past more than lateCommitMillis ago */
+        void advance(long now) {
+            boolean waiting = false;
+            while (seen.higher(watermark) != null) {
+                long next = watermark + 1;
+                if (seen.contains(next)) {
+                    gapSince = 0;
+                } else {
+                    if (gapSince == 0) {
+                        gapSince = now;
+                    }
+                    if (now - gapSince < gapWaitMillis) {
+                        waiting = true;
+                        break;
+                    }
+                    /* Rolled back, lost from the sequence cache, or still uncommitted: watched until its window ends */
+                    skipped.put(next, now);
+                }
+                watermark = next;
+            }
+            if (!waiting) {
+                gapSince = 0;
+            }
+            skipped.values().removeIf(since -> now - since >= lateCommitMillis);
+            seen.headSet(lowWater(), true).clear();
+        }
+    }
+
+    /* Result of returning(): rows affected by the write and, if it was read back, the row as stored (null if it is gone) */
+    public static final class RowWrite {
+        private final String tableName;
+        private final int key;
+        private final int rowsAffected;
+        private final boolean read;
+        private final Vector<Object> row;
+
+        private RowWrite(String tableName, int key, int rowsAffected, boolean read, Vector<Object> row) {
+            this.tableName = tableName;
+            this.key = key;
+            this.rowsAffected = rowsAffected;
+            this.read = read;
+            this.row = row;
+        }
+
+        public int getRowsAffected() {
+            return rowsAffected;
+        }
+    }
+
+    /* Read-only model whose rows are replaced, added and removed by key (column 0). Created empty on the worker that loads
+     * it; from then on only touched on the EDT */
+    private static final class LiveModel extends DefaultTableModel {
+        private static final long serialVersionUID = 1L;
+
+        private final Map<Integer, Integer> rowOfKey = new HashMap<>();
+        /* Changes that arrived before the rows, applied once they are in */
+        private final List<Runnable> beforeLoaded = new ArrayList<>();
+        private boolean loaded;
+        /* Handed out by modelFor() or modelAfter() but not yet shown in a table: kept even without listeners */
+        private volatile boolean awaitingTable = true;
+
+        /* Called while the model is handed out again (inside models.compute, so it cannot be dropped meanwhile) */
+        LiveModel handOut() {
+            awaitingTable = true;
+            return this;
+        }
+
+        /* No table listens any more, and none is about to. Forgets the listeners whose tables were collected. EDT only */
+        boolean isUnused() {
+            for (TableModelListener registered : getTableModelListeners()) {
+                if (registered instanceof WeakListener && ((WeakListener) registered).listener.get() == null) {
+                    super.removeTableModelListener(registered);
+                }
+            }
+            return !awaitingTable && getTableModelListeners().length == 0;
+        }
+
+        /* Puts in the rows read by modelFor(), then the changes kept while they were read */
+        void loaded(DefaultTableModel rows) {
+            setDataVector(rows.getDataVector(), columnNames(rows));
+            reindex();
+            loaded = true;
+            for (Runnable change : beforeLoaded) {
+                change.run();
+            }
+            beforeLoaded.clear();
+        }
+
+        @Override
+        public boolean isCellEditable(int row, int column) {
+            return false;
+        }
+
+        /* Listeners (the JTables) are only held weakly, so a closed dialog's table does not keep the model in use */
+        @Override
+        public void addTableModelListener(TableModelListener listener) {
+            super.addTableModelListener(new WeakListener(listener, this));
+            awaitingTable = false;
+        }
+
+        @Override
+        public void removeTableModelListener(TableModelListener listener) {
+            for (TableModelListener registered : getTableModelListeners()) {
+                if (registered == listener || (registered instanceof WeakListener && ((WeakListener) registered).listener.get() == listener)) {
+                    super.removeTableModelListener(registered);
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void apply(Map<Integer, Vector<Object>> rows, Set<Integer> deleted) {
+            if (!loaded) {
+                beforeLoaded.add(() -> apply(rows, deleted));
+                return;
+            }
+            if (!deleted.isEmpty()) {
+                TreeSet<Integer> positions = new TreeSet<>();
+                for (Integer key : deleted) {
+                    Integer row = rowOfKey.get(key);
+                    if (row != null) {
+                        positions.add(row);
+                    }
+                }
+                for (Integer row : positions.descendingSet()) {
+                    removeRow(row);
+                }
+                if (!positions.isEmpty()) {
+                    reindex();
+                }
+            }
+            for (Map.Entry<Integer, Vector<Object>> changed : rows.entrySet()) {
+                Integer row = rowOfKey.get(changed.getKey());
+                if (row != null) {
+                    dataVector.set(row, changed.getValue());
+                    fireTableRowsUpdated(row, row);
+                } else {
+                    addRow(changed.getValue());
+                    rowOfKey.put(changed.getKey(), getRowCount() - 1);
+                }
+            }
+        }
+
+        private void reindex() {
+            rowOfKey.clear();
+            for (int row = 0; row < getRowCount(); row++) {
+                Object key = getValueAt(row, 0);
+                if (key instanceof Number) {
+                    rowOfKey.put(((Number) key).intValue(), row);
+                }
+            }
+        }
+
+        private static Vector<Object> columnNames(TableModel model) {
+            Vector<Object> names = new Vector<>();
+            for (int column = 0; column < model.getColumnCount(); column++) {
+                names.add(model.getColumnName(column));
+            }
+            return names;
+        }
+    }
+
+    /* Passes events on while the listener is still reachable from elsewhere, and unregisters itself once it is not */
+    private static final class WeakListener implements TableModelListener {
+        final WeakReference<TableModelListener> listener;
+        private final LiveModel model;
+
+        WeakListener(TableModelListener listener, LiveModel model) {
+            this.listener = new WeakReference<>(listener);
+            this.model = model;
+        }
+
+        @Override
+        public void tableChanged(TableModelEvent event) {
+            TableModelListener target = listener.get();
+            if (target == null) {
+                model.removeTableModelListener(this);
+            } else {
+                target.tableChanged(event);
+            }
+        }
+    }
+}
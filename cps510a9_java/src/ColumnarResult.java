@@ -0,0 +1,443 @@
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.TableModel;
+
+/*
+ * Query result stored column by column in primitive arrays, instead of one boxed Object per cell inside Vectors.
+ *  - Whole numbers (INTEGER, NUMBER(p,0)) are kept in an int[], widened to a long[] if a value does not fit in an int
+ *  - FLOAT/DOUBLE columns are kept in a double[], DATE/TIMESTAMP columns as epoch milliseconds in a long[]
+ *  - Strings are dictionary-encoded (an int code per row plus one copy of each distinct value), which suits columns
+ *    such as status and location; columns with mostly distinct values fall back to a plain String[]
+ *  - NULLs are recorded in a bitmap per column
+ *  - Anything else (NUMBER with decimals, LOBs, ...) is kept as the object the driver returns
+ * Use ColumnarResult::from as a DBConnection.ResultSetHandler and asTableModel() to show it in a JTable.
+ * Whole numbers are read with getLong(); Oracle raises an error rather than truncating a value that does not fit.
+ */
+public final class ColumnarResult {
+
+    private final String[] columnNames;
+    private final Column[] columns;
+    private final int rowCount;
+
+    private ColumnarResult(String[] columnNames, Column[] columns, int rowCount) {
+        this.columnNames = columnNames;
+        this.columns = columns;
+        this.rowCount = rowCount;
+    }
+
+    /* Reads every remaining row of the ResultSet */
+    public static ColumnarResult from(ResultSet rs) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int columnCount = meta.getColumnCount();
+        String[] names = new String[columnCount];
+        Column[] columns = new Column[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            names[i] = meta.getColumnName(i + 1);
+            columns[i] = columnFor(meta, i + 1);
+        }
+
+        int row = 0;
+        while (rs.next()) {
+            for (int i = 0; i < columnCount; i++) {
+                columns[i].read(rs, i + 1, row);
+            }
+            row++;
+        }
+        for (Column column : columns) {
+            column.trim(row);
+        }
+        return new ColumnarResult(names, columns, row);
+    }
+
+    /* Picks the storage for a column from its declared SQL type */
+    private static Column columnFor(ResultSetMetaData meta, int index) throws SQLException {
+        switch (meta.getColumnType(index)) {
+            case Types.INTEGER:
+            case Types.SMALLINT:
+            case Types.TINYINT:
+            case Types.BIGINT:
+                return new IntegerColumn();
+            case Types.NUMERIC:
+            case Types.DECIMAL: {
+                int precision = meta.getPrecision(index);
+                int scale = meta.getScale(index);
+                if (precision > 0 && scale == 0) {
+                    return new IntegerColumn();
+                }
+                /* Oracle reports FLOAT as NUMERIC with a scale of -127 */
+                if (precision > 0 && scale == -127) {
+                    return new DoubleColumn();
+                }
+                return new ObjectColumn();
+            }
+            case Types.FLOAT:
+            case Types.DOUBLE:
+            case Types.REAL:
+                return new DoubleColumn();
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+                return new StringColumn();
+            case Types.DATE:
+            case Types.TIMESTAMP:
+                return new TimestampColumn();
+            default:
+                return new ObjectColumn();
+        }
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    /* Java type of the values returned by getValue (Integer, Long, Double, String, Timestamp or Object) */
+    public Class<?> getColumnClass(int column) {
+        return columns[column].type();
+    }
+
+    public boolean isNull(int row, int column) {
+        return columns[column].nulls.get(row);
+    }
+
+    /* The value as an object (boxed on every call, so prefer the typed getters in loops) */
+    public Object getValue(int row, int column) {
+        Column c = columns[column];
+        return c.nulls.get(row) ? null : c.get(row);
+    }
+
+    /* Typed getters, like ResultSet's: NULL reads as 0 (check isNull), and the column must hold that kind of value */
+    public int getInt(int row, int column) {
+        return Math.toIntExact(getLong(row, column));
+    }
+
+    public long getLong(int row, int column) {
+        Column c = columns[column];
+        if (c instanceof IntegerColumn) {
+            return ((IntegerColumn) c).getLong(row);
+        }
+        if (c instanceof TimestampColumn) {
+            return ((TimestampColumn) c).millis[row];
+        }
+        throw new IllegalArgumentException("Column " + columnNames[column] + " does not hold whole numbers");
+    }
+
+    public double getDouble(int row, int column) {
+        Column c = columns[column];
+        if (c instanceof DoubleColumn) {
+            return ((DoubleColumn) c).values[row];
+        }
+        return getLong(row, column);
+    }
+
+    public String getString(int row, int column) {
+        Object value = getValue(row, column);
+        return value == null ? null : value.toString();
+    }
+
+    /* Approximate heap bytes held by the columns */
+    public long estimateBytes() {
+        long total = 0;
+        for (Column column : columns) {
+            total += column.bytes() + column.nulls.size() / 8;
+        }
+        return total;
+    }
+
+    /* Read-only TableModel view of this result, for a JTable */
+    public TableModel asTableModel() {
+        return new AbstractTableModel() {
+            @Override public int getRowCount() { return rowCount; }
+            @Override public int getColumnCount() { return columns.length; }
+            @Override public String getColumnName(int column) { return columnNames[column]; }
+            @Override public Class<?> getColumnClass(int column) { return columns[column].type(); }
+            @Override public Object getValueAt(int row, int column) { return getValue(row, column); }
+        };
+    }
+
+    /* Storage of one column. Arrays grow by doubling while reading and are trimmed to the row count at the end */
+    private abstract static class Column {
+        final BitSet nulls = new BitSet();
+
+        abstract void read(ResultSet rs, int index, int row) throws SQLException;
+        abstract Object get(int row);
+        abstract void trim(int rows);
+        abstract long bytes();
+        abstract Class<?> type();
+    }
+
+    private static final class IntegerColumn extends Column {
+        private int[] ints = new int[16];
+        private long[] longs;  /* Used instead of ints once a value does not fit in an int */
+
+        @Override
+        void read(ResultSet rs, int index, int row) throws SQLException {
+            long value = rs.getLong(index);
+            if (rs.wasNull()) {
+                nulls.set(row);
+            }
+            if (longs == null && (int) value != value) {
+                longs = new long[ints.length];
+                for (int i = 0; i < row; i++) {
+                    longs[i] = ints[i];
+                }
+                ints = null;
+            }
+            if (longs != null) {
+                if (row == longs.length) {
+                    longs = Arrays.copyOf(longs, longs.length * 2);
+                }
+                longs[row] = value;
+            } else {
+                if (row == ints.length) {
+                    ints = Arrays.copyOf(ints, ints.length * 2);
+                }
+                ints[row] = (int) value;
+            }
+        }
+
+        long getLong(int row) {
+            return longs != null ? longs[row] : ints[row];
+        }
+
+        @Override
+        Object get(int row) {
+            return longs != null ? (Object) longs[row] : (Object) ints[row];
+        }
+
+        @Override
+        void trim(int rows) {
+            if (longs != null) {
+                longs = Arrays.copyOf(longs, rows);
+            } else {
+                ints = Arrays.copyOf(ints, rows);
+            }
+        }
+
+        @Override
+        long bytes() {
+            return longs != null ? 8L * longs.length : 4L * ints.length;
+        }
+
+        @Override
+        Class<?> type() {
+            return longs != null ? Long.class : Integer.class;
+        }
+    }
+
+    private static final class DoubleColumn extends Column {
+        private double[] values = new double[16];
+
+        @Override
+        void read(ResultSet rs, int index, int row) throws SQLException {
+            double value = rs.getDouble(index);
+            if (rs.wasNull()) {
+                nulls.set(row);
+            }
+            if (row == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[row] = value;
+        }
+
+        @Override
+        Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        void trim(int rows) {
+            values = Arrays.copyOf(values, rows);
+        }
+
+        @Override
+        long bytes() {
+            return 8L * values.length;
+        }
+
+        @Override
+        Class<?> type() {
+            return Double.class;
+        }
+    }
+
+    private static final class TimestampColumn extends Column {
+        private long[] millis = new long[16];
+
+        @Override
+        void read(ResultSet rs, int index, int row) throws SQLException {
+            Timestamp value = rs.getTimestamp(index);
+            if (row == millis.length) {
+                millis = Arrays.copyOf(millis, millis.length * 2);
+            }
+            if (value == null) {
+                nulls.set(row);
+            } else {
+                millis[row] = value.getTime();
+            }
+        }
+
+        @Override
+        Object get(int row) {
+            return new Timestamp(millis[row]);
+        }
+
+        @Override
+        void trim(int rows) {
+            millis = Arrays.copyOf(millis, rows);
+        }
+
+        @Override
+        long bytes() {
+            return 8L * millis.length;
+        }
+
+        @Override
+        Class<?> type() {
+            return Timestamp.class;
+        }
+    }
+
+    private static final class StringColumn extends Column {
+        /* Dictionary encoding is dropped once it holds this many distinct values and they are more than a quarter of the rows */
+        private static final int MAX_DICTIONARY_SIZE = 4096;
+
+        private int[] codes = new int[16];
+        private List<String> dictionary = new ArrayList<>();
+        private Map<String, Integer> lookup = new HashMap<>();
+        private String[] plain;
+
+        @Override
+        void read(ResultSet rs, int index, int row) throws SQLException {
+            String value = rs.getString(index);
+            if (value == null) {
+                nulls.set(row);
+            }
+            if (plain != null) {
+                if (row == plain.length) {
+                    plain = Arrays.copyOf(plain, plain.length * 2);
+                }
+                plain[row] = value;
+                return;
+            }
+            if (row == codes.length) {
+                codes = Arrays.copyOf(codes, codes.length * 2);
+            }
+            if (value == null) {
+                return;
+            }
+            Integer code = lookup.get(value);
+            if (code == null) {
+                code = dictionary.size();
+                dictionary.add(value);
+                lookup.put(value, code);
+                if (dictionary.size() > MAX_DICTIONARY_SIZE && dictionary.size() > row / 4) {
+                    codes[row] = code;
+                    switchToPlain(row + 1);
+                    return;
+                }
+            }
+            codes[row] = code;
+        }
+
+        private void switchToPlain(int rows) {
+            plain = new String[codes.length];
+            for (int i = 0; i < rows; i++) {
+                plain[i] = nulls.get(i) ? null : dictionary.get(codes[i]);
+            }
+            codes = null;
+            dictionary = null;
+            lookup = null;
+        }
+
+        @Override
+        Object get(int row) {
+            return plain != null ? plain[row] : dictionary.get(codes[row]);
+        }
+
+        @Override
+        void trim(int rows) {
+            if (plain != null) {
+                plain = Arrays.copyOf(plain, rows);
+            } else {
+                codes = Arrays.copyOf(codes, rows);
+                lookup = null;  /* Only needed while reading */
+            }
+        }
+
+        @Override
+        long bytes() {
+            if (plain != null) {
+                long total = 4L * plain.length;
+                for (String value : plain) {
+                    total += value == null ? 0 : 40 + 2L * value.length();
+                }
+                return total;
+            }
+            long total = 4L * codes.length + 4L * dictionary.size();
+            for (String value : dictionary) {
+                total += 40 + 2L * value.length();
+            }
+            return total;
+        }
+
+        @Override
+        Class<?> type() {
+            return String.class;
+        }
+    }
+
+    private static final class ObjectColumn extends Column {
+        private Object[] values = new Object[16];
+
+        @Override
+        void read(ResultSet rs, int index, int row) throws SQLException {
+            Object value = rs.getObject(index);
+            if (value == null) {
+                nulls.set(row);
+            }
+            if (row == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[row] = value;
+        }
+
+        @Override
+        Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        void trim(int rows) {
+            values = Arrays.copyOf(values, rows);
+        }
+
+        @Override
+        long bytes() {
+            return 4L * values.length + 32L * (values.length - nulls.cardinality());
+        }
+
+        @Override
+        Class<?> type() {
+            return Object.class;
+        }
+    }
+}
@@ -98,16 +98,15 @@ public class Company_GUI extends JPanel{
 
     /* View Company Jobs feature */
     private void viewCompanyJobs() {
-        try {
-            String sql =
-                "SELECT j.title AS \"Job Title\", j.location AS \"Location\", " +
-                "j.salary AS \"Salary ($/hr)\", j.workingHours AS \"Hours/Week\", " +
-                "TO_CHAR(j.datePosted, 'YYYY-MM-DD') AS \"Posted On\", " +
-                "j.description AS \"Description\" " +
-                "FROM Job j WHERE j.companyID = " + companyID;
+        String sql =
+            "SELECT j.title AS \"Job Title\", j.location AS \"Location\", " +
+            "j.salary AS \"Salary ($/hr)\", j.workingHours AS \"Hours/Week\", " +
+            "TO_CHAR(j.datePosted, 'YYYY-MM-DD') AS \"Posted On\", " +
+            "j.description AS \"Description\" " +
+            "FROM Job j WHERE j.companyID = ?";
 
-            ResultSet rs = dbConnection.executeQuery(sql);
-            JTable table = new JTable(readOnlyModel(rs));
+        AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().query("Company jobs", sql, this::readOnlyModel, companyID), model -> {
+            JTable table = new JTable(model);
 
             JButton viewBtn = new JButton("View Selected Job");
             viewBtn.addActionListener(ev -> {
@@ -125,22 +124,19 @@ public class Company_GUI extends JPanel{
 
             JOptionPane.showMessageDialog(this, panel, "Company Job Listings", JOptionPane.PLAIN_MESSAGE);
 
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, ex -> JOptionPane.showMessageDialog(this, ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
     }
 
 
     /* View Recruiters for the Company */
     private void viewRecruiters() {
-        try {
-            String sql =
-                "SELECT first_name AS \"First Name\", last_name AS \"Last Name\", " +
-                "email AS \"Email\", phone AS \"Phone\" " +
-                "FROM Recruiter WHERE companyID = " + companyID;
+        String sql =
+            "SELECT first_name AS \"First Name\", last_name AS \"Last Name\", " +
+            "email AS \"Email\", phone AS \"Phone\" " +
+            "FROM Recruiter WHERE companyID = ?";
 
-            ResultSet rs = dbConnection.executeQuery(sql);
-            JTable table = new JTable(readOnlyModel(rs));
+        AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().query("Company recruiters", sql, this::readOnlyModel, companyID), model -> {
+            JTable table = new JTable(model);
 
             JButton viewBtn = new JButton("View Selected Recruiter");
             viewBtn.addActionListener(ev -> {
@@ -158,9 +154,7 @@ public class Company_GUI extends JPanel{
 
             JOptionPane.showMessageDialog(this, panel, "Company Recruiters", JOptionPane.PLAIN_MESSAGE);
 
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, ex -> JOptionPane.showMessageDialog(this, ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
     }
     
 }
@@ -0,0 +1,306 @@
+import java.sql.*;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Bounded pool of JDBC connections shared by every panel of the application.
+ *  Callers borrow a Lease, use its connection, and close the lease to hand the connection back
+ *  The pool never holds more than maxSize connections and keeps at least minSize open
+ *  Idle connections past the idle timeout are evicted by a background thread
+ *  Connections are validated before being handed out again
+ */
+public class ConnectionPool {
+
+    /* Opens a new physical connection whenever the pool has to grow */
+    public interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    /* Connections used within this window are trusted without a validation round trip */
+    private static final long VALIDATION_INTERVAL_MILLIS = 5000;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final ConnectionFactory factory;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final int statementCacheSize;
+
+    /* One permit per connection that may be handed out */
+    private final Semaphore permits;
+    /* Idle connections, most recently used first */
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    /* Every physical connection the pool currently owns (idle or leased) */
+    private final Set<PooledConnection> all = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed;
+
+    /* Hit/miss/eviction counters across the statement caches of every connection */
+    private final StatementCache.Stats statementCacheStats = new StatementCache.Stats();
+
+    /* Saturation metrics */
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final AtomicInteger waitingCount = new AtomicInteger();
+    private final AtomicInteger peakActiveCount = new AtomicInteger();
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong waitCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+    private final AtomicLong invalidCount = new AtomicLong();
+
+    public ConnectionPool(ConnectionFactory factory, int minSize, int maxSize, long borrowTimeoutMillis, long idleTimeoutMillis, int statementCacheSize) throws SQLException {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.factory = factory;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        /* Open the minimum number of connections up front so bad credentials fail immediately */
+        try {
+            for (int i = 0; i < minSize; i++) {
+                idle.addLast(create());
+            }
+        } catch (SQLException ex) {
+            closeAll();
+            throw ex;
+        }
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "db-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, idleTimeoutMillis / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /* Borrows a connection, waiting up to the borrow timeout when the pool is saturated */
+    public Lease borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed.");
+        }
+
+        if (!permits.tryAcquire()) {
+            long start = System.nanoTime();
+            waitCount.incrementAndGet();
+            waitingCount.incrementAndGet();
+            boolean acquired;
+            try {
+                acquired = permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a database connection.");
+            } finally {
+                waitingCount.decrementAndGet();
+                totalWaitNanos.addAndGet(System.nanoTime() - start);
+            }
+            if (!acquired) {
+                timeoutCount.incrementAndGet();
+                throw new SQLException("Timed out after " + borrowTimeoutMillis + " ms waiting for a database connection (all " + maxSize + " in use).");
+            }
+        }
+
+        try {
+            PooledConnection pooled = takeValidIdle();
+            if (pooled == null) {
+                pooled = create();
+            }
+            borrowCount.incrementAndGet();
+            int active = activeCount.incrementAndGet();
+            peakActiveCount.accumulateAndGet(active, Math::max);
+            return new Lease(pooled);
+        } catch (SQLException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    /* Takes the most recently used idle connection that still passes validation */
+    private PooledConnection takeValidIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isUsable(pooled)) {
+                return pooled;
+            }
+            invalidCount.incrementAndGet();
+            destroy(pooled);
+        }
+        return null;
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        try {
+            if (pooled.connection.isClosed()) {
+                return false;
+            }
+            if (System.currentTimeMillis() - pooled.lastUsed < VALIDATION_INTERVAL_MILLIS) {
+                return true;
+            }
+            return pooled.connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection create() throws SQLException {
+        Connection connection = factory.open();
+        connection.setAutoCommit(false);
+        PooledConnection pooled = new PooledConnection(connection, new StatementCache(connection, statementCacheSize, statementCacheStats));
+        all.add(pooled);
+        createdCount.incrementAndGet();
+        return pooled;
+    }
+
+    private void destroy(PooledConnection pooled) {
+        all.remove(pooled);
+        pooled.statementCache.close();
+        try {
+            pooled.connection.close();
+        } catch (SQLException e) {
+            /* Connection is being discarded anyway */
+        }
+    }
+
+    /* Hands a leased connection back, discarding it if it was broken while in use */
+    private void giveBack(PooledConnection pooled) {
+        activeCount.decrementAndGet();
+        pooled.statementCache.closeUncached();
+        try {
+            boolean reusable = !closed && !pooled.connection.isClosed();
+            if (reusable) {
+                /* Never let one borrower's uncommitted work leak into the next borrower */
+                pooled.connection.rollback();
+                pooled.lastUsed = System.currentTimeMillis();
+                idle.addFirst(pooled);
+            } else {
+                destroy(pooled);
+            }
+        } catch (SQLException e) {
+            invalidCount.incrementAndGet();
+            destroy(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /* Closes connections idle past the timeout, oldest first, without dropping below minSize */
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        Iterator<PooledConnection> oldestFirst = idle.descendingIterator();
+        while (oldestFirst.hasNext() && all.size() > minSize) {
+            PooledConnection pooled = oldestFirst.next();
+            if (now - pooled.lastUsed >= idleTimeoutMillis && idle.remove(pooled)) {
+                evictedCount.incrementAndGet();
+                destroy(pooled);
+            }
+        }
+    }
+
+    /* Closes every connection, including ones still leased out */
+    public void close() {
+        closed = true;
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+        closeAll();
+    }
+
+    private void closeAll() {
+        idle.clear();
+        for (PooledConnection pooled : all) {
+            destroy(pooled);
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /* Pool metrics */
+    public int getMinSize() { return minSize; }
+    public int getMaxSize() { return maxSize; }
+    public int getActiveCount() { return activeCount.get(); }
+    public int getIdleCount() { return idle.size(); }
+    public int getTotalCount() { return all.size(); }
+    public int getWaitingCount() { return waitingCount.get(); }
+    public int getPeakActiveCount() { return peakActiveCount.get(); }
+    public long getBorrowCount() { return borrowCount.get(); }
+    public long getWaitCount() { return waitCount.get(); }
+    public long getTimeoutCount() { return timeoutCount.get(); }
+    public long getCreatedCount() { return createdCount.get(); }
+    public long getEvictedCount() { return evictedCount.get(); }
+    public long getInvalidCount() { return invalidCount.get(); }
+    public StatementCache.Stats getStatementCacheStats() { return statementCacheStats; }
+
+    /* Fraction of the pool currently leased out (1.0 means saturated) */
+    public double getSaturation() {
+        return (double) activeCount.get() / maxSize;
+    }
+
+    public double getAverageWaitMillis() {
+        long waits = waitCount.get();
+        return waits == 0 ? 0 : totalWaitNanos.get() / 1_000_000.0 / waits;
+    }
+
+    /* One-line summary of the pool state for logs and the admin screens */
+    public String describe() {
+        return String.format("pool[active=%d, idle=%d, total=%d/%d, waiting=%d, peak=%d, saturation=%.0f%%, borrows=%d, waits=%d, avgWait=%.1fms, timeouts=%d, created=%d, evicted=%d, invalid=%d]",
+            getActiveCount(), getIdleCount(), getTotalCount(), maxSize, getWaitingCount(), getPeakActiveCount(),
+            getSaturation() * 100, getBorrowCount(), getWaitCount(), getAverageWaitMillis(), getTimeoutCount(),
+            getCreatedCount(), getEvictedCount(), getInvalidCount()) + " " + statementCacheStats.describe();
+    }
+
+    /* A physical connection owned by the pool */
+    private static final class PooledConnection {
+        private final Connection connection;
+        private final StatementCache statementCache;
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        private PooledConnection(Connection connection, StatementCache statementCache) {
+            this.connection = connection;
+            this.statementCache = statementCache;
+        }
+    }
+
+    /* A borrowed connection. Closing the lease returns the connection to the pool (only once) */
+    public final class Lease implements AutoCloseable {
+        private final PooledConnection pooled;
+        private boolean returned;
+
+        private Lease(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        public Connection getConnection() {
+            if (returned) {
+                throw new IllegalStateException("Connection lease was already returned to the pool.");
+            }
+            return pooled.connection;
+        }
+
+        /* Prepared statements cached for this lease's connection */
+        public StatementCache getStatementCache() {
+            getConnection();
+            return pooled.statementCache;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (!returned) {
+                returned = true;
+                giveBack(pooled);
+            }
+        }
+    }
+}
@@ -37,6 +37,11 @@ public class CreateTables extends JPanel {
         executeButton.setFont(new Font("Times New Roman", Font.BOLD, 20));
         executeButton.addActionListener(e -> createTables());
 
+        /* Button to check that the lookup indexes exist and are used (see IndexManager) */
+        JButton verifyIndexesButton = new JButton("Verify Indexes");
+        verifyIndexesButton.setFont(new Font("Times New Roman", Font.BOLD, 20));
+        verifyIndexesButton.addActionListener(e -> verifyIndexes());
+
         /* Button to view SQL output in a separate panel */
         JButton viewOutputButton = new JButton("View Output");
         viewOutputButton.setFont(new Font("Times New Roman", Font.BOLD, 20));
@@ -49,6 +54,7 @@ public class CreateTables extends JPanel {
 
         /* Add buttons to the button panel */
         buttonPanel.add(executeButton);
+        buttonPanel.add(verifyIndexesButton);
         buttonPanel.add(viewOutputButton);
         buttonPanel.add(backButton);
 
@@ -63,11 +69,8 @@ public class CreateTables extends JPanel {
         log("Starting table creation process...\n");    /* Enable manual transaction control */
 
         try {
-            /* Get the current connection object from dbConnection */
-            Connection connection = dbConnection.getConnection();
-            connection.setAutoCommit(false);
-
-            try {
+            /* One unit of work: committed once every statement ran, rolled back on an error, and the connection handed back either way */
+            dbConnection.inTransaction("Create tables", () -> {
                 /* Table creation statements */
                 executeAndLog("CREATE TABLE Company (" 
                     + "companyID     INTEGER PRIMARY KEY, "
@@ -115,14 +118,24 @@ public class CreateTables extends JPanel {
                     + "applicantID   INTEGER NOT NULL, "
                     + "dateTime      DATE, "
                     + "status        VARCHAR(20), "
+                    + "CONSTRAINT " + DatabaseInitializer.UNIQUE_APPLICATION + " UNIQUE (jobID, applicantID), "
                     + "FOREIGN KEY (jobID) REFERENCES Job (jobID), "
                     + "FOREIGN KEY (applicantID) REFERENCES JobApplicant (applicantID)"
                     + ")", "Table 'JobApplication' created successfully.");
+                executeAndLog("CREATE TABLE ResumeBlob ("
+                    + "contentHash   VARCHAR(64) PRIMARY KEY, "
+                    + "content       BLOB NOT NULL, "
+                    + "byteSize      INTEGER NOT NULL, "
+                    + "created       DATE DEFAULT SYSDATE NOT NULL "
+                    + ")", "Table 'ResumeBlob' created successfully.");
                 executeAndLog("CREATE TABLE Resume (" 
                     + "resumeID      INTEGER PRIMARY KEY, "
                     + "applicantID   INTEGER NOT NULL, "
-                    + "uploadFile   BLOB NOT NULL, "
+                    + "uploadFile   BLOB, "
                     + "uploadDate    DATE DEFAULT SYSDATE NOT NULL, "
+                    + "contentHash   VARCHAR(64), "
+                    + "CONSTRAINT resume_file_ck CHECK (uploadFile IS NOT NULL OR contentHash IS NOT NULL), "
+                    + "FOREIGN KEY (contentHash) REFERENCES ResumeBlob (contentHash), "
                     + "FOREIGN KEY (applicantID) REFERENCES JobApplicant (applicantID)"
                     + ")", "Table 'Resume' created successfully.");
                 executeAndLog("CREATE TABLE Interview (" 
@@ -132,26 +145,46 @@ public class CreateTables extends JPanel {
                     + "location      VARCHAR(100) NOT NULL, "
                     + "FOREIGN KEY (jobAppID) REFERENCES JobApplication (jobAppID) "
                     + ")", "Table 'Interview' created successfully.");
-                
-                /* If all statements succeed, commit changes */
-                connection.commit();
-                log("\nAll tables created successfully!");
-                JOptionPane.showMessageDialog(this, "Tables created successfully!");
-
-            /* If an error occurs, rollback all table creation */
-            } catch (SQLException ex) {
-                connection.rollback();
-                log("\nRolled back changes due to error:");
-                log(ex.getMessage());
-                JOptionPane.showMessageDialog(this, "Error creating tables. Rolled back changes.\n" + ex.getMessage(),"SQL Error", JOptionPane.ERROR_MESSAGE);
-            }
-        /* Handle general database connection issues */
+                executeAndLog(ChangeFeed.CREATE_TABLE, "Table 'ChangeLog' created successfully.");
+
+                /* Indexes on the foreign key and login lookup columns */
+                for (String line : new IndexManager(dbConnection).ensureIndexes()) {
+                    log(line);
+                }
+
+                /* Triggers recording every row written in ChangeLog, which keeps open tables current (see ChangeFeed) */
+                for (String line : ChangeFeed.installTriggers(dbConnection)) {
+                    log(line);
+                }
+                return null;
+            });
+            log("\nAll tables created successfully!");
+            JOptionPane.showMessageDialog(this, "Tables created successfully!");
+
+        /* If an error occurs (including not getting a connection), all table creation is rolled back */
         } catch (SQLException ex) {
-            log("\nDatabase connection error: " + ex.getMessage());
-            JOptionPane.showMessageDialog(this, "Database connection error: " + ex.getMessage(),"Database Connection Error", JOptionPane.ERROR_MESSAGE);
+            log("\nRolled back changes due to error:");
+            log(ex.getMessage());
+            JOptionPane.showMessageDialog(this, "Error creating tables. Rolled back changes.\n" + ex.getMessage(),"SQL Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 
+    /* Logs, for each declared index, whether it exists and whether its typical lookup uses it. Runs in the background */
+    private void verifyIndexes() {
+        outputArea.setText("");
+        log("Verifying indexes...\n");
+        AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().submit("Verify indexes", () -> new IndexManager(dbConnection).verify()), statuses -> {
+            int problems = 0;
+            for (IndexManager.Status status : statuses) {
+                log(status.describe());
+                if (!status.isPresent() || Boolean.FALSE.equals(status.isUsed())) {
+                    problems++;
+                }
+            }
+            log(problems == 0 ? "\nAll indexes present." : "\n" + problems + " index(es) missing or not used. Create Tables adds missing ones on a fresh schema; logging in adds them to an existing one.");
+        }, ex -> log("\nCould not verify indexes: " + AsyncQueryExecutor.unwrap(ex).getMessage()));
+    }
+
     /* Helper for executing and logging SQL statements */
     private void executeAndLog(String sql, String successMessage) {
         try {
@@ -1,99 +1,489 @@
-import java.sql.*; 
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
-/* Manages connection to sql database and executes queries */
+/* Manages pooled connections to the sql database and executes queries */
 public class DBConnection {
 
-    /* Credentials to log into Oracle database */
-    private final String url = "jdbc:oracle:thin:@oracle.cs.torontomu.ca:1521:orcl";
+    /* SQL dialect and location of the database, overridable with -Ddb.dialect=oracle|h2 and -Ddb.url=... */
+    private final SqlDialect dialect;
+    private final String url;
+
+    /* Credentials to log into the database */
     private String username;
     private String password;
 
-    /* Create an instance of DBConnection */
-    private static DBConnection connectionInstance; 
+    /* Pool sizing, overridable with -Ddb.pool.minSize=... etc. */
+    private static final int POOL_MIN_SIZE = Integer.getInteger("db.pool.minSize", 1);
+    private static final int POOL_MAX_SIZE = Integer.getInteger("db.pool.maxSize", 8);
+    private static final long POOL_BORROW_TIMEOUT_MILLIS = Long.getLong("db.pool.borrowTimeoutMs", 10000L);
+    private static final long POOL_IDLE_TIMEOUT_MILLIS = Long.getLong("db.pool.idleTimeoutMs", 300000L);
+
+    /* Prepared statements kept open per pooled connection, overridable with -Ddb.statementCache.size=... (0 disables: every
+     * statement is prepared again and closed once the connection goes back to the pool) */
+    private static final int STATEMENT_CACHE_SIZE = Integer.getInteger("db.statementCache.size", 50);
+
+    /* Seconds a statement may run before the driver cancels it, overridable with -Ddb.query.timeoutSeconds=... (0 = no limit).
+     * Single queries can override it with QueryOptions.withTimeout() */
+    private static final int QUERY_TIMEOUT_SECONDS = Math.max(0, Integer.getInteger("db.query.timeoutSeconds", 60));
+
+    /* Rows fetched per round trip: sized so one batch holds about -Ddb.fetch.targetBytes, between -Ddb.fetch.minRows and -Ddb.fetch.maxRows.
+     * Single queries can fix it with QueryOptions.withFetchSize(). -Ddb.fetch.log=true prints the fetch statistics of every query (FetchMonitor) */
+    private static final FetchSizePolicy FETCH_POLICY = new FetchSizePolicy(
+        Integer.getInteger("db.fetch.targetBytes", 256 * 1024), Integer.getInteger("db.fetch.minRows", 10),
+        Integer.getInteger("db.fetch.maxRows", 2000), Integer.getInteger("db.fetch.initialRows", 50));
+
+    /* Background threads for queries issued from the GUI, overridable with -Ddb.async.threads=... Each one can hold a
+     * connection for the length of its task, so by default there are two fewer than the pool holds: one stays free for the
+     * EDT and one for the ChangeFeed poller, which borrows one for each poll and purge */
+    private static final int ASYNC_THREADS = Integer.getInteger("db.async.threads", POOL_MAX_SIZE - 2);
+
+    /* One instance of DBConnection per set of credentials */
+    private static final Map<String, DBConnection> connectionInstances = new HashMap<>();
+
+    /* Pool of connections shared by every panel using these credentials */
+    private final ConnectionPool pool;
+
+    /* Connection leased to each thread that calls getConnection() */
+    private final ThreadLocal<ConnectionPool.Lease> threadLease = new ThreadLocal<>();
+
+    /* Runs queries off the Swing Event Dispatch Thread */
+    private final AsyncQueryExecutor asyncExecutor = new AsyncQueryExecutor(this, Math.max(1, ASYNC_THREADS));
+
+    /* Generates primary keys from per-table sequences, a block at a time */
+    private final KeyAllocator keyAllocator = new KeyAllocator(this);
+
+    /* Creates the views used by ViewTables only when their definitions change */
+    private final ViewRegistry viewRegistry = new ViewRegistry(this);
+
+    /* Company and Recruiter rows by ID, so listings need not join them for names */
+    private final ReferenceDataCache referenceData = new ReferenceDataCache(this);
+
+    /* Version per table, bumped by every write made through this class */
+    private final TableVersions tableVersions = new TableVersions();
+
+    /* Report results kept until one of their tables is written */
+    private final ResultCache resultCache = new ResultCache(this, tableVersions);
+
+    /* Shared snapshot of the applicants' job listings */
+    private final JobBoard jobBoard = new JobBoard(this);
+
+    /* Open table models kept current from the trigger-fed ChangeLog */
+    private final ChangeFeed changeFeed = new ChangeFeed(this);
 
-    /* Create a persistent connection object */
-    private Connection connection;
+    /* Runs groups of statements as one transaction and times them */
+    private final UnitOfWork unitOfWork = new UnitOfWork(this);
+
+    /* Tracks statements that were opened but not yet closed */
+    private final StatementLeakDetector leakDetector = new StatementLeakDetector();
+
+    /* Turns a whole ResultSet into a result, e.g. DB_GUI::buildTableModel */
+    public interface ResultSetHandler<T> {
+        T handle(ResultSet rs) throws SQLException;
+    }
+
+    /* Maps the current row of a ResultSet to an object */
+    public interface RowMapper<T> {
+        T mapRow(ResultSet rs) throws SQLException;
+    }
+
+    /* Receives each row of a ResultSet in turn */
+    public interface RowCallback {
+        void processRow(ResultSet rs) throws SQLException;
+    }
 
     /* Constructor to prevent direct instantiation */
     private DBConnection(String username, String password) throws SQLException {
         this.username = username;
-        this.password = password;   
+        this.password = password;
+        this.dialect = SqlDialect.configured();
+        this.url = System.getProperty("db.url", dialect.defaultUrl());
 
         try {
-            Class.forName("oracle.jdbc.driver.OracleDriver");
-            this.connection = DriverManager.getConnection(url, username, password);
-            this.connection.setAutoCommit(false);
-            System.out.println("Database connection established.");
+            Class.forName(dialect.driverClassName());
+            this.pool = newPool(() -> DriverManager.getConnection(url, this.username, this.password));
+            System.out.println("Database connection established (" + dialect.name() + ": " + url + ").");
         } catch (ClassNotFoundException e) {
             e.printStackTrace();
-            throw new SQLException("Oracle JDBC Driver not found.");
+            throw new SQLException("JDBC driver " + dialect.driverClassName() + " not found. Add the " + dialect.name() + " driver jar to the classpath.");
         }
     }
 
-    /* Gets instance of the database connection */
-    public static DBConnection getInstance(String username, String password) throws SQLException {
+    /* Connections come from the factory instead of the JDBC driver, e.g. stub connections in the tests. Not shared through getInstance */
+    DBConnection(SqlDialect dialect, ConnectionPool.ConnectionFactory factory) throws SQLException {
+        this.dialect = dialect;
+        this.url = null;
+        this.pool = newPool(factory);
+    }
+
+    private static ConnectionPool newPool(ConnectionPool.ConnectionFactory factory) throws SQLException {
+        return new ConnectionPool(factory, Math.max(1, POOL_MIN_SIZE), Math.max(1, POOL_MAX_SIZE), POOL_BORROW_TIMEOUT_MILLIS,
+            POOL_IDLE_TIMEOUT_MILLIS, Math.max(0, STATEMENT_CACHE_SIZE));
+    }
+
+    /* Gets instance of the database connection for the given credentials */
+    public static synchronized DBConnection getInstance(String username, String password) throws SQLException {
+        String key = username + "\u0000" + password;
+        DBConnection connectionInstance = connectionInstances.get(key);
         if (connectionInstance == null) {
             connectionInstance = new DBConnection(username, password);
-        } 
+            connectionInstances.put(key, connectionInstance);
+        }
         return connectionInstance;
     }
 
-    public Connection getConnection() {
-        return this.connection;
+    /* Returns the connection leased to the calling thread, borrowing one from the pool on first use.
+     * Statements issued from the same thread therefore share one transaction, as they always have.
+     * Use it inside a unit of work (inTransaction), which hands the connection back when it ends; outside one the thread
+     * keeps the connection until releaseConnection() */
+    public Connection getConnection() throws SQLException {
+        return currentLease().getConnection();
+    }
+
+    /* Whether a call has to hand back the connection it borrows once it is done: the calling thread is outside a unit of
+     * work and holds no connection yet. Threads that only query now and then (the EDT) therefore do not keep one each */
+    private boolean borrowsForCall() {
+        return threadLease.get() == null && !UnitOfWork.isActive();
+    }
+
+    private ConnectionPool.Lease currentLease() throws SQLException {
+        ConnectionPool.Lease lease = threadLease.get();
+        if (lease == null) {
+            lease = pool.borrow();
+            threadLease.set(lease);
+        }
+        return lease;
+    }
+
+    /* Returns a prepared statement for INSERT/UPDATE/DELETE from the calling thread's statement cache.
+     * The statement is owned by the cache: bind, execute, and do NOT close it. Call it inside a unit of work (inTransaction) */
+    public PreparedStatement prepareCached(String sql) throws SQLException {
+        tableVersions.noteStatement(sql);
+        PreparedStatement statement = currentLease().getStatementCache().prepare(sql);
+        statement.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+        CancellationToken.register(statement);
+        return statement;
+    }
+
+    /* Returns the calling thread's connection to the pool (uncommitted work is rolled back) */
+    public void releaseConnection() {
+        ConnectionPool.Lease lease = threadLease.get();
+        if (lease != null) {
+            threadLease.remove();
+            lease.close();
+        }
+        tableVersions.endOfTransaction();
+    }
+
+    /* Borrows a dedicated connection for work that must not share the calling thread's connection. Close the lease when done.
+     * A thread that already holds a connection waits for a second one here, so keep this to rare work such as DDL */
+    public ConnectionPool.Lease borrowConnection() throws SQLException {
+        return pool.borrow();
+    }
+
+    /* SQL that differs between Oracle and the embedded local database */
+    public SqlDialect getDialect() {
+        return dialect;
+    }
+
+    public ConnectionPool getPool() {
+        return pool;
     }
 
     /* Verifies if connection is established */
     public boolean isConnected() {
-        try {
-            return this.connection != null && !this.connection.isClosed();
+        return !pool.isClosed() && pool.getTotalCount() > 0;
+    }
+
+    /* Execute DDL/DML statements. Committed straight away, unless it is part of a unit of work (see inTransaction).
+     * Returns the rows affected as the driver reports them for a single statement (0 for DDL) */
+    public int executeUpdate(String query) throws SQLException {
+        tableVersions.noteStatement(query);
+        boolean release = borrowsForCall();
+        Connection connection = getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+            CancellationToken.register(statement);
+            int rows;
+            try {
+                rows = statement.executeUpdate(query);
+            } finally {
+                CancellationToken.unregister(statement);
+            }
+            if (!UnitOfWork.isActive()) {
+                connection.commit();
+                tableVersions.endOfTransaction();
+            }
+            return rows;
         } catch (SQLException e) {
-            e.printStackTrace();
-            return false;
+            if (!UnitOfWork.isActive()) {
+                connection.rollback();
+                tableVersions.endOfTransaction();
+            }
+            throw translateTimeout(e, QUERY_TIMEOUT_SECONDS);
+        } finally {
+            if (release) {
+                releaseConnection();
+            }
         }
     }
 
-    /* Execute DDL/DML statements */
-    public void executeUpdate(String query) throws SQLException {
-        try (Statement statement = this.connection.createStatement()) {
-            statement.executeUpdate(query);
-            this.connection.commit();
+    /* Runs one parameterised INSERT/UPDATE once per row of values, sent to the database as a single JDBC batch.
+     * Does not commit, so several batches can form one transaction; the caller commits or rolls back, so run it inside a unit
+     * of work (inTransaction). Returns the rows affected, counting a row the driver reports as SUCCESS_NO_INFO as one, so it
+     * cannot tell an UPDATE that matched nothing; use executeUpdate() where that matters */
+    public int executeBatch(String sql, List<Object[]> rows) throws SQLException {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        tableVersions.noteStatement(sql);
+        StatementCache cache = currentLease().getStatementCache();
+        PreparedStatement statement = cache.acquire(sql);
+        try {
+            statement.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+            for (Object[] row : rows) {
+                bindParameters(statement, row);
+                statement.addBatch();
+            }
+            CancellationToken.register(statement);
+            int total = 0;
+            for (int count : statement.executeBatch()) {
+                /* Oracle reports SUCCESS_NO_INFO (-2) for every row of a successful prepared batch */
+                total += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(0, count);
+            }
+            return total;
         } catch (SQLException e) {
-            this.connection.rollback();
-            throw e;
+            throw translateTimeout(e, QUERY_TIMEOUT_SECONDS);
+        } finally {
+            CancellationToken.unregister(statement);
+            /* A failed batch can leave rows queued on the statement, and the statement is reused from the cache */
+            try {
+                statement.clearBatch();
+            } finally {
+                cache.release(statement);
+            }
         }
     }
 
-    /* Execute SELECT query and return the ResultSet */
+    /* Execute SELECT query and return the ResultSet.
+     * The caller must close the statement (rs.getStatement().close()) and run it inside a unit of work; prefer query() or openQuery() */
     public ResultSet executeQuery(String query) throws SQLException {
-        Statement statement = this.connection.createStatement();
+        Statement statement = getConnection().createStatement();
+        statement.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+        statement.setFetchSize(FETCH_POLICY.getInitialRows());
+        leakDetector.track(statement, query);
         return statement.executeQuery(query);
     }
 
+    /* Runs a SELECT with bound parameters and hands the ResultSet to the handler. The statement and cursor are always closed */
+    public <T> T query(String sql, ResultSetHandler<T> handler, Object... params) throws SQLException {
+        return query(QueryOptions.DEFAULT, sql, handler, params);
+    }
+
+    /* Same as query(sql, handler, params) with per-query options such as a timeout */
+    public <T> T query(QueryOptions options, String sql, ResultSetHandler<T> handler, Object... params) throws SQLException {
+        try (QueryHandle handle = openQuery(options, sql, params)) {
+            return handler.handle(handle.getResultSet());
+        } catch (SQLException e) {
+            /* The timeout can also fire while rows are still being fetched */
+            throw translateTimeout(e, options.timeoutSeconds(QUERY_TIMEOUT_SECONDS));
+        }
+    }
+
+    /* Runs a SELECT and maps every row to an object */
+    public <T> List<T> queryForList(String sql, RowMapper<T> mapper, Object... params) throws SQLException {
+        return query(sql, rs -> {
+            List<T> rows = new ArrayList<>();
+            while (rs.next()) {
+                rows.add(mapper.mapRow(rs));
+            }
+            return rows;
+        }, params);
+    }
+
+    /* Runs a SELECT and passes every row to the callback */
+    public void forEachRow(String sql, RowCallback callback, Object... params) throws SQLException {
+        query(sql, rs -> {
+            while (rs.next()) {
+                callback.processRow(rs);
+            }
+            return null;
+        }, params);
+    }
+
+    /* Opens a query whose cursor stays open until the returned handle is closed */
+    public QueryHandle openQuery(String sql, Object... params) throws SQLException {
+        return openQuery(QueryOptions.DEFAULT, sql, params);
+    }
+
+    /* Opens a query with per-query options. The statement can be aborted through the calling thread's CancellationToken.
+     * Outside a unit of work, the connection borrowed for the query goes back to the pool when the handle is closed */
+    public QueryHandle openQuery(QueryOptions options, String sql, Object... params) throws SQLException {
+        int timeoutSeconds = options.timeoutSeconds(QUERY_TIMEOUT_SECONDS);
+        Runnable afterClose = borrowsForCall() ? this::releaseConnection : null;
+        StatementCache cache;
+        PreparedStatement statement;
+        try {
+            cache = currentLease().getStatementCache();
+            statement = cache.acquire(sql);
+        } catch (SQLException e) {
+            if (afterClose != null) {
+                afterClose.run();
+            }
+            throw e;
+        }
+        leakDetector.track(statement, sql);
+        try {
+            statement.setQueryTimeout(timeoutSeconds);
+            /* Cached statements keep the fetch size of their previous use, so it is set every time */
+            int initialFetchSize = options.hasFetchSize() ? options.getFetchSize() : FETCH_POLICY.getInitialRows();
+            statement.setFetchSize(initialFetchSize);
+            CancellationToken.register(statement);
+            bindParameters(statement, params);
+            ResultSet resultSet = statement.executeQuery();
+            return new QueryHandle(statement, adaptFetchSize(resultSet, sql, options, initialFetchSize), cache, leakDetector, afterClose);
+        } catch (SQLException e) {
+            CancellationToken.unregister(statement);
+            leakDetector.untrack(statement);
+            cache.release(statement);
+            if (afterClose != null) {
+                afterClose.run();
+            }
+            throw translateTimeout(e, timeoutSeconds);
+        }
+    }
+
+    /* Now that the columns are known, sizes the following round trips to the row width (unless the query fixed its fetch size).
+     * The ResultSet is wrapped in a FetchMonitor only when -Ddb.fetch.log=true */
+    private ResultSet adaptFetchSize(ResultSet resultSet, String sql, QueryOptions options, int initialFetchSize) throws SQLException {
+        try {
+            int rowBytes = FetchSizePolicy.estimateRowBytes(resultSet.getMetaData());
+            ResultSet monitored = FetchMonitor.ENABLED ? FetchMonitor.wrap(resultSet, sql, rowBytes, initialFetchSize) : resultSet;
+            if (!options.hasFetchSize()) {
+                monitored.setFetchSize(FETCH_POLICY.fetchSizeFor(rowBytes));
+            }
+            return monitored;
+        } catch (SQLException e) {
+            resultSet.close();
+            throw e;
+        }
+    }
+
+    /* The driver reports both a timeout and a user cancel the same way (ORA-01013 on Oracle); tell them apart so the user sees why the query stopped */
+    private SQLException translateTimeout(SQLException e, int timeoutSeconds) {
+        if (e instanceof SQLTimeoutException || !dialect.isQueryCancelled(e)) {
+            return e;
+        }
+        CancellationToken token = CancellationToken.current();
+        if (token != null && token.isCancelled()) {
+            return new SQLException("Query was cancelled.", e.getSQLState(), e.getErrorCode(), e);
+        }
+        if (timeoutSeconds > 0) {
+            return new SQLTimeoutException("Query timed out after " + timeoutSeconds + " seconds.", e.getSQLState(), e.getErrorCode(), e);
+        }
+        return e;
+    }
+
+    /* Binds positional parameters (1-based in JDBC) in order */
+    private static void bindParameters(PreparedStatement statement, Object... params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            if (params[i] == null) {
+                statement.setNull(i + 1, Types.VARCHAR);
+            } else {
+                statement.setObject(i + 1, params[i]);
+            }
+        }
+    }
+
+    /* Background executor for GUI queries; each task runs as its own transaction on a pooled connection */
+    public AsyncQueryExecutor getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
+    /* New primary keys for inserts, see KeyAllocator */
+    public KeyAllocator getKeyAllocator() {
+        return keyAllocator;
+    }
+
+    /* Views created once and kept until their definition changes, see ViewRegistry */
+    public ViewRegistry getViewRegistry() {
+        return viewRegistry;
+    }
+
+    /* Cached Company and Recruiter rows; write paths invalidate what they change, see ReferenceDataCache */
+    public ReferenceDataCache getReferenceData() {
+        return referenceData;
+    }
+
+    /* Write counters per table, see TableVersions */
+    public TableVersions getTableVersions() {
+        return tableVersions;
+    }
+
+    /* Results of repeated read-only reports, see ResultCache */
+    public ResultCache getResultCache() {
+        return resultCache;
+    }
+
+    /* The job listings every applicant sees, refreshed in the background, see JobBoard */
+    public JobBoard getJobBoard() {
+        return jobBoard;
+    }
+
+    /* Live models of whole tables, updated from the change log, see ChangeFeed */
+    public ChangeFeed getChangeFeed() {
+        return changeFeed;
+    }
+
+    /* Statements that were opened through this class and never closed */
+    public StatementLeakDetector getLeakDetector() {
+        return leakDetector;
+    }
+
+    /* Runs several statements as one transaction on the calling thread: committed once if the work returns, rolled back if it
+     * throws, and the connection goes back to the pool afterwards. Nested calls join the outer transaction. See UnitOfWork */
+    public <T> T inTransaction(String description, AsyncQueryExecutor.DatabaseTask<T> work) throws SQLException {
+        return unitOfWork.run(description, work);
+    }
+
+    /* How many transactions ran through inTransaction and how long they held their locks */
+    public UnitOfWork.Stats getTransactionStats() {
+        return unitOfWork.getStats();
+    }
+
     /* Commit the actions */
     public void commit() throws SQLException {
-        if (this.connection != null) { 
-            this.connection.commit();
+        if (threadLease.get() != null) {
+            getConnection().commit();
         }
+        tableVersions.endOfTransaction();
     }
 
     /* Rollback the actions */
     public void rollback() throws SQLException {
-        if (this.connection != null) { 
-            this.connection.rollback();
+        if (threadLease.get() != null) {
+            getConnection().rollback();
         }
+        tableVersions.endOfTransaction();
     }
 
-    /* Close database connection */
+    /* Close every pooled database connection */
     public void close() throws SQLException {
-        try { 
-            if (this.connection != null && !this.connection.isClosed()) {
-                this.connection.close();
-                System.out.println("Database connection closed.");
+        synchronized (DBConnection.class) {
+            connectionInstances.values().remove(this);
+        }
+        if (!pool.isClosed()) {
+            asyncExecutor.shutdown();
+            changeFeed.close();
+            System.out.println("Closing database connections: " + pool.describe() + ", " + unitOfWork.getStats().describe() + ", " + referenceData.describe() + ", " + resultCache.describe());
+            if (leakDetector.getOpenCount() > 0) {
+                System.err.print(leakDetector.report());
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            throw e;
+            pool.close();
+            System.out.println("Database connection closed.");
         }
     }
-    
+
 }
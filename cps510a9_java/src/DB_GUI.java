@@ -16,6 +16,9 @@ public class DB_GUI extends JFrame {
     private int applicantID;         /* Stores applicantID */
     private int recruiterID;         /* Stores recruiterID */
     private int companyID;           /* Stores companyID */
+    private JLabel statusLabel;      /* Shows how many database queries are running in the background */
+    private AsyncQueryExecutor queryExecutor; /* Background executor the status bar is watching */
+    private final AsyncQueryExecutor.ProgressListener progressListener = this::showQueryProgress;
 
     /* Sets up the frame, layout, and adds the login and main menu panels */
     public DB_GUI() {
@@ -35,8 +38,14 @@ public class DB_GUI extends JFrame {
         mainPanel.add(mainMenu, "mainmenu");
         mainPanel.setBackground(Color.BLUE);
         
+        /* Status bar for background database work */
+        statusLabel = new JLabel("Ready");
+        statusLabel.setFont(new Font("Times New Roman", Font.PLAIN, 14));
+        statusLabel.setBorder(BorderFactory.createEmptyBorder(2, 8, 2, 8));
+
         /* Add the main panel to the frame and show login screen first */
         add(mainPanel); 
+        add(statusLabel, BorderLayout.SOUTH);
         cardLayout.show(mainPanel, "login");
     }
 
@@ -89,17 +98,20 @@ public class DB_GUI extends JFrame {
 
     }
 
-    /* Utility method to attach a query button to an SQL statement. Executes a query when the button is clicked and displays the result in a JTable. */
+    /* Utility method to attach a query button to an SQL statement. Executes a query when the button is clicked and displays the result in a JTable.
+     * The rows are kept in a ColumnarResult, which takes far less memory than a DefaultTableModel for large results. */
     public static void executeButtonActionEvent(JButton tableButton, DBConnection databaseConnection, String query) {
         tableButton.addActionListener(actionEvent -> {
-            try {
-                ResultSet queryResult = databaseConnection.executeQuery(query);
-                JTable queryResultTable = new JTable(buildTableModel(queryResult));
+            /* The query runs in the background; the button stays disabled until its result is shown */
+            tableButton.setEnabled(false);
+            AsyncQueryExecutor.deliver(databaseConnection.getAsyncExecutor().query(tableButton.getText(), query, ColumnarResult::from), result -> {
+                tableButton.setEnabled(true);
+                JTable queryResultTable = new JTable(result.asTableModel());
                 JOptionPane.showMessageDialog(null, new JScrollPane(queryResultTable));
-            }
-            catch (SQLException e) {
+            }, e -> {
+                tableButton.setEnabled(true);
                 e.printStackTrace();
-            }
+            });
         });
     }
 
@@ -355,9 +367,35 @@ public class DB_GUI extends JFrame {
         loading.setVisible(true);
     }
 
+    /* Keeps the status bar in sync with the queries running in the background */
+    private void watchQueryProgress() {
+        try {
+            AsyncQueryExecutor executor = DBConnection.getInstance(username, password).getAsyncExecutor();
+            if (executor != queryExecutor) {
+                if (queryExecutor != null) {
+                    queryExecutor.removeProgressListener(progressListener);
+                }
+                queryExecutor = executor;
+                queryExecutor.addProgressListener(progressListener);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void showQueryProgress(int inFlight, String description) {
+        if (inFlight == 0) {
+            statusLabel.setText("Ready");
+        } else {
+            statusLabel.setText("Running " + inFlight + (inFlight == 1 ? " query: " : " queries: ") + queryExecutor.describeInFlight());
+        }
+    }
+
     /* Handles initialization after login with loading popup */
     public void initializeAfterLogin() {
 
+        watchQueryProgress();
+
         if (userRole.equals("Database Admin")) {
             showMainMenu();
             return;
@@ -1,41 +1,119 @@
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 
 /*
  * This class automatically initializes the database:
- *  Creates tables if they do NOT already exist
+ *  Creates tables if they do NOT already exist, and the lookup indexes declared in IndexManager
+ *  Installs the change triggers feeding ChangeLog, see ChangeFeed
  *  Populates sample data only if tables are empty
  *  Safe to run on every login (no duplicates, no crashes)
+ *  Records SCHEMA_VERSION in the SchemaVersion table once done, so later logins only read that one row and skip the rest;
+ *  the time a login takes therefore does not depend on how many tables there are or how many rows they hold
  * NOTE: This class is only ran for Company, Applicant, or Recruiter roles, NOT FOR Database Admin roles
  */
 public class DatabaseInitializer {
 
+    /* An applicant can apply to each job once; Applicant_GUI relies on this constraint to detect repeated applications */
+    static final String UNIQUE_APPLICATION = "jobapp_job_applicant_uq";
+
+    /* Version of the tables, constraints and seed data below. Increase it whenever they change, so every database is checked again */
+    static final int SCHEMA_VERSION = 4;
+
     private final DBConnection dbConnection;
-    private final Connection connection;
 
     public DatabaseInitializer(String username, String password) throws SQLException {
-        this.dbConnection = DBConnection.getInstance(username, password);
-        this.connection = dbConnection.getConnection();
+        this(DBConnection.getInstance(username, password));
     }
 
-    /* Run this method once immediately after login */
-    public void initialize() throws SQLException {
-        connection.setAutoCommit(false);
+    DatabaseInitializer(DBConnection dbConnection) {
+        this.dbConnection = dbConnection;
+    }
 
+    /* Run this method once immediately after login. Everything runs as one unit of work, so the connection it borrows goes
+     * back to the pool when it is done, whether it succeeded or not. Returns false when the schema was already current */
+    public boolean initialize() throws SQLException {
+        long start = System.nanoTime();
+        boolean initialized;
         try {
-            createTablesIfMissing();
-            populateTablesIfEmpty();
-            connection.commit();
-            System.out.println("Database successfully initialized.");
+            initialized = dbConnection.inTransaction("Initialize database", () -> {
+                /* Fast path: a database already set up by this version needs nothing else */
+                if (isSchemaCurrent()) {
+                    return false;
+                }
+                Set<String> existing = existingTables();
+                createTablesIfMissing(existing);
+                if (existing.contains("RESUME")) {
+                    addResumeContentHash();
+                }
+                addUniqueApplicationConstraint();
+                for (String line : new IndexManager(dbConnection).ensureIndexes()) {
+                    System.out.println(line);
+                }
+                for (String line : ChangeFeed.installTriggers(dbConnection)) {
+                    System.out.println(line);
+                }
+                populateTablesIfEmpty();
+                stampSchemaVersion();
+                return true;
+            });
         } catch (SQLException ex) {
-            connection.rollback();
             System.err.println("Database initialization failed: " + ex.getMessage());
             throw ex;
         }
+        if (initialized) {
+            System.out.println("Database successfully initialized in " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+        } else {
+            System.out.println("Database schema is at version " + SCHEMA_VERSION + " (checked in " + (System.nanoTime() - start) / 1_000_000 + " ms).");
+        }
+        return initialized;
+    }
+
+    /* Whether the SchemaVersion row says this database was set up by the current SCHEMA_VERSION (one single-row query) */
+    private boolean isSchemaCurrent() throws SQLException {
+        try {
+            Integer version = dbConnection.query("SELECT version FROM SchemaVersion WHERE id = 1", rs -> rs.next() ? rs.getInt(1) : null);
+            return version != null && version == SCHEMA_VERSION;
+        } catch (SQLException ex) {
+            if (dbConnection.getDialect().isMissingTable(ex)) {
+                return false;
+            }
+            throw ex;
+        }
+    }
+
+    /* Upper-case names of every table in the schema, from one data dictionary query */
+    private Set<String> existingTables() throws SQLException {
+        return dbConnection.query(dbConnection.getDialect().tableNamesQuery(), rs -> {
+            Set<String> names = new HashSet<>();
+            while (rs.next()) {
+                names.add(rs.getString(1).toUpperCase());
+            }
+            return names;
+        });
+    }
+
+    /* Records that this database is set up for SCHEMA_VERSION; committed together with the rest of initialize().
+     * Not a batch: Oracle reports every row of a prepared batch as SUCCESS_NO_INFO, even for an UPDATE that matched nothing */
+    void stampSchemaVersion() throws SQLException {
+        if (dbConnection.executeUpdate("UPDATE SchemaVersion SET version = " + SCHEMA_VERSION + ", appliedOn = SYSDATE WHERE id = 1") == 0) {
+            dbConnection.executeUpdate("INSERT INTO SchemaVersion (id, version, appliedOn) VALUES (1, " + SCHEMA_VERSION + ", SYSDATE)");
+        }
+        System.out.println("Database schema stamped with version " + SCHEMA_VERSION + ".");
     }
 
     /* Create tables only if they do not already exist */
-    private void createTablesIfMissing() throws SQLException {
-        createTable("COMPANY", 
+    private void createTablesIfMissing(Set<String> existing) throws SQLException {
+        createTable(existing, "SCHEMAVERSION",
+            "CREATE TABLE SchemaVersion (" +
+            "id INTEGER PRIMARY KEY, " +
+            "version INTEGER NOT NULL, " +
+            "appliedOn DATE)"
+        );
+
+        createTable(existing, "COMPANY", 
             "CREATE TABLE Company (" +
             "companyID INTEGER PRIMARY KEY, " +
             "name VARCHAR(30) NOT NULL UNIQUE, " +
@@ -45,7 +123,7 @@ public class DatabaseInitializer {
             "phone VARCHAR(20))"
         );
 
-        createTable("RECRUITER", 
+        createTable(existing, "RECRUITER", 
             "CREATE TABLE Recruiter (" +
             "recruiterID INTEGER PRIMARY KEY, " +
             "companyID INTEGER NOT NULL, " +
@@ -56,7 +134,7 @@ public class DatabaseInitializer {
             "FOREIGN KEY (companyID) REFERENCES Company(companyID))"
         );
 
-        createTable("JOB", 
+        createTable(existing, "JOB", 
             "CREATE TABLE Job (" +
             "jobID INTEGER PRIMARY KEY, " +
             "companyID INTEGER NOT NULL, " +
@@ -71,7 +149,7 @@ public class DatabaseInitializer {
             "FOREIGN KEY (recruiterID) REFERENCES Recruiter(recruiterID))"
         );
 
-        createTable("JOBAPPLICANT", 
+        createTable(existing, "JOBAPPLICANT", 
             "CREATE TABLE JobApplicant (" +
             "applicantID INTEGER PRIMARY KEY, " +
             "first_name VARCHAR(30) NOT NULL, " +
@@ -83,27 +161,41 @@ public class DatabaseInitializer {
             "phone VARCHAR(20))"
         );
 
-        createTable("JOBAPPLICATION", 
+        createTable(existing, "JOBAPPLICATION", 
             "CREATE TABLE JobApplication (" +
             "jobAppID INTEGER PRIMARY KEY, " +
             "jobID INTEGER NOT NULL, " +
             "applicantID INTEGER NOT NULL, " +
             "dateTime DATE, " +
             "status VARCHAR(20), " +
+            "CONSTRAINT " + UNIQUE_APPLICATION + " UNIQUE (jobID, applicantID), " +
             "FOREIGN KEY (jobID) REFERENCES Job(jobID), " +
             "FOREIGN KEY (applicantID) REFERENCES JobApplicant(applicantID))"
         );
 
-        createTable("RESUME", 
+        /* Resume files stored once per distinct content, see ResumeStorage */
+        createTable(existing, "RESUMEBLOB",
+            "CREATE TABLE ResumeBlob (" +
+            "contentHash VARCHAR(64) PRIMARY KEY, " +
+            "content BLOB NOT NULL, " +
+            "byteSize INTEGER NOT NULL, " +
+            "created DATE DEFAULT SYSDATE NOT NULL)"
+        );
+
+        /* A resume holds its file inline (uploadFile) or refers to a shared one (contentHash) */
+        createTable(existing, "RESUME", 
             "CREATE TABLE Resume (" +
             "resumeID INTEGER PRIMARY KEY, " +
             "applicantID INTEGER NOT NULL, " +
-            "uploadFile BLOB NOT NULL, " +
+            "uploadFile BLOB, " +
             "uploadDate DATE DEFAULT SYSDATE NOT NULL, " +
+            "contentHash VARCHAR(64), " +
+            "CONSTRAINT resume_file_ck CHECK (uploadFile IS NOT NULL OR contentHash IS NOT NULL), " +
+            "FOREIGN KEY (contentHash) REFERENCES ResumeBlob(contentHash), " +
             "FOREIGN KEY (applicantID) REFERENCES JobApplicant(applicantID))"
         );
 
-        createTable("INTERVIEW", 
+        createTable(existing, "INTERVIEW", 
             "CREATE TABLE Interview (" +
             "interviewID INTEGER PRIMARY KEY, " +
             "jobAppID INTEGER NOT NULL, " +
@@ -111,10 +203,13 @@ public class DatabaseInitializer {
             "location VARCHAR(100) NOT NULL, " +
             "FOREIGN KEY (jobAppID) REFERENCES JobApplication(jobAppID))"
         );
+
+        /* Rows written to the tables above, appended by their change triggers */
+        createTable(existing, "CHANGELOG", ChangeFeed.CREATE_TABLE);
     }
 
-    private void createTable(String tableName, String createSQL) throws SQLException {
-        if (!tableExists(tableName)) {
+    private void createTable(Set<String> existing, String tableName, String createSQL) throws SQLException {
+        if (!existing.contains(tableName)) {
             dbConnection.executeUpdate(createSQL);
             System.out.println("Created table: " + tableName);
         } else {
@@ -122,94 +217,161 @@ public class DatabaseInitializer {
         }
     }
 
-    private boolean tableExists(String tableName) throws SQLException {
-        String sql = 
-            "SELECT COUNT(*) FROM user_tables WHERE table_name = '" + tableName.toUpperCase() + "'";
-        ResultSet rs = dbConnection.executeQuery(sql);
-        rs.next();
-        return rs.getInt(1) > 0;
+    /* Resume tables created before resumes were deduplicated get the contentHash column, and uploadFile becomes optional.
+     * Their existing rows keep their files inline */
+    private void addResumeContentHash() throws SQLException {
+        SqlDialect dialect = dbConnection.getDialect();
+        boolean exists = dbConnection.query(dialect.columnExistsQuery(), rs -> { rs.next(); return rs.getInt(1) > 0; }, "RESUME", "CONTENTHASH");
+        if (exists) {
+            return;
+        }
+        dbConnection.executeUpdate("ALTER TABLE Resume ADD contentHash VARCHAR(64) REFERENCES ResumeBlob(contentHash)");
+        dbConnection.executeUpdate(dialect.dropNotNull("Resume", "uploadFile"));
+        System.out.println("Added column: Resume.contentHash");
+    }
+
+    /* JobApplication tables created before the constraint existed get it added. Applicant_GUI relies on the constraint to
+     * turn away repeated applications, so initialization fails while the table still holds some (the Database Admin role,
+     * which skips initialization, can delete them) */
+    private void addUniqueApplicationConstraint() throws SQLException {
+        String sql = dbConnection.getDialect().constraintExistsQuery();
+        boolean exists = dbConnection.query(sql, rs -> { rs.next(); return rs.getInt(1) > 0; }, UNIQUE_APPLICATION.toUpperCase());
+        if (exists) {
+            return;
+        }
+        try {
+            dbConnection.executeUpdate("ALTER TABLE JobApplication ADD CONSTRAINT " + UNIQUE_APPLICATION + " UNIQUE (jobID, applicantID)");
+            System.out.println("Added constraint: " + UNIQUE_APPLICATION);
+        } catch (SQLException ex) {
+            throw new SQLException("Could not add constraint " + UNIQUE_APPLICATION + " (remove repeated job applications first): "
+                + ex.getMessage(), ex.getSQLState(), ex.getErrorCode(), ex);
+        }
     }
 
-    /* Populate tables only if they are empty */
+    /* Populate tables only if they are empty.
+     * Each table's rows go to the database as one JDBC batch, and nothing is committed until initialize() commits at the end,
+     * so seeding costs one round trip per table instead of one round trip and one commit per row. */
     private void populateTablesIfEmpty() throws SQLException {
+        long start = System.nanoTime();
+        Set<String> empty = emptyTables("Company", "Recruiter", "Job", "JobApplicant", "JobApplication", "Resume", "Interview");
+        if (empty.isEmpty()) {
+            return;
+        }
+
         /* Insert statements */
-        if (isTableEmpty("Company")) { 
-            dbConnection.executeUpdate("INSERT INTO Company (companyID, name, industry, location, email, phone) VALUES (1, 'Apple Canada', 'Software', '120 Bremner Boulevard Suite 1600, Toronto, Ontario, M5J 0A8', '', '647-943-4400')"); 
-            dbConnection.executeUpdate("INSERT INTO Company (companyID, name, industry, location, email, phone) VALUES (2, 'Royal Bank of Canada (RBC)', 'Banking', 'Toronto, Ontario, Canada', 'recruitment@rbc.com', '1-800-769-2511')"); 
-            dbConnection.executeUpdate("INSERT INTO Company (companyID, name, industry, location, email, phone) VALUES (3, 'AMD', 'Technology', 'Markham, Ontario, Canada', '', '905-882-2600')"); 
-            dbConnection.executeUpdate("INSERT INTO Company (companyID, name, industry, location, email, phone) VALUES (4, 'SAMSUNG', 'Hardware', 'Vancouver, British Columbia', 'recruitment@samsung.com', '416-230-8121')");
-            dbConnection.executeUpdate("UPDATE Company SET location = 'Toronto, Ontario, Canada' WHERE companyID = 1");
-            dbConnection.executeUpdate("UPDATE Company SET industry = 'Technology' WHERE companyID = 1");
-        }
-
-        if (isTableEmpty("Recruiter")) { 
-            dbConnection.executeUpdate("INSERT INTO Recruiter (recruiterID, companyID, first_name, last_name, email, phone) VALUES (1, 1, 'Jane', 'Doe', 'jane.doe@apple.com', '647-222-3333')");
-            dbConnection.executeUpdate("INSERT INTO Recruiter (recruiterID, companyID, first_name, last_name, email, phone) VALUES (2, 2, 'Bob', 'William', 'bob.william@rbc.com', '416-111-1111')"); 
-            dbConnection.executeUpdate("INSERT INTO Recruiter (recruiterID, companyID, first_name, last_name, email, phone) VALUES (3, 3, 'John', 'Daniels', 'john.daniels@amd.com', '905-423-5678')"); 
-            dbConnection.executeUpdate("INSERT INTO Recruiter (recruiterID, companyID, first_name, last_name, email, phone) VALUES (4, 4, 'Jack', 'Jones', 'jack.jones@samsung.com', '647-333-4444')");         
-        }
-
-        if (isTableEmpty("Job")) { 
-            dbConnection.executeUpdate("INSERT INTO Job (jobID, companyID, recruiterID, salary, workingHours, datePosted, location, title, description) VALUES (1, 1, 1, 31.50, 36.25, TO_DATE('2025-09-22', 'YYYY-MM-DD'), 'Toronto, Ontario, Canada', 'Software Engineer', 'Develop and maintain Apple software products.')");
-            dbConnection.executeUpdate("INSERT INTO Job (jobID, companyID, recruiterID, salary, workingHours, datePosted, location, title, description) VALUES (2, 2, 2, 24.50, 35.00, TO_DATE('2025-09-24', 'YYYY-MM-DD'), 'Toronto, Ontario, Canada', 'Financial Analyst', 'Analyze financial data and provide insights for RBC clients.')");
-            dbConnection.executeUpdate("INSERT INTO Job (jobID, companyID, recruiterID, salary, workingHours, datePosted, location, title, description) VALUES (3, 3, 3, 28.50, 40.00, TO_DATE('2025-09-26', 'YYYY-MM-DD'), 'Markham, Ontario, Canada', 'Systems Design Engineer', 'Responsible for designing, integrating, and validating complex hardware and software systems.')");
-            dbConnection.executeUpdate("INSERT INTO Job (jobID, companyID, recruiterID, salary, workingHours, datePosted, location, title, description) VALUES (4, 4, 4, 25, 42, DATE '2025-09-28', 'Vancouver, British Columbia, Canada', 'Software Developer', 'Develop and maintain applications for Samsung.')");
-            dbConnection.executeUpdate("INSERT INTO Job (jobID, companyID, recruiterID, salary, workingHours, datePosted, location, title, description) VALUES (5, 1, 1, 31.50, 36.25, TO_DATE('2025-09-22', 'YYYY-MM-DD'), 'Toronto, Ontario, Canada', 'Mobile Developer', 'Develop and maintain Apple mobile products and services.')");
-            dbConnection.executeUpdate("INSERT INTO Job (jobID, companyID, recruiterID, salary, workingHours, datePosted, location, title, description) VALUES (6, 1, 1, 31.50, 36.25, TO_DATE('2025-10-04', 'YYYY-MM-DD'), 'Toronto, Ontario, Canada', 'Janitor', 'Mop the floors and clean the bathrooms.')");
-            dbConnection.executeUpdate("INSERT INTO Job (jobID, companyID, recruiterID, salary, workingHours, datePosted, location, title, description) VALUES (7, 1, 1, 40.75, 40.00, TO_DATE('2025-10-10', 'YYYY-MM-DD'), 'Toronto, Ontario, Canada', 'Data Engineer', 'Design and maintain Apple’s data pipelines.')");
-            dbConnection.executeUpdate("INSERT INTO Job (jobID, companyID, recruiterID, salary, workingHours, datePosted, location, title, description) VALUES (8, 1, 1, 29.00, 38.00, TO_DATE('2025-10-11', 'YYYY-MM-DD'), 'Toronto, Ontario, Canada', 'IT Support Specialist', 'Provide internal tech support for Apple employees.')");
-            dbConnection.executeUpdate("INSERT INTO Job (jobID, companyID, recruiterID, salary, workingHours, datePosted, location, title, description) VALUES (9, 2, 2, 22.00, 35.00, TO_DATE('2025-10-08', 'YYYY-MM-DD'), 'Toronto, Ontario, Canada', 'Bank Teller', 'Assist clients with daily transactions.')");
-            dbConnection.executeUpdate("INSERT INTO Job (jobID, companyID, recruiterID, salary, workingHours, datePosted, location, title, description) VALUES (10, 2, 2, 31.50, 37.50, TO_DATE('2025-10-09', 'YYYY-MM-DD'), 'Toronto, Ontario, Canada', 'Data Analyst', 'Analyze customer trends to improve banking performance.')");
-            dbConnection.executeUpdate("INSERT INTO Job (jobID, companyID, recruiterID, salary, workingHours, datePosted, location, title, description) VALUES (11, 3, 3, 45.00, 40.00, TO_DATE('2025-10-06', 'YYYY-MM-DD'), 'Markham, Ontario, Canada', 'Hardware Engineer', 'Develop and test AMD hardware components.')");
-            dbConnection.executeUpdate("INSERT INTO Job (jobID, companyID, recruiterID, salary, workingHours, datePosted, location, title, description) VALUES (12, 3, 3, 35.00, 40.00, TO_DATE('2025-10-07', 'YYYY-MM-DD'), 'Markham, Ontario, Canada', 'Software Engineer', 'Develop internal tools and automation frameworks for AMD.')");
-            dbConnection.executeUpdate("INSERT INTO Job (jobID, companyID, recruiterID, salary, workingHours, datePosted, location, title, description) VALUES (13, 4, 4, 26.50, 40.00, TO_DATE('2025-10-05', 'YYYY-MM-DD'), 'Vancouver, British Columbia, Canada', 'QA Tester', 'Perform software and hardware quality assurance tests.')");
-            dbConnection.executeUpdate("INSERT INTO Job (jobID, companyID, recruiterID, salary, workingHours, datePosted, location, title, description) VALUES (14, 4, 4, 30.00, 40.00, TO_DATE('2025-10-06', 'YYYY-MM-DD'), 'Vancouver, British Columbia, Canada', 'UI/UX Designer', 'Design user interfaces for Samsung applications.')");
-        }
-        
-        if (isTableEmpty("JobApplicant")) { 
-            dbConnection.executeUpdate("INSERT INTO JobApplicant (applicantID, first_name, last_name, industry, birthdate, address, email, phone) VALUES (1, 'Alice', 'Bob', 'Technology', TO_DATE('2002-04-13', 'YYYY-MM-DD'), '123 Bay Street, Toronto, Ontario, Canada, M1B 2K3', 'alice.bob@gmail.com', '416-123-455')");
-            dbConnection.executeUpdate("INSERT INTO JobApplicant (applicantID, first_name, last_name, industry, birthdate, address, email, phone) VALUES (2, 'Jake', 'Blake', 'Technology', TO_DATE('2004-05-06', 'YYYY-MM-DD'), '456 Main Street, Markham, Ontario, Canada, L6H 1F3', 'jake.blake@hotmail.com', '647-444-1947')");
-            dbConnection.executeUpdate("INSERT INTO JobApplicant (applicantID, first_name, last_name, industry, birthdate, address, email, phone) VALUES (3, 'Griffin', 'Walker', 'Banking', TO_DATE('2003-12-25', 'YYYY-MM-DD'), '789 Bond Avenue, Ajax, Ontario, Canada, L0H 1H9', 'griffin.walker@outlook.com', '905-289-9876')");
-            dbConnection.executeUpdate("INSERT INTO JobApplicant (applicantID, first_name, last_name, industry, birthdate, address, email, phone) VALUES (4, 'Ed', 'Stephens', 'Software', TO_DATE('2004-01-25', 'YYYY-MM-DD'), '145 Bloor Avenue, Toronto, Ontario, Canada, M5B 3K9', 'ed.stephens@outlook.com', '905-444-2121')");
-            dbConnection.executeUpdate("INSERT INTO JobApplicant (applicantID, first_name, last_name, industry, birthdate, address, email, phone) VALUES (5, 'Joe', 'Random', 'Technology', TO_DATE('2001-07-29', 'YYYY-MM-DD'), '7622 Markham Road, Markham, Ontario, Canada, L6H 9A3', 'joe.random@gmail.com', '647-543-2211')");
-            dbConnection.executeUpdate("INSERT INTO JobApplicant (applicantID, first_name, last_name, industry, birthdate, address, email, phone) VALUES (6, 'Michael', 'Jordan', 'Hardware', TO_DATE('2002-11-09', 'YYYY-MM-DD'), '116 Bond Street, Hamilton, Ontario, Canada, LOP 1B9', 'michael.jordan@gmail.com', '416-989-7777')");
-            dbConnection.executeUpdate("INSERT INTO JobApplicant (applicantID, first_name, last_name, industry, birthdate, address, email, phone) VALUES (7, 'Sam', 'Inactive', 'Technology', TO_DATE('2002-04-13', 'YYYY-MM-DD'), '123 Bay Street, Toronto, Ontario, Canada, M1B 2K3', 'sam.inactive@gmail.com', '416-123-8293')");
-        }
-
-        if (isTableEmpty("JobApplication")) { 
-            dbConnection.executeUpdate("INSERT INTO JobApplication (jobAppID, jobID, applicantID, dateTime, status) VALUES (1, 1, 1, TO_DATE('2025-09-28', 'YYYY-MM-DD'), 'Rejected')");
-            dbConnection.executeUpdate("INSERT INTO JobApplication (jobAppID, jobID, applicantID, dateTime, status) VALUES (2, 2, 2, TO_DATE('2025-09-29', 'YYYY-MM-DD'), 'Under Review')");
-            dbConnection.executeUpdate("INSERT INTO JobApplication (jobAppID, jobID, applicantID, dateTime, status) VALUES (3, 3, 3, TO_DATE('2025-09-30', 'YYYY-MM-DD'), 'Submitted')");
-            dbConnection.executeUpdate("INSERT INTO JobApplication (jobAppID, jobID, applicantID, dateTime, status) VALUES (4, 1, 4, TO_DATE('2025-09-30', 'YYYY-MM-DD'), 'Interview Pending')");
-            dbConnection.executeUpdate("INSERT INTO JobApplication (jobAppID, jobID, applicantID, dateTime, status) VALUES (5, 3, 5, TO_DATE('2025-09-30', 'YYYY-MM-DD'), 'Interview Pending')");
-            dbConnection.executeUpdate("INSERT INTO JobApplication (jobAppID, jobID, applicantID, dateTime, status) VALUES (6, 4, 6, TO_DATE('2025-09-30', 'YYYY-MM-DD'), 'Interview Pending')");
-            dbConnection.executeUpdate("INSERT INTO JobApplication (jobAppID, jobID, applicantID, dateTime, status) VALUES (7, 4, 5, TO_DATE('2025-10-04', 'YYYY-MM-DD'), 'Interview Pending')");
-        }
-
-        if (isTableEmpty("Resume")) { 
-            dbConnection.executeUpdate("INSERT INTO Resume (resumeID, applicantID, uploadFile, uploadDate) VALUES (1, 1, UTL_RAW.CAST_TO_RAW('Alice Bob'), TO_DATE('2002-04-13', 'YYYY-MM-DD'))");
-            dbConnection.executeUpdate("INSERT INTO Resume (resumeID, applicantID, uploadFile, uploadDate) VALUES (2, 2, UTL_RAW.CAST_TO_RAW('Jake Blake Resume'), TO_DATE('2025-09-28', 'YYYY-MM-DD'))");
-            dbConnection.executeUpdate("INSERT INTO Resume (resumeID, applicantID, uploadFile, uploadDate) VALUES (3, 3, UTL_RAW.CAST_TO_RAW('Griffin Walker Resume'), TO_DATE('2025-09-29', 'YYYY-MM-DD'))");
-            dbConnection.executeUpdate("INSERT INTO Resume (resumeID, applicantID, uploadFile, uploadDate) VALUES (4, 4, UTL_RAW.CAST_TO_RAW('Ed Stephens Resume'), TO_DATE('2025-09-28', 'YYYY-MM-DD'))");
-            dbConnection.executeUpdate("INSERT INTO Resume (resumeID, applicantID, uploadFile, uploadDate) VALUES (5, 5, UTL_RAW.CAST_TO_RAW('Joe Random Resume'), TO_DATE('2025-09-29', 'YYYY-MM-DD'))");
-            dbConnection.executeUpdate("INSERT INTO Resume (resumeID, applicantID, uploadFile, uploadDate) VALUES (6, 6, UTL_RAW.CAST_TO_RAW('Michael Jordan Resume'), TO_DATE('2025-09-30', 'YYYY-MM-DD'))");
-            dbConnection.executeUpdate("INSERT INTO Resume (resumeID, applicantID, uploadFile, uploadDate) VALUES (7, 6, UTL_RAW.CAST_TO_RAW('Michael Jordan Resume 2'), TO_DATE('2025-10-04', 'YYYY-MM-DD'))");
-            dbConnection.executeUpdate("UPDATE Resume SET uploadDate = TO_DATE('2025-09-27', 'YYYY-MM-DD') WHERE resumeID = 1");
-            dbConnection.executeUpdate("UPDATE Resume SET uploadFile = UTL_RAW.CAST_TO_RAW('Alice Bob Resume') WHERE resumeID = 1");
-        }
-        
-        if (isTableEmpty("Interview")) { 
-            dbConnection.executeUpdate("INSERT INTO Interview (interviewID, jobAppID, dateTime, location) VALUES (1, 4, TO_DATE('2025-10-1 10:00 AM', 'YYYY-MM-DD HH:MI AM'), 'Toronto, Ontario, Canada')");
-            dbConnection.executeUpdate("INSERT INTO Interview (interviewID, jobAppID, dateTime, location) VALUES (2, 5, TO_DATE('2025-10-2 11:00 AM', 'YYYY-MM-DD HH:MI AM'), 'Markham, Ontario, Canada')");
-            dbConnection.executeUpdate("INSERT INTO Interview (interviewID, jobAppID, dateTime, location) VALUES (3, 6, TO_DATE('2025-10-3 1:00 PM', 'YYYY-MM-DD HH:MI PM'), 'Vancouver, British Columbia, Canada')");
-        }
-    }
-
-    private boolean isTableEmpty(String tableName) throws SQLException {
-        String sql = "SELECT COUNT(*) FROM " + tableName;
-        ResultSet rs = dbConnection.executeQuery(sql);
-        rs.next();
-        return rs.getInt(1) == 0;
+        if (empty.contains("Company")) {
+            seed("Company", "INSERT INTO Company (companyID, name, industry, location, email, phone) VALUES (?, ?, ?, ?, ?, ?)",
+                row(1, "Apple Canada", "Technology", "Toronto, Ontario, Canada", "", "647-943-4400"),
+                row(2, "Royal Bank of Canada (RBC)", "Banking", "Toronto, Ontario, Canada", "recruitment@rbc.com", "1-800-769-2511"),
+                row(3, "AMD", "Technology", "Markham, Ontario, Canada", "", "905-882-2600"),
+                row(4, "SAMSUNG", "Hardware", "Vancouver, British Columbia", "recruitment@samsung.com", "416-230-8121"));
+        }
+
+        if (empty.contains("Recruiter")) {
+            seed("Recruiter", "INSERT INTO Recruiter (recruiterID, companyID, first_name, last_name, email, phone) VALUES (?, ?, ?, ?, ?, ?)",
+                row(1, 1, "Jane", "Doe", "jane.doe@apple.com", "647-222-3333"),
+                row(2, 2, "Bob", "William", "bob.william@rbc.com", "416-111-1111"),
+                row(3, 3, "John", "Daniels", "john.daniels@amd.com", "905-423-5678"),
+                row(4, 4, "Jack", "Jones", "jack.jones@samsung.com", "647-333-4444"));
+        }
+
+        if (empty.contains("Job")) {
+            seed("Job", "INSERT INTO Job (jobID, companyID, recruiterID, salary, workingHours, datePosted, location, title, description) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                row(1, 1, 1, 31.50, 36.25, date("2025-09-22"), "Toronto, Ontario, Canada", "Software Engineer", "Develop and maintain Apple software products."),
+                row(2, 2, 2, 24.50, 35.00, date("2025-09-24"), "Toronto, Ontario, Canada", "Financial Analyst", "Analyze financial data and provide insights for RBC clients."),
+                row(3, 3, 3, 28.50, 40.00, date("2025-09-26"), "Markham, Ontario, Canada", "Systems Design Engineer", "Responsible for designing, integrating, and validating complex hardware and software systems."),
+                row(4, 4, 4, 25.00, 42.00, date("2025-09-28"), "Vancouver, British Columbia, Canada", "Software Developer", "Develop and maintain applications for Samsung."),
+                row(5, 1, 1, 31.50, 36.25, date("2025-09-22"), "Toronto, Ontario, Canada", "Mobile Developer", "Develop and maintain Apple mobile products and services."),
+                row(6, 1, 1, 31.50, 36.25, date("2025-10-04"), "Toronto, Ontario, Canada", "Janitor", "Mop the floors and clean the bathrooms."),
+                row(7, 1, 1, 40.75, 40.00, date("2025-10-10"), "Toronto, Ontario, Canada", "Data Engineer", "Design and maintain Apple’s data pipelines."),
+                row(8, 1, 1, 29.00, 38.00, date("2025-10-11"), "Toronto, Ontario, Canada", "IT Support Specialist", "Provide internal tech support for Apple employees."),
+                row(9, 2, 2, 22.00, 35.00, date("2025-10-08"), "Toronto, Ontario, Canada", "Bank Teller", "Assist clients with daily transactions."),
+                row(10, 2, 2, 31.50, 37.50, date("2025-10-09"), "Toronto, Ontario, Canada", "Data Analyst", "Analyze customer trends to improve banking performance."),
+                row(11, 3, 3, 45.00, 40.00, date("2025-10-06"), "Markham, Ontario, Canada", "Hardware Engineer", "Develop and test AMD hardware components."),
+                row(12, 3, 3, 35.00, 40.00, date("2025-10-07"), "Markham, Ontario, Canada", "Software Engineer", "Develop internal tools and automation frameworks for AMD."),
+                row(13, 4, 4, 26.50, 40.00, date("2025-10-05"), "Vancouver, British Columbia, Canada", "QA Tester", "Perform software and hardware quality assurance tests."),
+                row(14, 4, 4, 30.00, 40.00, date("2025-10-06"), "Vancouver, British Columbia, Canada", "UI/UX Designer", "Design user interfaces for Samsung applications."));
+        }
+
+        if (empty.contains("JobApplicant")) {
+            seed("JobApplicant", "INSERT INTO JobApplicant (applicantID, first_name, last_name, industry, birthdate, address, email, phone) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                row(1, "Alice", "Bob", "Technology", date("2002-04-13"), "123 Bay Street, Toronto, Ontario, Canada, M1B 2K3", "alice.bob@gmail.com", "416-123-455"),
+                row(2, "Jake", "Blake", "Technology", date("2004-05-06"), "456 Main Street, Markham, Ontario, Canada, L6H 1F3", "jake.blake@hotmail.com", "647-444-1947"),
+                row(3, "Griffin", "Walker", "Banking", date("2003-12-25"), "789 Bond Avenue, Ajax, Ontario, Canada, L0H 1H9", "griffin.walker@outlook.com", "905-289-9876"),
+                row(4, "Ed", "Stephens", "Software", date("2004-01-25"), "145 Bloor Avenue, Toronto, Ontario, Canada, M5B 3K9", "ed.stephens@outlook.com", "905-444-2121"),
+                row(5, "Joe", "Random", "Technology", date("2001-07-29"), "7622 Markham Road, Markham, Ontario, Canada, L6H 9A3", "joe.random@gmail.com", "647-543-2211"),
+                row(6, "Michael", "Jordan", "Hardware", date("2002-11-09"), "116 Bond Street, Hamilton, Ontario, Canada, LOP 1B9", "michael.jordan@gmail.com", "416-989-7777"),
+                row(7, "Sam", "Inactive", "Technology", date("2002-04-13"), "123 Bay Street, Toronto, Ontario, Canada, M1B 2K3", "sam.inactive@gmail.com", "416-123-8293"));
+        }
+
+        if (empty.contains("JobApplication")) {
+            seed("JobApplication", "INSERT INTO JobApplication (jobAppID, jobID, applicantID, dateTime, status) VALUES (?, ?, ?, ?, ?)",
+                row(1, 1, 1, date("2025-09-28"), "Rejected"),
+                row(2, 2, 2, date("2025-09-29"), "Under Review"),
+                row(3, 3, 3, date("2025-09-30"), "Submitted"),
+                row(4, 1, 4, date("2025-09-30"), "Interview Pending"),
+                row(5, 3, 5, date("2025-09-30"), "Interview Pending"),
+                row(6, 4, 6, date("2025-09-30"), "Interview Pending"),
+                row(7, 4, 5, date("2025-10-04"), "Interview Pending"));
+        }
+
+        if (empty.contains("Resume")) {
+            seed("Resume", "INSERT INTO Resume (resumeID, applicantID, uploadFile, uploadDate) VALUES (?, ?, ?, ?)",
+                row(1, 1, file("Alice Bob Resume"), date("2025-09-27")),
+                row(2, 2, file("Jake Blake Resume"), date("2025-09-28")),
+                row(3, 3, file("Griffin Walker Resume"), date("2025-09-29")),
+                row(4, 4, file("Ed Stephens Resume"), date("2025-09-28")),
+                row(5, 5, file("Joe Random Resume"), date("2025-09-29")),
+                row(6, 6, file("Michael Jordan Resume"), date("2025-09-30")),
+                row(7, 6, file("Michael Jordan Resume 2"), date("2025-10-04")));
+        }
+
+        if (empty.contains("Interview")) {
+            seed("Interview", "INSERT INTO Interview (interviewID, jobAppID, dateTime, location) VALUES (?, ?, ?, ?)",
+                row(1, 4, Timestamp.valueOf("2025-10-01 10:00:00"), "Toronto, Ontario, Canada"),
+                row(2, 5, Timestamp.valueOf("2025-10-02 11:00:00"), "Markham, Ontario, Canada"),
+                row(3, 6, Timestamp.valueOf("2025-10-03 13:00:00"), "Vancouver, British Columbia, Canada"));
+        }
+
+        System.out.println("Seeded " + empty.size() + " empty tables in " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+    }
+
+    /* Inserts all rows of one table as a single batch and reports how long it took */
+    private void seed(String tableName, String insertSQL, Object[]... rows) throws SQLException {
+        long start = System.nanoTime();
+        int inserted = dbConnection.executeBatch(insertSQL, Arrays.asList(rows));
+        System.out.println("Seeded table: " + tableName + " (" + inserted + " rows, 1 batch, " + (System.nanoTime() - start) / 1_000_000 + " ms)");
+    }
+
+    private static Object[] row(Object... values) {
+        return values;
+    }
+
+    private static Date date(String isoDate) {
+        return Date.valueOf(isoDate);
+    }
+
+    /* Sample resume file contents */
+    private static byte[] file(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /* Which of the tables hold no rows, found with one query for all of them */
+    private Set<String> emptyTables(String... tableNames) throws SQLException {
+        StringBuilder sql = new StringBuilder();
+        for (String tableName : tableNames) {
+            if (sql.length() > 0) {
+                sql.append(" UNION ALL ");
+            }
+            sql.append("SELECT '").append(tableName).append("' FROM dual WHERE NOT EXISTS (SELECT 1 FROM ").append(tableName).append(")");
+        }
+        return dbConnection.query(sql.toString(), rs -> {
+            Set<String> empty = new HashSet<>();
+            while (rs.next()) {
+                empty.add(rs.getString(1));
+            }
+            return empty;
+        });
     }
 
 }
@@ -1,6 +1,8 @@
 import javax.swing.*;
 import java.awt.*;
 import java.sql.*; 
+import java.util.concurrent.CompletableFuture;
+import javax.swing.table.TableModel;
 
 public class DeleteFromTables extends JPanel {
 
@@ -71,16 +73,20 @@ public class DeleteFromTables extends JPanel {
                 if (idValue != null && !idValue.trim().isEmpty()) {
                     // prepare a statement
                     String deleteSQL = "DELETE FROM " + tableName + " WHERE " + idColumn + " = ?";
-                    PreparedStatement pstmt = dbConnection.getConnection().prepareStatement(deleteSQL);
-                    pstmt.setInt(1, Integer.parseInt(idValue)); // set the primary key value
-                    int rowsAffected = pstmt.executeUpdate(); // execute
+                    int rowsAffected = dbConnection.inTransaction("Delete from " + tableName, () -> {
+                        PreparedStatement pstmt = dbConnection.prepareCached(deleteSQL);
+                        pstmt.setInt(1, Integer.parseInt(idValue)); // set the primary key value
+                        return pstmt.executeUpdate(); // execute
+                    });
+                    dbConnection.getReferenceData().invalidate(tableName, Integer.parseInt(idValue)); // only does something for company and recruiter, which are cached
+                    if (tableName.equals("job")) {
+                        dbConnection.getJobBoard().markChanged(); // and the job board snapshot, for job
+                    }
                     if (rowsAffected > 0) { // if something was deleted
                         JOptionPane.showMessageDialog(null, "Record deleted successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
 
                         // show the updated table
-                        ResultSet rs = dbConnection.executeQuery(query);
-                        JTable table = new JTable(DB_GUI.buildTableModel(rs));
-                        JOptionPane.showMessageDialog(null, new JScrollPane(table), "Updated Table", JOptionPane.INFORMATION_MESSAGE);
+                        showUpdatedTable(dbConnection.getChangeFeed().modelFor(query)); // kept current from the change log (see ChangeFeed)
 
                     } else { // else something went wrong
                         JOptionPane.showMessageDialog(null, "No record found with the given ID.", "Error", JOptionPane.ERROR_MESSAGE);
@@ -95,5 +101,12 @@ public class DeleteFromTables extends JPanel {
             }
         });
     }
-  
+
+    // show the updated table once it is ready - it is loaded (or the written row put in place) off the Swing thread, see ChangeFeed
+    private static void showUpdatedTable(CompletableFuture<TableModel> updated) {
+        AsyncQueryExecutor.deliver(updated, model -> {
+            JTable table = new JTable(model);
+            JOptionPane.showMessageDialog(null, new JScrollPane(table), "Updated Table", JOptionPane.INFORMATION_MESSAGE);
+        }, ex -> JOptionPane.showMessageDialog(null, "Error loading table:\n" + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
 }
\ No newline at end of file
@@ -63,46 +63,80 @@ public class DropTables extends JPanel{
         log("Starting table drop process...\n");
 
         /* Define tables in reverse order of creation (drop child tables first) */
-        String[] tables = {"Interview", "Resume", "JobApplication", "JobApplicant", "Job", "Recruiter", "Company"};
-        /* Track whether all tables dropped successfully */
-        boolean allSuccessful = true;
-            
+        /* SchemaVersion goes too, so the next login sets the database up again (see DatabaseInitializer) */
+        String[] tables = {"SchemaVersion", "Interview", "Resume", "ResumeBlob", "JobApplication", "JobApplicant", "Job", "Recruiter", "Company", "ChangeLog"};
+
         try {
-            /* Get database connection and start manual transaction control */
-            Connection connection = dbConnection.getConnection();
-            connection.setAutoCommit(false); 
+            /* One unit of work: committed if everything was dropped, rolled back otherwise, and the connection handed back either way */
+            dbConnection.inTransaction("Drop tables", () -> {
+                /* Track whether all tables dropped successfully */
+                boolean allSuccessful = true;
+
+                /* Loop through and drop each table */
+                for (String table : tables) {
+                    try {
+                        /* Attempt to drop the table, including all foreign key constraints */
+                        dbConnection.executeUpdate(dbConnection.getDialect().dropTableCascade(table));
+                        log("Table " + table.toUpperCase() + " dropped successfully.");
+                    } catch (SQLException ex) {
+                        /* Ignore "table does not exist" errors but log others */
+                        if (dbConnection.getDialect().isMissingTable(ex)) {
+                            log("Table " + table.toUpperCase() + " does not exist (skipped).");
+                        } else {
+                            allSuccessful = false;
+                            log("Failed to drop " + table.toUpperCase() + ": " + ex.getMessage());
+                        }
+                    }
+                }
 
-            /* Loop through and drop each table */
-            for (String table : tables) {
+                /* Drop the sequences the tables' keys were generated from, so new tables start numbering after their own data */
+                for (String table : KeyAllocator.tables()) {
+                    try {
+                        dbConnection.executeUpdate("DROP SEQUENCE " + KeyAllocator.sequenceName(table));
+                        log("Sequence " + KeyAllocator.sequenceName(table).toUpperCase() + " dropped successfully.");
+                    } catch (SQLException ex) {
+                        /* Sequences are only created once keys were generated for a table */
+                        if (!dbConnection.getDialect().isMissingSequence(ex)) {
+                            allSuccessful = false;
+                            log("Failed to drop " + KeyAllocator.sequenceName(table).toUpperCase() + ": " + ex.getMessage());
+                        }
+                    }
+                }
                 try {
-                    /* Attempt to drop the table, including all foreign key constraints */
-                    dbConnection.executeUpdate("DROP TABLE " + table + " CASCADE CONSTRAINTS");
-                    log("Table " + table.toUpperCase() + " dropped successfully.");
+                    dbConnection.executeUpdate("DROP SEQUENCE " + ChangeFeed.SEQUENCE);
+                    log("Sequence " + ChangeFeed.SEQUENCE.toUpperCase() + " dropped successfully.");
                 } catch (SQLException ex) {
-                    /* Ignore "table does not exist" errors but log others */
-                    if (ex.getMessage().contains("ORA-00942")) {
-                        log("Table " + table.toUpperCase() + " does not exist (skipped).");
-                    } else {
+                    /* Only created where change triggers are supported */
+                    if (!dbConnection.getDialect().isMissingSequence(ex)) {
                         allSuccessful = false;
-                        log("Failed to drop " + table.toUpperCase() + ": " + ex.getMessage());
+                        log("Failed to drop " + ChangeFeed.SEQUENCE.toUpperCase() + ": " + ex.getMessage());
                     }
                 }
-            }
-
-            /* Commit or rollback depending on success */
-            if (allSuccessful) {
-                    connection.commit();
-                    log("\nAll tables dropped successfully!");
-                    JOptionPane.showMessageDialog(this, "All tables dropped successfully!");
-            } else {
-                connection.rollback();
-                log("\nErrors occurred while dropping tables. Rolled back changes.");
-                JOptionPane.showMessageDialog(this, "Some tables could not be dropped. Rolled back changes.", "Error", JOptionPane.ERROR_MESSAGE);
-            }
-        /* Handle database connection issues or other critical SQL errors */
+                dbConnection.getKeyAllocator().reset();
+
+                /* Drop the views (and materialized views) over the tables; ViewTables creates them again when next used */
+                try {
+                    dbConnection.getViewRegistry().dropAll();
+                    log("Views dropped successfully.");
+                } catch (SQLException ex) {
+                    allSuccessful = false;
+                    log("Failed to drop views: " + ex.getMessage());
+                }
+
+                if (!allSuccessful) {
+                    throw new SQLException("Some tables could not be dropped.");
+                }
+                return null;
+            });
+            dbConnection.getReferenceData().invalidateAll();
+            dbConnection.getJobBoard().markChanged();
+            dbConnection.getChangeFeed().reset();
+            log("\nAll tables dropped successfully!");
+            JOptionPane.showMessageDialog(this, "All tables dropped successfully!");
+        /* Failed drops, database connection issues or other critical SQL errors: everything is rolled back */
         } catch (SQLException ex) {
-            log("\nDatabase connection error: " + ex.getMessage());
-            JOptionPane.showMessageDialog(this, "Database connection error: " + ex.getMessage(),"Database Connection Error", JOptionPane.ERROR_MESSAGE);
+            log("\nErrors occurred while dropping tables. Rolled back changes: " + ex.getMessage());
+            JOptionPane.showMessageDialog(this, "Some tables could not be dropped. Rolled back changes.\n" + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 
@@ -0,0 +1,125 @@
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/*
+ * Wraps the ResultSet of a query to count the rows read and estimate the driver round trips they took.
+ * Diagnostics only: the wrapper is a reflective proxy, so results are wrapped only when -Ddb.fetch.log=true, and the
+ * statistics of every query (query() and openQuery() alike) are then printed when its QueryHandle is closed.
+ * JDBC does not expose the round trips themselves, so they are estimated from the fetch size: the first batch arrives with
+ * the execute call, and another trip is made whenever the rows of the previous batch have all been read.
+ * Bytes are estimated from the row width computed by FetchSizePolicy.
+ */
+public final class FetchMonitor implements InvocationHandler {
+
+    /* Whether results are wrapped (and their statistics printed), set with -Ddb.fetch.log=true */
+    static final boolean ENABLED = Boolean.getBoolean("db.fetch.log");
+
+    private final ResultSet delegate;
+    private final String sql;
+    private final int rowBytes;
+    private final long startNanos = System.nanoTime();
+
+    private int fetchSize;
+    private long rows;
+    private long roundTrips = 1;
+    private long bufferedRows;
+    private boolean exhausted;
+
+    private FetchMonitor(ResultSet delegate, String sql, int rowBytes, int initialFetchSize) {
+        this.delegate = delegate;
+        this.sql = sql;
+        this.rowBytes = rowBytes;
+        this.fetchSize = initialFetchSize;
+        this.bufferedRows = initialFetchSize;
+    }
+
+    /* Wraps a just-executed ResultSet whose first batch was fetched with initialFetchSize rows. Only used when ENABLED */
+    static ResultSet wrap(ResultSet resultSet, String sql, int rowBytes, int initialFetchSize) {
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+            new FetchMonitor(resultSet, sql, rowBytes, Math.max(1, initialFetchSize)));
+    }
+
+    /* Fetch statistics of a ResultSet returned by DBConnection.query/openQuery, or null when fetches are not monitored */
+    public static Stats statsOf(ResultSet resultSet) {
+        if (resultSet != null && Proxy.isProxyClass(resultSet.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(resultSet);
+            if (handler instanceof FetchMonitor) {
+                return ((FetchMonitor) handler).stats();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        if (name.equals("next")) {
+            return next();
+        }
+        if (name.equals("setFetchSize")) {
+            delegate.setFetchSize((Integer) args[0]);
+            fetchSize = Math.max(1, (Integer) args[0]);
+            return null;
+        }
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private boolean next() throws SQLException {
+        if (!exhausted && bufferedRows == 0) {
+            roundTrips++;
+            bufferedRows = fetchSize;
+        }
+        boolean hasRow = delegate.next();
+        if (hasRow) {
+            rows++;
+            bufferedRows--;
+        } else {
+            exhausted = true;
+        }
+        return hasRow;
+    }
+
+    Stats stats() {
+        return new Stats(sql, rows, roundTrips, fetchSize, rowBytes, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    /* Snapshot of one query's fetch statistics */
+    public static final class Stats {
+        private final String sql;
+        private final long rows;
+        private final long roundTrips;
+        private final int fetchSize;
+        private final int rowBytes;
+        private final long elapsedMillis;
+
+        Stats(String sql, long rows, long roundTrips, int fetchSize, int rowBytes, long elapsedMillis) {
+            this.sql = sql;
+            this.rows = rows;
+            this.roundTrips = roundTrips;
+            this.fetchSize = fetchSize;
+            this.rowBytes = rowBytes;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public String getSql() { return sql; }
+        public long getRows() { return rows; }
+        public long getEstimatedRoundTrips() { return roundTrips; }
+        public int getFetchSize() { return fetchSize; }
+        public int getEstimatedRowBytes() { return rowBytes; }
+        public long getEstimatedBytes() { return rows * rowBytes; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        public String describe() {
+            return String.format("fetch[rows=%d, estimatedRoundTrips=%d, fetchSize=%d, estimatedSize=%d KB, %d ms]",
+                rows, roundTrips, fetchSize, (getEstimatedBytes() + 1023) / 1024, elapsedMillis);
+        }
+    }
+}
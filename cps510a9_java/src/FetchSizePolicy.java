@@ -0,0 +1,95 @@
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/*
+ * Chooses how many rows the driver fetches per network round trip.
+ * The Oracle thin driver prefetches only 10 rows by default, so scanning a large table costs one round trip per 10 rows.
+ * Queries start with initialRows (the first batch comes back with the execute call); once the columns are known the
+ * fetch size is raised so that one batch holds about targetBytes, between minRows and maxRows rows.
+ * Wide rows (long VARCHARs, LONG columns) therefore get small batches and narrow rows get large ones.
+ */
+public final class FetchSizePolicy {
+
+    private final int targetBytes;
+    private final int minRows;
+    private final int maxRows;
+    private final int initialRows;
+
+    public FetchSizePolicy(int targetBytes, int minRows, int maxRows, int initialRows) {
+        if (targetBytes < 1 || minRows < 1 || maxRows < minRows || initialRows < 1) {
+            throw new IllegalArgumentException("Invalid fetch size policy: targetBytes=" + targetBytes + ", minRows=" + minRows +
+                ", maxRows=" + maxRows + ", initialRows=" + initialRows);
+        }
+        this.targetBytes = targetBytes;
+        this.minRows = minRows;
+        this.maxRows = maxRows;
+        this.initialRows = initialRows;
+    }
+
+    /* Fetch size set on a statement before it is executed, when the row width is not known yet */
+    public int getInitialRows() {
+        return initialRows;
+    }
+
+    /* Rows per round trip for rows of the given (estimated) width */
+    public int fetchSizeFor(int rowBytes) {
+        long rows = targetBytes / Math.max(1, rowBytes);
+        return (int) Math.max(minRows, Math.min(maxRows, rows));
+    }
+
+    /* Upper bound of the bytes one row takes in the driver's fetch buffer, from the declared column types and sizes */
+    public static int estimateRowBytes(ResultSetMetaData meta) throws SQLException {
+        int total = 0;
+        for (int column = 1; column <= meta.getColumnCount(); column++) {
+            total += estimateColumnBytes(meta, column);
+        }
+        return Math.max(1, total);
+    }
+
+    private static int estimateColumnBytes(ResultSetMetaData meta, int column) throws SQLException {
+        switch (meta.getColumnType(column)) {
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+            case Types.INTEGER:
+            case Types.BIGINT:
+            case Types.SMALLINT:
+            case Types.TINYINT:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+            case Types.REAL:
+                return 22;  /* Oracle NUMBER is at most 22 bytes */
+            case Types.DATE:
+                return 7;
+            case Types.TIME:
+            case Types.TIMESTAMP:
+                return 11;
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.BINARY:
+            case Types.VARBINARY:
+                return clamp(meta.getColumnDisplaySize(column), 1, 4000);
+            case Types.LONGVARCHAR:
+            case Types.LONGNVARCHAR:
+            case Types.LONGVARBINARY:
+                return 4000;
+            case Types.BLOB:
+            case Types.CLOB:
+            case Types.NCLOB:
+                return 100;  /* Only the LOB locator is prefetched; the content is read separately */
+            default:
+                return 32;
+        }
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    @Override
+    public String toString() {
+        return "FetchSizePolicy[targetBytes=" + targetBytes + ", rows=" + minRows + ".." + maxRows + ", initial=" + initialRows + "]";
+    }
+}
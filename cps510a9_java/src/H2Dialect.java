@@ -0,0 +1,147 @@
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+/*
+ * SQL dialect of an embedded H2 database running in Oracle compatibility mode.
+ * Lets the whole application (schema, seed data, GUIs) run in-process without the campus server:
+ *   java -Ddb.dialect=h2 -cp bin:lib/ojdbc6.jar:h2.jar DB_GUI
+ * The H2 jar is not shipped in lib/; Maven puts the 2.x release named in pom.xml on the runtime and test class paths, and
+ * the tests run DatabaseInitializer against it (DatabaseInitializerTest).
+ */
+public class H2Dialect implements SqlDialect {
+
+    /* H2 error codes (org.h2.api.ErrorCode) */
+    private static final int TABLE_OR_VIEW_NOT_FOUND = 42102;
+    /* H2 2.x variants: "did you mean ..." and "database is empty" */
+    private static final int TABLE_OR_VIEW_NOT_FOUND_WITH_CANDIDATES = 42103;
+    private static final int TABLE_OR_VIEW_NOT_FOUND_DATABASE_EMPTY = 42104;
+    private static final int SEQUENCE_NOT_FOUND = 90036;
+    private static final int DUPLICATE_KEY = 23505;
+    private static final int STATEMENT_WAS_CANCELED = 57014;
+
+    @Override
+    public String name() {
+        return "h2";
+    }
+
+    @Override
+    public String driverClassName() {
+        return "org.h2.Driver";
+    }
+
+    /* In-memory database kept alive until the application exits */
+    @Override
+    public String defaultUrl() {
+        return "jdbc:h2:mem:jobbank;MODE=Oracle;DB_CLOSE_DELAY=-1";
+    }
+
+    @Override
+    public String binaryFromText(String text) {
+        StringBuilder hex = new StringBuilder("X'");
+        for (byte b : text.getBytes(StandardCharsets.UTF_8)) {
+            hex.append(String.format("%02X", b));
+        }
+        return hex.append("'").toString();
+    }
+
+    @Override
+    public String tableNamesQuery() {
+        return "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = CURRENT_SCHEMA";
+    }
+
+    @Override
+    public String columnExistsQuery() {
+        return "SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME = ? AND COLUMN_NAME = ? AND TABLE_SCHEMA = CURRENT_SCHEMA";
+    }
+
+    @Override
+    public String dropNotNull(String table, String column) {
+        return "ALTER TABLE " + table + " ALTER COLUMN " + column + " SET NULL";
+    }
+
+    @Override
+    public String constraintExistsQuery() {
+        return "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS WHERE CONSTRAINT_NAME = ? AND TABLE_SCHEMA = CURRENT_SCHEMA";
+    }
+
+    /* INDEX_COLUMNS is H2 2.x; 1.4.x lists index columns in INFORMATION_SCHEMA.INDEXES instead, so IndexManager.verify needs 2.x */
+    @Override
+    public String indexColumnsQuery() {
+        return "SELECT TABLE_NAME, INDEX_NAME, COLUMN_NAME, ORDINAL_POSITION FROM INFORMATION_SCHEMA.INDEX_COLUMNS "
+            + "WHERE TABLE_SCHEMA = CURRENT_SCHEMA ORDER BY TABLE_NAME, INDEX_NAME, ORDINAL_POSITION";
+    }
+
+    /* Returns the plan itself: one row of text naming the index used, e.g. PUBLIC.JOB_COMPANY_IDX */
+    @Override
+    public String explainPlan(String sql) {
+        return "EXPLAIN " + sql;
+    }
+
+    @Override
+    public String planQuery() {
+        return null;
+    }
+
+    /* H2 has no materialized views; ViewRegistry creates a plain view instead */
+    @Override
+    public String createMaterializedView(String name, String columnList, String select, int refreshMinutes) {
+        return null;
+    }
+
+    @Override
+    public String dropMaterializedView(String name) {
+        return null;
+    }
+
+    /* H2 triggers are Java classes implementing org.h2.api.Trigger, which would tie the build to the H2 jar */
+    @Override
+    public String createChangeTrigger(String table, String keyColumn) {
+        return null;
+    }
+
+    @Override
+    public String dropTableCascade(String table) {
+        return "DROP TABLE " + table + " CASCADE";
+    }
+
+    @Override
+    public String paginate(String sql) {
+        return sql + " OFFSET ? ROWS FETCH NEXT ? ROWS ONLY";
+    }
+
+    @Override
+    public Object[] paginationParameters(int offset, int limit) {
+        return new Object[]{offset, limit};
+    }
+
+    @Override
+    public int paginationExtraColumns() {
+        return 0;
+    }
+
+    @Override
+    public String sequenceNextValueQuery(String sequence) {
+        return "SELECT NEXT VALUE FOR " + sequence;
+    }
+
+    @Override
+    public boolean isMissingSequence(SQLException e) {
+        return e.getErrorCode() == SEQUENCE_NOT_FOUND;
+    }
+
+    @Override
+    public boolean isMissingTable(SQLException e) {
+        int code = e.getErrorCode();
+        return code == TABLE_OR_VIEW_NOT_FOUND || code == TABLE_OR_VIEW_NOT_FOUND_WITH_CANDIDATES || code == TABLE_OR_VIEW_NOT_FOUND_DATABASE_EMPTY;
+    }
+
+    @Override
+    public boolean isUniqueViolation(SQLException e) {
+        return e.getErrorCode() == DUPLICATE_KEY;
+    }
+
+    @Override
+    public boolean isQueryCancelled(SQLException e) {
+        return e.getErrorCode() == STATEMENT_WAS_CANCELED;
+    }
+}
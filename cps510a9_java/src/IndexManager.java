@@ -0,0 +1,226 @@
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/*
+ * Secondary indexes on the foreign key and lookup columns the GUIs join and search on. Without them every join in
+ * Recruiter_GUI.evaluateApplications, Applicant_GUI.viewMyApplications and Company_GUI.viewCompanyJobs, and every login by
+ * email or company name, reads whole tables.
+ *  - ensureIndexes() creates the declared indexes that are missing. An existing index whose leading columns match (e.g.
+ *    the one behind a UNIQUE constraint) counts as present, so nothing is indexed twice
+ *  - verify() reports for each declared index whether it exists and whether the database would use it for a typical
+ *    lookup, from the plan of that lookup (EXPLAIN PLAN / EXPLAIN)
+ * Called by CreateTables and DatabaseInitializer after the tables are created; CreateTables also shows verify().
+ */
+public class IndexManager {
+
+    /* One index: the columns it covers and a lookup that should use it */
+    public static final class IndexSpec {
+        final String name;
+        final String table;
+        final List<String> columns;
+        final String probeSql;
+
+        IndexSpec(String name, String table, String probeSql, String... columns) {
+            this.name = name;
+            this.table = table;
+            this.columns = Collections.unmodifiableList(Arrays.asList(columns));
+            this.probeSql = probeSql;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String toString() {
+            return table + "(" + String.join(", ", columns) + ")";
+        }
+    }
+
+    /* Declared indexes, grouped by the code that needs them */
+    public static final List<IndexSpec> INDEXES = Collections.unmodifiableList(Arrays.asList(
+        /* Company_GUI.viewCompanyJobs and the jobs/applications joins */
+        new IndexSpec("job_company_idx", "Job", "SELECT jobID FROM Job WHERE companyID = 1", "companyID"),
+        /* Recruiter_GUI: a recruiter's postings and their applications */
+        new IndexSpec("job_recruiter_idx", "Job", "SELECT jobID FROM Job WHERE recruiterID = 1", "recruiterID"),
+        /* Applications per job; also covered by the (jobID, applicantID) unique constraint */
+        new IndexSpec("jobapp_job_idx", "JobApplication", "SELECT jobAppID FROM JobApplication WHERE jobID = 1", "jobID"),
+        /* Applicant_GUI.viewMyApplications */
+        new IndexSpec("jobapp_applicant_idx", "JobApplication", "SELECT jobAppID FROM JobApplication WHERE applicantID = 1", "applicantID"),
+        /* Interviews per application (Recruiter_GUI.viewUpcomingInterviews, Applicant_GUI) */
+        new IndexSpec("interview_jobapp_idx", "Interview", "SELECT interviewID FROM Interview WHERE jobAppID = 1", "jobAppID"),
+        /* Login by email */
+        new IndexSpec("jobapplicant_email_idx", "JobApplicant", "SELECT applicantID FROM JobApplicant WHERE email = 'x'", "email"),
+        new IndexSpec("recruiter_email_idx", "Recruiter", "SELECT recruiterID FROM Recruiter WHERE email = 'x'", "email"),
+        /* Login by company name; normally covered by the UNIQUE constraint on name */
+        new IndexSpec("company_name_idx", "Company", "SELECT companyID FROM Company WHERE name = 'x'", "name")
+    ));
+
+    private final DBConnection dbConnection;
+
+    public IndexManager(DBConnection dbConnection) {
+        this.dbConnection = dbConnection;
+    }
+
+    /* Creates every declared index that is missing. Returns one line per index saying what was done */
+    public List<String> ensureIndexes() throws SQLException {
+        Map<String, List<ExistingIndex>> existing = existingIndexes();
+        List<String> log = new ArrayList<>();
+        for (IndexSpec index : INDEXES) {
+            String coveredBy = findCovering(existing, index);
+            if (coveredBy != null) {
+                log.add("Index " + index.name + " on " + index + ": present (" + coveredBy + ")");
+                continue;
+            }
+            dbConnection.executeUpdate("CREATE INDEX " + index.name + " ON " + index.table + " (" + String.join(", ", index.columns) + ")");
+            log.add("Index " + index.name + " on " + index + ": created");
+        }
+        return log;
+    }
+
+    /* Checks each declared index: whether it (or a covering index) exists, and whether its lookup would use it. Run it inside
+     * a unit of work (e.g. AsyncQueryExecutor.submit) */
+    public List<Status> verify() throws SQLException {
+        Map<String, List<ExistingIndex>> existing = existingIndexes();
+        List<Status> statuses = new ArrayList<>();
+        /* The calling thread's own connection (no second one is borrowed); the Oracle plan rows are discarded by rolling back
+         * to a savepoint, which leaves the rest of the caller's transaction alone */
+        Connection connection = dbConnection.getConnection();
+        Savepoint beforePlans = connection.setSavepoint();
+        try {
+            for (IndexSpec index : INDEXES) {
+                String coveredBy = findCovering(existing, index);
+                List<String> plan = explain(connection, index.probeSql);
+                Boolean used = null;
+                if (coveredBy != null && !plan.isEmpty()) {
+                    String indexName = coveredBy.toUpperCase(Locale.ROOT);
+                    used = false;
+                    for (String step : plan) {
+                        if (step.toUpperCase(Locale.ROOT).contains(indexName)) {
+                            used = true;
+                        }
+                    }
+                }
+                statuses.add(new Status(index, coveredBy, used, plan));
+            }
+        } finally {
+            connection.rollback(beforePlans);
+        }
+        return statuses;
+    }
+
+    /* Plan of a query, one step per entry (empty when the database cannot explain it) */
+    private List<String> explain(Connection connection, String sql) {
+        SqlDialect dialect = dbConnection.getDialect();
+        List<String> plan = new ArrayList<>();
+        try (Statement statement = connection.createStatement()) {
+            if (statement.execute(dialect.explainPlan(sql))) {
+                readPlan(statement.getResultSet(), plan);
+            } else if (dialect.planQuery() != null) {
+                try (ResultSet rs = statement.executeQuery(dialect.planQuery())) {
+                    readPlan(rs, plan);
+                }
+            }
+        } catch (SQLException e) {
+            /* e.g. no PLAN_TABLE available to this user */
+            return Collections.emptyList();
+        }
+        return plan;
+    }
+
+    private static void readPlan(ResultSet rs, List<String> plan) throws SQLException {
+        try (ResultSet steps = rs) {
+            while (steps.next()) {
+                plan.add(steps.getString(1).trim());
+            }
+        }
+    }
+
+    /* The schema's indexes by upper-case table name */
+    private Map<String, List<ExistingIndex>> existingIndexes() throws SQLException {
+        return dbConnection.query(dbConnection.getDialect().indexColumnsQuery(), rs -> {
+            Map<String, Map<String, ExistingIndex>> indexes = new HashMap<>();
+            while (rs.next()) {
+                String indexName = rs.getString(2);
+                indexes.computeIfAbsent(rs.getString(1).toUpperCase(Locale.ROOT), table -> new LinkedHashMap<>())
+                    .computeIfAbsent(indexName, name -> new ExistingIndex(name))
+                    .columns.add(rs.getString(3));
+            }
+            Map<String, List<ExistingIndex>> byTable = new HashMap<>();
+            for (Map.Entry<String, Map<String, ExistingIndex>> table : indexes.entrySet()) {
+                byTable.put(table.getKey(), new ArrayList<>(table.getValue().values()));
+            }
+            return byTable;
+        });
+    }
+
+    /* Name of an existing index whose leading columns are the declared ones, preferring the declared name, or null */
+    private static String findCovering(Map<String, List<ExistingIndex>> existing, IndexSpec index) {
+        String covering = null;
+        for (ExistingIndex candidate : existing.getOrDefault(index.table.toUpperCase(Locale.ROOT), Collections.emptyList())) {
+            if (candidate.startsWith(index.columns) && (covering == null || candidate.name.equalsIgnoreCase(index.name))) {
+                covering = candidate.name;
+            }
+        }
+        return covering;
+    }
+
+    /* An index found in the data dictionary */
+    private static final class ExistingIndex {
+        final String name;
+        final List<String> columns = new ArrayList<>();
+
+        ExistingIndex(String name) {
+            this.name = name;
+        }
+
+        boolean startsWith(List<String> leading) {
+            if (columns.size() < leading.size()) {
+                return false;
+            }
+            for (int i = 0; i < leading.size(); i++) {
+                if (!columns.get(i).equalsIgnoreCase(leading.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /* Outcome of verify() for one declared index */
+    public static final class Status {
+        private final IndexSpec index;
+        private final String existingIndex;
+        private final Boolean used;
+        private final List<String> plan;
+
+        Status(IndexSpec index, String existingIndex, Boolean used, List<String> plan) {
+            this.index = index;
+            this.existingIndex = existingIndex;
+            this.used = used;
+            this.plan = plan;
+        }
+
+        public boolean isPresent() { return existingIndex != null; }
+        /* Whether the lookup's plan uses the index (null when unknown: index missing or no plan available) */
+        public Boolean isUsed() { return used; }
+        public List<String> getPlan() { return plan; }
+
+        public String describe() {
+            String presence = existingIndex == null ? "MISSING" : "present as " + existingIndex;
+            String usage = used == null ? "usage unknown" : used ? "used by lookup" : "NOT used by lookup (full scan?)";
+            return String.format("%-24s %-32s %s, %s", index.name, index.toString(), presence, usage);
+        }
+    }
+}
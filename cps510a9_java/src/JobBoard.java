@@ -0,0 +1,239 @@
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Vector;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.swing.table.DefaultTableModel;
+
+/*
+ * Shared, immutable snapshot of the job listings every applicant sees (Applicant_GUI.openApplyJobWindow), so opening the
+ * window does not run the listing query each time.
+ *  - Readers get the latest snapshot from an AtomicReference, without locks. Only the very first read waits for a load;
+ *    readers that come in while it runs wait for that one load instead of each running the listing query
+ *  - Every later load runs in the background, one at a time, while readers keep getting the snapshot they have. A snapshot
+ *    is only ever replaced by a newer one (higher version, later load)
+ *  - A snapshot older than -Ddb.jobBoard.probeSeconds (default 5) makes the next reader start a background probe:
+ *    COUNT(*), MAX(jobID) and MAX(datePosted) of Job. The listing is only read again if the probe differs, i.e. jobs were
+ *    posted or removed
+ *  - A snapshot older than -Ddb.jobBoard.ttlSeconds (default 300) is read again in the background whatever the probe says,
+ *    which picks up edits made by other clients
+ *  - Job writes made through this application call markChanged(), which starts a reload straight away instead of waiting
+ *    for the TTL; readers get the previous snapshot until it is published
+ * Readers may see a snapshot up to one probe interval (or, after markChanged, one load) old. Company names are not part of the snapshot; they are resolved
+ * through the ReferenceDataCache when the window is shown.
+ */
+public class JobBoard {
+
+    private static final long PROBE_MILLIS = Math.max(0, Long.getLong("db.jobBoard.probeSeconds", 5L)) * 1000;
+    private static final long TTL_MILLIS = Math.max(1, Long.getLong("db.jobBoard.ttlSeconds", 300L)) * 1000;
+
+    /* Column 3 (index 2) holds the companyID, for ReferenceDataCache.withCompanyNames */
+    public static final int COMPANY_COLUMN = 2;
+
+    private static final String LISTING_SQL =
+        "SELECT j.jobID, j.title AS \"Job Title\", j.companyID AS \"Company\", " +
+        "j.location AS \"Location\", j.salary AS \"Salary ($/hr)\", " +
+        "j.workingHours AS \"Hours/Week\", TO_CHAR(j.datePosted, 'YYYY-MM-DD') AS \"Date Posted\", j.description " +
+        "FROM Job j " +
+        "ORDER BY j.datePosted DESC";
+
+    private static final String PROBE_SQL = "SELECT COUNT(*), MAX(jobID), MAX(datePosted) FROM Job";
+
+    private final DBConnection dbConnection;
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    /* Held while the listing is read, so only one load runs at a time (and first readers wait for the first load) */
+    private final Object loadLock = new Object();
+
+    /* Bumped by markChanged(); a snapshot taken at an older version is reloaded */
+    private final AtomicLong version = new AtomicLong();
+
+    public JobBoard(DBConnection dbConnection) {
+        this.dbConnection = dbConnection;
+    }
+
+    /*
+     * The latest snapshot. Loads it on the first call; afterwards never waits. A snapshot made out of date by markChanged()
+     * is still returned, with a reload started in the background, as is one due for a probe
+     */
+    public Snapshot snapshot() throws SQLException {
+        Snapshot snapshot = current.get();
+        if (snapshot == null) {
+            return loadFirst();
+        }
+        if (snapshot.version != version.get()) {
+            refreshInBackground(true);
+        } else if (System.currentTimeMillis() - snapshot.checkedAt >= PROBE_MILLIS) {
+            refreshInBackground(System.currentTimeMillis() - snapshot.loadedAt >= TTL_MILLIS);
+        }
+        return snapshot;
+    }
+
+    /* Jobs were inserted, updated or deleted by this application: reads the listing again in the background */
+    public void markChanged() {
+        version.incrementAndGet();
+        if (current.get() != null) {
+            refreshInBackground(true);
+        }
+    }
+
+    /* Loads the listing unless a load that finished while this thread waited for the lock already published a snapshot */
+    private Snapshot loadFirst() throws SQLException {
+        synchronized (loadLock) {
+            Snapshot snapshot = current.get();
+            return snapshot != null ? snapshot : load();
+        }
+    }
+
+    /* Reads the listing and publishes it as the current snapshot, unless a newer one was published meanwhile */
+    private Snapshot load() throws SQLException {
+        synchronized (loadLock) {
+            long readVersion = version.get();
+            Probe probe = dbConnection.query(PROBE_SQL, Probe::read);
+            Snapshot snapshot = dbConnection.query(LISTING_SQL, rs -> Snapshot.read(rs, probe, readVersion));
+            return current.updateAndGet(published -> Snapshot.newer(published, snapshot));
+        }
+    }
+
+    /*
+     * Probes (or, when the TTL has passed or the version changed, reloads) on a background thread; at most one refresh runs
+     * at a time. A refresh that finishes behind a markChanged() made while it ran starts another one
+     */
+    private void refreshInBackground(boolean expired) {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        dbConnection.getAsyncExecutor().submit("Refresh job board", () -> {
+            Snapshot snapshot = current.get();
+            Probe probe = dbConnection.query(PROBE_SQL, Probe::read);
+            if (!expired && snapshot != null && snapshot.probe.equals(probe) && snapshot.version == version.get()) {
+                /* Nothing posted or removed: keep the rows, restart the probe interval */
+                current.compareAndSet(snapshot, snapshot.checked());
+            } else {
+                load();
+            }
+            return null;
+        }).whenComplete((result, error) -> {
+            refreshing.set(false);
+            if (error != null) {
+                /* The old snapshot stays in use; the next reader tries again */
+                System.out.println("Could not refresh the job board: " + AsyncQueryExecutor.unwrap(error).getMessage());
+            } else if (current.get().version != version.get()) {
+                refreshInBackground(true);
+            }
+        });
+    }
+
+    /* What the probe query returns; equal probes mean no job was posted or removed */
+    private static final class Probe {
+        final long count;
+        final long maxJobID;
+        final Timestamp maxDatePosted;
+
+        private Probe(long count, long maxJobID, Timestamp maxDatePosted) {
+            this.count = count;
+            this.maxJobID = maxJobID;
+            this.maxDatePosted = maxDatePosted;
+        }
+
+        static Probe read(ResultSet rs) throws SQLException {
+            rs.next();
+            return new Probe(rs.getLong(1), rs.getLong(2), rs.getTimestamp(3));
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Probe)) {
+                return false;
+            }
+            Probe probe = (Probe) other;
+            return count == probe.count && maxJobID == probe.maxJobID
+                && Objects.equals(maxDatePosted, probe.maxDatePosted);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(count, maxJobID, maxDatePosted);
+        }
+    }
+
+    /* One immutable listing: column names and rows, never modified after it is published */
+    public static final class Snapshot {
+        private final List<String> columnNames;
+        private final List<Object[]> rows;
+        private final Probe probe;
+        private final long version;
+        private final long loadedAt;
+        private final long checkedAt;
+
+        private Snapshot(List<String> columnNames, List<Object[]> rows, Probe probe, long version, long loadedAt, long checkedAt) {
+            this.columnNames = columnNames;
+            this.rows = rows;
+            this.probe = probe;
+            this.version = version;
+            this.loadedAt = loadedAt;
+            this.checkedAt = checkedAt;
+        }
+
+        static Snapshot read(ResultSet rs, Probe probe, long version) throws SQLException {
+            ResultSetMetaData metaData = rs.getMetaData();
+            int columnCount = metaData.getColumnCount();
+            List<String> columnNames = new ArrayList<>(columnCount);
+            for (int column = 1; column <= columnCount; column++) {
+                columnNames.add(metaData.getColumnName(column));
+            }
+            List<Object[]> rows = new ArrayList<>();
+            while (rs.next()) {
+                Object[] row = new Object[columnCount];
+                for (int column = 1; column <= columnCount; column++) {
+                    row[column - 1] = rs.getObject(column);
+                }
+                rows.add(row);
+            }
+            long now = System.currentTimeMillis();
+            return new Snapshot(Collections.unmodifiableList(columnNames), Collections.unmodifiableList(rows), probe, version, now, now);
+        }
+
+        /* Whichever of the two was read later: the higher version, then the later load (a null snapshot is never newer) */
+        static Snapshot newer(Snapshot a, Snapshot b) {
+            if (a == null) {
+                return b;
+            }
+            if (a.version != b.version) {
+                return a.version > b.version ? a : b;
+            }
+            return a.loadedAt > b.loadedAt ? a : b;
+        }
+
+        /* The same rows, confirmed current just now */
+        Snapshot checked() {
+            return new Snapshot(columnNames, rows, probe, version, loadedAt, System.currentTimeMillis());
+        }
+
+        public int size() {
+            return rows.size();
+        }
+
+        /* When the rows were read from the database (System.currentTimeMillis()) */
+        public long getLoadedAt() {
+            return loadedAt;
+        }
+
+        /* A new, independent table model with the snapshot's rows (callers may change it freely) */
+        public DefaultTableModel toTableModel() {
+            Vector<Vector<Object>> data = new Vector<>(rows.size());
+            for (Object[] row : rows) {
+                data.add(new Vector<>(Arrays.asList(row)));
+            }
+            return new DefaultTableModel(data, new Vector<>(columnNames));
+        }
+    }
+}
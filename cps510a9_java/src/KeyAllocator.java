@@ -0,0 +1,167 @@
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Hands out new primary keys for the application's tables without a query per insert.
+ * Each table has a database sequence (<table>_id_seq) that steps by BLOCK_SIZE. One NEXTVAL reserves the block
+ * value .. value + BLOCK_SIZE - 1 for this client, and the keys of that block are handed out from memory. Other clients
+ * (and other instances of the application) reserve other blocks, so keys never clash, unlike SELECT MAX(id) + 1.
+ *  - Sequences are created on first use, starting after the highest key already in the table
+ *  - Unused keys of a block are lost when the application exits, which leaves gaps but never duplicates
+ *  - Keys typed in by hand (AddToTables) bypass the sequences and can clash with keys handed out later. Bulk loads with
+ *    keys of their own call skipExistingKeys() afterwards, which moves the sequence past them
+ *  - Each table has its own lock, so the round trip that reserves a block for one table never holds up another
+ * NEXTVAL runs on the calling thread's own connection (it is not transactional, so it never commits or rolls back the
+ * caller's work). Only the CREATE SEQUENCE of a first use runs on a connection of its own, because DDL commits.
+ */
+public class KeyAllocator {
+
+    /* Keys reserved per round trip. The sequences are created with this increment, so it must not change once they exist */
+    public static final int BLOCK_SIZE = 50;
+
+    /* Primary key column of each table with generated keys */
+    private static final Map<String, String> KEY_COLUMNS = new LinkedHashMap<>();
+    static {
+        KEY_COLUMNS.put("Company", "companyID");
+        KEY_COLUMNS.put("Recruiter", "recruiterID");
+        KEY_COLUMNS.put("Job", "jobID");
+        KEY_COLUMNS.put("JobApplicant", "applicantID");
+        KEY_COLUMNS.put("JobApplication", "jobAppID");
+        KEY_COLUMNS.put("Resume", "resumeID");
+        KEY_COLUMNS.put("Interview", "interviewID");
+    }
+
+    private final DBConnection dbConnection;
+
+    /* Block currently being handed out, per table; each block is also the lock for its table's keys */
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    public KeyAllocator(DBConnection dbConnection) {
+        this.dbConnection = dbConnection;
+    }
+
+    /* Next unused key for the table (e.g. "JobApplication"). Only every BLOCK_SIZE-th call goes to the database */
+    public int nextId(String table) throws SQLException {
+        String key = tableName(table);
+        Block block = blocks.computeIfAbsent(key, k -> new Block());
+        synchronized (block) {
+            if (block.next > block.last) {
+                block.reserve(reserveBlock(key));
+            }
+            return Math.toIntExact(block.next++);
+        }
+    }
+
+    /* Makes sure keys handed out from now on are above every key in the table, e.g. after rows were loaded with keys of
+     * their own. Reserves a block and, if it is not past the highest key, re-creates the sequence to start after it.
+     * The sequence only ever moves forward, so blocks other clients hold stay unique */
+    public void skipExistingKeys(String table) throws SQLException {
+        String key = tableName(table);
+        Block block = blocks.computeIfAbsent(key, k -> new Block());
+        synchronized (block) {
+            long highest = dbConnection.query("SELECT NVL(MAX(" + KEY_COLUMNS.get(key) + "), 0) FROM " + key, rs -> {
+                rs.next();
+                return rs.getLong(1);
+            });
+            long first = reserveBlock(key);
+            if (first <= highest) {
+                recreateSequence(key);
+                first = reserveBlock(key);
+            }
+            block.reserve(first);
+        }
+    }
+
+    /* Forgets the reserved blocks, e.g. after the tables and sequences were dropped */
+    public void reset() {
+        blocks.clear();
+    }
+
+    /* Name of the sequence behind a table's keys */
+    public static String sequenceName(String table) {
+        return tableName(table) + "_id_seq";
+    }
+
+    /* Tables whose keys come from a sequence */
+    public static Iterable<String> tables() {
+        return KEY_COLUMNS.keySet();
+    }
+
+    /* First key of a newly reserved block */
+    private long reserveBlock(String table) throws SQLException {
+        try {
+            return nextValue(table);
+        } catch (SQLException e) {
+            if (!dbConnection.getDialect().isMissingSequence(e)) {
+                throw e;
+            }
+            createSequence(table);
+            return nextValue(table);
+        }
+    }
+
+    /* On the calling thread's connection: a thread already holding one (inside a unit of work) does not wait for a second */
+    private long nextValue(String table) throws SQLException {
+        return dbConnection.query(dbConnection.getDialect().sequenceNextValueQuery(sequenceName(table)), rs -> {
+            rs.next();
+            return rs.getLong(1);
+        });
+    }
+
+    /* Starts the sequence after the highest existing key. If another client creates it first, its sequence is used.
+     * Happens once per table and database, on a connection of its own so the DDL's commit does not commit the caller's work */
+    private void createSequence(String table) throws SQLException {
+        try (ConnectionPool.Lease lease = dbConnection.borrowConnection();
+             Statement statement = lease.getConnection().createStatement()) {
+            long start;
+            try (ResultSet rs = statement.executeQuery("SELECT NVL(MAX(" + KEY_COLUMNS.get(table) + "), 0) + 1 FROM " + table)) {
+                rs.next();
+                start = rs.getLong(1);
+            }
+            try {
+                statement.executeUpdate("CREATE SEQUENCE " + sequenceName(table) + " START WITH " + start + " INCREMENT BY " + BLOCK_SIZE);
+                System.out.println("Created sequence " + sequenceName(table) + " starting at " + start + ".");
+            } catch (SQLException e) {
+                System.out.println("Could not create sequence " + sequenceName(table) + " (" + e.getMessage().trim() + "), using the existing one.");
+            }
+        }
+    }
+
+    /* Drops the sequence and creates it again after the highest existing key (on a connection of its own, like createSequence) */
+    private void recreateSequence(String table) throws SQLException {
+        try (ConnectionPool.Lease lease = dbConnection.borrowConnection();
+             Statement statement = lease.getConnection().createStatement()) {
+            statement.executeUpdate("DROP SEQUENCE " + sequenceName(table));
+        } catch (SQLException e) {
+            if (!dbConnection.getDialect().isMissingSequence(e)) {
+                throw e;
+            }
+        }
+        createSequence(table);
+    }
+
+    /* Matches the table name case-insensitively to one of KEY_COLUMNS */
+    private static String tableName(String table) {
+        for (String name : KEY_COLUMNS.keySet()) {
+            if (name.equalsIgnoreCase(table)) {
+                return name;
+            }
+        }
+        throw new IllegalArgumentException("No generated keys for table " + table);
+    }
+
+    /* Keys next .. last are reserved for this client (none until the first reserve()) */
+    private static final class Block {
+        long next = 1;
+        long last = 0;
+
+        void reserve(long first) {
+            next = first;
+            last = first + BLOCK_SIZE - 1;
+        }
+    }
+}
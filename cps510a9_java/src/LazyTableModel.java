@@ -0,0 +1,303 @@
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import javax.swing.table.AbstractTableModel;
+
+/*
+ * Table model that reads a query one page at a time, as the JTable asks for rows, instead of copying the whole
+ * ResultSet into memory first. Only the most recently used pages stay resident, so a million-row table takes no more
+ * memory than a few hundred rows and the first page is shown as soon as it arrives.
+ *  - Pages are loaded in the background (see AsyncQueryExecutor) with SqlDialect.paginate; rows not loaded yet show empty
+ *  - The row count is counted in the background. Until it is known the table grows a page at a time while the user scrolls
+ *  - The query should have an ORDER BY on a unique key, otherwise the database may return rows in a different order per page
+ *  - A page that fails to load is requested again the next time the table asks for its rows, at most every -Ddb.lazy.retryMillis
+ *  - Only the pages the table asked for most recently are kept loading; older requests are cancelled, so scrolling quickly
+ *    through a table does not queue a query for every page it passed
+ * Sizes are overridable with -Ddb.lazy.pageSize=..., -Ddb.lazy.maxPages=... and -Ddb.lazy.maxPending=...
+ * Apart from open(), every method must be called on the EDT, which is also where all loaded pages are handed over.
+ */
+public class LazyTableModel extends AbstractTableModel {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int PAGE_SIZE = Math.max(1, Integer.getInteger("db.lazy.pageSize", 200));
+    private static final int MAX_RESIDENT_PAGES = Math.max(2, Integer.getInteger("db.lazy.maxPages", 10));
+    /* Page requests kept loading at once: enough for the pages a viewport spans */
+    private static final int MAX_PENDING_PAGES = Math.max(2, Integer.getInteger("db.lazy.maxPending", 3));
+    /* Pause after a failed page before the next request, so repaints do not retry in a tight loop */
+    private static final long RETRY_MILLIS = Math.max(0, Long.getLong("db.lazy.retryMillis", 2000L));
+
+    private final DBConnection dbConnection;
+    private final String description;
+    private final String sql;
+    private final Object[] params;
+    private final String[] columnNames;
+    private final QueryOptions pageOptions;
+
+    /* Most recently used pages, keyed by page number */
+    private final Map<Integer, Object[][]> pages = new LinkedHashMap<Integer, Object[][]>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Object[][]> eldest) {
+            return size() > MAX_RESIDENT_PAGES;
+        }
+    };
+    /* Pages requested but not yet loaded, least recently asked for first. The table asks for the rows it shows on every
+     * repaint, so the eldest request is for a page the viewport has moved past: it is cancelled to make room */
+    private final Map<Integer, AsyncQueryExecutor.QueryTask<Page>> loading = new LinkedHashMap<Integer, AsyncQueryExecutor.QueryTask<Page>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, AsyncQueryExecutor.QueryTask<Page>> eldest) {
+            if (size() <= MAX_PENDING_PAGES) {
+                return false;
+            }
+            eldest.getValue().cancel(true);
+            return true;
+        }
+    };
+
+    private int rowCount;
+    private boolean rowCountExact;
+    private final List<IntConsumer> rowCountListeners = new ArrayList<>();
+    private Consumer<Throwable> errorHandler = Throwable::printStackTrace;
+    /* No page is requested before this time (System.currentTimeMillis) after a failure */
+    private long retryAfter;
+    /* Whether the handler already heard of the current run of failures; cleared when a page loads again */
+    private boolean errorReported;
+
+    /* Totals over every page fetched so far. Round trips and bytes are estimates, only known when -Ddb.fetch.log=true */
+    private long fetchedRows;
+    private long roundTrips;
+    private long fetchedBytes;
+    private boolean fetchesMonitored;
+
+    private LazyTableModel(DBConnection dbConnection, String description, String sql, Object[] params, String[] columnNames, Object[][] firstPage) {
+        this.dbConnection = dbConnection;
+        this.description = description;
+        this.sql = sql;
+        this.params = params;
+        this.columnNames = columnNames;
+        this.pageOptions = QueryOptions.DEFAULT.withFetchSize(PAGE_SIZE);
+        pages.put(0, firstPage);
+        updateRowCount(0, firstPage.length);
+    }
+
+    /* Runs the query in the background for its first page. The returned task completes with the model, ready for a JTable */
+    public static AsyncQueryExecutor.QueryTask<LazyTableModel> open(DBConnection dbConnection, String description, String sql, Object... params) {
+        SqlDialect dialect = dbConnection.getDialect();
+        return dbConnection.getAsyncExecutor().query(description, QueryOptions.DEFAULT.withFetchSize(PAGE_SIZE), dialect.paginate(sql), rs -> {
+            ResultSetMetaData meta = rs.getMetaData();
+            String[] columnNames = new String[meta.getColumnCount() - dialect.paginationExtraColumns()];
+            for (int i = 0; i < columnNames.length; i++) {
+                columnNames[i] = meta.getColumnName(i + 1);
+            }
+            Page firstPage = readPage(rs, columnNames.length);
+            LazyTableModel model = new LazyTableModel(dbConnection, description, sql, params, columnNames, firstPage.rows);
+            model.recordFetch(firstPage);
+            if (!model.rowCountExact) {
+                model.countRows();
+            }
+            return model;
+        }, pageParameters(dialect, params, 0));
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    /* Value of a resident row, or null while its page is being loaded */
+    @Override
+    public Object getValueAt(int row, int column) {
+        int pageNumber = row / PAGE_SIZE;
+        Object[][] page = pages.get(pageNumber);
+        if (page == null) {
+            requestPage(pageNumber);
+            return null;
+        }
+        int offset = row % PAGE_SIZE;
+        return offset < page.length ? page[offset][column] : null;
+    }
+
+    /* Whether getRowCount() is the real number of rows, rather than the rows seen so far while counting */
+    public boolean isRowCountExact() {
+        return rowCountExact;
+    }
+
+    /* Row count for display, e.g. "12,345" or "at least 400 (counting...)" */
+    public String describeRowCount() {
+        return rowCountExact ? String.format("%,d", rowCount) : String.format("at least %,d (counting...)", rowCount);
+    }
+
+    /* Calls the listener with the exact row count once it is known (immediately if it already is) */
+    public void onRowCountKnown(IntConsumer listener) {
+        if (rowCountExact) {
+            listener.accept(rowCount);
+        } else {
+            rowCountListeners.add(listener);
+        }
+    }
+
+    /* Receives the error if a page or the row count cannot be loaded. Failed pages are retried when the table asks for them
+     * again, and the handler is told once per run of failures rather than on every retry */
+    public void setErrorHandler(Consumer<Throwable> errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+
+    /* Pages currently held in memory */
+    public int getResidentPageCount() {
+        return pages.size();
+    }
+
+    /* Rows fetched so far, with the estimated bytes and round trips when fetches are monitored (-Ddb.fetch.log=true) */
+    public String describeFetches() {
+        String estimates = fetchesMonitored
+            ? String.format(" (estimated %,d KB in %,d round trips)", (fetchedBytes + 1023) / 1024, roundTrips) : "";
+        return String.format("fetched %,d rows%s, %d of %d pages resident", fetchedRows, estimates, pages.size(), MAX_RESIDENT_PAGES);
+    }
+
+    private void requestPage(int pageNumber) {
+        /* get() also marks an already requested page as still wanted */
+        if (loading.get(pageNumber) != null || System.currentTimeMillis() < retryAfter) {
+            return;
+        }
+        SqlDialect dialect = dbConnection.getDialect();
+        int firstRow = pageNumber * PAGE_SIZE + 1;
+        AsyncQueryExecutor.QueryTask<Page> task = dbConnection.getAsyncExecutor().query(description + " (rows " + firstRow + "-" + (firstRow + PAGE_SIZE - 1) + ")",
+            pageOptions, dialect.paginate(sql), rs -> readPage(rs, columnNames.length), pageParameters(dialect, params, pageNumber));
+        loading.put(pageNumber, task);
+        task.whenCompleteAsync((page, error) -> {
+            loading.remove(pageNumber, task);
+            /* Dropped for a newer request: not a failure, the table asks again if the page comes back into view */
+            if (task.isCancelled()) {
+                return;
+            }
+            if (error != null) {
+                retryAfter = System.currentTimeMillis() + RETRY_MILLIS;
+                fail(error);
+                return;
+            }
+            errorReported = false;
+            recordFetch(page);
+            pages.put(pageNumber, page.rows);
+            updateRowCount(pageNumber, page.rows.length);
+            int lastRow = Math.min(rowCount, pageNumber * PAGE_SIZE + PAGE_SIZE) - 1;
+            if (lastRow >= pageNumber * PAGE_SIZE) {
+                fireTableRowsUpdated(pageNumber * PAGE_SIZE, lastRow);
+            }
+        }, AsyncQueryExecutor.EDT);
+    }
+
+    /* Counts every row of the query in the background and applies the result on the EDT */
+    private void countRows() {
+        dbConnection.getAsyncExecutor().query(description + " (row count)", "SELECT COUNT(*) FROM (" + sql + ") count_", rs -> {
+            rs.next();
+            return rs.getLong(1);
+        }, params).whenCompleteAsync((count, error) -> {
+            if (error != null) {
+                fail(error);
+            } else if (!rowCountExact) {
+                setRowCount((int) Math.min(Integer.MAX_VALUE, count), true);
+            }
+        }, AsyncQueryExecutor.EDT);
+    }
+
+    /* A full page means there may be more rows: show one more page of (not yet loaded) rows so the user can scroll on.
+     * A short page marks the end of the result */
+    private void updateRowCount(int pageNumber, int pageRows) {
+        if (rowCountExact) {
+            return;
+        }
+        long pageStart = (long) pageNumber * PAGE_SIZE;
+        if (pageRows < PAGE_SIZE) {
+            setRowCount((int) Math.min(Integer.MAX_VALUE, pageStart + pageRows), true);
+        } else if (pageStart + PAGE_SIZE >= rowCount) {
+            setRowCount((int) Math.min(Integer.MAX_VALUE, pageStart + 2L * PAGE_SIZE), false);
+        }
+    }
+
+    private void setRowCount(int newCount, boolean exact) {
+        int oldCount = rowCount;
+        rowCount = newCount;
+        rowCountExact = exact;
+        if (newCount > oldCount) {
+            fireTableRowsInserted(oldCount, newCount - 1);
+        } else if (newCount < oldCount) {
+            fireTableRowsDeleted(newCount, oldCount - 1);
+        }
+        if (exact) {
+            for (IntConsumer listener : rowCountListeners) {
+                listener.accept(newCount);
+            }
+            rowCountListeners.clear();
+        }
+    }
+
+    private void fail(Throwable error) {
+        if (!errorReported) {
+            errorReported = true;
+            errorHandler.accept(AsyncQueryExecutor.unwrap(error));
+        }
+    }
+
+    private void recordFetch(Page page) {
+        fetchedRows += page.rows.length;
+        if (page.fetchStats != null) {
+            fetchesMonitored = true;
+            roundTrips += page.fetchStats.getEstimatedRoundTrips();
+            fetchedBytes += page.fetchStats.getEstimatedBytes();
+        }
+    }
+
+    /* Reads up to one page of rows. Stops at PAGE_SIZE rows without calling next() again, so no extra round trip is made */
+    private static Page readPage(ResultSet rs, int columnCount) throws SQLException {
+        List<Object[]> rows = new ArrayList<>();
+        while (rows.size() < PAGE_SIZE && rs.next()) {
+            Object[] row = new Object[columnCount];
+            for (int column = 0; column < columnCount; column++) {
+                row[column] = rs.getObject(column + 1);
+            }
+            rows.add(row);
+        }
+        return new Page(rows.toArray(new Object[0][]), FetchMonitor.statsOf(rs));
+    }
+
+    /* Rows of one page, as read on the worker thread */
+    private static final class Page {
+        final Object[][] rows;
+        final FetchMonitor.Stats fetchStats;
+
+        Page(Object[][] rows, FetchMonitor.Stats fetchStats) {
+            this.rows = rows;
+            this.fetchStats = fetchStats;
+        }
+    }
+
+    /* The query's own parameters followed by the two that select the page */
+    private static Object[] pageParameters(SqlDialect dialect, Object[] params, int pageNumber) {
+        Object[] bounds = dialect.paginationParameters(pageNumber * PAGE_SIZE, PAGE_SIZE);
+        Object[] all = new Object[params.length + bounds.length];
+        System.arraycopy(params, 0, all, 0, params.length);
+        System.arraycopy(bounds, 0, all, params.length, bounds.length);
+        return all;
+    }
+}
@@ -1,9 +1,6 @@
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 
 /* This class represents the login screen for the application. */
 public class Login extends JPanel {
@@ -85,20 +82,19 @@ public class Login extends JPanel {
                     }
 
                     /* Query the database */
-                    Connection connection = DBConnection.getInstance(user, pass).getConnection();
-                    PreparedStatement stmt = connection.prepareStatement(
-                        "SELECT applicantID FROM JobApplicant WHERE email = ?"
+                    Integer foundID = DBConnection.getInstance(user, pass).query(
+                        "SELECT applicantID FROM JobApplicant WHERE email = ?",
+                        rs -> rs.next() ? rs.getInt(1) : null,
+                        email.trim()
                     );
-                    stmt.setString(1, email.trim());
-                    ResultSet rs = stmt.executeQuery();
 
-                    if (!rs.next()) {
+                    if (foundID == null) {
                         JOptionPane.showMessageDialog(this, "No applicant found with this email.", 
                                 "Error", JOptionPane.ERROR_MESSAGE);
                         return;
                     }
 
-                    int applicantID = rs.getInt(1);
+                    int applicantID = foundID;
                     gui.setApplicantID(applicantID);
                     System.out.println("Logged in as applicant: ID = " + applicantID);
 
@@ -111,21 +107,20 @@ public class Login extends JPanel {
                     }
 
                     /* Query the database */
-                    Connection connection = DBConnection.getInstance(user, pass).getConnection();
-                    PreparedStatement stmt = connection.prepareStatement(
-                        "SELECT recruiterID, companyID FROM Recruiter WHERE email = ?"
+                    int[] foundIDs = DBConnection.getInstance(user, pass).query(
+                        "SELECT recruiterID, companyID FROM Recruiter WHERE email = ?",
+                        rs -> rs.next() ? new int[]{rs.getInt(1), rs.getInt(2)} : null,
+                        email.trim()
                     );
-                    stmt.setString(1, email.trim());
-                    ResultSet rs = stmt.executeQuery();
 
-                    if (!rs.next()) {
+                    if (foundIDs == null) {
                         JOptionPane.showMessageDialog(this, "No recruiter found with this email.", 
                                 "Error", JOptionPane.ERROR_MESSAGE);
                         return;
                     }
 
-                    int recruiterID = rs.getInt(1);
-                    int companyID = rs.getInt(2);
+                    int recruiterID = foundIDs[0];
+                    int companyID = foundIDs[1];
                     gui.setRecruiterID(recruiterID);
                     gui.setCompanyID(companyID); 
                     System.out.println("Logged in as recruiter: ID = " + recruiterID);
@@ -139,19 +134,18 @@ public class Login extends JPanel {
                     }
 
                     /* Query the database */
-                    Connection connection = DBConnection.getInstance(user, pass).getConnection();
-                    PreparedStatement stmt = connection.prepareStatement(
-                        "SELECT companyID FROM Company WHERE name = ?"
+                    Integer foundID = DBConnection.getInstance(user, pass).query(
+                        "SELECT companyID FROM Company WHERE name = ?",
+                        rs -> rs.next() ? rs.getInt(1) : null,
+                        name.trim()
                     );
-                    stmt.setString(1, name.trim());
-                    ResultSet rs = stmt.executeQuery();
 
-                    if (!rs.next()) {
+                    if (foundID == null) {
                         JOptionPane.showMessageDialog(this, "No company found with this name.", "Error", JOptionPane.ERROR_MESSAGE);
                         return;
                     }
 
-                    int companyID = rs.getInt(1);
+                    int companyID = foundID;
                     gui.setCompanyID(companyID);
                     System.out.println("Logged in as Company: ID = " + companyID);
                 } 
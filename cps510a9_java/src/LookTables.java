@@ -1,8 +1,6 @@
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.sql.*;
-import java.util.Vector;
 
 /* This class allows user to view (read) records from any table in the application. */
 public class LookTables extends JPanel {
@@ -11,6 +9,7 @@ public class LookTables extends JPanel {
     private final JTextArea outputArea = new JTextArea(); /* Displays executed SQL statements and results */
     private final JComboBox<String> tableSelector; /* Dropdown for selecting which table to view */
     private final JTable resultTable; /* Displays the data retrieved from the database */
+    private final JButton lookButton; /* Disabled while a table is being loaded */
 
     /* Sets upp all UI components, such as title, dropdown menu, result table, and output area */
     public LookTables (DB_GUI gui, String username, String password) throws SQLException {
@@ -34,7 +33,7 @@ public class LookTables extends JPanel {
         });
 
         /* Button to execute query for the selected table */
-        JButton lookButton = new JButton("Look at Table");
+        lookButton = new JButton("Look at Table");
         lookButton.setFont(new Font("Times New Roman", Font.BOLD, 18));
         lookButton.addActionListener(e -> lookTable());
 
@@ -78,60 +77,43 @@ public class LookTables extends JPanel {
         add(bottomPanel, BorderLayout.PAGE_END);
     }
 
-    /* Called when the user clicks the "Look at Table" button. Retrieves the selected table name, builds a "SELECT * FROM <table>" query, logs it in the output area, and executes it for display */
+    /* Called when the user clicks the "Look at Table" button. Retrieves the selected table name, builds a "SELECT * FROM <table>" query, logs it in the output area, and executes it for display.
+     * The first column of every table is its primary key, so ordering by it keeps the pages of the lazy table model stable */
     private void lookTable() {
         String table = (String) tableSelector.getSelectedItem();
-        String sql = "SELECT * FROM " + table;
+        String sql = "SELECT * FROM " + table + " ORDER BY 1";
         outputArea.setText("");
         log("Executing query: " + sql);
         executeAndDisplay(sql);
     }
 
-    /* Executes the provided SQL query and displays the result set in a JTable. Also logs success messages or SQL errors in the output area */
+    /* Opens the provided SQL query in the background and displays it in a JTable that loads further rows as the user scrolls. Also logs success messages or SQL errors in the output area */
     private void executeAndDisplay(String sql) {
-        try (Statement stmt = dbConnection.getConnection().createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        lookButton.setEnabled(false);
+        AsyncQueryExecutor.deliver(LazyTableModel.open(dbConnection, sql, sql), model -> {
+            lookButton.setEnabled(true);
 
-            /* Convert ResultSet to a table model and display it */
-            DefaultTableModel model = buildTableModel(rs);
+            /* Display the first page; the rest is fetched on demand */
             resultTable.setModel(model);
+            model.setErrorHandler(ex -> log("SQL Error: " + ex.getMessage()));
 
-            /* Log the number of rows retrieved */
-            log("Query executed successfully. Rows retrieved: " + model.getRowCount());
+            /* Log the number of rows, and how many round trips the rows read so far took, once the count is known */
+            log("Query executed successfully. Rows: " + model.describeRowCount());
+            model.onRowCountKnown(rows -> {
+                if (resultTable.getModel() == model) {
+                    log("Rows in table: " + String.format("%,d", rows) + " (" + model.describeFetches() + ")");
+                }
+            });
 
         /* Handle SQL errors gracefully */
-        } catch (SQLException ex) {
+        }, ex -> {
+            lookButton.setEnabled(true);
             log("SQL Error: " + ex.getMessage());
             JOptionPane.showMessageDialog(this,
                     "Error executing query:\n" + ex.getMessage(),
                     "SQL Error",
                     JOptionPane.ERROR_MESSAGE);
-        }
-    }
-
-    /* Converts a ResultSet object into a DefaultTableModel for displaying in a JTable. Dynamically retrieves column names and row data from the query result */
-    private DefaultTableModel buildTableModel(ResultSet rs) throws SQLException {
-        ResultSetMetaData meta = rs.getMetaData();
-        int columnCount = meta.getColumnCount();
-
-        /* Retrieve column names from metadata */
-        Vector<String> columnNames = new Vector<>();
-        for (int i = 1; i <= columnCount; i++) {
-            columnNames.add(meta.getColumnName(i));
-        }
-
-        /* Retrieve all rows from the ResultSet */
-        Vector<Vector<Object>> data = new Vector<>();
-        while (rs.next()) {
-            Vector<Object> row = new Vector<>();
-            for (int i = 1; i <= columnCount; i++) {
-                row.add(rs.getObject(i));
-            }
-            data.add(row);
-        }
-
-        /* Return populated table model */
-        return new DefaultTableModel(data, columnNames);
+        });
     }
 
     /* Helper to append text to output area */
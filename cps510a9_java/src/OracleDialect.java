@@ -0,0 +1,147 @@
+import java.sql.SQLException;
+
+/* SQL dialect of the campus Oracle database */
+public class OracleDialect implements SqlDialect {
+
+    /* ORA-00942: table or view does not exist */
+    private static final int ORA_TABLE_NOT_FOUND = 942;
+    /* ORA-02289: sequence does not exist */
+    private static final int ORA_SEQUENCE_NOT_FOUND = 2289;
+    /* ORA-00001: unique constraint violated */
+    private static final int ORA_UNIQUE_VIOLATION = 1;
+    /* ORA-01013: user requested cancel of current operation (also raised by a query timeout) */
+    private static final int ORA_USER_CANCEL = 1013;
+
+    @Override
+    public String name() {
+        return "oracle";
+    }
+
+    @Override
+    public String driverClassName() {
+        return "oracle.jdbc.driver.OracleDriver";
+    }
+
+    @Override
+    public String defaultUrl() {
+        return "jdbc:oracle:thin:@oracle.cs.torontomu.ca:1521:orcl";
+    }
+
+    @Override
+    public String binaryFromText(String text) {
+        return "UTL_RAW.CAST_TO_RAW(" + SqlDialect.quote(text) + ")";
+    }
+
+    @Override
+    public String tableNamesQuery() {
+        return "SELECT table_name FROM user_tables";
+    }
+
+    @Override
+    public String columnExistsQuery() {
+        return "SELECT COUNT(*) FROM user_tab_columns WHERE table_name = ? AND column_name = ?";
+    }
+
+    @Override
+    public String dropNotNull(String table, String column) {
+        return "ALTER TABLE " + table + " MODIFY (" + column + " NULL)";
+    }
+
+    @Override
+    public String constraintExistsQuery() {
+        return "SELECT COUNT(*) FROM user_constraints WHERE constraint_name = ?";
+    }
+
+    @Override
+    public String indexColumnsQuery() {
+        return "SELECT table_name, index_name, column_name, column_position FROM user_ind_columns ORDER BY table_name, index_name, column_position";
+    }
+
+    /* The plan goes into PLAN_TABLE (a per-session temporary table); roll back afterwards to remove it */
+    @Override
+    public String explainPlan(String sql) {
+        return "EXPLAIN PLAN SET STATEMENT_ID = 'explain_' FOR " + sql;
+    }
+
+    @Override
+    public String planQuery() {
+        return "SELECT operation || ' ' || options || ' ' || object_name FROM plan_table WHERE statement_id = 'explain_' ORDER BY id";
+    }
+
+    /* Complete refresh: the views are aggregates (COUNT DISTINCT, ORDER BY) that Oracle cannot fast-refresh */
+    @Override
+    public String createMaterializedView(String name, String columnList, String select, int refreshMinutes) {
+        String refresh = refreshMinutes <= 0
+            ? "REFRESH COMPLETE ON COMMIT"
+            : "REFRESH COMPLETE START WITH SYSDATE NEXT SYSDATE + " + refreshMinutes + " / 1440";
+        return "CREATE MATERIALIZED VIEW " + name + " " + columnList + " BUILD IMMEDIATE " + refresh + " AS " + select;
+    }
+
+    @Override
+    public String dropMaterializedView(String name) {
+        return "DROP MATERIALIZED VIEW " + name;
+    }
+
+    /* A key changed by an UPDATE is logged as a delete of the old key and an insert of the new one */
+    @Override
+    public String createChangeTrigger(String table, String keyColumn) {
+        String name = SqlDialect.quote(table.toUpperCase());
+        return "CREATE OR REPLACE TRIGGER " + table + "_chg_trg AFTER INSERT OR UPDATE OR DELETE ON " + table + " FOR EACH ROW\n" +
+            "DECLARE\n" +
+            "  op CHAR(1);\n" +
+            "BEGIN\n" +
+            "  IF INSERTING THEN op := 'I'; ELSIF UPDATING THEN op := 'U'; ELSE op := 'D'; END IF;\n" +
+            "  IF UPDATING AND :NEW." + keyColumn + " <> :OLD." + keyColumn + " THEN\n" +
+            "    INSERT INTO ChangeLog (changeSeq, tableName, operation, rowKey) VALUES (changelog_seq.NEXTVAL, " + name + ", 'D', :OLD." + keyColumn + ");\n" +
+            "    op := 'I';\n" +
+            "  END IF;\n" +
+            "  INSERT INTO ChangeLog (changeSeq, tableName, operation, rowKey) VALUES (changelog_seq.NEXTVAL, " + name + ", op, NVL(:NEW." + keyColumn + ", :OLD." + keyColumn + "));\n" +
+            "END;";
+    }
+
+    @Override
+    public String dropTableCascade(String table) {
+        return "DROP TABLE " + table + " CASCADE CONSTRAINTS";
+    }
+
+    /* ROWNUM form, so it also works on Oracle releases older than 12c (no OFFSET/FETCH) */
+    @Override
+    public String paginate(String sql) {
+        return "SELECT * FROM (SELECT page_.*, ROWNUM row_num_ FROM (" + sql + ") page_ WHERE ROWNUM <= ?) WHERE row_num_ > ?";
+    }
+
+    @Override
+    public Object[] paginationParameters(int offset, int limit) {
+        return new Object[]{(long) offset + limit, offset};
+    }
+
+    @Override
+    public int paginationExtraColumns() {
+        return 1;
+    }
+
+    @Override
+    public String sequenceNextValueQuery(String sequence) {
+        return "SELECT " + sequence + ".NEXTVAL FROM dual";
+    }
+
+    @Override
+    public boolean isMissingSequence(SQLException e) {
+        return e.getErrorCode() == ORA_SEQUENCE_NOT_FOUND;
+    }
+
+    @Override
+    public boolean isMissingTable(SQLException e) {
+        return e.getErrorCode() == ORA_TABLE_NOT_FOUND;
+    }
+
+    @Override
+    public boolean isUniqueViolation(SQLException e) {
+        return e.getErrorCode() == ORA_UNIQUE_VIOLATION;
+    }
+
+    @Override
+    public boolean isQueryCancelled(SQLException e) {
+        return e.getErrorCode() == ORA_USER_CANCEL;
+    }
+}
@@ -61,11 +61,11 @@ public class PopulateTables extends JPanel {
         log("Starting table population process...\n");
 
             try {
-                /* Get the current connection object from dbConnection */ 
-                Connection connection = dbConnection.getConnection();
-                connection.setAutoCommit(false);
+                /* One unit of work: committed once every statement ran, rolled back on an error, and the connection handed back either way */
+                dbConnection.inTransaction("Populate tables", () -> {
+                    /* Resume files are written as binary literals, which differ between Oracle and H2 */
+                    SqlDialect dialect = dbConnection.getDialect();
 
-                try {
                     /* Insert statements */
                     executeAndLog("INSERT INTO Company (companyID, name, industry, location, email, phone) VALUES (1, 'Apple Canada', 'Software', '120 Bremner Boulevard Suite 1600, Toronto, Ontario, M5J 0A8', '', '647-943-4400')", "1 row inserted."); 
                     executeAndLog("INSERT INTO Company (companyID, name, industry, location, email, phone) VALUES (2, 'Royal Bank of Canada (RBC)', 'Banking', 'Toronto, Ontario, Canada', 'recruitment@rbc.com', '1-800-769-2511')", "1 row inserted."); 
@@ -108,13 +108,13 @@ public class PopulateTables extends JPanel {
                     executeAndLog("INSERT INTO JobApplication (jobAppID, jobID, applicantID, dateTime, status) VALUES (6, 4, 6, TO_DATE('2025-09-30', 'YYYY-MM-DD'), 'Interview Pending')", "1 row inserted.");
                     executeAndLog("INSERT INTO JobApplication (jobAppID, jobID, applicantID, dateTime, status) VALUES (7, 4, 5, TO_DATE('2025-10-04', 'YYYY-MM-DD'), 'Interview Pending')", "1 row inserted.");
 
-                    executeAndLog("INSERT INTO Resume (resumeID, applicantID, uploadFile, uploadDate) VALUES (1, 1, UTL_RAW.CAST_TO_RAW('Alice Bob'), TO_DATE('2002-04-13', 'YYYY-MM-DD'))", "1 row inserted.");
-                    executeAndLog("INSERT INTO Resume (resumeID, applicantID, uploadFile, uploadDate) VALUES (2, 2, UTL_RAW.CAST_TO_RAW('Jake Blake Resume'), TO_DATE('2025-09-28', 'YYYY-MM-DD'))", "1 row inserted.");
-                    executeAndLog("INSERT INTO Resume (resumeID, applicantID, uploadFile, uploadDate) VALUES (3, 3, UTL_RAW.CAST_TO_RAW('Griffin Walker Resume'), TO_DATE('2025-09-29', 'YYYY-MM-DD'))", "1 row inserted.");
-                    executeAndLog("INSERT INTO Resume (resumeID, applicantID, uploadFile, uploadDate) VALUES (4, 4, UTL_RAW.CAST_TO_RAW('Ed Stephens Resume'), TO_DATE('2025-09-28', 'YYYY-MM-DD'))", "1 row inserted.");
-                    executeAndLog("INSERT INTO Resume (resumeID, applicantID, uploadFile, uploadDate) VALUES (5, 5, UTL_RAW.CAST_TO_RAW('Joe Random Resume'), TO_DATE('2025-09-29', 'YYYY-MM-DD'))", "1 row inserted.");
-                    executeAndLog("INSERT INTO Resume (resumeID, applicantID, uploadFile, uploadDate) VALUES (6, 6, UTL_RAW.CAST_TO_RAW('Michael Jordan Resume'), TO_DATE('2025-09-30', 'YYYY-MM-DD'))", "1 row inserted.");
-                    executeAndLog("INSERT INTO Resume (resumeID, applicantID, uploadFile, uploadDate) VALUES (7, 6, UTL_RAW.CAST_TO_RAW('Michael Jordan Resume 2'), TO_DATE('2025-10-04', 'YYYY-MM-DD'))", "1 row inserted.");
+                    executeAndLog("INSERT INTO Resume (resumeID, applicantID, uploadFile, uploadDate) VALUES (1, 1, " + dialect.binaryFromText("Alice Bob") + ", TO_DATE('2002-04-13', 'YYYY-MM-DD'))", "1 row inserted.");
+                    executeAndLog("INSERT INTO Resume (resumeID, applicantID, uploadFile, uploadDate) VALUES (2, 2, " + dialect.binaryFromText("Jake Blake Resume") + ", TO_DATE('2025-09-28', 'YYYY-MM-DD'))", "1 row inserted.");
+                    executeAndLog("INSERT INTO Resume (resumeID, applicantID, uploadFile, uploadDate) VALUES (3, 3, " + dialect.binaryFromText("Griffin Walker Resume") + ", TO_DATE('2025-09-29', 'YYYY-MM-DD'))", "1 row inserted.");
+                    executeAndLog("INSERT INTO Resume (resumeID, applicantID, uploadFile, uploadDate) VALUES (4, 4, " + dialect.binaryFromText("Ed Stephens Resume") + ", TO_DATE('2025-09-28', 'YYYY-MM-DD'))", "1 row inserted.");
+                    executeAndLog("INSERT INTO Resume (resumeID, applicantID, uploadFile, uploadDate) VALUES (5, 5, " + dialect.binaryFromText("Joe Random Resume") + ", TO_DATE('2025-09-29', 'YYYY-MM-DD'))", "1 row inserted.");
+                    executeAndLog("INSERT INTO Resume (resumeID, applicantID, uploadFile, uploadDate) VALUES (6, 6, " + dialect.binaryFromText("Michael Jordan Resume") + ", TO_DATE('2025-09-30', 'YYYY-MM-DD'))", "1 row inserted.");
+                    executeAndLog("INSERT INTO Resume (resumeID, applicantID, uploadFile, uploadDate) VALUES (7, 6, " + dialect.binaryFromText("Michael Jordan Resume 2") + ", TO_DATE('2025-10-04', 'YYYY-MM-DD'))", "1 row inserted.");
                     
                     executeAndLog("INSERT INTO Interview (interviewID, jobAppID, dateTime, location) VALUES (1, 4, TO_DATE('2025-10-1 10:00 AM', 'YYYY-MM-DD HH:MI AM'), 'Toronto, Ontario, Canada')", "1 row inserted.");
                     executeAndLog("INSERT INTO Interview (interviewID, jobAppID, dateTime, location) VALUES (2, 5, TO_DATE('2025-10-2 11:00 AM', 'YYYY-MM-DD HH:MI AM'), 'Markham, Ontario, Canada')", "1 row inserted.");
@@ -124,23 +124,18 @@ public class PopulateTables extends JPanel {
                     executeAndLog("UPDATE Company SET location = 'Toronto, Ontario, Canada' WHERE companyID = 1", "1 row updated.");
                     executeAndLog("UPDATE Company SET industry = 'Technology' WHERE companyID = 1", "1 row updated.");
                     executeAndLog("UPDATE Resume SET uploadDate = TO_DATE('2025-09-27', 'YYYY-MM-DD') WHERE resumeID = 1", "1 row updated.");
-                    executeAndLog("UPDATE Resume SET uploadFile = UTL_RAW.CAST_TO_RAW('Alice Bob Resume') WHERE resumeID = 1", "1 row updated.");
-
-                    /* Commit the transaction after all insertions and updates succeed */
-                    connection.commit(); 
-                    log("\nTables populated successfully!");
-                    JOptionPane.showMessageDialog(this, "Tables populated successfully!");
-                /* Rollback the transaction if any SQL error occurs */
-                } catch (SQLException ex) {
-                    connection.rollback();
-                    log("\nRolled back changes due to error:");
-                    log(ex.getMessage());
-                    JOptionPane.showMessageDialog(this, "Error populating tables. Rolled back changes.\n" + ex.getMessage(),"SQL Error", JOptionPane.ERROR_MESSAGE);
-                }
-            /* Handle connection-level errors */
+                    executeAndLog("UPDATE Resume SET uploadFile = " + dialect.binaryFromText("Alice Bob Resume") + " WHERE resumeID = 1", "1 row updated.");
+                    return null;
+                });
+                dbConnection.getReferenceData().invalidateAll(); /* the sample data updates Company rows */
+                dbConnection.getJobBoard().markChanged();
+                log("\nTables populated successfully!");
+                JOptionPane.showMessageDialog(this, "Tables populated successfully!");
+            /* Rollback the transaction if any SQL error occurs (including not getting a connection) */
             } catch (SQLException ex) {
-                log("\nDatabase connection error: " + ex.getMessage());
-                JOptionPane.showMessageDialog(this, "Database connection error: " + ex.getMessage(),"Database Error", JOptionPane.ERROR_MESSAGE);
+                log("\nRolled back changes due to error:");
+                log(ex.getMessage());
+                JOptionPane.showMessageDialog(this, "Error populating tables. Rolled back changes.\n" + ex.getMessage(),"SQL Error", JOptionPane.ERROR_MESSAGE);
             }
         }
         
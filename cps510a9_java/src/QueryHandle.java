@@ -0,0 +1,61 @@
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/*
+ * An open query returned by DBConnection.openQuery. Use it in a try-with-resources block:
+ * closing the handle closes the cursor and hands the statement back to the connection's statement cache (and, for a query
+ * opened outside a unit of work, the connection back to the pool).
+ */
+public class QueryHandle implements AutoCloseable {
+
+    private final PreparedStatement statement;
+    private final ResultSet resultSet;
+    private final StatementCache statementCache;
+    private final StatementLeakDetector leakDetector;
+    /* Run once the statement is back in the cache, or null */
+    private final Runnable afterClose;
+    private boolean closed;
+
+    QueryHandle(PreparedStatement statement, ResultSet resultSet, StatementCache statementCache, StatementLeakDetector leakDetector, Runnable afterClose) {
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.statementCache = statementCache;
+        this.leakDetector = leakDetector;
+        this.afterClose = afterClose;
+    }
+
+    public ResultSet getResultSet() {
+        return resultSet;
+    }
+
+    /* Rows read so far through getResultSet() and the estimated round trips, or null unless -Ddb.fetch.log=true */
+    public FetchMonitor.Stats getFetchStats() {
+        return FetchMonitor.statsOf(resultSet);
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        FetchMonitor.Stats fetchStats = getFetchStats();
+        if (fetchStats != null) {
+            System.out.println(fetchStats.describe() + " " + fetchStats.getSql());
+        }
+        try {
+            resultSet.close();
+        } finally {
+            CancellationToken.unregister(statement);
+            leakDetector.untrack(statement);
+            try {
+                statementCache.release(statement);
+            } finally {
+                if (afterClose != null) {
+                    afterClose.run();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Per-query settings passed to DBConnection.query/openQuery. Options are immutable; the with* methods return a copy.
+ *  timeoutSeconds: how long the statement may run before the driver cancels it (0 = no limit, -1 = use the global default)
+ *  fetchSize: rows fetched per round trip (-1 = chosen by the connection's FetchSizePolicy from the row width)
+ */
+public final class QueryOptions {
+
+    /* Uses the global settings (-Ddb.query.timeoutSeconds, -Ddb.fetch.*) */
+    public static final QueryOptions DEFAULT = new QueryOptions(-1, -1);
+
+    private final int timeoutSeconds;
+    private final int fetchSize;
+
+    private QueryOptions(int timeoutSeconds, int fetchSize) {
+        this.timeoutSeconds = timeoutSeconds;
+        this.fetchSize = fetchSize;
+    }
+
+    /* Overrides the global query timeout for this query only (0 disables the timeout) */
+    public QueryOptions withTimeout(int seconds) {
+        if (seconds < 0) {
+            throw new IllegalArgumentException("Query timeout cannot be negative: " + seconds);
+        }
+        return new QueryOptions(seconds, fetchSize);
+    }
+
+    /* Fetches exactly this many rows per round trip instead of letting the fetch size policy choose */
+    public QueryOptions withFetchSize(int rows) {
+        if (rows < 1) {
+            throw new IllegalArgumentException("Fetch size must be at least 1: " + rows);
+        }
+        return new QueryOptions(timeoutSeconds, rows);
+    }
+
+    /* The timeout to apply, falling back to the given global default when this query does not override it */
+    public int timeoutSeconds(int globalDefault) {
+        return timeoutSeconds < 0 ? globalDefault : timeoutSeconds;
+    }
+
+    /* Whether the fetch size was fixed with withFetchSize() */
+    public boolean hasFetchSize() {
+        return fetchSize > 0;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryOptions[timeout=" + (timeoutSeconds < 0 ? "default" : timeoutSeconds + "s") +
+               ", fetchSize=" + (fetchSize < 0 ? "adaptive" : String.valueOf(fetchSize)) + "]";
+    }
+}
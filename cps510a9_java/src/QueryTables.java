@@ -6,6 +6,10 @@ public class QueryTables extends JPanel {
 
     private final DBConnection dbConnection;
 
+//Reports get their own time limit (-Ddb.report.timeoutSeconds) instead of the global query timeout
+    private static final QueryOptions REPORT_OPTIONS =
+        QueryOptions.DEFAULT.withTimeout(Math.max(0, Integer.getInteger("db.report.timeoutSeconds", 30)));
+
     public QueryTables(DB_GUI gui, String username, String password) throws SQLException {
         this.dbConnection = DBConnection.getInstance(username, password);
 
@@ -163,16 +167,22 @@ public class QueryTables extends JPanel {
 
 //Function that lets the buttons be clickable and converts the query results to a table in a popup message and shows a success message if it executes without errors
 //and error messages if there are errors
+//The query runs in the background so several can run at once; each button is disabled until its own result comes back
+//Results are kept column by column (ColumnarResult) rather than as a Vector of boxed values per row
+//They come from the result cache when none of the tables the report reads has been written since it last ran (see ResultCache)
     private void attachQueryButton(JButton button, String query) {
+        ResultCache results = dbConnection.getResultCache();
         button.addActionListener(e -> {
-            try {
-                ResultSet rs = dbConnection.executeQuery(query);
-                JTable table = new JTable(DB_GUI.buildTableModel(rs));
+            button.setEnabled(false);
+            AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().submit(button.getText(), () -> results.query(REPORT_OPTIONS, query)), result -> {
+                button.setEnabled(true);
+                JTable table = new JTable(result.asTableModel());
                 JOptionPane.showMessageDialog(null, new JScrollPane(table), "Query Results", JOptionPane.INFORMATION_MESSAGE);
                 JOptionPane.showMessageDialog(null, "Query executed successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-            } catch (SQLException ex) {
+            }, ex -> {
+                button.setEnabled(true);
                 JOptionPane.showMessageDialog(null, "Error executing query:\n" + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            });
         });
     }
 }
\ No newline at end of file
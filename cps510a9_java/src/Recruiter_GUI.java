@@ -2,6 +2,7 @@ import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 
 import java.awt.*;
+import java.io.File;
 import java.sql.*;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -69,7 +70,7 @@ public class Recruiter_GUI extends JPanel{
     }
 
     //Make a resultset non editable table so that its only for display
-    private DefaultTableModel readOnlyModel(ResultSet rs) throws SQLException {
+    private static DefaultTableModel readOnlyModel(ResultSet rs) throws SQLException {
         DefaultTableModel model = DB_GUI.buildTableModel(rs);
         Vector<String> colNames = new Vector<>();
         for (int i = 0; i < model.getColumnCount(); i++)
@@ -81,7 +82,7 @@ public class Recruiter_GUI extends JPanel{
     }
 
     //Extracts data from a selected table row and organizes it into a key-value format
-    private Map<String, Object> extractRow(JTable table, int row) {
+    private static Map<String, Object> extractRow(JTable table, int row) {
         Map<String, Object> map = new LinkedHashMap<>();
         DefaultTableModel model = (DefaultTableModel) table.getModel();
 
@@ -115,32 +116,32 @@ public class Recruiter_GUI extends JPanel{
 
     //Recruiters can create new job postings for their company
     private void createJobPosting() {
-        try {
-            JTextField jobID = new JTextField();
-            JTextField salary = new JTextField();
-            JTextField workingHours = new JTextField();
-            JTextField datePosted = new JTextField();
-            JTextField location = new JTextField();
-            JTextField title = new JTextField();
-            JTextField description = new JTextField();
-
-            Object[] queryValues = {
-                "JobID (mandatory int, unique):", jobID,
-                "Salary:", salary,
-                "Working Hours:", workingHours,
-                "Date Posted (YYYY-MM-DD):", datePosted,
-                "Location:", location,
-                "Title (mandatory):", title,
-                "Description (mandatory):", description
-            };
-
-            int option = JOptionPane.showConfirmDialog(null, queryValues, "Create Job Posting", JOptionPane.OK_CANCEL_OPTION);
-
-            if (option == JOptionPane.OK_OPTION) {
-                //Insert the new job into the database
+        JTextField jobID = new JTextField();
+        JTextField salary = new JTextField();
+        JTextField workingHours = new JTextField();
+        JTextField datePosted = new JTextField();
+        JTextField location = new JTextField();
+        JTextField title = new JTextField();
+        JTextField description = new JTextField();
+
+        Object[] queryValues = {
+            "JobID (leave blank to generate):", jobID,
+            "Salary:", salary,
+            "Working Hours:", workingHours,
+            "Date Posted (YYYY-MM-DD):", datePosted,
+            "Location:", location,
+            "Title (mandatory):", title,
+            "Description (mandatory):", description
+        };
+
+        int option = JOptionPane.showConfirmDialog(null, queryValues, "Create Job Posting", JOptionPane.OK_CANCEL_OPTION);
+
+        if (option == JOptionPane.OK_OPTION) {
+            //Insert the new job into the database in the background
+            AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().submit("Create job posting", () -> {
                 String insertSQL = "INSERT INTO Job (jobID, companyID, recruiterID, salary, workingHours, datePosted, location, title, description) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-                PreparedStatement pstmt = dbConnection.getConnection().prepareStatement(insertSQL);
-                pstmt.setInt(1, Integer.parseInt(jobID.getText()));
+                PreparedStatement pstmt = dbConnection.prepareCached(insertSQL);
+                pstmt.setInt(1, jobID.getText().trim().isEmpty() ? dbConnection.getKeyAllocator().nextId("Job") : Integer.parseInt(jobID.getText().trim()));
               pstmt.setInt(2, companyID); 
                 pstmt.setInt(3, recruiterID);
                 pstmt.setFloat(4, salary.getText() == null || salary.getText().isEmpty() ? 0 : Float.parseFloat(salary.getText()));
@@ -150,36 +151,38 @@ public class Recruiter_GUI extends JPanel{
                 pstmt.setString(8, title.getText());
                 pstmt.setString(9, description.getText());
 
-                int rowsAffected = pstmt.executeUpdate();
+                return pstmt.executeUpdate();
+            }), rowsAffected -> {
+                dbConnection.getJobBoard().markChanged(); // committed by now - reloads the applicants' job board in the background straight away
                 if (rowsAffected > 0) {
                     JOptionPane.showMessageDialog(null, "Job posting created successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
                 } else {
                     JOptionPane.showMessageDialog(null, "Failed to create job posting.", "Error", JOptionPane.ERROR_MESSAGE);
                 }
-            }
-
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, "Error creating job posting: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this, "Error invalid input: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            }, ex -> {
+                if (ex instanceof SQLException) {
+                    JOptionPane.showMessageDialog(this, "Error creating job posting: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(this, "Error invalid input: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            });
         }
     }
 
     //Shows all job postings created by the recruiter with the number of applications displayed
     private void manageCompanyJobs() {
-        try {
-            String sql =
-                "SELECT j.jobID, j.title AS \"Job Title\", j.location AS \"Location\", " +
-                "j.salary AS \"Salary ($/hr)\", j.workingHours AS \"Hours/Week\", " +
-                "TO_CHAR(j.datePosted, 'YYYY-MM-DD') AS \"Posted On\", " +
-                "COUNT(ja.jobAppID) AS \"Applications\" " +
-                "FROM Job j " +
-                "LEFT JOIN JobApplication ja ON j.jobID = ja.jobID " +
-                "WHERE j.recruiterID = " + recruiterID +
-                " GROUP BY j.jobID, j.title, j.location, j.salary, j.workingHours, j.datePosted";
-
-            ResultSet rs = dbConnection.executeQuery(sql);
-            JTable table = new JTable(readOnlyModel(rs));
+        String sql =
+            "SELECT j.jobID, j.title AS \"Job Title\", j.location AS \"Location\", " +
+            "j.salary AS \"Salary ($/hr)\", j.workingHours AS \"Hours/Week\", " +
+            "TO_CHAR(j.datePosted, 'YYYY-MM-DD') AS \"Posted On\", " +
+            "COUNT(ja.jobAppID) AS \"Applications\" " +
+            "FROM Job j " +
+            "LEFT JOIN JobApplication ja ON j.jobID = ja.jobID " +
+            "WHERE j.recruiterID = ? " +
+            "GROUP BY j.jobID, j.title, j.location, j.salary, j.workingHours, j.datePosted";
+
+        AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().query("My job postings", sql, Recruiter_GUI::readOnlyModel, recruiterID), model -> {
+            JTable table = new JTable(model);
 
             //A button to view the job information in more detail
             JButton viewBtn = new JButton("View Selected Job");
@@ -198,27 +201,24 @@ public class Recruiter_GUI extends JPanel{
 
             JOptionPane.showMessageDialog(this, panel, "My Job Postings", JOptionPane.PLAIN_MESSAGE);
 
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, ex -> JOptionPane.showMessageDialog(this, ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
     }
 
     //Shows all applications for jobs posted by the recruiter with the ability to update the status
     private void evaluateApplications() {
-        try {
-            String sql =
-                "SELECT ja.jobAppID, j.title AS \"Job Title\", " +
-                "a.first_name || ' ' || a.last_name AS \"Applicant\", " +
-                "ja.status AS \"Status\", " +
-                "TO_CHAR(ja.dateTime, 'YYYY-MM-DD') AS \"Applied On\" " +
-                "FROM JobApplication ja " +
-                "JOIN Job j ON ja.jobID = j.jobID " +
-                "JOIN JobApplicant a ON ja.applicantID = a.applicantID " +
-                "WHERE j.recruiterID = " + recruiterID +
-                " ORDER BY ja.dateTime DESC";
-
-            ResultSet rs = dbConnection.executeQuery(sql);
-            JTable table = new JTable(readOnlyModel(rs));
+        String sql =
+            "SELECT ja.jobAppID, j.title AS \"Job Title\", " +
+            "a.first_name || ' ' || a.last_name AS \"Applicant\", " +
+            "ja.status AS \"Status\", " +
+            "TO_CHAR(ja.dateTime, 'YYYY-MM-DD') AS \"Applied On\" " +
+            "FROM JobApplication ja " +
+            "JOIN Job j ON ja.jobID = j.jobID " +
+            "JOIN JobApplicant a ON ja.applicantID = a.applicantID " +
+            "WHERE j.recruiterID = ? " +
+            "ORDER BY ja.dateTime DESC";
+
+        AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().query("Applications to evaluate", sql, Recruiter_GUI::readOnlyModel, recruiterID), model -> {
+            JTable table = new JTable(model);
 
             JButton updateBtn = new JButton("Update Application Status");
             updateBtn.addActionListener(ev -> {
@@ -246,52 +246,83 @@ public class Recruiter_GUI extends JPanel{
                 }
             });
 
+            JButton downloadBtn = new JButton("Download Resume");
+            downloadBtn.addActionListener(ev -> {
+                int row = table.getSelectedRow();
+                if (row == -1) {
+                    JOptionPane.showMessageDialog(this, "Select an application first.");
+                    return;
+                }
+                downloadResume(table.getValueAt(row, 0).toString(), table.getValueAt(row, 2).toString());
+            });
+
+            JPanel buttons = new JPanel(new GridLayout(1, 2, 10, 0));
+            buttons.add(updateBtn);
+            buttons.add(downloadBtn);
+
             JPanel panel = new JPanel(new BorderLayout());
             panel.add(new JScrollPane(table), BorderLayout.CENTER);
-            panel.add(updateBtn, BorderLayout.SOUTH);
+            panel.add(buttons, BorderLayout.SOUTH);
 
             JOptionPane.showMessageDialog(this, panel, "Applications to Evaluate", JOptionPane.PLAIN_MESSAGE);
 
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }, ex -> JOptionPane.showMessageDialog(this, ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    //Saves the latest resume of the selected application's applicant to a file of the recruiter's choice
+    private void downloadResume(String jobAppID, String applicantName) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Save Resume of " + applicantName);
+        chooser.setSelectedFile(new File(applicantName + " Resume"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
         }
+        File target = chooser.getSelectedFile();
+
+        //Streamed straight from the database to the file, never held whole in memory
+        AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().submit("Download resume",
+            () -> new ResumeStorage(dbConnection).downloadForApplication(Integer.parseInt(jobAppID), target)), download -> {
+            if (download == null) {
+                JOptionPane.showMessageDialog(this, applicantName + " has not uploaded a resume.", "No Resume", JOptionPane.INFORMATION_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(this, "Resume saved to " + target.getAbsolutePath() + "\n" + download.describe(), "Download Complete", JOptionPane.INFORMATION_MESSAGE);
+            }
+        }, ex -> JOptionPane.showMessageDialog(this, "Resume download failed: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
     }
 
     //Helper function to update the application status in evaluate jobs 
     private void updateApplicationStatus(String jobAppID, String newStatus) {
-        try {
-            String sql = "UPDATE JobApplication SET status = ? WHERE jobAppID = ?";
-            PreparedStatement pstmt = dbConnection.getConnection().prepareStatement(sql);
+        String sql = "UPDATE JobApplication SET status = ? WHERE jobAppID = ?";
+        AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().submit("Update application status", () -> {
+            PreparedStatement pstmt = dbConnection.prepareCached(sql);
             pstmt.setString(1, newStatus);
             pstmt.setInt(2, Integer.parseInt(jobAppID));
-            
-            int rowsAffected = pstmt.executeUpdate();
+
+            return pstmt.executeUpdate();
+        }), rowsAffected -> {
             if (rowsAffected > 0) {
                 JOptionPane.showMessageDialog(this, "Application status updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
             } else {
                 JOptionPane.showMessageDialog(this, "Failed to update application status.", "Error", JOptionPane.ERROR_MESSAGE);
             }
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, "Error updating status: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, ex -> JOptionPane.showMessageDialog(this, "Error updating status: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
     }
 
     //Function that shows all applications that are not rejected to be selected for an interview
     private void scheduleInterview() {
-        try {
-            String sql = 
-                "SELECT ja.jobAppID, j.title AS \"Job Title\", " +
-                "a.first_name || ' ' || a.last_name AS \"Applicant\", " +
-                "ja.status AS \"Application Status\" " +
-                "FROM JobApplication ja " +
-                "JOIN Job j ON ja.jobID = j.jobID " +
-                "JOIN JobApplicant a ON ja.applicantID = a.applicantID " +
-                "WHERE j.recruiterID = " + recruiterID +
-                " AND ja.status IN ('Submitted', 'Under Review', 'Interview Pending')" +
-                " ORDER BY ja.dateTime DESC";
-
-            ResultSet rs = dbConnection.executeQuery(sql);
-            JTable table = new JTable(readOnlyModel(rs));
+        String sql = 
+            "SELECT ja.jobAppID, j.title AS \"Job Title\", " +
+            "a.first_name || ' ' || a.last_name AS \"Applicant\", " +
+            "ja.status AS \"Application Status\" " +
+            "FROM JobApplication ja " +
+            "JOIN Job j ON ja.jobID = j.jobID " +
+            "JOIN JobApplicant a ON ja.applicantID = a.applicantID " +
+            "WHERE j.recruiterID = ?" +
+            " AND ja.status IN ('Submitted', 'Under Review', 'Interview Pending')" +
+            " ORDER BY ja.dateTime DESC";
+
+        AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().query("Applications to schedule", sql, Recruiter_GUI::readOnlyModel, recruiterID), model -> {
+            JTable table = new JTable(model);
             
             JButton scheduleBtn = new JButton("Schedule Interview for Selected Application");
             scheduleBtn.addActionListener(ev -> {
@@ -319,32 +350,30 @@ public class Recruiter_GUI extends JPanel{
 
             JOptionPane.showMessageDialog(this, panel, "Schedule Interview - Select Application", JOptionPane.PLAIN_MESSAGE);
 
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, "Error loading applications: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, ex -> JOptionPane.showMessageDialog(this, "Error loading applications: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
     }
 
     //Function that creates the new interview record once selected
     private void createInterview(String jobAppID, String jobTitle, String applicantName) {
-        try {
-            JTextField interviewID = new JTextField();
-            JTextField dateTime = new JTextField();
-            JTextField location = new JTextField();
+        JTextField interviewID = new JTextField();
+        JTextField dateTime = new JTextField();
+        JTextField location = new JTextField();
+
+        Object[] queryValues = {
+            "Application: " + jobTitle + " - " + applicantName,
+            "InterviewID:", interviewID,
+            "Date (YYYY-MM-DD):", dateTime,
+            "Location:", location
+        };
 
-            Object[] queryValues = {
-                "Application: " + jobTitle + " - " + applicantName,
-                "InterviewID:", interviewID,
-                "Date (YYYY-MM-DD):", dateTime,
-                "Location:", location
-            };
+        int option = JOptionPane.showConfirmDialog(null, queryValues, "Schedule Interview", JOptionPane.OK_CANCEL_OPTION);
 
-            int option = JOptionPane.showConfirmDialog(null, queryValues, "Schedule Interview", JOptionPane.OK_CANCEL_OPTION);
+        if (option == JOptionPane.OK_OPTION) {
 
-            if (option == JOptionPane.OK_OPTION) {
-                
-                //Insert the interview record into the database
+            //Insert the interview record and update the application status in one background transaction
+            AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().submit("Schedule interview", () -> {
                 String insertSQL = "INSERT INTO Interview (interviewID, jobAppID, dateTime, location) VALUES (?, ?, TO_DATE(?, 'YYYY-MM-DD HH:MI AM'), ?)";
-                PreparedStatement pstmt = dbConnection.getConnection().prepareStatement(insertSQL);
+                PreparedStatement pstmt = dbConnection.prepareCached(insertSQL);
                 pstmt.setInt(1, Integer.parseInt(interviewID.getText()));
                 pstmt.setInt(2, Integer.parseInt(jobAppID));
                 pstmt.setString(3, dateTime.getText());
@@ -353,44 +382,47 @@ public class Recruiter_GUI extends JPanel{
                 int rowsAffected = pstmt.executeUpdate();
                 if (rowsAffected > 0) {
                     String updateSQL = "UPDATE JobApplication SET status = 'Interview Pending' WHERE jobAppID = ?";
-                    PreparedStatement updateStmt = dbConnection.getConnection().prepareStatement(updateSQL);
+                    PreparedStatement updateStmt = dbConnection.prepareCached(updateSQL);
                     updateStmt.setInt(1, Integer.parseInt(jobAppID));
                     updateStmt.executeUpdate();
-
+                }
+                return rowsAffected;
+            }), rowsAffected -> {
+                if (rowsAffected > 0) {
                     JOptionPane.showMessageDialog(null, "Interview scheduled successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
                     //Show upcoming interviews with the new added interview
                     viewUpcomingInterviews();
                 } else {
                     JOptionPane.showMessageDialog(null, "Failed to schedule interview.", "Error", JOptionPane.ERROR_MESSAGE);
                 }
-            }
-
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, "Error scheduling interview: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this, "Error invalid input: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            }, ex -> {
+                if (ex instanceof SQLException) {
+                    JOptionPane.showMessageDialog(this, "Error scheduling interview: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(this, "Error invalid input: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            });
         }
     }
 
 
 //Displays upcoming interviews for the recruiter's job applications
     private void viewUpcomingInterviews() {
-         try {
-            String sql =
-                "SELECT ja.first_name || ' ' || ja.last_name AS \"Applicant\", " +
-            "j.title AS \"Job\", " +
-            "TO_CHAR(i.dateTime, 'YYYY-MM-DD HH:MI AM') AS \"Interview Time\", " +
-            "i.location AS \"Location\", " +
-            "a.status AS \"Application Status\" " +  
-            "FROM Interview i " +
-            "JOIN JobApplication a ON i.jobAppID = a.jobAppID " +
-            "JOIN Job j ON a.jobID = j.jobID " +
-            "JOIN JobApplicant ja ON a.applicantID = ja.applicantID " +
-            "WHERE j.companyID = " + companyID +
-            " AND j.recruiterID = " + recruiterID +
-            " AND a.status != 'Rejected'";  
-            ResultSet rs = dbConnection.executeQuery(sql);
-            JTable table = new JTable(readOnlyModel(rs));
+        String sql =
+            "SELECT ja.first_name || ' ' || ja.last_name AS \"Applicant\", " +
+        "j.title AS \"Job\", " +
+        "TO_CHAR(i.dateTime, 'YYYY-MM-DD HH:MI AM') AS \"Interview Time\", " +
+        "i.location AS \"Location\", " +
+        "a.status AS \"Application Status\" " +  
+        "FROM Interview i " +
+        "JOIN JobApplication a ON i.jobAppID = a.jobAppID " +
+        "JOIN Job j ON a.jobID = j.jobID " +
+        "JOIN JobApplicant ja ON a.applicantID = ja.applicantID " +
+        "WHERE j.companyID = ?" +
+        " AND j.recruiterID = ?" +
+        " AND a.status != 'Rejected'";  
+        AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().query("Upcoming interviews", sql, Recruiter_GUI::readOnlyModel, companyID, recruiterID), model -> {
+            JTable table = new JTable(model);
 
             //Button to view detailed information about the interview
             JButton viewBtn = new JButton("View Interview Details");
@@ -409,28 +441,25 @@ public class Recruiter_GUI extends JPanel{
 
             JOptionPane.showMessageDialog(this, panel, "Interviews Scheduled", JOptionPane.PLAIN_MESSAGE);
 
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, ex -> JOptionPane.showMessageDialog(this, ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
     }
 
     //Displays every applicant who has applied to the recruiter's job postings
     private void viewApplicants() {
-        try {
-            String sql =
-                "SELECT a.applicantID, " +
-                "a.first_name || ' ' || a.last_name AS \"Applicant\", " +
-                "a.industry AS \"Industry\", " +
-                "a.email AS \"Email\", " +
-                "a.phone AS \"Phone\" " +
-                "FROM JobApplicant a " +
-                "JOIN JobApplication ja ON a.applicantID = ja.applicantID " +
-                "JOIN Job j ON ja.jobID = j.jobID " +
-                "WHERE j.recruiterID = " + recruiterID +
-                " ORDER BY a.last_name, a.first_name";
-
-            ResultSet rs = dbConnection.executeQuery(sql);
-            JTable table = new JTable(readOnlyModel(rs));
+        String sql =
+            "SELECT a.applicantID, " +
+            "a.first_name || ' ' || a.last_name AS \"Applicant\", " +
+            "a.industry AS \"Industry\", " +
+            "a.email AS \"Email\", " +
+            "a.phone AS \"Phone\" " +
+            "FROM JobApplicant a " +
+            "JOIN JobApplication ja ON a.applicantID = ja.applicantID " +
+            "JOIN Job j ON ja.jobID = j.jobID " +
+            "WHERE j.recruiterID = ? " +
+            "ORDER BY a.last_name, a.first_name";
+
+        AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().query("Applicants", sql, Recruiter_GUI::readOnlyModel, recruiterID), model -> {
+            JTable table = new JTable(model);
 
             JButton viewBtn = new JButton("View Applicant Details");
             viewBtn.addActionListener(ev -> {
@@ -448,9 +477,7 @@ public class Recruiter_GUI extends JPanel{
 
             JOptionPane.showMessageDialog(this, panel, "Applicants", JOptionPane.PLAIN_MESSAGE);
 
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, ex -> JOptionPane.showMessageDialog(this, ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
     }
     
 }
\ No newline at end of file
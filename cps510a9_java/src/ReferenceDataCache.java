@@ -0,0 +1,255 @@
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.swing.table.DefaultTableModel;
+
+/*
+ * In-process read-through cache of the Company and Recruiter rows, keyed by ID. The listings only join these tables to show
+ * names, and the rows rarely change, so the listings select the IDs and resolve the names here instead.
+ *  - A miss reads the row from the database; resolving many IDs reads all the missing ones in one query
+ *  - The write paths that change or remove rows (UpdateTables, DeleteFromTables, PopulateTables, DropTables) invalidate
+ *    them once their transaction has committed. Inserts (AddToTables, BulkImporter) need nothing: IDs that were not found
+ *    are never cached
+ *  - Every invalidation bumps a generation counter, and a read that overlapped an invalidation is returned but not cached,
+ *    so a row read just before a commit cannot outlive it. Invalidating and the check-then-cache of a read both happen
+ *    under one lock, so an invalidation cannot fall between a read's check and its put
+ * Changes made outside this application (e.g. in SQL*Plus) are only seen after invalidateAll() or a restart.
+ */
+public class ReferenceDataCache {
+
+    /* IDs per IN (...) list when resolving many at once */
+    private static final int IN_LIST_SIZE = 100;
+
+    private final DBConnection dbConnection;
+    private final Map<Integer, Company> companies = new ConcurrentHashMap<>();
+    private final Map<Integer, Recruiter> recruiters = new ConcurrentHashMap<>();
+    /* Bumped by every invalidation; changed (with the invalidated entries) only while holding invalidationLock */
+    private final AtomicLong generation = new AtomicLong();
+    private final Object invalidationLock = new Object();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ReferenceDataCache(DBConnection dbConnection) {
+        this.dbConnection = dbConnection;
+    }
+
+    /* One Company row */
+    public static final class Company {
+        public final int companyID;
+        public final String name;
+        public final String industry;
+        public final String location;
+        public final String email;
+        public final String phone;
+
+        Company(int companyID, String name, String industry, String location, String email, String phone) {
+            this.companyID = companyID;
+            this.name = name;
+            this.industry = industry;
+            this.location = location;
+            this.email = email;
+            this.phone = phone;
+        }
+    }
+
+    /* One Recruiter row */
+    public static final class Recruiter {
+        public final int recruiterID;
+        public final int companyID;
+        public final String firstName;
+        public final String lastName;
+        public final String email;
+        public final String phone;
+
+        Recruiter(int recruiterID, int companyID, String firstName, String lastName, String email, String phone) {
+            this.recruiterID = recruiterID;
+            this.companyID = companyID;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.email = email;
+            this.phone = phone;
+        }
+
+        /* "first last", as the views show recruiters */
+        public String getName() {
+            return (firstName == null ? "" : firstName) + " " + (lastName == null ? "" : lastName);
+        }
+    }
+
+    /* The company, or null if there is none with this ID */
+    public Company company(int companyID) throws SQLException {
+        return companies(Collections.singleton(companyID)).get(companyID);
+    }
+
+    /* The recruiter, or null if there is none with this ID */
+    public Recruiter recruiter(int recruiterID) throws SQLException {
+        return recruiters(Collections.singleton(recruiterID)).get(recruiterID);
+    }
+
+    /* The companies with these IDs, reading the uncached ones in as few queries as possible. Unknown IDs are left out */
+    public Map<Integer, Company> companies(Collection<Integer> ids) throws SQLException {
+        return resolve(ids, companies, "SELECT companyID, name, industry, location, email, phone FROM Company WHERE companyID IN ",
+            rs -> new Company(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5), rs.getString(6)),
+            company -> company.companyID);
+    }
+
+    /* The recruiters with these IDs, reading the uncached ones in as few queries as possible. Unknown IDs are left out */
+    public Map<Integer, Recruiter> recruiters(Collection<Integer> ids) throws SQLException {
+        return resolve(ids, recruiters, "SELECT recruiterID, companyID, first_name, last_name, email, phone FROM Recruiter WHERE recruiterID IN ",
+            rs -> new Recruiter(rs.getInt(1), rs.getInt(2), rs.getString(3), rs.getString(4), rs.getString(5), rs.getString(6)),
+            recruiter -> recruiter.recruiterID);
+    }
+
+    /* Replaces the companyIDs in one column of a table model with the company names ("" for unknown IDs). Returns the model */
+    public DefaultTableModel withCompanyNames(DefaultTableModel model, int column) throws SQLException {
+        Map<Integer, Company> byID = companies(idsIn(model, column));
+        replaceIds(model, column, id -> {
+            Company company = byID.get(id);
+            return company == null ? "" : company.name;
+        });
+        return model;
+    }
+
+    /* Replaces the recruiterIDs in one column of a table model with the recruiter names ("" for unknown IDs). Returns the model */
+    public DefaultTableModel withRecruiterNames(DefaultTableModel model, int column) throws SQLException {
+        Map<Integer, Recruiter> byID = recruiters(idsIn(model, column));
+        replaceIds(model, column, id -> {
+            Recruiter recruiter = byID.get(id);
+            return recruiter == null ? "" : recruiter.getName();
+        });
+        return model;
+    }
+
+    public void invalidateCompany(int companyID) {
+        synchronized (invalidationLock) {
+            generation.incrementAndGet();
+            companies.remove(companyID);
+        }
+    }
+
+    public void invalidateRecruiter(int recruiterID) {
+        synchronized (invalidationLock) {
+            generation.incrementAndGet();
+            recruiters.remove(recruiterID);
+        }
+    }
+
+    /* For the generic write paths: invalidates the row if the table is one of the cached ones (any case) */
+    public void invalidate(String table, int id) {
+        if (table.equalsIgnoreCase("Company")) {
+            invalidateCompany(id);
+        } else if (table.equalsIgnoreCase("Recruiter")) {
+            invalidateRecruiter(id);
+        }
+    }
+
+    /* For writes to many rows (imports, sample data) or when the table may be gone: forgets the whole table if it is a cached one */
+    public void invalidateTable(String table) {
+        if (table.equalsIgnoreCase("Company")) {
+            synchronized (invalidationLock) {
+                generation.incrementAndGet();
+                companies.clear();
+            }
+        } else if (table.equalsIgnoreCase("Recruiter")) {
+            synchronized (invalidationLock) {
+                generation.incrementAndGet();
+                recruiters.clear();
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (invalidationLock) {
+            generation.incrementAndGet();
+            companies.clear();
+            recruiters.clear();
+        }
+    }
+
+    /* e.g. "company/recruiter cache: 120 hits, 8 misses, 5 companies and 3 recruiters cached" */
+    public String describe() {
+        return "company/recruiter cache: " + hits.get() + " hits, " + misses.get() + " misses, "
+            + companies.size() + " companies and " + recruiters.size() + " recruiters cached";
+    }
+
+    private interface KeyOf<T> {
+        int key(T row);
+    }
+
+    private interface NameOf {
+        String name(int id);
+    }
+
+    private <T> Map<Integer, T> resolve(Collection<Integer> ids, Map<Integer, T> cache, String selectPrefix,
+                                        DBConnection.RowMapper<T> mapper, KeyOf<T> keyOf) throws SQLException {
+        Map<Integer, T> found = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (Integer id : new LinkedHashSet<>(ids)) {
+            T row = cache.get(id);
+            if (row != null) {
+                found.put(id, row);
+            } else {
+                missing.add(id);
+            }
+        }
+        hits.addAndGet(found.size());
+        if (missing.isEmpty()) {
+            return found;
+        }
+        misses.addAndGet(missing.size());
+
+        long readGeneration = generation.get();
+        for (int from = 0; from < missing.size(); from += IN_LIST_SIZE) {
+            List<Integer> chunk = missing.subList(from, Math.min(missing.size(), from + IN_LIST_SIZE));
+            StringBuilder sql = new StringBuilder(selectPrefix).append('(');
+            for (int i = 0; i < chunk.size(); i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            sql.append(')');
+            List<T> rows = dbConnection.queryForList(sql.toString(), mapper, chunk.toArray());
+            for (T row : rows) {
+                found.put(keyOf.key(row), row);
+            }
+            /* Not cached if an invalidation happened while reading: the row may predate that write */
+            synchronized (invalidationLock) {
+                if (generation.get() == readGeneration) {
+                    for (T row : rows) {
+                        cache.put(keyOf.key(row), row);
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    private static Set<Integer> idsIn(DefaultTableModel model, int column) {
+        Set<Integer> ids = new LinkedHashSet<>();
+        for (int row = 0; row < model.getRowCount(); row++) {
+            Object value = model.getValueAt(row, column);
+            if (value instanceof Number) {
+                ids.add(((Number) value).intValue());
+            }
+        }
+        return ids;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void replaceIds(DefaultTableModel model, int column, NameOf nameOf) {
+        for (Object row : model.getDataVector()) {
+            Vector<Object> cells = (Vector<Object>) row;
+            Object value = cells.get(column);
+            if (value instanceof Number) {
+                cells.set(column, nameOf.name(((Number) value).intValue()));
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Cache of read-only query results (ColumnarResult), for reports that are viewed far more often than their tables change
+ * (QueryTables).
+ *  - An entry is keyed by the SQL and its parameters, and remembers the TableVersions of every table the SQL reads. It is
+ *    only used while none of those tables has been written since, so a report never shows data older than the last write
+ *    made through this application
+ *  - Least recently used entries are evicted beyond -Ddb.resultCache.maxEntries (default 64) or once the results together
+ *    hold more than -Ddb.resultCache.maxBytes (default 16 MB, from ColumnarResult.estimateBytes())
+ *  - Entries older than -Ddb.resultCache.maxAgeSeconds (default 600, 0 = no limit) are read again, which bounds how long
+ *    writes by other database clients go unseen
+ *  - Queries that mention no known table are not cached
+ * Two threads missing on the same query at once both run it; the last one to finish is kept.
+ */
+public class ResultCache {
+
+    private static final int MAX_ENTRIES = Math.max(1, Integer.getInteger("db.resultCache.maxEntries", 64));
+    private static final long MAX_BYTES = Math.max(0, Long.getLong("db.resultCache.maxBytes", 16L * 1024 * 1024));
+    private static final long MAX_AGE_MILLIS = Math.max(0, Long.getLong("db.resultCache.maxAgeSeconds", 600L)) * 1000;
+
+    /* Runs a query the cache cannot answer */
+    interface Loader {
+        ColumnarResult load(QueryOptions options, String sql, Object... params) throws SQLException;
+    }
+
+    private final Loader loader;
+    private final TableVersions versions;
+
+    /* Access-ordered, so iteration starts at the least recently used entry */
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ResultCache(DBConnection dbConnection, TableVersions versions) {
+        this((options, sql, params) -> dbConnection.query(options, sql, ColumnarResult::from, params), versions);
+    }
+
+    ResultCache(Loader loader, TableVersions versions) {
+        this.loader = loader;
+        this.versions = versions;
+    }
+
+    /* The query's result, from the cache if its tables have not been written since it was read */
+    public ColumnarResult query(QueryOptions options, String sql, Object... params) throws SQLException {
+        Set<String> tables = versions.tablesIn(sql);
+        if (tables.isEmpty()) {
+            misses.incrementAndGet();
+            return loader.load(options, sql, params);
+        }
+        Key key = new Key(sql, params);
+        /* Versions are taken before reading, so a write during the read makes this entry stale straight away */
+        long[] stamp = versions.stamp(tables);
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && Arrays.equals(entry.stamp, stamp) && !entry.isExpired()) {
+                hits.incrementAndGet();
+                return entry.result;
+            }
+        }
+        misses.incrementAndGet();
+        ColumnarResult result = loader.load(options, sql, params);
+        put(key, new Entry(result, stamp));
+        return result;
+    }
+
+    /* Empties the cache (the statistics are kept) */
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+    public long getEvictions() { return evictions.get(); }
+
+    public double getHitRate() {
+        long lookups = hits.get() + misses.get();
+        return lookups == 0 ? 0 : (double) hits.get() / lookups;
+    }
+
+    public synchronized String describe() {
+        return String.format("resultCache[entries=%d, %.1f MB, hits=%d, misses=%d, hitRate=%.0f%%, evictions=%d]",
+            entries.size(), bytes / 1048576.0, getHits(), getMisses(), getHitRate() * 100, getEvictions());
+    }
+
+    private synchronized void put(Key key, Entry entry) {
+        if (MAX_BYTES > 0 && entry.bytes > MAX_BYTES) {
+            /* Would evict everything else and still not fit */
+            return;
+        }
+        Entry replaced = entries.put(key, entry);
+        if (replaced != null) {
+            bytes -= replaced.bytes;
+        }
+        bytes += entry.bytes;
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (eldest.hasNext() && (entries.size() > MAX_ENTRIES || (MAX_BYTES > 0 && bytes > MAX_BYTES))) {
+            Entry evicted = eldest.next();
+            if (evicted == entry) {
+                break;
+            }
+            eldest.remove();
+            bytes -= evicted.bytes;
+            evictions.incrementAndGet();
+        }
+    }
+
+    /* SQL text plus parameter values */
+    private static final class Key {
+        private final String sql;
+        private final List<Object> params;
+
+        Key(String sql, Object[] params) {
+            this.sql = sql;
+            this.params = Arrays.asList(params.clone());
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return sql.equals(key.sql) && params.equals(key.params);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * sql.hashCode() + params.hashCode();
+        }
+    }
+
+    /* One cached result and the table versions it was read at */
+    private static final class Entry {
+        final ColumnarResult result;
+        final long[] stamp;
+        final long bytes;
+        final long readAt = System.currentTimeMillis();
+
+        Entry(ColumnarResult result, long[] stamp) {
+            this.result = result;
+            this.stamp = stamp;
+            this.bytes = result.estimateBytes();
+        }
+
+        boolean isExpired() {
+            return MAX_AGE_MILLIS > 0 && System.currentTimeMillis() - readAt > MAX_AGE_MILLIS;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Blob;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/*
+ * Moves resume files in and out of the database in chunks, so no resume is ever held whole on the heap and files over
+ * 2 GB are handled (lengths are longs throughout).
+ *  - Files are stored once per distinct content: ResumeBlob holds each content under its SHA-256 hash, and Resume rows
+ *    refer to it through contentHash. Uploading a file that is already stored (the same resume sent with every
+ *    application) sends nothing but the new Resume row
+ *  - The hash is computed while reading the file from disk, before anything is sent
+ *  - Uploads read the file through a FileChannel into one reused direct buffer of -Ddb.lob.chunkBytes (default 64 KB),
+ *    and the driver pulls the chunks as it sends them
+ *  - Downloads copy Blob.getBinaryStream() straight into the target file with FileChannel.transferFrom. Older resumes
+ *    with their file inline in Resume.uploadFile are read from there
+ *  - Contents stay in ResumeBlob when the resumes referring to them are deleted
+ * Each transfer reports its size and throughput (Transfer.describe()).
+ */
+public final class ResumeStorage {
+
+    private static final int CHUNK_BYTES = Math.max(4096, Integer.getInteger("db.lob.chunkBytes", 64 * 1024));
+
+    private final DBConnection dbConnection;
+
+    public ResumeStorage(DBConnection dbConnection) {
+        this.dbConnection = dbConnection;
+    }
+
+    /* Inserts a resume for the applicant, dated today. Returns the transfer, whose getId() is the new resumeID */
+    public Transfer upload(int applicantID, File file) throws SQLException {
+        Transfer stored = store(file);
+        int resumeID = dbConnection.getKeyAllocator().nextId("Resume");
+        PreparedStatement ps = dbConnection.prepareCached(
+            "INSERT INTO Resume (resumeID, applicantID, contentHash, uploadDate) VALUES (?, ?, ?, SYSDATE)");
+        ps.setInt(1, resumeID);
+        ps.setInt(2, applicantID);
+        ps.setString(3, stored.hash);
+        ps.executeUpdate();
+        return new Transfer(resumeID, stored.hash, stored.bytes, stored.sent, stored.start);
+    }
+
+    /* Makes sure the file's content is in ResumeBlob, sending it only if it is not there yet. getHash() is the value for Resume.contentHash */
+    public Transfer store(File file) throws SQLException {
+        long start = System.nanoTime();
+        try (FileUpload upload = openFile(file)) {
+            String hash = upload.hash();
+            Boolean stored = dbConnection.query("SELECT 1 FROM ResumeBlob WHERE contentHash = ?", ResultSet::next, hash);
+            if (stored) {
+                return new Transfer(0, hash, upload.size, 0, start);
+            }
+            PreparedStatement ps = dbConnection.prepareCached("INSERT INTO ResumeBlob (contentHash, content, byteSize) VALUES (?, ?, ?)");
+            ps.setString(1, hash);
+            upload.bind(ps, 2);
+            ps.setLong(3, upload.size);
+            try {
+                ps.executeUpdate();
+            } catch (SQLException e) {
+                /* The same file was stored by someone else in the meantime */
+                if (!dbConnection.getDialect().isUniqueViolation(e)) {
+                    throw e;
+                }
+                return new Transfer(0, hash, upload.size, 0, start);
+            }
+            return new Transfer(0, hash, upload.size, upload.size, start);
+        }
+    }
+
+    /* Writes the most recent resume of the application's applicant to target. Returns null if the applicant has none */
+    public Transfer downloadForApplication(int jobAppID, File target) throws SQLException {
+        String sql = "SELECT r.resumeID, r.uploadFile, b.content FROM Resume r JOIN JobApplication ja ON r.applicantID = ja.applicantID " +
+            "LEFT JOIN ResumeBlob b ON r.contentHash = b.contentHash " +
+            "WHERE ja.jobAppID = ? ORDER BY r.uploadDate DESC, r.resumeID DESC";
+        return dbConnection.query(QueryOptions.DEFAULT.withFetchSize(1), sql, rs -> rs.next() ? copyBlob(rs, target) : null, jobAppID);
+    }
+
+    /* Writes one resume to target. Returns null if there is no such resume */
+    public Transfer download(int resumeID, File target) throws SQLException {
+        String sql = "SELECT r.resumeID, r.uploadFile, b.content FROM Resume r LEFT JOIN ResumeBlob b ON r.contentHash = b.contentHash " +
+            "WHERE r.resumeID = ?";
+        return dbConnection.query(QueryOptions.DEFAULT.withFetchSize(1), sql, rs -> rs.next() ? copyBlob(rs, target) : null, resumeID);
+    }
+
+    /* Copies the file of the current row (inline in column 2, or shared in column 3) to target, chunk by chunk */
+    private static Transfer copyBlob(ResultSet rs, File target) throws SQLException {
+        long start = System.nanoTime();
+        int resumeID = rs.getInt(1);
+        Blob blob = rs.getBlob(2);
+        if (blob == null) {
+            blob = rs.getBlob(3);
+        }
+        if (blob == null) {
+            throw new SQLException("Resume " + resumeID + " has no file.");
+        }
+        try (InputStream in = blob.getBinaryStream();
+             ReadableByteChannel source = Channels.newChannel(in);
+             FileChannel out = FileChannel.open(target.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = 0;
+            long copied;
+            while ((copied = out.transferFrom(source, position, CHUNK_BYTES)) > 0) {
+                position += copied;
+            }
+            return new Transfer(resumeID, null, position, position, start);
+        } catch (IOException e) {
+            throw new SQLException("Could not write " + target.getName() + ": " + e.getMessage(), e);
+        } finally {
+            blob.free();
+        }
+    }
+
+    /* Opens a file for hashing and binding to a BLOB parameter. Close it once the statement has executed */
+    private static FileUpload openFile(File file) throws SQLException {
+        try {
+            return new FileUpload(FileChannel.open(file.toPath(), StandardOpenOption.READ));
+        } catch (IOException e) {
+            throw new SQLException("Could not read " + file.getName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /* A file being streamed into a statement parameter */
+    private static final class FileUpload implements AutoCloseable {
+        private final FileChannel channel;
+        private final long size;
+
+        private FileUpload(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+        /* SHA-256 of the whole file as 64 hex digits, read a chunk at a time. Leaves the channel back at the start */
+        String hash() throws SQLException {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_BYTES);
+                channel.position(0);
+                while (channel.read(buffer) > 0) {
+                    buffer.flip();
+                    digest.update(buffer);
+                    buffer.clear();
+                }
+                channel.position(0);
+                StringBuilder hex = new StringBuilder();
+                for (byte b : digest.digest()) {
+                    hex.append(String.format("%02x", b));
+                }
+                return hex.toString();
+            } catch (IOException e) {
+                throw new SQLException("Could not read file: " + e.getMessage(), e);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+
+        /* Binds the file to a BLOB parameter. The driver reads it chunk by chunk while executing the statement */
+        void bind(PreparedStatement ps, int index) throws SQLException {
+            ps.setBinaryStream(index, new ChannelInputStream(channel), size);
+        }
+
+        @Override
+        public void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                /* Only read from, nothing to lose */
+            }
+        }
+    }
+
+    /* InputStream over a FileChannel through one direct buffer, so reading a chunk does not copy through the Java heap twice */
+    private static final class ChannelInputStream extends InputStream {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_BYTES);
+
+        ChannelInputStream(FileChannel channel) {
+            this.channel = channel;
+            buffer.flip();
+        }
+
+        private boolean fill() throws IOException {
+            if (buffer.hasRemaining()) {
+                return true;
+            }
+            buffer.clear();
+            int read = channel.read(buffer);
+            buffer.flip();
+            return read > 0;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return fill() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(Integer.MAX_VALUE, buffer.remaining() + channel.size() - channel.position());
+        }
+    }
+
+    /* Size and speed of one upload or download */
+    public static final class Transfer {
+        private final int id;
+        private final String hash;
+        private final long bytes;
+        private final long sent;
+        private final long start;
+        private final long nanos;
+
+        Transfer(int id, String hash, long bytes, long sent, long start) {
+            this.id = id;
+            this.hash = hash;
+            this.bytes = bytes;
+            this.sent = sent;
+            this.start = start;
+            this.nanos = System.nanoTime() - start;
+        }
+
+        /* The resumeID (0 for store()) */
+        public int getId() { return id; }
+        /* SHA-256 of the content (uploads only) */
+        public String getHash() { return hash; }
+        public long getBytes() { return bytes; }
+        /* Bytes actually sent to or read from the database: 0 when the content was already stored */
+        public long getBytesTransferred() { return sent; }
+
+        public double getMegabytesPerSecond() {
+            return nanos == 0 ? 0 : sent / 1048576.0 / (nanos / 1e9);
+        }
+
+        public String describe() {
+            if (sent == 0 && bytes > 0) {
+                return String.format("%,d bytes already stored, nothing uploaded (%.2f s)", bytes, nanos / 1e9);
+            }
+            return String.format("%,d bytes in %.2f s (%.1f MB/s)", sent, nanos / 1e9, getMegabytesPerSecond());
+        }
+    }
+}
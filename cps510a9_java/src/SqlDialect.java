@@ -0,0 +1,104 @@
+import java.sql.SQLException;
+
+/*
+ * The SQL and error codes that differ between the databases the application can run against.
+ *  OracleDialect: the campus Oracle instance (default)
+ *  H2Dialect: an embedded, in-process H2 database in Oracle compatibility mode, for running locally without the campus server
+ * Select one with -Ddb.dialect=oracle|h2, or let it follow the JDBC URL given with -Ddb.url=...
+ * NVL, MINUS, TO_DATE, TO_CHAR and SYSDATE are understood by both, so only the constructs below go through the dialect.
+ */
+public interface SqlDialect {
+
+    /* Short name used in logs and in -Ddb.dialect */
+    String name();
+
+    /* JDBC driver loaded (by name, so its jar only has to be on the classpath when this dialect is used) */
+    String driverClassName();
+
+    /* URL used when -Ddb.url is not set */
+    String defaultUrl();
+
+    /* SQL expression for a BLOB value holding the bytes of the given text, e.g. for seed data */
+    String binaryFromText(String text);
+
+    /* Query returning the name of every table in the current schema, one per row */
+    String tableNamesQuery();
+
+    /* Query with two parameters (the upper-case table and column names) returning the number of matching columns in the current schema */
+    String columnExistsQuery();
+
+    /* ALTER TABLE that lets the column hold NULLs */
+    String dropNotNull(String table, String column);
+
+    /* Query with one parameter (the upper-case constraint name) returning the number of matching constraints in the current schema */
+    String constraintExistsQuery();
+
+    /* Query returning (table name, index name, column name, position) for every indexed column in the current schema */
+    String indexColumnsQuery();
+
+    /* Statement that explains how the database would run a query. When executing it returns no rows, the plan is then read with planQuery() */
+    String explainPlan(String sql);
+
+    /* Query returning the steps of the plan recorded by explainPlan(), one per row (null when explainPlan() returns them itself) */
+    String planQuery();
+
+    /* CREATE MATERIALIZED VIEW holding the result of the SELECT (columnList is "(a, b, ...)" or empty), refreshed on every
+     * commit to its tables when refreshMinutes is 0 and every refreshMinutes otherwise. Null when materialized views are not supported */
+    String createMaterializedView(String name, String columnList, String select, int refreshMinutes);
+
+    /* DROP for a view created by createMaterializedView() */
+    String dropMaterializedView(String name);
+
+    /* CREATE [OR REPLACE] TRIGGER appending one ChangeLog row (next value of changelog_seq, upper-case table name, operation
+     * I/U/D, key) for every row inserted, updated or deleted in the table. Null when triggers cannot be written in SQL */
+    String createChangeTrigger(String table, String keyColumn);
+
+    /* DROP TABLE that also removes foreign keys pointing at the table */
+    String dropTableCascade(String table);
+
+    /* Wraps a SELECT so that only one page of rows is returned. The page is chosen by two parameters appended after the
+     * SELECT's own, bound with the values of paginationParameters(). Keeping the bounds out of the SQL text lets every page
+     * reuse one cached statement */
+    String paginate(String sql);
+
+    /* Values for the two parameters added by paginate() that select rows offset+1 .. offset+limit */
+    Object[] paginationParameters(int offset, int limit);
+
+    /* Trailing columns paginate() adds to the result (e.g. Oracle's row number), which callers should not display */
+    int paginationExtraColumns();
+
+    /* Query returning the next value of a sequence */
+    String sequenceNextValueQuery(String sequence);
+
+    /* "Sequence does not exist" */
+    boolean isMissingSequence(SQLException e);
+
+    /* "Table or view does not exist" */
+    boolean isMissingTable(SQLException e);
+
+    /* A UNIQUE or PRIMARY KEY constraint was violated */
+    boolean isUniqueViolation(SQLException e);
+
+    /* The statement was stopped by Statement.cancel() or by its query timeout */
+    boolean isQueryCancelled(SQLException e);
+
+    /* Dialect chosen by -Ddb.dialect, falling back to the one matching -Ddb.url, and to Oracle otherwise */
+    static SqlDialect configured() {
+        String name = System.getProperty("db.dialect");
+        if (name == null) {
+            String url = System.getProperty("db.url", "");
+            return url.startsWith("jdbc:h2:") ? new H2Dialect() : new OracleDialect();
+        }
+        switch (name.trim().toLowerCase()) {
+            case "oracle": return new OracleDialect();
+            case "h2":     return new H2Dialect();
+            default:
+                throw new IllegalArgumentException("Unknown database dialect: " + name + " (expected oracle or h2)");
+        }
+    }
+
+    /* Quotes text as an SQL string literal */
+    static String quote(String text) {
+        return "'" + text.replace("'", "''") + "'";
+    }
+}
@@ -0,0 +1,173 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * LRU cache of prepared statements for one pooled connection, keyed by SQL text.
+ * Reusing a prepared statement skips the parse/prepare round trip on every repeat of the same SQL.
+ * Statements handed out by the cache belong to the cache: callers must never close them.
+ * With a capacity of 0 nothing is cached: prepare() still hands out statements the caller must not close, and they are
+ * closed when the connection goes back to the pool (closeUncached()).
+ */
+public class StatementCache {
+
+    private final Connection connection;
+    private final int capacity;
+    private final Stats stats;
+
+    /* SQL text -> prepared statement, least recently used first */
+    private final LinkedHashMap<String, PreparedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+    /* Cached statements that currently have an open cursor */
+    private final Set<PreparedStatement> busy = Collections.newSetFromMap(new IdentityHashMap<>());
+    /* Statements prepare() handed out without caching them (capacity 0), open until closeUncached() */
+    private final List<PreparedStatement> uncached = new ArrayList<>();
+
+    public StatementCache(Connection connection, int capacity, Stats stats) {
+        this.connection = connection;
+        this.capacity = capacity;
+        this.stats = stats;
+    }
+
+    /* Returns the cached statement for this SQL (parameters cleared), preparing and caching it on a miss.
+     * Meant for statements that are executed straight away, such as INSERT/UPDATE/DELETE */
+    public synchronized PreparedStatement prepare(String sql) throws SQLException {
+        if (capacity == 0) {
+            stats.misses.incrementAndGet();
+            PreparedStatement statement = connection.prepareStatement(sql);
+            uncached.add(statement);
+            return statement;
+        }
+        PreparedStatement statement = lookup(sql);
+        if (statement == null) {
+            statement = connection.prepareStatement(sql);
+            store(sql, statement);
+        }
+        return statement;
+    }
+
+    /* Like prepare(), but marks the statement busy until release() so a second open cursor on the
+     * same SQL gets its own uncached statement instead of clobbering the first one */
+    public synchronized PreparedStatement acquire(String sql) throws SQLException {
+        PreparedStatement current = statements.get(sql);
+        if (capacity == 0 || (current != null && busy.contains(current))) {
+            stats.misses.incrementAndGet();
+            return connection.prepareStatement(sql);
+        }
+        PreparedStatement statement = lookup(sql);
+        if (statement == null) {
+            statement = connection.prepareStatement(sql);
+            store(sql, statement);
+        }
+        busy.add(statement);
+        return statement;
+    }
+
+    /* Hands back a statement from acquire(). Statements that are not (or no longer) cached are closed */
+    public synchronized void release(PreparedStatement statement) throws SQLException {
+        if (!busy.remove(statement) || !statements.containsValue(statement)) {
+            statement.close();
+            return;
+        }
+        /* The cache may have grown past capacity while every older statement was busy */
+        trim(null);
+    }
+
+    /* True when the statement is owned by this cache and must not be closed by the caller */
+    public synchronized boolean isCached(PreparedStatement statement) {
+        return statements.containsValue(statement);
+    }
+
+    private PreparedStatement lookup(String sql) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if (statement != null && statement.isClosed()) {
+            statements.remove(sql);
+            statement = null;
+        }
+        if (statement == null) {
+            stats.misses.incrementAndGet();
+            return null;
+        }
+        stats.hits.incrementAndGet();
+        statement.clearParameters();
+        return statement;
+    }
+
+    private void store(String sql, PreparedStatement statement) {
+        statements.put(sql, statement);
+        trim(statement);
+    }
+
+    /* Evicts least recently used statements down to capacity, skipping busy ones and the one about to be handed out */
+    private void trim(PreparedStatement keep) {
+        Iterator<Map.Entry<String, PreparedStatement>> eldest = statements.entrySet().iterator();
+        while (statements.size() > capacity && eldest.hasNext()) {
+            PreparedStatement evicted = eldest.next().getValue();
+            if (evicted == keep || busy.contains(evicted)) {
+                continue;
+            }
+            eldest.remove();
+            stats.evictions.incrementAndGet();
+            closeQuietly(evicted);
+        }
+    }
+
+    public synchronized int size() {
+        return statements.size();
+    }
+
+    /* Closes the statements prepare() handed out without caching them (called when the connection goes back to the pool) */
+    public synchronized void closeUncached() {
+        for (PreparedStatement statement : uncached) {
+            closeQuietly(statement);
+        }
+        uncached.clear();
+    }
+
+    /* Closes every cached statement (called when the connection leaves the pool) */
+    public synchronized void close() {
+        for (PreparedStatement statement : statements.values()) {
+            closeQuietly(statement);
+        }
+        statements.clear();
+        busy.clear();
+        closeUncached();
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            /* Statement is being discarded anyway */
+        }
+    }
+
+    /* Hit/miss/eviction counters shared by every cache of one connection pool */
+    public static final class Stats {
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final AtomicLong evictions = new AtomicLong();
+
+        public long getHits() { return hits.get(); }
+        public long getMisses() { return misses.get(); }
+        public long getEvictions() { return evictions.get(); }
+
+        public double getHitRatio() {
+            long lookups = hits.get() + misses.get();
+            return lookups == 0 ? 0 : (double) hits.get() / lookups;
+        }
+
+        public String describe() {
+            return String.format("statementCache[hits=%d, misses=%d, evictions=%d, hitRatio=%.0f%%]",
+                getHits(), getMisses(), getEvictions(), getHitRatio() * 100);
+        }
+    }
+}
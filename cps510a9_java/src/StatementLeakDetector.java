@@ -0,0 +1,105 @@
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Keeps track of every statement opened through DBConnection until it is closed.
+ * Statements that are never closed keep a server-side cursor open, so the detector reports
+ * how many are still open and the call sites that opened them.
+ * Call sites are only recorded with -Ddb.leakDetector.captureStack=true, since filling in a stack trace on every query costs
+ * more than the query bookkeeping itself. Without it the report only counts the open statements.
+ */
+public class StatementLeakDetector {
+
+    private static final boolean CAPTURE_STACK =
+        Boolean.parseBoolean(System.getProperty("db.leakDetector.captureStack", "false"));
+
+    /* Open statement -> where it was opened */
+    private final Map<Statement, OpenSite> open = new ConcurrentHashMap<>();
+
+    /* Records a newly opened statement */
+    public void track(Statement statement, String sql) {
+        open.put(statement, new OpenSite(sql, CAPTURE_STACK ? new Throwable() : null));
+    }
+
+    /* Forgets a statement that has been closed */
+    public void untrack(Statement statement) {
+        open.remove(statement);
+    }
+
+    /* Number of tracked statements that are still open */
+    public int getOpenCount() {
+        purgeClosed();
+        return open.size();
+    }
+
+    /* Lists each call site that still has open statements, with how many it left open */
+    public String report() {
+        purgeClosed();
+        Map<String, Integer> perSite = new LinkedHashMap<>();
+        Map<String, String> sampleSql = new LinkedHashMap<>();
+        for (OpenSite site : open.values()) {
+            String where = site.callSite();
+            perSite.merge(where, 1, Integer::sum);
+            sampleSql.putIfAbsent(where, site.sql);
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("Open statements: ").append(open.size()).append("\n");
+        for (Map.Entry<String, Integer> entry : perSite.entrySet()) {
+            sb.append("  ").append(entry.getValue()).append(" x ").append(entry.getKey())
+              .append("  -- ").append(abbreviate(sampleSql.get(entry.getKey()))).append("\n");
+        }
+        return sb.toString();
+    }
+
+    /* Drops statements that callers closed themselves (e.g. legacy executeQuery users) */
+    private void purgeClosed() {
+        Iterator<Statement> it = open.keySet().iterator();
+        while (it.hasNext()) {
+            Statement statement = it.next();
+            try {
+                if (statement.isClosed()) {
+                    it.remove();
+                }
+            } catch (SQLException e) {
+                it.remove();
+            }
+        }
+    }
+
+    private static String abbreviate(String sql) {
+        String flat = sql.replaceAll("\\s+", " ").trim();
+        return flat.length() > 80 ? flat.substring(0, 77) + "..." : flat;
+    }
+
+    /* SQL text and stack of the code that opened a statement */
+    private static final class OpenSite {
+        private final String sql;
+        private final Throwable stack;
+
+        private OpenSite(String sql, Throwable stack) {
+            this.sql = sql;
+            this.stack = stack;
+        }
+
+        /* First stack frame outside the database layer, i.e. the code that forgot to close */
+        private String callSite() {
+            if (stack == null) {
+                return "(call site not recorded, run with -Ddb.leakDetector.captureStack=true)";
+            }
+            for (StackTraceElement frame : stack.getStackTrace()) {
+                String cls = frame.getClassName();
+                if (!cls.equals(StatementLeakDetector.class.getName())
+                        && !cls.startsWith(DBConnection.class.getName())
+                        && !cls.equals(QueryHandle.class.getName())) {
+                    return frame.toString();
+                }
+            }
+            return "(unknown)";
+        }
+    }
+}
@@ -0,0 +1,225 @@
+import java.io.File;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * Columns and types of the application's tables, as created by CreateTables/DatabaseInitializer, for code that turns
+ * text into rows (BulkImporter). ALL lists the tables in foreign key order: every table comes after the tables it references.
+ */
+public final class TableSpec {
+
+    /* How a text value is converted for binding */
+    public enum Type {
+        INTEGER,   /* Integer */
+        FLOAT,     /* Double */
+        TEXT,      /* String, at most maxLength characters */
+        DATE,      /* yyyy-mm-dd, as java.sql.Date */
+        DATETIME,  /* yyyy-mm-dd hh:mm[:ss] or yyyy-mm-dd, as java.sql.Timestamp */
+        FILE       /* Path of a file (relative to the imported file), as a java.io.File. Its content goes to ResumeBlob and the row gets its hash */
+    }
+
+    public static final class Column {
+        final String name;
+        final Type type;
+        final int maxLength;
+        final boolean required;
+        final boolean defaultsToNow;
+        /* Table column the value is inserted into (differs from name for FILE columns, which insert the content hash) */
+        final String storedAs;
+
+        private Column(String name, Type type, int maxLength, boolean required, boolean defaultsToNow) {
+            this(name, type, maxLength, required, defaultsToNow, name);
+        }
+
+        private Column(String name, Type type, int maxLength, boolean required, boolean defaultsToNow, String storedAs) {
+            this.name = name;
+            this.storedAs = storedAs;
+            this.type = type;
+            this.maxLength = maxLength;
+            this.required = required;
+            this.defaultsToNow = defaultsToNow;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isFile() {
+            return type == Type.FILE;
+        }
+
+        /* Converts one text value (null or blank = missing). Throws IllegalArgumentException with a readable reason if it is invalid */
+        public Object convert(String text, File baseDirectory) {
+            if (text == null || text.trim().isEmpty()) {
+                if (defaultsToNow) {
+                    return new Timestamp(System.currentTimeMillis());
+                }
+                if (required) {
+                    throw new IllegalArgumentException(name + " is required");
+                }
+                return null;
+            }
+            String value = type == Type.TEXT ? text : text.trim();
+            try {
+                switch (type) {
+                    case INTEGER:
+                        return Integer.valueOf(value);
+                    case FLOAT:
+                        return Double.valueOf(value);
+                    case DATE:
+                        return Date.valueOf(value);
+                    case DATETIME:
+                        return parseDateTime(value);
+                    case FILE:
+                        return readableFile(value, baseDirectory);
+                    default:
+                        if (value.length() > maxLength) {
+                            throw new IllegalArgumentException(name + " is longer than " + maxLength + " characters");
+                        }
+                        return value;
+                }
+            } catch (IllegalArgumentException e) {
+                if (e.getMessage() != null && e.getMessage().startsWith(name)) {
+                    throw e;
+                }
+                throw new IllegalArgumentException(name + " is not a valid " + type.name().toLowerCase() + ": '" + value + "'");
+            }
+        }
+
+        private static Timestamp parseDateTime(String value) {
+            if (value.length() == 10) {
+                return new Timestamp(Date.valueOf(value).getTime());
+            }
+            /* Timestamp.valueOf needs seconds */
+            String normalized = value.replace('T', ' ');
+            if (normalized.length() == 16) {
+                normalized += ":00";
+            }
+            return Timestamp.valueOf(normalized);
+        }
+
+        /* The file is only checked here; its contents are streamed to the database when the row is inserted */
+        private File readableFile(String path, File baseDirectory) {
+            File file = new File(path);
+            if (!file.isAbsolute() && baseDirectory != null) {
+                file = new File(baseDirectory, path);
+            }
+            if (!file.isFile() || !file.canRead()) {
+                throw new IllegalArgumentException(name + " file cannot be read: " + file);
+            }
+            return file;
+        }
+    }
+
+    private final String name;
+    private final List<Column> columns;
+
+    private TableSpec(String name, Column... columns) {
+        this.name = name;
+        this.columns = Collections.unmodifiableList(Arrays.asList(columns));
+    }
+
+    private static Column column(String name, Type type, boolean required) {
+        return new Column(name, type, 0, required, false);
+    }
+
+    private static Column text(String name, int maxLength, boolean required) {
+        return new Column(name, Type.TEXT, maxLength, required, false);
+    }
+
+    /* DATE column declared DEFAULT SYSDATE NOT NULL: a missing value becomes the current time */
+    private static Column defaultNow(String name, Type type) {
+        return new Column(name, type, 0, true, true);
+    }
+
+    /* Required FILE column named name in imported files, whose content is stored once in ResumeBlob (see ResumeStorage)
+     * and referred to by the hash in column storedAs */
+    private static Column file(String name, String storedAs) {
+        return new Column(name, Type.FILE, 0, true, false, storedAs);
+    }
+
+    /* Every table, parents before children */
+    public static final List<TableSpec> ALL = Collections.unmodifiableList(Arrays.asList(
+        new TableSpec("Company",
+            column("companyID", Type.INTEGER, false), text("name", 30, true), text("industry", 100, false),
+            text("location", 200, false), text("email", 100, false), text("phone", 20, false)),
+        new TableSpec("Recruiter",
+            column("recruiterID", Type.INTEGER, false), column("companyID", Type.INTEGER, true), text("first_name", 30, false),
+            text("last_name", 30, false), text("email", 100, false), text("phone", 20, false)),
+        new TableSpec("Job",
+            column("jobID", Type.INTEGER, false), column("companyID", Type.INTEGER, true), column("recruiterID", Type.INTEGER, true),
+            column("salary", Type.FLOAT, false), column("workingHours", Type.FLOAT, false), column("datePosted", Type.DATE, false),
+            text("location", 200, false), text("title", 100, true), text("description", 500, true)),
+        new TableSpec("JobApplicant",
+            column("applicantID", Type.INTEGER, false), text("first_name", 30, true), text("last_name", 30, false),
+            text("industry", 100, false), column("birthdate", Type.DATE, false), text("address", 200, false),
+            text("email", 100, false), text("phone", 20, false)),
+        new TableSpec("JobApplication",
+            column("jobAppID", Type.INTEGER, false), column("jobID", Type.INTEGER, true), column("applicantID", Type.INTEGER, true),
+            column("dateTime", Type.DATETIME, false), text("status", 20, false)),
+        new TableSpec("Resume",
+            column("resumeID", Type.INTEGER, false), column("applicantID", Type.INTEGER, true), file("uploadFile", "contentHash"),
+            defaultNow("uploadDate", Type.DATE)),
+        new TableSpec("Interview",
+            column("interviewID", Type.INTEGER, false), column("jobAppID", Type.INTEGER, true),
+            defaultNow("dateTime", Type.DATETIME), text("location", 100, true))
+    ));
+
+    /* The spec of a table, matched case-insensitively, or null */
+    public static TableSpec forName(String tableName) {
+        for (TableSpec table : ALL) {
+            if (table.name.equalsIgnoreCase(tableName)) {
+                return table;
+            }
+        }
+        return null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Column> getColumns() {
+        return columns;
+    }
+
+    /* The primary key is the first column; left empty, it is generated by KeyAllocator */
+    public Column getKeyColumn() {
+        return columns.get(0);
+    }
+
+    /* Position in ALL: tables with a lower number must be loaded first */
+    public int dependencyOrder() {
+        return ALL.indexOf(this);
+    }
+
+    /* Whether rows carry file contents (and are therefore large) */
+    public boolean hasFiles() {
+        for (Column column : columns) {
+            if (column.type == Type.FILE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /* INSERT with one parameter per column, in column order */
+    public String insertSql() {
+        List<String> names = new ArrayList<>();
+        List<String> marks = new ArrayList<>();
+        for (Column column : columns) {
+            names.add(column.storedAs);
+            marks.add("?");
+        }
+        return "INSERT INTO " + name + " (" + String.join(", ", names) + ") VALUES (" + String.join(", ", marks) + ")";
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,110 @@
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * A version number per table, bumped whenever this application writes to the table. ResultCache keys its entries with the
+ * versions of the tables a query reads, so a cached result stops matching as soon as one of them is written.
+ *  - DBConnection reports every statement it prepares or runs (prepareCached, executeUpdate, executeBatch); INSERT, UPDATE,
+ *    DELETE, MERGE and table DDL bump their target table straight away
+ *  - The tables are bumped again when the writing thread commits, rolls back or releases its connection, so a reader that
+ *    looked up the versions between the statement and the commit cannot keep the result it read under the new versions
+ *  - tablesIn() finds the tables a query reads: every known table name (the application's tables and any table written so
+ *    far) appearing as a word in the SQL. An alias or column with a table's name only adds a dependency, which is safe
+ * Writes by other database clients are not seen; ResultCache bounds their effect with a maximum age.
+ */
+public class TableVersions {
+
+    /* Target table of a write: INSERT INTO t, UPDATE t, DELETE [FROM] t, MERGE INTO t, CREATE/DROP/ALTER/TRUNCATE TABLE t */
+    private static final Pattern WRITE = Pattern.compile(
+        "\\s*(?:INSERT\\s+INTO|UPDATE|DELETE\\s+FROM|DELETE|MERGE\\s+INTO|(?:CREATE|DROP|ALTER|TRUNCATE)\\s+TABLE)\\s+(\\w+)",
+        Pattern.CASE_INSENSITIVE);
+    private static final Pattern WORD = Pattern.compile("\\w+");
+
+    /* Upper-case table name -> version */
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    /* SQL text -> upper-case table it writes ("" for none), so each distinct statement is parsed once */
+    private final Map<String, String> writeTargets = new ConcurrentHashMap<>();
+
+    /* Tables written on each thread since its last commit or rollback */
+    private final ThreadLocal<Set<String>> pending = ThreadLocal.withInitial(HashSet::new);
+
+    public TableVersions() {
+        for (TableSpec table : TableSpec.ALL) {
+            versions.put(table.getName().toUpperCase(Locale.ROOT), new AtomicLong());
+        }
+    }
+
+    /* Called with every statement about to run; bumps the table it writes, if any */
+    public void noteStatement(String sql) {
+        String table = writeTargets.computeIfAbsent(sql, TableVersions::writeTarget);
+        if (!table.isEmpty()) {
+            bump(table);
+            pending.get().add(table);
+        }
+    }
+
+    /* The calling thread committed, rolled back or released its connection: bumps what it wrote once more */
+    public void endOfTransaction() {
+        Set<String> written = pending.get();
+        if (written.isEmpty()) {
+            return;
+        }
+        for (String table : written) {
+            bump(table);
+        }
+        written.clear();
+    }
+
+    public void bump(String table) {
+        versions.computeIfAbsent(table.toUpperCase(Locale.ROOT), name -> new AtomicLong()).incrementAndGet();
+    }
+
+    /* e.g. after the tables were dropped or reloaded outside DBConnection */
+    public void bumpAll() {
+        for (AtomicLong version : versions.values()) {
+            version.incrementAndGet();
+        }
+    }
+
+    public long get(String table) {
+        AtomicLong version = versions.get(table.toUpperCase(Locale.ROOT));
+        return version == null ? 0 : version.get();
+    }
+
+    /* Upper-case names of the known tables the query mentions, sorted (empty if it mentions none) */
+    public Set<String> tablesIn(String sql) {
+        Set<String> tables = new TreeSet<>();
+        Matcher word = WORD.matcher(sql);
+        while (word.find()) {
+            String name = word.group().toUpperCase(Locale.ROOT);
+            if (versions.containsKey(name)) {
+                tables.add(name);
+            }
+        }
+        return Collections.unmodifiableSet(tables);
+    }
+
+    /* The current versions of the tables, in the same order, for comparing later */
+    public long[] stamp(Set<String> tables) {
+        long[] stamp = new long[tables.size()];
+        int i = 0;
+        for (String table : tables) {
+            stamp[i++] = get(table);
+        }
+        return stamp;
+    }
+
+    private static String writeTarget(String sql) {
+        Matcher write = WRITE.matcher(sql);
+        return write.lookingAt() ? write.group(1).toUpperCase(Locale.ROOT) : "";
+    }
+}
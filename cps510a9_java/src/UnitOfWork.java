@@ -0,0 +1,100 @@
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Groups the statements of one piece of work (e.g. insert an interview and update the application's status) into one
+ * transaction on the calling thread's connection: committed exactly once when the work returns, rolled back when it throws.
+ *  - A unit started inside another unit on the same thread joins it, so only the outermost one commits
+ *  - DBConnection.executeUpdate does not commit on its own inside a unit
+ *  - The outermost unit hands the connection back to the pool when it ends, so no locks or connection outlive it
+ *  - The time from the first statement to the commit/rollback is recorded in Stats: that is how long row locks were held.
+ *    Units slower than -Ddb.tx.warnMillis (default 1000) are logged
+ * Keep user interaction (dialogs) outside the work, otherwise the locks are held while the user types.
+ * Use it through DBConnection.inTransaction(); background tasks (AsyncQueryExecutor.submit) each run as a unit.
+ */
+public final class UnitOfWork {
+
+    private static final long WARN_MILLIS = Long.getLong("db.tx.warnMillis", 1000L);
+
+    /* Units currently open on each thread (0 = no transaction in progress) */
+    private static final ThreadLocal<int[]> DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final DBConnection dbConnection;
+    private final Stats stats = new Stats();
+
+    UnitOfWork(DBConnection dbConnection) {
+        this.dbConnection = dbConnection;
+    }
+
+    /* Whether the calling thread is inside a unit, i.e. statements must not commit on their own */
+    public static boolean isActive() {
+        return DEPTH.get()[0] > 0;
+    }
+
+    /* Runs the work as one transaction (or as part of the enclosing one) and returns its result */
+    public <T> T run(String description, AsyncQueryExecutor.DatabaseTask<T> work) throws SQLException {
+        int[] depth = DEPTH.get();
+        if (depth[0] > 0) {
+            return work.call();
+        }
+        depth[0]++;
+        long start = System.nanoTime();
+        boolean committed = false;
+        try {
+            T result = work.call();
+            dbConnection.commit();
+            committed = true;
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            try {
+                dbConnection.rollback();
+            } catch (SQLException rollbackError) {
+                e.addSuppressed(rollbackError);
+            }
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            depth[0]--;
+            stats.record(elapsed, committed);
+            if (elapsed / 1_000_000 >= WARN_MILLIS) {
+                System.err.printf("Slow transaction \"%s\": %d ms (%s)%n", description, elapsed / 1_000_000, committed ? "committed" : "rolled back");
+            }
+            dbConnection.releaseConnection();
+        }
+    }
+
+    public Stats getStats() {
+        return stats;
+    }
+
+    /* Counts and durations of the outermost units run through one DBConnection */
+    public static final class Stats {
+        private final AtomicLong committed = new AtomicLong();
+        private final AtomicLong rolledBack = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos, boolean commit) {
+            (commit ? committed : rolledBack).incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        public long getCommitted() { return committed.get(); }
+        public long getRolledBack() { return rolledBack.get(); }
+
+        public double getAverageMillis() {
+            long count = committed.get() + rolledBack.get();
+            return count == 0 ? 0 : totalNanos.get() / 1e6 / count;
+        }
+
+        public double getMaxMillis() {
+            return maxNanos.get() / 1e6;
+        }
+
+        public String describe() {
+            return String.format("transactions[committed=%d, rolledBack=%d, avg=%.1fms, max=%.1fms]",
+                getCommitted(), getRolledBack(), getAverageMillis(), getMaxMillis());
+        }
+    }
+}
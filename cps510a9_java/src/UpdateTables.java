@@ -1,8 +1,9 @@
 import javax.swing.*;
 import java.awt.*;
 import java.sql.*; 
+import java.util.concurrent.CompletableFuture;
+import javax.swing.table.TableModel;
 import java.io.File;
-import java.io.FileInputStream;
 
 public class UpdateTables extends JPanel {
 
@@ -93,33 +94,34 @@ public class UpdateTables extends JPanel {
 
                     // prepare an SQL statement updating the table by companyID
                     String insertSQL = "UPDATE Company SET name = ?, industry = ?, location = ?, email = ?, phone = ? WHERE companyID = ?"; 
-                    PreparedStatement pstmt = dbConnection.getConnection().prepareStatement(insertSQL);
-
-                    // the following here go into the question marks of the prepared statem in order, basically
-                    pstmt.setInt(6, Integer.parseInt(companyID.getText()));
-                    pstmt.setString(1, name.getText());
-                    pstmt.setString(2, industry.getText());
-                    pstmt.setString(3, location.getText());
-                    pstmt.setString(4, email.getText());
-                    pstmt.setString(5, phone.getText());
-
-                    int rowsAffected = pstmt.executeUpdate(); // do it
-                    if (rowsAffected > 0) { // if something was changed
-                        JOptionPane.showMessageDialog(null, "Company updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-
-                        // show the updated table
-                        ResultSet rs = dbConnection.executeQuery(query);
-                        JTable table = new JTable(DB_GUI.buildTableModel(rs));
-                        JOptionPane.showMessageDialog(null, new JScrollPane(table), "Updated Table", JOptionPane.INFORMATION_MESSAGE);
-
-                    } else { // nothing was changed, something was off
-                        JOptionPane.showMessageDialog(null, "Failed to update company.", "Error", JOptionPane.ERROR_MESSAGE);
-                    }
+                    // the dialog is closed by now, so nothing edits the text fields while the background thread reads them
+                    AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().submit("Update Company", () -> { // runs in the background as one transaction, committed (and locks released) before any dialog below is shown
+                        PreparedStatement pstmt = dbConnection.prepareCached(insertSQL);
+
+                        // the following here go into the question marks of the prepared statem in order, basically
+                        pstmt.setInt(6, Integer.parseInt(companyID.getText()));
+                        pstmt.setString(1, name.getText());
+                        pstmt.setString(2, industry.getText());
+                        pstmt.setString(3, location.getText());
+                        pstmt.setString(4, email.getText());
+                        pstmt.setString(5, phone.getText());
+
+                        return dbConnection.getChangeFeed().returning("Company", Integer.parseInt(companyID.getText()), pstmt.executeUpdate()); // do it
+                    }), written -> { // back on the Swing thread once the write has committed
+                        dbConnection.getReferenceData().invalidateCompany(Integer.parseInt(companyID.getText())); // committed now - drop the cached copy so listings show the new name
+                        if (written.getRowsAffected() > 0) { // if something was changed
+                            JOptionPane.showMessageDialog(null, "Company updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+
+                            // show the updated table
+                            showUpdatedTable(dbConnection.getChangeFeed().modelAfter(query, written)); // the written row put in place, rather than the whole table read again
+
+                        } else { // nothing was changed, something was off
+                            JOptionPane.showMessageDialog(null, "Failed to update company.", "Error", JOptionPane.ERROR_MESSAGE);
+                        }
+                    }, UpdateTables::showWriteError);
                 }
 
-            } catch (SQLException ex) { // catch database-side errors
-                JOptionPane.showMessageDialog(null, "Error executing query:\n" + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-            } catch (Exception ex) { // catch other errors - usually careless input
+            } catch (Exception ex) { // catch errors on this side - usually careless input; the write itself reports through showWriteError
                 JOptionPane.showMessageDialog(null, "Error processing query:\n" + ex, "Error", JOptionPane.ERROR_MESSAGE);
             }
         });
@@ -149,30 +151,30 @@ public class UpdateTables extends JPanel {
 
                 if (option == JOptionPane.OK_OPTION) {
                     String insertSQL = "UPDATE Recruiter SET companyID = ?, first_name = ?, last_name = ?, email = ?, phone = ? WHERE recruiterID = ?";
-                    PreparedStatement pstmt = dbConnection.getConnection().prepareStatement(insertSQL);
-                    pstmt.setInt(6, Integer.parseInt(recruiterID.getText()));
-                    pstmt.setInt(1, Integer.parseInt(companyID.getText()));
-                    pstmt.setString(2, first_name.getText());
-                    pstmt.setString(3, last_name.getText());
-                    pstmt.setString(4, email.getText());
-                    pstmt.setString(5, phone.getText());
-
-                    int rowsAffected = pstmt.executeUpdate();
-                    if (rowsAffected > 0) {
-                        JOptionPane.showMessageDialog(null, "Recruiter updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-
-                        // show the updated table
-                        ResultSet rs = dbConnection.executeQuery(query);
-                        JTable table = new JTable(DB_GUI.buildTableModel(rs));
-                        JOptionPane.showMessageDialog(null, new JScrollPane(table), "Updated Table", JOptionPane.INFORMATION_MESSAGE);
-
-                    } else {
-                        JOptionPane.showMessageDialog(null, "Failed to update recruiter.", "Error", JOptionPane.ERROR_MESSAGE);
-                    }
+                    AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().submit("Update Recruiter", () -> {
+                        PreparedStatement pstmt = dbConnection.prepareCached(insertSQL);
+                        pstmt.setInt(6, Integer.parseInt(recruiterID.getText()));
+                        pstmt.setInt(1, Integer.parseInt(companyID.getText()));
+                        pstmt.setString(2, first_name.getText());
+                        pstmt.setString(3, last_name.getText());
+                        pstmt.setString(4, email.getText());
+                        pstmt.setString(5, phone.getText());
+
+                        return dbConnection.getChangeFeed().returning("Recruiter", Integer.parseInt(recruiterID.getText()), pstmt.executeUpdate());
+                    }), written -> { // back on the Swing thread once the write has committed
+                        dbConnection.getReferenceData().invalidateRecruiter(Integer.parseInt(recruiterID.getText()));
+                        if (written.getRowsAffected() > 0) {
+                            JOptionPane.showMessageDialog(null, "Recruiter updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+
+                            // show the updated table
+                            showUpdatedTable(dbConnection.getChangeFeed().modelAfter(query, written)); // the written row put in place, rather than the whole table read again
+
+                        } else {
+                            JOptionPane.showMessageDialog(null, "Failed to update recruiter.", "Error", JOptionPane.ERROR_MESSAGE);
+                        }
+                    }, UpdateTables::showWriteError);
                 }
 
-            } catch (SQLException ex) {
-                JOptionPane.showMessageDialog(null, "Error executing query:\n" + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(null, "Error processing query:\n" + ex, "Error", JOptionPane.ERROR_MESSAGE);
             }
@@ -209,31 +211,31 @@ public class UpdateTables extends JPanel {
 
                 if (option == JOptionPane.OK_OPTION) {
                     String insertSQL = "UPDATE Job SET companyID = ?, recruiterID = ?, salary = ?, workingHours = ?, datePosted = ?, location = ?, title = ?, description = ? WHERE jobID = ?";
-                    PreparedStatement pstmt = dbConnection.getConnection().prepareStatement(insertSQL);
-                    pstmt.setInt(9, Integer.parseInt(jobID.getText()));
-                    pstmt.setInt(1, Integer.parseInt(companyID.getText()));
-                    pstmt.setInt(2, Integer.parseInt(recruiterID.getText()));
-                    pstmt.setFloat(3, salary.getText() == null || salary.getText().isEmpty() ? 0 : Float.parseFloat(salary.getText()));
-                    pstmt.setFloat(4, workingHours.getText() == null || workingHours.getText().isEmpty() ? 0 : Float.parseFloat(workingHours.getText()));
-                    pstmt.setDate(5, Date.valueOf(datePosted.getText()));
-                    pstmt.setString(6, location.getText());
-                    pstmt.setString(7, title.getText());
-                    pstmt.setString(8, description.getText());
-
-                    int rowsAffected = pstmt.executeUpdate();
-                    if (rowsAffected > 0) {
-                        JOptionPane.showMessageDialog(null, "Job updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                        ResultSet rs = dbConnection.executeQuery(query);
-                        JTable table = new JTable(DB_GUI.buildTableModel(rs));
-                        JOptionPane.showMessageDialog(null, new JScrollPane(table), "Updated Table", JOptionPane.INFORMATION_MESSAGE);
-
-                    } else {
-                        JOptionPane.showMessageDialog(null, "Failed to update job.", "Error", JOptionPane.ERROR_MESSAGE);
-                    }
+                    AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().submit("Update Job", () -> {
+                        PreparedStatement pstmt = dbConnection.prepareCached(insertSQL);
+                        pstmt.setInt(9, Integer.parseInt(jobID.getText()));
+                        pstmt.setInt(1, Integer.parseInt(companyID.getText()));
+                        pstmt.setInt(2, Integer.parseInt(recruiterID.getText()));
+                        pstmt.setFloat(3, salary.getText() == null || salary.getText().isEmpty() ? 0 : Float.parseFloat(salary.getText()));
+                        pstmt.setFloat(4, workingHours.getText() == null || workingHours.getText().isEmpty() ? 0 : Float.parseFloat(workingHours.getText()));
+                        pstmt.setDate(5, Date.valueOf(datePosted.getText()));
+                        pstmt.setString(6, location.getText());
+                        pstmt.setString(7, title.getText());
+                        pstmt.setString(8, description.getText());
+
+                        return dbConnection.getChangeFeed().returning("Job", Integer.parseInt(jobID.getText()), pstmt.executeUpdate());
+                    }), written -> { // back on the Swing thread once the write has committed
+                        dbConnection.getJobBoard().markChanged(); // applicants' job board is read again in the background
+                        if (written.getRowsAffected() > 0) {
+                            JOptionPane.showMessageDialog(null, "Job updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                            showUpdatedTable(dbConnection.getChangeFeed().modelAfter(query, written)); // the written row put in place, rather than the whole table read again
+
+                        } else {
+                            JOptionPane.showMessageDialog(null, "Failed to update job.", "Error", JOptionPane.ERROR_MESSAGE);
+                        }
+                    }, UpdateTables::showWriteError);
                 }
 
-            } catch (SQLException ex) {
-                JOptionPane.showMessageDialog(null, "Error executing query:\n" + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(null, "Error processing query:\n" + ex, "Error", JOptionPane.ERROR_MESSAGE);
             }
@@ -268,30 +270,29 @@ public class UpdateTables extends JPanel {
 
                 if (option == JOptionPane.OK_OPTION) {
                     String insertSQL = "UPDATE JobApplicant SET first_name = ?, last_name = ?, industry = ?, birthdate = ?, address = ?, email = ?, phone = ? WHERE applicantID = ?";
-                    PreparedStatement pstmt = dbConnection.getConnection().prepareStatement(insertSQL);
-                    pstmt.setInt(8, Integer.parseInt(applicantID.getText()));
-                    pstmt.setString(1, first_name.getText());
-                    pstmt.setString(2, last_name.getText());
-                    pstmt.setString(3, industry.getText());
-                    pstmt.setDate(4, Date.valueOf(birthDate.getText()));
-                    pstmt.setString(5, address.getText());
-                    pstmt.setString(6, email.getText());
-                    pstmt.setString(7, phone.getText());
-
-                    int rowsAffected = pstmt.executeUpdate();
-                    if (rowsAffected > 0) {
-                        JOptionPane.showMessageDialog(null, "Job applicant updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                        ResultSet rs = dbConnection.executeQuery(query);
-                        JTable table = new JTable(DB_GUI.buildTableModel(rs));
-                        JOptionPane.showMessageDialog(null, new JScrollPane(table), "Updated Table", JOptionPane.INFORMATION_MESSAGE);
-
-                    } else {
-                        JOptionPane.showMessageDialog(null, "Failed to update job applicant.", "Error", JOptionPane.ERROR_MESSAGE);
-                    }
+                    AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().submit("Update JobApplicant", () -> {
+                        PreparedStatement pstmt = dbConnection.prepareCached(insertSQL);
+                        pstmt.setInt(8, Integer.parseInt(applicantID.getText()));
+                        pstmt.setString(1, first_name.getText());
+                        pstmt.setString(2, last_name.getText());
+                        pstmt.setString(3, industry.getText());
+                        pstmt.setDate(4, Date.valueOf(birthDate.getText()));
+                        pstmt.setString(5, address.getText());
+                        pstmt.setString(6, email.getText());
+                        pstmt.setString(7, phone.getText());
+
+                        return dbConnection.getChangeFeed().returning("JobApplicant", Integer.parseInt(applicantID.getText()), pstmt.executeUpdate());
+                    }), written -> { // back on the Swing thread once the write has committed
+                        if (written.getRowsAffected() > 0) {
+                            JOptionPane.showMessageDialog(null, "Job applicant updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                            showUpdatedTable(dbConnection.getChangeFeed().modelAfter(query, written)); // the written row put in place, rather than the whole table read again
+
+                        } else {
+                            JOptionPane.showMessageDialog(null, "Failed to update job applicant.", "Error", JOptionPane.ERROR_MESSAGE);
+                        }
+                    }, UpdateTables::showWriteError);
                 }
 
-            } catch (SQLException ex) {
-                JOptionPane.showMessageDialog(null, "Error executing query:\n" + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(null, "Error processing query:\n" + ex, "Error", JOptionPane.ERROR_MESSAGE);
             }
@@ -320,28 +321,27 @@ public class UpdateTables extends JPanel {
 
                 if (option == JOptionPane.OK_OPTION) {
                     String insertSQL = "UPDATE JobApplication SET jobID = ?, applicantID = ?, dateTime = ?, status = ? WHERE jobAppID = ?";
-                    PreparedStatement pstmt = dbConnection.getConnection().prepareStatement(insertSQL);
-                    pstmt.setInt(5, Integer.parseInt(jobAppID.getText()));
-                    pstmt.setInt(1, Integer.parseInt(jobID.getText()));
-                    pstmt.setInt(2, Integer.parseInt(applicantID.getText()));
-                    pstmt.setDate(3, Date.valueOf(dateTime.getText()));
-                    pstmt.setString(4, status.getText());
-
-                    int rowsAffected = pstmt.executeUpdate();
-                    if (rowsAffected > 0) {
-                        JOptionPane.showMessageDialog(null, "Job application updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                        // show the updated table
-                        ResultSet rs = dbConnection.executeQuery(query);
-                        JTable table = new JTable(DB_GUI.buildTableModel(rs));
-                        JOptionPane.showMessageDialog(null, new JScrollPane(table), "Updated Table", JOptionPane.INFORMATION_MESSAGE);
-
-                    } else {
-                        JOptionPane.showMessageDialog(null, "Failed to update job application.", "Error", JOptionPane.ERROR_MESSAGE);
-                    }
+                    AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().submit("Update JobApplication", () -> {
+                        PreparedStatement pstmt = dbConnection.prepareCached(insertSQL);
+                        pstmt.setInt(5, Integer.parseInt(jobAppID.getText()));
+                        pstmt.setInt(1, Integer.parseInt(jobID.getText()));
+                        pstmt.setInt(2, Integer.parseInt(applicantID.getText()));
+                        pstmt.setDate(3, Date.valueOf(dateTime.getText()));
+                        pstmt.setString(4, status.getText());
+
+                        return dbConnection.getChangeFeed().returning("JobApplication", Integer.parseInt(jobAppID.getText()), pstmt.executeUpdate());
+                    }), written -> { // back on the Swing thread once the write has committed
+                        if (written.getRowsAffected() > 0) {
+                            JOptionPane.showMessageDialog(null, "Job application updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                            // show the updated table
+                            showUpdatedTable(dbConnection.getChangeFeed().modelAfter(query, written)); // the written row put in place, rather than the whole table read again
+
+                        } else {
+                            JOptionPane.showMessageDialog(null, "Failed to update job application.", "Error", JOptionPane.ERROR_MESSAGE);
+                        }
+                    }, UpdateTables::showWriteError);
                 }
 
-            } catch (SQLException ex) {
-                JOptionPane.showMessageDialog(null, "Error executing query:\n" + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(null, "Error processing query:\n" + ex, "Error", JOptionPane.ERROR_MESSAGE);
             }
@@ -383,44 +383,38 @@ public class UpdateTables extends JPanel {
 
                 // when clicking ok, everything remains the same except...
                 if (option == JOptionPane.OK_OPTION) {
-                    String insertSQL = "UPDATE Resume SET applicantID = ?, uploadFile = ?, uploadDate = ? WHERE resumeID = ?";
-                    PreparedStatement pstmt = dbConnection.getConnection().prepareStatement(insertSQL);
-                    pstmt.setInt(4, Integer.parseInt(resumeID.getText()));
-                    pstmt.setInt(1, Integer.parseInt(applicantID.getText()));
-                    pstmt.setBlob(2, convertFileToInputStream(pickFileButton.getText().equals("Pick a file") ? null : pickFileButton.getText())); // this part - we pass in a file input stream created from the selected file using a helper
-                    pstmt.setDate(3, Date.valueOf(uploadDate.getText()));
-
-                    int rowsAffected = pstmt.executeUpdate();
-                    if (rowsAffected > 0) {
-                        JOptionPane.showMessageDialog(null, "Resume updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                        ResultSet rs = dbConnection.executeQuery(query);
-                        JTable table = new JTable(DB_GUI.buildTableModel(rs));
-                        JOptionPane.showMessageDialog(null, new JScrollPane(table), "Updated Table", JOptionPane.INFORMATION_MESSAGE);
-
-                    } else {
-                        JOptionPane.showMessageDialog(null, "Failed to update resume - no rows affected.", "Error", JOptionPane.ERROR_MESSAGE);
-                    }
+                    String insertSQL = "UPDATE Resume SET applicantID = ?, contentHash = ?, uploadFile = NULL, uploadDate = ? WHERE resumeID = ?";
+                    AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().submit("Update Resume", () -> {
+                        PreparedStatement pstmt = dbConnection.prepareCached(insertSQL);
+                        pstmt.setInt(4, Integer.parseInt(resumeID.getText()));
+                        pstmt.setInt(1, Integer.parseInt(applicantID.getText()));
+                        pstmt.setDate(3, Date.valueOf(uploadDate.getText()));
+                        pstmt.setString(2, storePickedFile(pickFileButton.getText())); // this part - we store the selected file (once per distinct content) using a helper and keep its hash
+                        return dbConnection.getChangeFeed().returning("Resume", Integer.parseInt(resumeID.getText()), pstmt.executeUpdate());
+                    }), written -> { // back on the Swing thread once the write has committed
+                        if (written.getRowsAffected() > 0) {
+                            JOptionPane.showMessageDialog(null, "Resume updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                            showUpdatedTable(dbConnection.getChangeFeed().modelAfter(query, written)); // the written row put in place, rather than the whole table read again
+
+                        } else {
+                            JOptionPane.showMessageDialog(null, "Failed to update resume - no rows affected.", "Error", JOptionPane.ERROR_MESSAGE);
+                        }
+                    }, UpdateTables::showWriteError);
                 }
 
-            } catch (SQLException ex) {
-                JOptionPane.showMessageDialog(null, "Error executing query:\n" + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(null, "Error processing query:\n" + ex, "Error", JOptionPane.ERROR_MESSAGE);
             }
         });
     }
 
-    // helper function converting a filepath into a fileinput stream
-    // we use this to help with the resume blob upload
-    private FileInputStream convertFileToInputStream(String fileName)  {
-        File file = new File(fileName);
-        try {
-            return new FileInputStream(file);
-        } catch (Exception e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(null, "Error reading file:\n" + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-            return null;
+    // helper function storing the file picked (the button text) in ResumeBlob, unless the same content is already there
+    // we use this to help with the resume upload - returns the hash the resume points at
+    private String storePickedFile(String fileName) throws SQLException {
+        if (fileName.equals("Pick a file")) {
+            throw new SQLException("Pick a file to upload first.");
         }
+        return new ResumeStorage(dbConnection).store(new File(fileName)).getHash();
     }
 
     private void attachInterviewButton(JButton button, String query) {
@@ -443,32 +437,47 @@ public class UpdateTables extends JPanel {
 
                 if (option == JOptionPane.OK_OPTION) {
                     String insertSQL = "UPDATE Interview SET jobAppID = ?, dateTime = ?, location = ? WHERE interviewID = ?";
-                    PreparedStatement pstmt = dbConnection.getConnection().prepareStatement(insertSQL);
-                    // the following here go into the question marks of the prepared statem in order, basically
-                    pstmt.setInt(4, Integer.parseInt(interviewID.getText()));
-                    pstmt.setInt(1, Integer.parseInt(jobAppID.getText()));
-                    pstmt.setDate(2, Date.valueOf(dateTime.getText()));
-                    pstmt.setString(3, location.getText());
-
-                    int rowsAffected = pstmt.executeUpdate();
-                    if (rowsAffected > 0) {
-                        JOptionPane.showMessageDialog(null, "Interview updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                        // show the updated table
-                        ResultSet rs = dbConnection.executeQuery(query);
-                        JTable table = new JTable(DB_GUI.buildTableModel(rs));
-                        JOptionPane.showMessageDialog(null, new JScrollPane(table), "Updated Table", JOptionPane.INFORMATION_MESSAGE);
-
-                    } else {
-                        JOptionPane.showMessageDialog(null, "Failed to update interview.", "Error", JOptionPane.ERROR_MESSAGE);
-                    }
+                    AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().submit("Update Interview", () -> {
+                        PreparedStatement pstmt = dbConnection.prepareCached(insertSQL);
+                        // the following here go into the question marks of the prepared statem in order, basically
+                        pstmt.setInt(4, Integer.parseInt(interviewID.getText()));
+                        pstmt.setInt(1, Integer.parseInt(jobAppID.getText()));
+                        pstmt.setDate(2, Date.valueOf(dateTime.getText()));
+                        pstmt.setString(3, location.getText());
+
+                        return dbConnection.getChangeFeed().returning("Interview", Integer.parseInt(interviewID.getText()), pstmt.executeUpdate());
+                    }), written -> { // back on the Swing thread once the write has committed
+                        if (written.getRowsAffected() > 0) {
+                            JOptionPane.showMessageDialog(null, "Interview updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                            // show the updated table
+                            showUpdatedTable(dbConnection.getChangeFeed().modelAfter(query, written)); // the written row put in place, rather than the whole table read again
+
+                        } else {
+                            JOptionPane.showMessageDialog(null, "Failed to update interview.", "Error", JOptionPane.ERROR_MESSAGE);
+                        }
+                    }, UpdateTables::showWriteError);
                 }
 
-            } catch (SQLException ex) {
-                JOptionPane.showMessageDialog(null, "Error executing query:\n" + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(null, "Error processing query:\n" + ex, "Error", JOptionPane.ERROR_MESSAGE);
             }
         });
     }
 
+    // show the updated table once it is ready - it is loaded (or the written row put in place) off the Swing thread, see ChangeFeed
+    private static void showUpdatedTable(CompletableFuture<TableModel> updated) {
+        AsyncQueryExecutor.deliver(updated, model -> {
+            JTable table = new JTable(model);
+            JOptionPane.showMessageDialog(null, new JScrollPane(table), "Updated Table", JOptionPane.INFORMATION_MESSAGE);
+        }, ex -> JOptionPane.showMessageDialog(null, "Error loading table:\n" + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    // errors from a background write, back on the Swing thread - database errors, or careless input (e.g. a number field that isn't a number)
+    private static void showWriteError(Throwable ex) {
+        if (ex instanceof SQLException) {
+            JOptionPane.showMessageDialog(null, "Error executing query:\n" + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        } else {
+            JOptionPane.showMessageDialog(null, "Error processing query:\n" + ex, "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,184 @@
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * Creates the application's views once instead of on every use.
+ * CREATE OR REPLACE VIEW is DDL: running it before each SELECT invalidates every cursor that depends on the view and forces
+ * a hard parse of the next query. ensure() only runs it when the view's definition has changed:
+ *  - A SHA-256 hash of each definition is stored in the ViewDefinitions table, so views survive application restarts
+ *  - Within a session the hashes are also kept in memory, so a view that is up to date costs no round trip at all
+ *  - forget() drops the memory of a view (e.g. after a SELECT found it missing), so the next ensure() recreates it
+ * Aggregating views (with GROUP BY) can be materialized with -Ddb.views.materialize:
+ *   none (default)  plain views, computed on every SELECT
+ *   commit          materialized, refreshed when a transaction touching their tables commits
+ *   <minutes>       materialized, refreshed every so many minutes (reads may be that stale)
+ * Databases without materialized views (H2) always get plain views.
+ */
+public class ViewRegistry {
+
+    private static final String MATERIALIZE = System.getProperty("db.views.materialize", "none").trim().toLowerCase();
+
+    /* CREATE [OR REPLACE] VIEW name [(columns)] AS select */
+    private static final Pattern VIEW_DDL = Pattern.compile(
+        "\\s*CREATE\\s+(?:OR\\s+REPLACE\\s+)?VIEW\\s+(\\w+)\\s*(\\([^)]*\\))?\\s*AS\\s+(.*)", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern GROUP_BY = Pattern.compile("\\bGROUP\\s+BY\\b", Pattern.CASE_INSENSITIVE);
+
+    private final DBConnection dbConnection;
+
+    /* Upper-case view name -> stored definition; null until loaded from ViewDefinitions */
+    private Map<String, Definition> definitions;
+
+    public ViewRegistry(DBConnection dbConnection) {
+        this.dbConnection = dbConnection;
+    }
+
+    /* Makes sure the view defined by createViewSql exists as currently defined. Returns true if it had to be (re)created */
+    public synchronized boolean ensure(String createViewSql) throws SQLException {
+        Matcher ddl = VIEW_DDL.matcher(createViewSql);
+        if (!ddl.matches()) {
+            throw new IllegalArgumentException("Not a CREATE VIEW statement: " + createViewSql);
+        }
+        String name = ddl.group(1);
+        String columnList = ddl.group(2) == null ? "" : ddl.group(2);
+        String select = ddl.group(3);
+
+        String materializedSql = null;
+        if (!MATERIALIZE.equals("none") && GROUP_BY.matcher(select).find()) {
+            materializedSql = dbConnection.getDialect().createMaterializedView(name, columnList, select, refreshMinutes());
+        }
+        String sql = materializedSql != null ? materializedSql : createViewSql;
+        String hash = hash(sql);
+
+        Definition current = loadDefinitions().get(name.toUpperCase());
+        if (current != null && current.hash.equals(hash)) {
+            return false;
+        }
+
+        /* A plain view cannot replace a materialized one (or the other way round), so drop the old object first */
+        boolean materialized = materializedSql != null;
+        if (current != null && (current.materialized || materialized)) {
+            drop(name, current.materialized);
+        }
+        dbConnection.executeUpdate(sql);
+        store(name, hash, materialized, current != null);
+        System.out.println((current == null ? "Created " : "Recreated ") + (materialized ? "materialized view " : "view ") + name + ".");
+        return true;
+    }
+
+    /* Forgets a view, so the next ensure() creates it again */
+    public synchronized void forget(String viewName) throws SQLException {
+        if (definitions != null) {
+            definitions.remove(viewName.toUpperCase());
+        }
+        dbConnection.executeUpdate("DELETE FROM ViewDefinitions WHERE view_name = " + SqlDialect.quote(viewName.toUpperCase()));
+    }
+
+    /* Drops every registered view and the registry itself, e.g. when the tables are dropped */
+    public synchronized void dropAll() throws SQLException {
+        for (Map.Entry<String, Definition> view : loadDefinitions().entrySet()) {
+            drop(view.getKey(), view.getValue().materialized);
+        }
+        try {
+            dbConnection.executeUpdate("DROP TABLE ViewDefinitions");
+        } catch (SQLException e) {
+            if (!dbConnection.getDialect().isMissingTable(e)) {
+                throw e;
+            }
+        }
+        definitions = null;
+    }
+
+    private void drop(String name, boolean materialized) {
+        String sql = materialized ? dbConnection.getDialect().dropMaterializedView(name) : "DROP VIEW " + name;
+        if (sql == null) {
+            return;
+        }
+        try {
+            dbConnection.executeUpdate(sql);
+        } catch (SQLException e) {
+            /* Already gone */
+            System.out.println("Could not drop " + name + ": " + e.getMessage().trim());
+        }
+    }
+
+    /* Reads ViewDefinitions once per session, creating the table the first time */
+    private Map<String, Definition> loadDefinitions() throws SQLException {
+        if (definitions != null) {
+            return definitions;
+        }
+        try {
+            definitions = dbConnection.query("SELECT view_name, definition_hash, materialized FROM ViewDefinitions", rs -> {
+                Map<String, Definition> stored = new HashMap<>();
+                while (rs.next()) {
+                    stored.put(rs.getString(1).toUpperCase(), new Definition(rs.getString(2), "Y".equals(rs.getString(3))));
+                }
+                return stored;
+            });
+        } catch (SQLException e) {
+            if (!dbConnection.getDialect().isMissingTable(e)) {
+                throw e;
+            }
+            dbConnection.executeUpdate("CREATE TABLE ViewDefinitions (" +
+                "view_name VARCHAR(128) PRIMARY KEY, " +
+                "definition_hash VARCHAR(64) NOT NULL, " +
+                "materialized CHAR(1) NOT NULL, " +
+                "updated DATE)");
+            definitions = new HashMap<>();
+        }
+        return definitions;
+    }
+
+    private void store(String name, String hash, boolean materialized, boolean exists) throws SQLException {
+        Object[] values = {hash, materialized ? "Y" : "N", new Timestamp(System.currentTimeMillis()), name.toUpperCase()};
+        String sql = exists
+            ? "UPDATE ViewDefinitions SET definition_hash = ?, materialized = ?, updated = ? WHERE view_name = ?"
+            : "INSERT INTO ViewDefinitions (definition_hash, materialized, updated, view_name) VALUES (?, ?, ?, ?)";
+        dbConnection.executeBatch(sql, Collections.singletonList(values));
+        definitions.put(name.toUpperCase(), new Definition(hash, materialized));
+    }
+
+    /* 0 = on commit, otherwise minutes between refreshes */
+    private static int refreshMinutes() {
+        if (MATERIALIZE.equals("commit")) {
+            return 0;
+        }
+        try {
+            return Math.max(1, Integer.parseInt(MATERIALIZE));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Unknown -Ddb.views.materialize=" + MATERIALIZE + " (expected none, commit or a number of minutes)");
+        }
+    }
+
+    /* Hash of a definition with its whitespace normalised, so reformatting the SQL does not recreate the view */
+    private static String hash(String sql) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(sql.trim().replaceAll("\\s+", " ").getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /* What is stored for one view */
+    private static final class Definition {
+        final String hash;
+        final boolean materialized;
+
+        Definition(String hash, boolean materialized) {
+            this.hash = hash;
+            this.materialized = materialized;
+        }
+    }
+}
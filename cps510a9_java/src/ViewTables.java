@@ -1,6 +1,7 @@
 import javax.swing.*;
 import java.awt.*;
 import java.sql.*;
+import java.util.function.Consumer;
 
 public class ViewTables extends JPanel {
 
@@ -137,38 +138,62 @@ public class ViewTables extends JPanel {
                 "WHERE Recruiter.companyID = Company.companyID AND Job.recruiterID = Recruiter.recruiterID AND Job.jobID = JobApplication.jobID AND JobApplication.jobAppID = Interview.jobAppID";
 
         // attach a query functionality to each button, as well as specify a query to show the created view
-        attachViewToButton(q1, view1, "SELECT * FROM ApplicantJobInfo");
-        attachViewToButton(q2, view2, "SELECT * FROM InterviewSchedules");
-        attachViewToButton(q3, view3, "SELECT * FROM CompanyJobSummary");
-        attachViewToButton(q4, view4, "SELECT * FROM JobData");
-        attachViewToButton(q5, view5, "SELECT * FROM ActiveApplicants");
-        attachViewToButton(q6, view6, "SELECT * FROM RecruiterData");
-        attachViewToButton(q7, view7, "SELECT * FROM ApplicantInterview");
-        attachViewToButton(q8, view8, "SELECT * FROM JobApplicationDetails");
-        attachViewToButton(q9, view9, "SELECT * FROM RecruiterInterview");
+        // and the order its rows are paged in (see showView) - the view's unique key, or every column for the views without one
+        attachViewToButton(q1, view1, "SELECT * FROM ApplicantJobInfo", "applicantID, first_name, last_name, job_title, company_name, recruiter_name");
+        attachViewToButton(q2, view2, "SELECT * FROM InterviewSchedules", "interviewID");
+        attachViewToButton(q3, view3, "SELECT * FROM CompanyJobSummary", "company_name, recruiter_name, total_jobs_posted");
+        attachViewToButton(q4, view4, "SELECT * FROM JobData", "\"Job ID\"");
+        attachViewToButton(q5, view5, "SELECT * FROM ActiveApplicants", "\"Applicant ID\"");
+        attachViewToButton(q6, view6, "SELECT * FROM RecruiterData", "\"Recruiter ID\"");
+        attachViewToButton(q7, view7, "SELECT * FROM ApplicantInterview", "applicantID, first_name, last_name, companyName, dateTime");
+        attachViewToButton(q8, view8, "SELECT * FROM JobApplicationDetails", "jobAppID");
+        attachViewToButton(q9, view9, "SELECT * FROM RecruiterInterview", "recruiterID, last_name, first_name, companyName, title, dateTime");
     }
 
     // attach functionality to a button
-    // essentially - execute the view queries, then show the view results in a table (using the showViewQuery parameter)
-    private void attachViewToButton(JButton button, String viewQuery, String showViewQuery) {
+    // essentially - make sure the view exists (the registry only runs the view query the first time, or after it was changed),
+    // then show the view results in a table (using the showViewQuery parameter)
+    private void attachViewToButton(JButton button, String viewQuery, String showViewQuery, String pageOrder) {
+        ViewRegistry views = dbConnection.getViewRegistry();
         button.addActionListener(e -> {
-            try {
-                dbConnection.executeUpdate(viewQuery); // execute the view query
-                JOptionPane.showMessageDialog(null, "View created successfully! Now showing view...", "Success", JOptionPane.INFORMATION_MESSAGE); // create the view
-
-                try {
-                    ResultSet rs = dbConnection.executeQuery(showViewQuery); // now connect again and try and execute the show view query
-                    JTable table = new JTable(DB_GUI.buildTableModel(rs));
-                    JOptionPane.showMessageDialog(null, new JScrollPane(table), "Query Results", JOptionPane.INFORMATION_MESSAGE);
-                    JOptionPane.showMessageDialog(null, "View displayed successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                } catch (SQLException ex) { // catch any SQL errors (something going wrong showing the view)
-                    JOptionPane.showMessageDialog(null, "Error showing view:\n" + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            // both queries run in the background, the dialogs are shown back on the Swing thread
+            AsyncQueryExecutor.deliver(dbConnection.getAsyncExecutor().submit(button.getText(), () -> views.ensure(viewQuery)), created -> {
+                if (created) {
+                    JOptionPane.showMessageDialog(null, "View created successfully! Now showing view...", "Success", JOptionPane.INFORMATION_MESSAGE);
                 }
+                showView(views, showViewQuery, pageOrder);
 
-            } catch (SQLException ex) { // catch any SQL errors (something going wrong creating the view)
+            }, ex -> { // catch any SQL errors (something going wrong creating the view)
                 JOptionPane.showMessageDialog(null, "Error creating view:\n" + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            });
         });
     }
 
-}
\ No newline at end of file
+    // run the show view query and display the rows, fetched a page at a time as the user scrolls
+    // pages are read with separate queries, so the order has to be the same for every page (otherwise rows could move
+    // between pages) - a unique key does that, and so does sorting by every column: rows that still tie are identical,
+    // so it doesn't matter which of them lands on which page
+    private void showView(ViewRegistry views, String showViewQuery, String pageOrder) {
+        Consumer<Throwable> onError = ex -> { // catch any SQL errors (something going wrong showing the view)
+            // the view was dropped behind the registry's back - forget it so the next click creates it again
+            if (ex instanceof SQLException && dbConnection.getDialect().isMissingTable((SQLException) ex)) {
+                dbConnection.getAsyncExecutor().submit("Forget view", () -> {
+                    views.forget(showViewQuery.substring(showViewQuery.lastIndexOf(' ') + 1));
+                    return null;
+                });
+            }
+            JOptionPane.showMessageDialog(null, "Error showing view:\n" + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        };
+
+        AsyncQueryExecutor.deliver(LazyTableModel.open(dbConnection, showViewQuery, showViewQuery + " ORDER BY " + pageOrder), model -> {
+            model.setErrorHandler(ex -> JOptionPane.showMessageDialog(null, "Error loading rows:\n" + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+            displayView(new JTable(model));
+        }, onError);
+    }
+
+    private void displayView(JTable table) {
+        JOptionPane.showMessageDialog(null, new JScrollPane(table), "Query Results", JOptionPane.INFORMATION_MESSAGE);
+        JOptionPane.showMessageDialog(null, "View displayed successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+    }
+
+}
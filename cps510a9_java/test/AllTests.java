@@ -0,0 +1,54 @@
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/*
+ * Runs every public static no-argument test* method of the test classes below and exits non-zero if any fails.
+ * No test framework is needed: compile src and test together and run this class (see README.md).
+ */
+public class AllTests {
+
+    private static final Class<?>[] TEST_CLASSES = {
+        StatementCacheTest.class,
+        RecordReaderTest.class,
+        ChangeFeedTest.class,
+        ResultCacheTest.class,
+        DatabaseInitializerTest.class,
+        JobBoardTest.class,
+        ColumnarResultTest.class,
+        KeyAllocatorTest.class,
+        ReferenceDataCacheTest.class,
+        LazyTableModelTest.class,
+    };
+
+    public static void main(String[] args) {
+        int passed = 0;
+        int failed = 0;
+        for (Class<?> testClass : TEST_CLASSES) {
+            for (Method method : testClass.getDeclaredMethods()) {
+                int modifiers = method.getModifiers();
+                if (!method.getName().startsWith("test") || !Modifier.isPublic(modifiers) || !Modifier.isStatic(modifiers)
+                        || method.getParameterCount() != 0) {
+                    continue;
+                }
+                String name = testClass.getSimpleName() + "." + method.getName();
+                try {
+                    method.invoke(null);
+                    passed++;
+                    System.out.println("PASS " + name);
+                } catch (InvocationTargetException e) {
+                    failed++;
+                    System.out.println("FAIL " + name + ": " + e.getCause());
+                    e.getCause().printStackTrace(System.out);
+                } catch (IllegalAccessException e) {
+                    failed++;
+                    System.out.println("FAIL " + name + ": " + e);
+                }
+            }
+        }
+        System.out.println(passed + " passed, " + failed + " failed.");
+        if (failed > 0) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+import java.util.Objects;
+
+/* Minimal assertions for the tests run by AllTests */
+public final class Assert {
+
+    private Assert() {
+    }
+
+    public static void assertTrue(String message, boolean condition) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    public static void assertFalse(String message, boolean condition) {
+        assertTrue(message, !condition);
+    }
+
+    public static void assertEquals(String message, Object expected, Object actual) {
+        if (!Objects.equals(expected, actual)) {
+            throw new AssertionError(message + ": expected <" + expected + "> but was <" + actual + ">");
+        }
+    }
+
+    /* Runs the code and returns the exception it throws, failing if it throws nothing or something else */
+    public static <T extends Throwable> T assertThrows(String message, Class<T> expected, ThrowingRunnable code) {
+        try {
+            code.run();
+        } catch (Throwable t) {
+            if (expected.isInstance(t)) {
+                return expected.cast(t);
+            }
+            throw new AssertionError(message + ": expected " + expected.getSimpleName() + " but got " + t, t);
+        }
+        throw new AssertionError(message + ": expected " + expected.getSimpleName() + " but nothing was thrown");
+    }
+
+    public interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
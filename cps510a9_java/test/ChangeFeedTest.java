@@ -0,0 +1,158 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.TimeUnit;
+import javax.swing.JTable;
+import javax.swing.SwingUtilities;
+import javax.swing.table.TableModel;
+
+/*
+ * ChangeFeed.Watermark: contiguous numbers, gaps that close, gaps moved past, and late commits below the watermark.
+ * ChangeFeed.modelFor: the live model is read on a worker thread, not the caller's, and dropped once no table shows it
+ */
+public class ChangeFeedTest {
+
+    private static final long GAP_WAIT = 10000;
+    private static final long LATE_COMMIT = 600000;
+
+    public static void testContiguousNumbersMoveTheWatermark() {
+        ChangeFeed.Watermark watermark = new ChangeFeed.Watermark(10, GAP_WAIT, LATE_COMMIT);
+
+        Assert.assertTrue("new number is applied", watermark.offer(11));
+        Assert.assertTrue("new number is applied", watermark.offer(12));
+        watermark.advance(1000);
+
+        Assert.assertEquals("watermark", 12L, watermark.getWatermark());
+        Assert.assertEquals("low water", 12L, watermark.lowWater());
+        Assert.assertFalse("number re-read is not applied twice", watermark.offer(12));
+    }
+
+    public static void testGapHoldsTheWatermarkUntilItCloses() {
+        ChangeFeed.Watermark watermark = new ChangeFeed.Watermark(10, GAP_WAIT, LATE_COMMIT);
+
+        watermark.offer(11);
+        watermark.offer(13);
+        watermark.advance(1000);
+        Assert.assertEquals("watermark stops below the gap", 11L, watermark.getWatermark());
+        Assert.assertFalse("number after the gap is not applied twice", watermark.offer(13));
+
+        Assert.assertTrue("gap closes when its transaction commits", watermark.offer(12));
+        watermark.advance(2000);
+        Assert.assertEquals("watermark", 13L, watermark.getWatermark());
+        Assert.assertEquals("low water", 13L, watermark.lowWater());
+    }
+
+    public static void testOpenGapIsMovedPastButStillRead() {
+        ChangeFeed.Watermark watermark = new ChangeFeed.Watermark(10, GAP_WAIT, LATE_COMMIT);
+
+        watermark.offer(11);
+        watermark.offer(13);
+        watermark.advance(1000);
+        watermark.advance(1000 + GAP_WAIT);
+        Assert.assertEquals("watermark moves past the gap", 13L, watermark.getWatermark());
+        Assert.assertEquals("polls still read from below the gap", 11L, watermark.lowWater());
+
+        Assert.assertFalse("number re-read is not applied twice", watermark.offer(13));
+        Assert.assertTrue("late commit is applied", watermark.offer(12));
+        Assert.assertFalse("late commit is applied once", watermark.offer(12));
+        watermark.advance(2000 + GAP_WAIT);
+        Assert.assertEquals("low water once nothing is watched", 13L, watermark.lowWater());
+    }
+
+    public static void testMovedPastNumberIsForgottenAfterTheLateCommitWindow() {
+        ChangeFeed.Watermark watermark = new ChangeFeed.Watermark(10, GAP_WAIT, LATE_COMMIT);
+
+        watermark.offer(12);
+        watermark.advance(1000);
+        watermark.advance(1000 + GAP_WAIT);
+        Assert.assertEquals("watched", 10L, watermark.lowWater());
+
+        watermark.advance(1000 + GAP_WAIT + LATE_COMMIT);
+        Assert.assertEquals("low water", 12L, watermark.lowWater());
+        Assert.assertFalse("number below the low water is ignored", watermark.offer(11));
+    }
+
+    public static void testEachGapWaitsOnItsOwn() {
+        ChangeFeed.Watermark watermark = new ChangeFeed.Watermark(10, GAP_WAIT, LATE_COMMIT);
+
+        watermark.offer(12);
+        watermark.advance(1000);
+        watermark.offer(14);
+        watermark.advance(1000 + GAP_WAIT);
+
+        Assert.assertEquals("first gap is moved past, the second one has only just been reached", 12L, watermark.getWatermark());
+        Assert.assertEquals("low water", 10L, watermark.lowWater());
+    }
+
+    public static void testLiveModelIsLoadedOffTheCallingThread() throws Exception {
+        List<String> loadedOn = Collections.synchronizedList(new ArrayList<>());
+        StubJdbc.StubConnection stub = jobTable(loadedOn);
+        DBConnection dbConnection = new DBConnection(new OracleDialect(), stub::getConnection);
+        try {
+            ChangeFeed feed = new ChangeFeed(dbConnection);
+            TableModel model = feed.modelFor("SELECT * FROM Job").get(5, TimeUnit.SECONDS);
+            /* The rows are put in on the EDT, ahead of anything delivered there afterwards */
+            SwingUtilities.invokeAndWait(() -> { });
+
+            Assert.assertEquals("rows", 2, model.getRowCount());
+            Assert.assertEquals("title", "Tester", model.getValueAt(1, 1));
+            Assert.assertEquals("loads", 1, loadedOn.size());
+            Assert.assertFalse("loaded off the calling thread", loadedOn.get(0).equals(Thread.currentThread().getName()));
+
+            Assert.assertTrue("the live model is shared", feed.modelFor("SELECT * FROM Job").get(5, TimeUnit.SECONDS) == model);
+            Assert.assertEquals("and not read again", 1, loadedOn.size());
+            feed.close();
+        } finally {
+            dbConnection.close();
+        }
+    }
+
+    public static void testLiveModelIsDroppedOnceNoTableShowsIt() throws Exception {
+        List<String> loadedOn = Collections.synchronizedList(new ArrayList<>());
+        StubJdbc.StubConnection stub = jobTable(loadedOn);
+        DBConnection dbConnection = new DBConnection(new OracleDialect(), stub::getConnection);
+        try {
+            ChangeFeed feed = new ChangeFeed(dbConnection);
+            TableModel model = feed.modelFor("SELECT * FROM Job").get(5, TimeUnit.SECONDS);
+            SwingUtilities.invokeAndWait(feed::dropUnusedModels);
+            Assert.assertTrue("kept while it is handed out", feed.modelFor("SELECT * FROM Job").get(5, TimeUnit.SECONDS) == model);
+
+            JTable[] shown = new JTable[1];
+            SwingUtilities.invokeAndWait(() -> shown[0] = new JTable(model));
+            SwingUtilities.invokeAndWait(feed::dropUnusedModels);
+            Assert.assertTrue("kept while a table shows it", feed.modelFor("SELECT * FROM Job").get(5, TimeUnit.SECONDS) == model);
+            SwingUtilities.invokeAndWait(() -> new JTable(model));
+
+            WeakReference<JTable> closed = new WeakReference<>(shown[0]);
+            shown[0] = null;
+            for (int attempt = 0; attempt < 50 && closed.get() != null; attempt++) {
+                System.gc();
+                Thread.sleep(10);
+            }
+            SwingUtilities.invokeAndWait(feed::dropUnusedModels);
+
+            Assert.assertFalse("dropped once its tables are gone", feed.modelFor("SELECT * FROM Job").get(5, TimeUnit.SECONDS) == model);
+            Assert.assertEquals("loaded again", 2, loadedOn.size());
+            feed.close();
+        } finally {
+            dbConnection.close();
+        }
+    }
+
+    /* Answers the change feed's queries, with two rows in Job; records the thread each Job load ran on */
+    private static StubJdbc.StubConnection jobTable(List<String> loadedOn) {
+        StubJdbc.StubConnection stub = new StubJdbc.StubConnection();
+        stub.onQuery((sql, params) -> {
+            if (sql.startsWith("SELECT NVL(MAX(changeSeq)")) {
+                return StubJdbc.resultSet(new String[] { "LAST" }, new Object[] { 0 });
+            }
+            if (sql.equals("SELECT * FROM Job")) {
+                loadedOn.add(Thread.currentThread().getName());
+                return StubJdbc.resultSet(new String[] { "JOBID", "TITLE" }, new Object[] { 1, "Developer" }, new Object[] { 2, "Tester" });
+            }
+            return StubJdbc.emptyResultSet();
+        });
+        return stub;
+    }
+}
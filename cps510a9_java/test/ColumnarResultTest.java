@@ -0,0 +1,96 @@
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import javax.swing.table.TableModel;
+
+/* ColumnarResult: each column kind keeps its values and NULLs, whole numbers widen to long, and strings outgrow the dictionary */
+public class ColumnarResultTest {
+
+    public static void testWholeNumbersAndNulls() throws Exception {
+        ColumnarResult result = ColumnarResult.from(StubJdbc.resultSet(new String[] { "ID", "SALARY" },
+            new Object[] { 1, new BigDecimal("17.50") },
+            new Object[] { null, null },
+            new Object[] { 3, new BigDecimal("20") }));
+
+        Assert.assertEquals("rows", 3, result.getRowCount());
+        Assert.assertEquals("column name", "ID", result.getColumnName(0));
+        Assert.assertTrue("ints are kept as ints", result.getColumnClass(0) == Integer.class);
+        Assert.assertEquals("int", 3, result.getInt(2, 0));
+        Assert.assertTrue("NULL is recorded", result.isNull(1, 0));
+        Assert.assertTrue("NULL reads as null", result.getValue(1, 0) == null);
+        Assert.assertEquals("NULL reads as 0 from the typed getter", 0L, result.getLong(1, 0));
+
+        Assert.assertTrue("decimals are kept as the driver's objects", result.getColumnClass(1) == Object.class);
+        Assert.assertEquals("decimal", new BigDecimal("17.50"), result.getValue(0, 1));
+        Assert.assertTrue("NULL decimal", result.isNull(1, 1));
+    }
+
+    public static void testIntColumnWidensToLong() throws Exception {
+        long big = Integer.MAX_VALUE + 1L;
+        Object[][] rows = new Object[40][];
+        for (int row = 0; row < rows.length; row++) {
+            rows[row] = new Object[] { row == 30 ? big : (Object) row };
+        }
+        ColumnarResult result = ColumnarResult.from(StubJdbc.resultSet(new String[] { "ID" }, rows));
+
+        Assert.assertTrue("widened", result.getColumnClass(0) == Long.class);
+        Assert.assertEquals("value before the widening", 29L, result.getLong(29, 0));
+        Assert.assertEquals("value that did not fit", big, result.getLong(30, 0));
+        Assert.assertEquals("value after the widening", 39L, result.getLong(39, 0));
+        Assert.assertThrows("too big for an int", ArithmeticException.class, () -> result.getInt(30, 0));
+    }
+
+    public static void testTimestampsAreKeptAsMillis() throws Exception {
+        Timestamp posted = Timestamp.valueOf("2024-03-01 09:30:00");
+        ColumnarResult result = ColumnarResult.from(StubJdbc.resultSet(new String[] { "POSTED" },
+            new Object[] { posted },
+            new Object[] { null }));
+
+        Assert.assertTrue("timestamp column", result.getColumnClass(0) == Timestamp.class);
+        Assert.assertEquals("millis", posted.getTime(), result.getLong(0, 0));
+        Assert.assertEquals("value", posted, result.getValue(0, 0));
+        Assert.assertTrue("NULL", result.getValue(1, 0) == null);
+    }
+
+    public static void testStringsAreDictionaryEncoded() throws Exception {
+        String[] statuses = { "Pending", "Accepted", "Rejected" };
+        Object[][] rows = new Object[100][];
+        for (int row = 0; row < rows.length; row++) {
+            rows[row] = new Object[] { row == 50 ? null : statuses[row % statuses.length] };
+        }
+        ColumnarResult result = ColumnarResult.from(StubJdbc.resultSet(new String[] { "STATUS" }, rows));
+
+        for (int row = 0; row < rows.length; row++) {
+            Assert.assertEquals("row " + row, rows[row][0], result.getValue(row, 0));
+        }
+        Assert.assertTrue("NULL", result.isNull(50, 0));
+        Assert.assertTrue("a few distinct values take less than a String per row", result.estimateBytes() < 100 * 40);
+    }
+
+    public static void testMostlyDistinctStringsFallBackToPlainArray() throws Exception {
+        Object[][] rows = new Object[6000][];
+        for (int row = 0; row < rows.length; row++) {
+            rows[row] = new Object[] { row % 1000 == 7 ? null : "email" + row + "@example.com" };
+        }
+        ColumnarResult result = ColumnarResult.from(StubJdbc.resultSet(new String[] { "EMAIL" }, rows));
+
+        Assert.assertEquals("rows", rows.length, result.getRowCount());
+        for (int row = 0; row < rows.length; row++) {
+            Assert.assertEquals("row " + row, rows[row][0], result.getString(row, 0));
+        }
+        Assert.assertTrue("NULL before the switch", result.isNull(7, 0));
+        Assert.assertTrue("NULL after the switch", result.isNull(5007, 0));
+    }
+
+    public static void testTableModelView() throws Exception {
+        TableModel model = ColumnarResult.from(StubJdbc.resultSet(new String[] { "ID", "TITLE" },
+            new Object[] { 10, "Developer" },
+            new Object[] { 11, "Tester" })).asTableModel();
+
+        Assert.assertEquals("rows", 2, model.getRowCount());
+        Assert.assertEquals("columns", 2, model.getColumnCount());
+        Assert.assertEquals("column name", "TITLE", model.getColumnName(1));
+        Assert.assertEquals("value", 11, model.getValueAt(1, 0));
+        Assert.assertEquals("value", "Tester", model.getValueAt(1, 1));
+        Assert.assertFalse("read-only", model.isCellEditable(0, 0));
+    }
+}
@@ -0,0 +1,99 @@
+import java.sql.SQLException;
+
+/* DatabaseInitializer on an embedded H2 database (the full bootstrap on an empty schema, then the fast path), and the version
+ * stamp against stub connections that report batches the way the Oracle driver does */
+public class DatabaseInitializerTest {
+
+    public static void testEmptySchemaIsCreatedSeededAndStamped() throws Exception {
+        String user = H2Database.create();
+        DBConnection dbConnection = DBConnection.getInstance(user, "");
+        try {
+            Assert.assertTrue("bootstrap runs on an empty schema", new DatabaseInitializer(user, "").initialize());
+
+            for (TableSpec table : TableSpec.ALL) {
+                Assert.assertTrue(table.getName() + " is seeded", count(dbConnection, table.getName()) > 0);
+            }
+            int version = dbConnection.query("SELECT version FROM SchemaVersion WHERE id = 1", rs -> rs.next() ? rs.getInt(1) : -1);
+            Assert.assertEquals("schema version", DatabaseInitializer.SCHEMA_VERSION, version);
+        } finally {
+            dbConnection.close();
+        }
+    }
+
+    public static void testCurrentSchemaTakesTheFastPath() throws Exception {
+        String user = H2Database.create();
+        DBConnection dbConnection = DBConnection.getInstance(user, "");
+        try {
+            new DatabaseInitializer(user, "").initialize();
+            int jobs = count(dbConnection, "Job");
+
+            Assert.assertFalse("second login only reads the version", new DatabaseInitializer(user, "").initialize());
+            Assert.assertEquals("seed data is not added twice", jobs, count(dbConnection, "Job"));
+        } finally {
+            dbConnection.close();
+        }
+    }
+
+    public static void testOlderSchemaIsCheckedAgain() throws Exception {
+        String user = H2Database.create();
+        DBConnection dbConnection = DBConnection.getInstance(user, "");
+        try {
+            new DatabaseInitializer(user, "").initialize();
+            dbConnection.inTransaction("Downgrade", () -> {
+                dbConnection.executeUpdate("UPDATE SchemaVersion SET version = " + (DatabaseInitializer.SCHEMA_VERSION - 1));
+                return null;
+            });
+
+            Assert.assertTrue("an older stamp runs the bootstrap", new DatabaseInitializer(user, "").initialize());
+            Assert.assertFalse("which stamps the current version", new DatabaseInitializer(user, "").initialize());
+        } finally {
+            dbConnection.close();
+        }
+    }
+
+    public static void testVersionRowIsInsertedWhenTheUpdateMatchesNothing() throws Exception {
+        StubJdbc.StubConnection stub = new StubJdbc.StubConnection();
+        DBConnection dbConnection = new DBConnection(new OracleDialect(), stub::getConnection);
+        try {
+            stamp(dbConnection);
+
+            Assert.assertTrue("version row is inserted: " + stub.getExecuted(), executed(stub, "INSERT INTO SchemaVersion"));
+        } finally {
+            dbConnection.close();
+        }
+    }
+
+    public static void testExistingVersionRowIsUpdated() throws Exception {
+        StubJdbc.StubConnection stub = new StubJdbc.StubConnection();
+        stub.onUpdate(sql -> sql.startsWith("UPDATE SchemaVersion") ? 1 : 0);
+        DBConnection dbConnection = new DBConnection(new OracleDialect(), stub::getConnection);
+        try {
+            stamp(dbConnection);
+
+            Assert.assertTrue("version row is updated", executed(stub, "UPDATE SchemaVersion"));
+            Assert.assertFalse("no second row is inserted", executed(stub, "INSERT INTO SchemaVersion"));
+        } finally {
+            dbConnection.close();
+        }
+    }
+
+    private static void stamp(DBConnection dbConnection) throws SQLException {
+        dbConnection.inTransaction("Stamp schema version", () -> {
+            new DatabaseInitializer(dbConnection).stampSchemaVersion();
+            return null;
+        });
+    }
+
+    private static boolean executed(StubJdbc.StubConnection stub, String prefix) {
+        for (String sql : stub.getExecuted()) {
+            if (sql.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int count(DBConnection dbConnection, String table) throws SQLException {
+        return dbConnection.query("SELECT COUNT(*) FROM " + table, rs -> { rs.next(); return rs.getInt(1); });
+    }
+}
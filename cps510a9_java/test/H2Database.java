@@ -0,0 +1,22 @@
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Fresh in-memory H2 databases (H2Dialect), so tests can run the real schema without the campus server.
+ * DBConnection reads -Ddb.dialect and -Ddb.url when an instance is created, so each new database gets a user of its own
+ * and therefore a DBConnection of its own. Needs the H2 jar on the class path (Maven adds it, see pom.xml).
+ */
+public final class H2Database {
+
+    private static final AtomicInteger databases = new AtomicInteger();
+
+    private H2Database() {
+    }
+
+    /* Points DBConnection at a new empty database and returns the user name to log in with (the password is empty) */
+    public static String create() {
+        String name = "test" + databases.incrementAndGet();
+        System.setProperty("db.dialect", "h2");
+        System.setProperty("db.url", "jdbc:h2:mem:" + name + ";MODE=Oracle");
+        return name;
+    }
+}
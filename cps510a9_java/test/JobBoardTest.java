@@ -0,0 +1,167 @@
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/* JobBoard: one load for concurrent first readers, readers never wait on a reload, and older snapshots never replace newer */
+public class JobBoardTest {
+
+    private static final String[] COLUMNS = { "JOBID", "Job Title" };
+
+    public static void testConcurrentFirstReadsRunOneLoad() throws Exception {
+        Listing listing = new Listing();
+        listing.hold();
+        StubJdbc.StubConnection stub = listing.stub();
+        DBConnection dbConnection = new DBConnection(new OracleDialect(), stub::getConnection);
+        try {
+            JobBoard jobBoard = new JobBoard(dbConnection);
+            List<CompletableFuture<JobBoard.Snapshot>> readers = new ArrayList<>();
+            for (int reader = 0; reader < 4; reader++) {
+                readers.add(CompletableFuture.supplyAsync(() -> snapshot(jobBoard)));
+            }
+            listing.awaitLoads(1);
+            Thread.sleep(100);
+            listing.release();
+
+            JobBoard.Snapshot first = readers.get(0).get(5, TimeUnit.SECONDS);
+            for (CompletableFuture<JobBoard.Snapshot> reader : readers) {
+                Assert.assertTrue("every reader gets the one snapshot", reader.get(5, TimeUnit.SECONDS) == first);
+            }
+            Assert.assertEquals("listing loads", 1, listing.loads.get());
+        } finally {
+            dbConnection.close();
+        }
+    }
+
+    public static void testReadersDoNotWaitForAReload() throws Exception {
+        Listing listing = new Listing();
+        StubJdbc.StubConnection stub = listing.stub();
+        DBConnection dbConnection = new DBConnection(new OracleDialect(), stub::getConnection);
+        try {
+            JobBoard jobBoard = new JobBoard(dbConnection);
+            JobBoard.Snapshot loaded = jobBoard.snapshot();
+            Assert.assertEquals("rows", 1, loaded.size());
+
+            listing.hold();
+            listing.rows.set(2);
+            jobBoard.markChanged();
+            listing.awaitLoads(2);
+
+            JobBoard.Snapshot during = CompletableFuture.supplyAsync(() -> snapshot(jobBoard)).get(1, TimeUnit.SECONDS);
+            Assert.assertTrue("the previous snapshot is returned while the reload runs", during == loaded);
+
+            listing.release();
+            Assert.assertEquals("rows once the reload is published", 2, awaitRows(jobBoard, 2));
+        } finally {
+            dbConnection.close();
+        }
+    }
+
+    public static void testChangeDuringAReloadIsReadAgain() throws Exception {
+        Listing listing = new Listing();
+        StubJdbc.StubConnection stub = listing.stub();
+        DBConnection dbConnection = new DBConnection(new OracleDialect(), stub::getConnection);
+        try {
+            JobBoard jobBoard = new JobBoard(dbConnection);
+            jobBoard.snapshot();
+
+            listing.hold();
+            listing.rows.set(2);
+            jobBoard.markChanged();
+            listing.awaitLoads(2);
+            /* Made while the reload above is reading: that reload's rows are already out of date */
+            listing.rows.set(3);
+            jobBoard.markChanged();
+            listing.release();
+
+            Assert.assertEquals("rows", 3, awaitRows(jobBoard, 3));
+            Assert.assertEquals("listing loads", 3, listing.loads.get());
+        } finally {
+            dbConnection.close();
+        }
+    }
+
+    public static void testOlderSnapshotNeverReplacesANewerOne() throws Exception {
+        JobBoard.Snapshot version1 = JobBoard.Snapshot.read(rows(1), null, 1);
+        JobBoard.Snapshot version2 = JobBoard.Snapshot.read(rows(1), null, 2);
+        Thread.sleep(5);
+        JobBoard.Snapshot version2Later = JobBoard.Snapshot.read(rows(1), null, 2);
+
+        Assert.assertTrue("first snapshot is published", JobBoard.Snapshot.newer(null, version1) == version1);
+        Assert.assertTrue("higher version wins", JobBoard.Snapshot.newer(version2, version1) == version2);
+        Assert.assertTrue("higher version wins", JobBoard.Snapshot.newer(version1, version2) == version2);
+        Assert.assertTrue("later load of a version wins", JobBoard.Snapshot.newer(version2Later, version2) == version2Later);
+        Assert.assertTrue("later load of a version wins", JobBoard.Snapshot.newer(version2, version2Later) == version2Later);
+    }
+
+    /* Answers the probe and the listing; the listing returns "rows" rows and, while held, waits until released */
+    private static final class Listing {
+        final AtomicInteger rows = new AtomicInteger(1);
+        final AtomicInteger loads = new AtomicInteger();
+        private volatile CountDownLatch held = new CountDownLatch(0);
+
+        StubJdbc.StubConnection stub() {
+            StubJdbc.StubConnection stub = new StubJdbc.StubConnection();
+            stub.onQuery((sql, params) -> {
+                if (sql.startsWith("SELECT COUNT(*)")) {
+                    return StubJdbc.resultSet(new String[] { "COUNT", "MAXID", "MAXDATE" }, new Object[] { rows.get(), rows.get(), null });
+                }
+                int count = rows.get();
+                loads.incrementAndGet();
+                try {
+                    held.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return rows(count);
+            });
+            return stub;
+        }
+
+        void hold() {
+            held = new CountDownLatch(1);
+        }
+
+        void release() {
+            held.countDown();
+        }
+
+        void awaitLoads(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (loads.get() < count && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            Assert.assertEquals("listing loads started", count, loads.get());
+        }
+    }
+
+    private static ResultSet rows(int count) {
+        Object[][] rows = new Object[count][];
+        for (int row = 0; row < count; row++) {
+            rows[row] = new Object[] { row + 1, "Job " + (row + 1) };
+        }
+        return StubJdbc.resultSet(COLUMNS, rows);
+    }
+
+    private static JobBoard.Snapshot snapshot(JobBoard jobBoard) {
+        try {
+            return jobBoard.snapshot();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /* Reads until the board has the given number of rows (or five seconds pass) and returns the last size seen */
+    private static int awaitRows(JobBoard jobBoard, int expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        int size = jobBoard.snapshot().size();
+        while (size != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+            size = jobBoard.snapshot().size();
+        }
+        return size;
+    }
+}
@@ -0,0 +1,167 @@
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/* KeyAllocator: one NEXTVAL per block of keys, blocks roll over, missing sequences are created, existing keys are skipped */
+public class KeyAllocatorTest {
+
+    private static final int BLOCK = KeyAllocator.BLOCK_SIZE;
+
+    public static void testKeysOfABlockComeFromMemory() throws Exception {
+        Sequence sequence = new Sequence(1);
+        StubJdbc.StubConnection stub = sequence.stub();
+        DBConnection dbConnection = new DBConnection(new OracleDialect(), stub::getConnection);
+        try {
+            KeyAllocator keys = new KeyAllocator(dbConnection);
+            for (int expected = 1; expected <= BLOCK; expected++) {
+                Assert.assertEquals("key", expected, keys.nextId("Job"));
+            }
+            Assert.assertEquals("one NEXTVAL for the whole block", 1, nextValues(stub, "Job"));
+
+            Assert.assertEquals("first key of the next block", BLOCK + 1, keys.nextId("job"));
+            Assert.assertEquals("NEXTVAL once the block is used up", 2, nextValues(stub, "Job"));
+        } finally {
+            dbConnection.close();
+        }
+    }
+
+    public static void testEachTableHasItsOwnBlock() throws Exception {
+        Sequence sequence = new Sequence(1);
+        StubJdbc.StubConnection stub = sequence.stub();
+        DBConnection dbConnection = new DBConnection(new OracleDialect(), stub::getConnection);
+        try {
+            KeyAllocator keys = new KeyAllocator(dbConnection);
+            keys.nextId("Job");
+            keys.nextId("Company");
+            keys.nextId("Job");
+
+            Assert.assertEquals("Job NEXTVALs", 1, nextValues(stub, "Job"));
+            Assert.assertEquals("Company NEXTVALs", 1, nextValues(stub, "Company"));
+            Assert.assertThrows("tables without a sequence", IllegalArgumentException.class, () -> keys.nextId("SchemaVersion"));
+        } finally {
+            dbConnection.close();
+        }
+    }
+
+    public static void testConcurrentCallersGetDistinctKeys() throws Exception {
+        Sequence sequence = new Sequence(1);
+        StubJdbc.StubConnection stub = sequence.stub();
+        DBConnection dbConnection = new DBConnection(new OracleDialect(), stub::getConnection);
+        try {
+            KeyAllocator keys = new KeyAllocator(dbConnection);
+            Set<Integer> handedOut = ConcurrentHashMap.newKeySet();
+            List<CompletableFuture<Void>> callers = new ArrayList<>();
+            for (int caller = 0; caller < 4; caller++) {
+                callers.add(CompletableFuture.runAsync(() -> {
+                    for (int call = 0; call < 2 * BLOCK; call++) {
+                        try {
+                            Assert.assertTrue("key handed out once", handedOut.add(keys.nextId("JobApplication")));
+                        } catch (SQLException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                }));
+            }
+            for (CompletableFuture<Void> caller : callers) {
+                caller.get(10, TimeUnit.SECONDS);
+            }
+
+            Assert.assertEquals("keys", 8 * BLOCK, handedOut.size());
+            Assert.assertEquals("NEXTVALs", 8, nextValues(stub, "JobApplication"));
+        } finally {
+            dbConnection.close();
+        }
+    }
+
+    public static void testMissingSequenceIsCreatedAfterTheHighestKey() throws Exception {
+        Sequence sequence = new Sequence(8);
+        sequence.missing = true;
+        StubJdbc.StubConnection stub = sequence.stub();
+        stub.onUpdate(sql -> {
+            if (sql.startsWith("CREATE SEQUENCE")) {
+                sequence.missing = false;
+            }
+            return 0;
+        });
+        DBConnection dbConnection = new DBConnection(new OracleDialect(), stub::getConnection);
+        try {
+            KeyAllocator keys = new KeyAllocator(dbConnection);
+
+            Assert.assertEquals("key after the highest existing one", 8, keys.nextId("Interview"));
+            Assert.assertTrue("sequence created: " + stub.getExecuted(),
+                stub.getExecuted().contains("CREATE SEQUENCE Interview_id_seq START WITH 8 INCREMENT BY " + BLOCK));
+        } finally {
+            dbConnection.close();
+        }
+    }
+
+    public static void testSkipExistingKeysMovesTheSequencePastLoadedRows() throws Exception {
+        Sequence sequence = new Sequence(51);
+        sequence.highest = 200;
+        StubJdbc.StubConnection stub = sequence.stub();
+        stub.onUpdate(sql -> {
+            if (sql.startsWith("CREATE SEQUENCE")) {
+                sequence.restart(201);
+            }
+            return 0;
+        });
+        DBConnection dbConnection = new DBConnection(new OracleDialect(), stub::getConnection);
+        try {
+            KeyAllocator keys = new KeyAllocator(dbConnection);
+            keys.skipExistingKeys("Company");
+
+            Assert.assertTrue("sequence dropped", stub.getExecuted().contains("DROP SEQUENCE Company_id_seq"));
+            Assert.assertEquals("key after the loaded rows", 201, keys.nextId("Company"));
+        } finally {
+            dbConnection.close();
+        }
+    }
+
+    /* A sequence stepping by BLOCK_SIZE, and the highest key already in the table */
+    private static final class Sequence {
+        private final AtomicLong next;
+        volatile boolean missing;
+        volatile long highest;
+
+        Sequence(long start) {
+            next = new AtomicLong(start);
+            highest = start - 1;
+        }
+
+        void restart(long start) {
+            next.set(start);
+        }
+
+        StubJdbc.StubConnection stub() {
+            StubJdbc.StubConnection stub = new StubJdbc.StubConnection();
+            stub.onQuery((sql, params) -> {
+                if (sql.contains(".NEXTVAL")) {
+                    if (missing) {
+                        throw new SQLException("ORA-02289: sequence does not exist", "42000", 2289);
+                    }
+                    return StubJdbc.resultSet(new String[] { "NEXTVAL" }, new Object[] { next.getAndAdd(BLOCK) });
+                }
+                if (sql.contains(") + 1 FROM")) {
+                    return StubJdbc.resultSet(new String[] { "START" }, new Object[] { highest + 1 });
+                }
+                return StubJdbc.resultSet(new String[] { "HIGHEST" }, new Object[] { highest });
+            });
+            return stub;
+        }
+    }
+
+    private static int nextValues(StubJdbc.StubConnection stub, String table) {
+        int count = 0;
+        for (String sql : stub.getExecuted()) {
+            if (sql.equals("SELECT " + KeyAllocator.sequenceName(table) + ".NEXTVAL FROM dual")) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
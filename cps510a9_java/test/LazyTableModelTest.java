@@ -0,0 +1,122 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.swing.SwingUtilities;
+
+/* LazyTableModel: requests for pages the table stopped asking for are dropped, without being reported as failures */
+public class LazyTableModelTest {
+
+    private static final int PAGE = 200;
+    private static final int ROWS = 50 * PAGE;
+
+    public static void testPagesScrolledPastAreDropped() throws Exception {
+        Listing listing = new Listing();
+        DBConnection dbConnection = new DBConnection(new OracleDialect(), listing.stub()::getConnection);
+        try {
+            LazyTableModel model = open(dbConnection);
+            List<Throwable> errors = new ArrayList<>();
+            SwingUtilities.invokeAndWait(() -> {
+                model.setErrorHandler(errors::add);
+                for (int page = 1; page <= 5; page++) {
+                    model.getValueAt(page * PAGE, 0);
+                }
+            });
+            listing.release();
+
+            awaitResidentPages(model, 4);
+            Thread.sleep(100);
+            SwingUtilities.invokeAndWait(() -> { });
+            Assert.assertEquals("the first page and the last three asked for", 4, model.getResidentPageCount());
+            Assert.assertTrue("dropped requests are not errors: " + errors, errors.isEmpty());
+
+            Object[] value = new Object[1];
+            SwingUtilities.invokeAndWait(() -> value[0] = model.getValueAt(PAGE, 0));
+            Assert.assertTrue("a dropped page is not resident", value[0] == null);
+            awaitResidentPages(model, 5);
+            SwingUtilities.invokeAndWait(() -> value[0] = model.getValueAt(PAGE, 0));
+            Assert.assertEquals("but is loaded when asked for again", PAGE + 1, value[0]);
+        } finally {
+            dbConnection.close();
+        }
+    }
+
+    public static void testPageAskedForAgainIsKept() throws Exception {
+        Listing listing = new Listing();
+        DBConnection dbConnection = new DBConnection(new OracleDialect(), listing.stub()::getConnection);
+        try {
+            LazyTableModel model = open(dbConnection);
+            Object[] value = new Object[1];
+            SwingUtilities.invokeAndWait(() -> {
+                model.getValueAt(PAGE, 0);
+                model.getValueAt(2 * PAGE, 0);
+                model.getValueAt(3 * PAGE, 0);
+                /* Page 1 is still on screen, so page 2 is now the one asked for longest ago */
+                model.getValueAt(PAGE, 0);
+                model.getValueAt(4 * PAGE, 0);
+            });
+            listing.release();
+
+            awaitResidentPages(model, 4);
+            SwingUtilities.invokeAndWait(() -> value[0] = model.getValueAt(PAGE, 0));
+            Assert.assertEquals("page asked for again", PAGE + 1, value[0]);
+            SwingUtilities.invokeAndWait(() -> value[0] = model.getValueAt(2 * PAGE, 0));
+            Assert.assertTrue("page dropped", value[0] == null);
+        } finally {
+            dbConnection.close();
+        }
+    }
+
+    private static LazyTableModel open(DBConnection dbConnection) throws Exception {
+        LazyTableModel model = LazyTableModel.open(dbConnection, "Jobs", "SELECT jobID FROM Job ORDER BY jobID").get(5, TimeUnit.SECONDS);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!model.isRowCountExact() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        SwingUtilities.invokeAndWait(() -> { });
+        Assert.assertEquals("rows", ROWS, model.getRowCount());
+        return model;
+    }
+
+    private static void awaitResidentPages(LazyTableModel model, int expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        int[] resident = new int[1];
+        do {
+            Thread.sleep(5);
+            SwingUtilities.invokeAndWait(() -> resident[0] = model.getResidentPageCount());
+        } while (resident[0] < expected && System.currentTimeMillis() < deadline);
+        Assert.assertEquals("resident pages", expected, resident[0]);
+    }
+
+    /* ROWS rows numbered from 1, paged as OracleDialect.paginate binds them; pages after the first wait until released */
+    private static final class Listing {
+        private final CountDownLatch held = new CountDownLatch(1);
+
+        StubJdbc.StubConnection stub() {
+            StubJdbc.StubConnection stub = new StubJdbc.StubConnection();
+            stub.onQuery((sql, params) -> {
+                if (sql.startsWith("SELECT COUNT(*)")) {
+                    return StubJdbc.resultSet(new String[] { "COUNT" }, new Object[] { ROWS });
+                }
+                int offset = ((Number) params.get(params.size() - 1)).intValue();
+                if (offset > 0) {
+                    try {
+                        held.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                Object[][] rows = new Object[PAGE][];
+                for (int row = 0; row < PAGE; row++) {
+                    rows[row] = new Object[] { offset + row + 1, offset + row + 1 };
+                }
+                return StubJdbc.resultSet(new String[] { "JOBID", "ROW_NUM_" }, rows);
+            });
+            return stub;
+        }
+
+        void release() {
+            held.countDown();
+        }
+    }
+}
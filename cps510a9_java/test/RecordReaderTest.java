@@ -0,0 +1,63 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+
+/* BulkImporter.RecordReader: RFC 4180 quoting in CSV, and TSV */
+public class RecordReaderTest {
+
+    public static void testPlainFields() throws Exception {
+        BulkImporter.RecordReader reader = reader("a.csv", "1,Acme,,x\n");
+
+        Assert.assertEquals("fields", Arrays.asList("1", "Acme", "", "x"), reader.next());
+        Assert.assertEquals("end of file", null, reader.next());
+    }
+
+    public static void testQuotedFieldsKeepDelimitersAndDoubledQuotes() throws Exception {
+        BulkImporter.RecordReader reader = reader("a.csv", "\"Smith, J\",\"say \"\"hi\"\"\",\"\"\n");
+
+        Assert.assertEquals("fields", Arrays.asList("Smith, J", "say \"hi\"", ""), reader.next());
+    }
+
+    public static void testQuotedFieldSpansLines() throws Exception {
+        BulkImporter.RecordReader reader = reader("a.csv", "1,\"first\nsecond\"\n2,next\n");
+
+        Assert.assertEquals("fields", Arrays.asList("1", "first\nsecond"), reader.next());
+        Assert.assertEquals("record line", 1, reader.getRecordLine());
+        Assert.assertEquals("fields", Arrays.asList("2", "next"), reader.next());
+        Assert.assertEquals("record line counts the continued line", 3, reader.getRecordLine());
+    }
+
+    public static void testUnclosedQuoteFails() throws Exception {
+        BulkImporter.RecordReader reader = reader("a.csv", "1,ok\n2,\"never closed\n3,x\n");
+        reader.next();
+
+        IOException e = Assert.assertThrows("unclosed quote", IOException.class, reader::next);
+        Assert.assertTrue("message names the file and line: " + e.getMessage(), e.getMessage().startsWith("a.csv line 2"));
+    }
+
+    public static void testBlankLinesAreSkipped() throws Exception {
+        BulkImporter.RecordReader reader = reader("a.csv", "a\n\n   \nb\n");
+
+        Assert.assertEquals("fields", Arrays.asList("a"), reader.next());
+        Assert.assertEquals("fields", Arrays.asList("b"), reader.next());
+        Assert.assertEquals("record line", 4, reader.getRecordLine());
+    }
+
+    public static void testTsvByFileNameHasNoQuoting() throws Exception {
+        BulkImporter.RecordReader reader = reader("a.tsv", "1\t\"Acme, Inc\"\t\n");
+
+        Assert.assertEquals("fields", Arrays.asList("1", "\"Acme, Inc\"", ""), reader.next());
+    }
+
+    public static void testTsvDetectedFromHeader() throws Exception {
+        BulkImporter.RecordReader reader = reader("a.txt", "id\tname\n1\tAcme, Inc\n");
+
+        Assert.assertEquals("header", Arrays.asList("id", "name"), reader.next());
+        Assert.assertEquals("fields", Arrays.asList("1", "Acme, Inc"), reader.next());
+    }
+
+    private static BulkImporter.RecordReader reader(String fileName, String text) {
+        return new BulkImporter.RecordReader(new BufferedReader(new StringReader(text)), fileName);
+    }
+}
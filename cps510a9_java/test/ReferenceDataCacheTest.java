@@ -0,0 +1,164 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.table.DefaultTableModel;
+
+/* ReferenceDataCache: rows are read once, many IDs in few queries, and a read that overlaps an invalidation is not cached */
+public class ReferenceDataCacheTest {
+
+    private static final String[] COMPANY_COLUMNS = { "COMPANYID", "NAME", "INDUSTRY", "LOCATION", "EMAIL", "PHONE" };
+
+    public static void testRowsAreReadOnce() throws Exception {
+        Companies companies = new Companies(10);
+        StubJdbc.StubConnection stub = companies.stub();
+        DBConnection dbConnection = new DBConnection(new OracleDialect(), stub::getConnection);
+        try {
+            ReferenceDataCache cache = new ReferenceDataCache(dbConnection);
+
+            Assert.assertEquals("name", "Company 3", cache.company(3).name);
+            Assert.assertEquals("name", "Company 3", cache.company(3).name);
+            Assert.assertEquals("queries", 1, companies.queries.get());
+            Assert.assertTrue("unknown ID", cache.company(99) == null);
+            Assert.assertTrue("unknown ID", cache.company(99) == null);
+            Assert.assertEquals("unknown IDs are not cached", 3, companies.queries.get());
+        } finally {
+            dbConnection.close();
+        }
+    }
+
+    public static void testManyIdsAreReadInFewQueries() throws Exception {
+        Companies companies = new Companies(500);
+        StubJdbc.StubConnection stub = companies.stub();
+        DBConnection dbConnection = new DBConnection(new OracleDialect(), stub::getConnection);
+        try {
+            ReferenceDataCache cache = new ReferenceDataCache(dbConnection);
+            cache.company(1);
+            List<Integer> ids = new ArrayList<>();
+            for (int id = 1; id <= 151; id++) {
+                ids.add(id);
+            }
+
+            Map<Integer, ReferenceDataCache.Company> found = cache.companies(ids);
+
+            Assert.assertEquals("found", 151, found.size());
+            Assert.assertEquals("one query for the first row, two for the 150 missing ones", 3, companies.queries.get());
+        } finally {
+            dbConnection.close();
+        }
+    }
+
+    public static void testInvalidatedRowIsReadAgain() throws Exception {
+        Companies companies = new Companies(10);
+        StubJdbc.StubConnection stub = companies.stub();
+        DBConnection dbConnection = new DBConnection(new OracleDialect(), stub::getConnection);
+        try {
+            ReferenceDataCache cache = new ReferenceDataCache(dbConnection);
+            cache.company(2);
+            companies.renamed = "Renamed";
+            cache.invalidate("COMPANY", 2);
+            cache.invalidate("Job", 2);
+
+            Assert.assertEquals("name after the invalidation", "Renamed 2", cache.company(2).name);
+            Assert.assertEquals("queries", 2, companies.queries.get());
+        } finally {
+            dbConnection.close();
+        }
+    }
+
+    public static void testReadOverlappingAnInvalidationIsNotCached() throws Exception {
+        Companies companies = new Companies(10);
+        companies.held = new CountDownLatch(1);
+        StubJdbc.StubConnection stub = companies.stub();
+        DBConnection dbConnection = new DBConnection(new OracleDialect(), stub::getConnection);
+        try {
+            ReferenceDataCache cache = new ReferenceDataCache(dbConnection);
+            CompletableFuture<ReferenceDataCache.Company> read = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return cache.company(4);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            companies.awaitQueries(1);
+            /* The row is being read: an update commits and invalidates it before the read finishes */
+            companies.renamed = "Renamed";
+            cache.invalidateCompany(4);
+            companies.held.countDown();
+
+            Assert.assertEquals("the overlapping read still returns what it read", "Company 4", read.get(5, TimeUnit.SECONDS).name);
+            Assert.assertEquals("but did not cache it", "Renamed 4", cache.company(4).name);
+            Assert.assertEquals("queries", 2, companies.queries.get());
+            Assert.assertEquals("cached from then on", "Renamed 4", cache.company(4).name);
+            Assert.assertEquals("queries", 2, companies.queries.get());
+        } finally {
+            dbConnection.close();
+        }
+    }
+
+    public static void testCompanyIdsAreReplacedWithNames() throws Exception {
+        Companies companies = new Companies(10);
+        StubJdbc.StubConnection stub = companies.stub();
+        DBConnection dbConnection = new DBConnection(new OracleDialect(), stub::getConnection);
+        try {
+            ReferenceDataCache cache = new ReferenceDataCache(dbConnection);
+            DefaultTableModel model = new DefaultTableModel(new Vector<>(), new Vector<>(Arrays.asList("Job", "Company")));
+            model.addRow(new Object[] { "Developer", 5 });
+            model.addRow(new Object[] { "Tester", 42 });
+
+            cache.withCompanyNames(model, 1);
+
+            Assert.assertEquals("name", "Company 5", model.getValueAt(0, 1));
+            Assert.assertEquals("unknown ID", "", model.getValueAt(1, 1));
+        } finally {
+            dbConnection.close();
+        }
+    }
+
+    /* Company rows 1..count named "<prefix> <id>"; while held, queries wait until released */
+    private static final class Companies {
+        final AtomicInteger queries = new AtomicInteger();
+        private final int count;
+        volatile String renamed = "Company";
+        volatile CountDownLatch held = new CountDownLatch(0);
+
+        Companies(int count) {
+            this.count = count;
+        }
+
+        StubJdbc.StubConnection stub() {
+            StubJdbc.StubConnection stub = new StubJdbc.StubConnection();
+            stub.onQuery((sql, params) -> {
+                String prefix = renamed;
+                List<Object[]> rows = new ArrayList<>();
+                for (Object param : params) {
+                    int id = ((Number) param).intValue();
+                    if (id <= count) {
+                        rows.add(new Object[] { id, prefix + " " + id, "Software", "Toronto", "hr@example.com", "555-0100" });
+                    }
+                }
+                queries.incrementAndGet();
+                try {
+                    held.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return StubJdbc.resultSet(COMPANY_COLUMNS, rows.toArray(new Object[0][]));
+            });
+            return stub;
+        }
+
+        void awaitQueries(int expected) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (queries.get() < expected && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            Assert.assertEquals("queries started", expected, queries.get());
+        }
+    }
+}
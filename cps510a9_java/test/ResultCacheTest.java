@@ -0,0 +1,94 @@
+import java.sql.SQLException;
+
+/* ResultCache: entries are used until a table they read is written, and least recently used entries are evicted */
+public class ResultCacheTest {
+
+    public static void testUnchangedTablesAreServedFromTheCache() throws Exception {
+        CountingLoader loader = new CountingLoader();
+        ResultCache cache = new ResultCache(loader, new TableVersions());
+
+        ColumnarResult first = cache.query(QueryOptions.DEFAULT, "SELECT * FROM Job WHERE jobID = ?", 1);
+        ColumnarResult second = cache.query(QueryOptions.DEFAULT, "SELECT * FROM Job WHERE jobID = ?", 1);
+
+        Assert.assertTrue("cached result is returned", first == second);
+        Assert.assertEquals("loads", 1, loader.loads);
+        Assert.assertEquals("hits", 1L, cache.getHits());
+    }
+
+    public static void testParametersAreKeyedSeparately() throws Exception {
+        CountingLoader loader = new CountingLoader();
+        ResultCache cache = new ResultCache(loader, new TableVersions());
+
+        cache.query(QueryOptions.DEFAULT, "SELECT * FROM Job WHERE jobID = ?", 1);
+        cache.query(QueryOptions.DEFAULT, "SELECT * FROM Job WHERE jobID = ?", 2);
+
+        Assert.assertEquals("loads", 2, loader.loads);
+    }
+
+    public static void testWriteToAReadTableMakesTheEntryStale() throws Exception {
+        CountingLoader loader = new CountingLoader();
+        TableVersions versions = new TableVersions();
+        ResultCache cache = new ResultCache(loader, versions);
+        String sql = "SELECT j.title, c.name FROM Job j JOIN Company c ON c.companyID = j.companyID";
+
+        cache.query(QueryOptions.DEFAULT, sql);
+        versions.bump("Company");
+        cache.query(QueryOptions.DEFAULT, sql);
+        cache.query(QueryOptions.DEFAULT, sql);
+
+        Assert.assertEquals("loads", 2, loader.loads);
+        Assert.assertEquals("hits", 1L, cache.getHits());
+    }
+
+    public static void testWriteToAnotherTableKeepsTheEntry() throws Exception {
+        CountingLoader loader = new CountingLoader();
+        TableVersions versions = new TableVersions();
+        ResultCache cache = new ResultCache(loader, versions);
+
+        cache.query(QueryOptions.DEFAULT, "SELECT * FROM Job");
+        versions.noteStatement("INSERT INTO Interview VALUES (1)");
+        cache.query(QueryOptions.DEFAULT, "SELECT * FROM Job");
+
+        Assert.assertEquals("loads", 1, loader.loads);
+    }
+
+    public static void testQueriesWithoutKnownTablesAreNotCached() throws Exception {
+        CountingLoader loader = new CountingLoader();
+        ResultCache cache = new ResultCache(loader, new TableVersions());
+
+        cache.query(QueryOptions.DEFAULT, "SELECT 1 FROM dual");
+        cache.query(QueryOptions.DEFAULT, "SELECT 1 FROM dual");
+
+        Assert.assertEquals("loads", 2, loader.loads);
+    }
+
+    public static void testLeastRecentlyUsedEntryIsEvicted() throws Exception {
+        CountingLoader loader = new CountingLoader();
+        ResultCache cache = new ResultCache(loader, new TableVersions());
+        int maxEntries = Integer.getInteger("db.resultCache.maxEntries", 64);
+
+        for (int key = 0; key <= maxEntries; key++) {
+            cache.query(QueryOptions.DEFAULT, "SELECT * FROM Job WHERE jobID = ?", key);
+            /* Keeps key 0 recently used, so key 1 is the eldest */
+            cache.query(QueryOptions.DEFAULT, "SELECT * FROM Job WHERE jobID = ?", 0);
+        }
+        Assert.assertEquals("evictions", 1L, cache.getEvictions());
+
+        int loads = loader.loads;
+        cache.query(QueryOptions.DEFAULT, "SELECT * FROM Job WHERE jobID = ?", 0);
+        Assert.assertEquals("recently used entry is kept", loads, loader.loads);
+        cache.query(QueryOptions.DEFAULT, "SELECT * FROM Job WHERE jobID = ?", 1);
+        Assert.assertEquals("evicted entry is read again", loads + 1, loader.loads);
+    }
+
+    /* Returns a new empty result for every query and counts them */
+    private static final class CountingLoader implements ResultCache.Loader {
+        int loads;
+
+        @Override
+        public ColumnarResult load(QueryOptions options, String sql, Object... params) throws SQLException {
+            loads++;
+            return ColumnarResult.from(StubJdbc.emptyResultSet());
+        }
+    }
+}
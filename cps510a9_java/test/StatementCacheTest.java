@@ -0,0 +1,89 @@
+import java.sql.PreparedStatement;
+
+/* StatementCache: LRU eviction, busy statements, and a capacity of 0 */
+public class StatementCacheTest {
+
+    public static void testRepeatedSqlReusesStatement() throws Exception {
+        StubJdbc.StubConnection stub = new StubJdbc.StubConnection();
+        StatementCache.Stats stats = new StatementCache.Stats();
+        StatementCache cache = new StatementCache(stub.getConnection(), 2, stats);
+
+        PreparedStatement first = cache.prepare("SELECT 1");
+        PreparedStatement second = cache.prepare("SELECT 1");
+
+        Assert.assertTrue("same SQL reuses the cached statement", first == second);
+        Assert.assertEquals("statements prepared", 1, stub.getPrepared().size());
+        Assert.assertEquals("hits", 1L, stats.getHits());
+        Assert.assertEquals("misses", 1L, stats.getMisses());
+    }
+
+    public static void testEvictsLeastRecentlyUsed() throws Exception {
+        StubJdbc.StubConnection stub = new StubJdbc.StubConnection();
+        StatementCache.Stats stats = new StatementCache.Stats();
+        StatementCache cache = new StatementCache(stub.getConnection(), 2, stats);
+
+        PreparedStatement a = cache.prepare("A");
+        PreparedStatement b = cache.prepare("B");
+        cache.prepare("A");
+        PreparedStatement c = cache.prepare("C");
+
+        Assert.assertEquals("size", 2, cache.size());
+        Assert.assertEquals("evictions", 1L, stats.getEvictions());
+        Assert.assertTrue("least recently used statement is closed", stub.isClosed(b));
+        Assert.assertFalse("recently used statement stays open", stub.isClosed(a));
+        Assert.assertFalse("new statement stays open", stub.isClosed(c));
+        Assert.assertTrue("recently used statement is still cached", cache.prepare("A") == a);
+    }
+
+    public static void testBusyStatementsAreNotEvicted() throws Exception {
+        StubJdbc.StubConnection stub = new StubJdbc.StubConnection();
+        StatementCache cache = new StatementCache(stub.getConnection(), 1, new StatementCache.Stats());
+
+        PreparedStatement cursor = cache.acquire("A");
+        PreparedStatement next = cache.prepare("B");
+
+        Assert.assertFalse("busy statement stays open", stub.isClosed(cursor));
+        Assert.assertFalse("new statement is never evicted on the way in", stub.isClosed(next));
+
+        cache.release(cursor);
+        Assert.assertTrue("statement that fell out of the cache while busy is closed on release", stub.isClosed(cursor));
+        Assert.assertFalse("cached statement stays open", stub.isClosed(next));
+        Assert.assertEquals("size", 1, cache.size());
+    }
+
+    public static void testSecondCursorOnSameSqlGetsOwnStatement() throws Exception {
+        StubJdbc.StubConnection stub = new StubJdbc.StubConnection();
+        StatementCache cache = new StatementCache(stub.getConnection(), 2, new StatementCache.Stats());
+
+        PreparedStatement first = cache.acquire("A");
+        PreparedStatement second = cache.acquire("A");
+
+        Assert.assertTrue("second cursor gets a statement of its own", first != second);
+        cache.release(second);
+        Assert.assertTrue("uncached statement is closed on release", stub.isClosed(second));
+        cache.release(first);
+        Assert.assertFalse("cached statement stays open", stub.isClosed(first));
+    }
+
+    public static void testZeroCapacityHandsOutOpenStatements() throws Exception {
+        StubJdbc.StubConnection stub = new StubJdbc.StubConnection();
+        StatementCache cache = new StatementCache(stub.getConnection(), 0, new StatementCache.Stats());
+
+        PreparedStatement prepared = cache.prepare("INSERT");
+        PreparedStatement acquired = cache.acquire("SELECT");
+
+        Assert.assertFalse("prepare() returns an open statement", stub.isClosed(prepared));
+        Assert.assertFalse("acquire() returns an open statement", stub.isClosed(acquired));
+        Assert.assertEquals("nothing is cached", 0, cache.size());
+        Assert.assertTrue("every prepare() prepares again", cache.prepare("INSERT") != prepared);
+
+        cache.release(acquired);
+        Assert.assertTrue("acquired statement is closed on release", stub.isClosed(acquired));
+        Assert.assertFalse("prepared statement stays open while the connection is leased", stub.isClosed(prepared));
+
+        cache.closeUncached();
+        for (PreparedStatement statement : stub.getPrepared()) {
+            Assert.assertTrue("every statement is closed once the connection goes back", stub.isClosed(statement));
+        }
+    }
+}
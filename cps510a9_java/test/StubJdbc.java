@@ -0,0 +1,277 @@
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+/*
+ * In-memory stand-ins for JDBC objects, enough for DBConnection (and the classes on top of it) to run without a database.
+ * Every statement prepared on the stub connection is recorded, closing one is tracked, and the SQL of every statement run
+ * is logged. Queries are answered by a QueryHandler and updates by an update count function; batches report
+ * SUCCESS_NO_INFO for every row, as the Oracle driver does. Methods not listed return null, 0 or false.
+ */
+public final class StubJdbc {
+
+    private StubJdbc() {
+    }
+
+    /* Answers a query with its SQL and bound parameters (in order) */
+    public interface QueryHandler {
+        ResultSet query(String sql, List<Object> params) throws SQLException;
+    }
+
+    /* A connection whose prepareStatement() and createStatement() hand out stub statements */
+    public static final class StubConnection {
+        private final List<PreparedStatement> prepared = Collections.synchronizedList(new ArrayList<>());
+        private final Set<Statement> closed = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+        private final List<String> executed = Collections.synchronizedList(new ArrayList<>());
+        private final Connection connection;
+        private volatile QueryHandler queries = (sql, params) -> emptyResultSet();
+        private volatile ToIntFunction<String> updateCounts = sql -> 0;
+
+        public StubConnection() {
+            connection = proxy(Connection.class, "StubConnection", (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "prepareStatement":
+                        PreparedStatement statement = preparedStatement((String) args[0]);
+                        prepared.add(statement);
+                        return statement;
+                    case "createStatement":
+                        return statement();
+                    case "isValid":
+                        return true;
+                    default:
+                        return NO_ANSWER;
+                }
+            });
+        }
+
+        public Connection getConnection() {
+            return connection;
+        }
+
+        /* Statements prepared so far, oldest first */
+        public List<PreparedStatement> getPrepared() {
+            return prepared;
+        }
+
+        public boolean isClosed(Statement statement) {
+            return closed.contains(statement);
+        }
+
+        /* SQL of every query, update and batch run so far, oldest first */
+        public List<String> getExecuted() {
+            synchronized (executed) {
+                return new ArrayList<>(executed);
+            }
+        }
+
+        public void onQuery(QueryHandler handler) {
+            queries = handler;
+        }
+
+        /* Rows affected reported by executeUpdate() for each SQL text (0 unless set) */
+        public void onUpdate(ToIntFunction<String> counts) {
+            updateCounts = counts;
+        }
+
+        private Statement statement() {
+            return proxy(Statement.class, "StubStatement", (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "executeUpdate":
+                        executed.add((String) args[0]);
+                        return updateCounts.applyAsInt((String) args[0]);
+                    case "executeQuery":
+                        executed.add((String) args[0]);
+                        return queries.query((String) args[0], Collections.emptyList());
+                    case "close":
+                        closed.add((Statement) proxy);
+                        return null;
+                    case "isClosed":
+                        return closed.contains(proxy);
+                    default:
+                        return NO_ANSWER;
+                }
+            });
+        }
+
+        private PreparedStatement preparedStatement(String sql) {
+            List<Object> params = new ArrayList<>();
+            int[] batched = new int[1];
+            return proxy(PreparedStatement.class, "StubStatement[" + sql + "]", (proxy, method, args) -> {
+                String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                    int index = (Integer) args[0];
+                    while (params.size() < index) {
+                        params.add(null);
+                    }
+                    params.set(index - 1, name.equals("setNull") ? null : args[1]);
+                    return null;
+                }
+                switch (name) {
+                    case "clearParameters":
+                        params.clear();
+                        return null;
+                    case "addBatch":
+                        batched[0]++;
+                        return null;
+                    case "clearBatch":
+                        batched[0] = 0;
+                        return null;
+                    case "executeBatch":
+                        executed.add(sql);
+                        int[] counts = new int[batched[0]];
+                        Arrays.fill(counts, Statement.SUCCESS_NO_INFO);
+                        batched[0] = 0;
+                        return counts;
+                    case "executeUpdate":
+                        executed.add(sql);
+                        return updateCounts.applyAsInt(sql);
+                    case "executeQuery":
+                        executed.add(sql);
+                        return queries.query(sql, new ArrayList<>(params));
+                    case "close":
+                        closed.add((PreparedStatement) proxy);
+                        return null;
+                    case "isClosed":
+                        return closed.contains(proxy);
+                    default:
+                        return NO_ANSWER;
+                }
+            });
+        }
+    }
+
+    /* A result with no columns and no rows */
+    public static ResultSet emptyResultSet() {
+        return resultSet(new String[0]);
+    }
+
+    /* A forward-only result with the given column names and rows. Column types are taken from the first row's values */
+    public static ResultSet resultSet(String[] columns, Object[]... rows) {
+        ResultSetMetaData meta = proxy(ResultSetMetaData.class, "StubMetaData", (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getColumnCount":
+                    return columns.length;
+                case "getColumnName":
+                case "getColumnLabel":
+                    return columns[(Integer) args[0] - 1];
+                case "getColumnType":
+                    return sqlType(rows.length == 0 ? null : rows[0][(Integer) args[0] - 1]);
+                default:
+                    return NO_ANSWER;
+            }
+        });
+        int[] row = {0};
+        boolean[] wasNull = {false};
+        return proxy(ResultSet.class, "StubResultSet", (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getMetaData":
+                    return meta;
+                case "next":
+                    return ++row[0] <= rows.length;
+                case "wasNull":
+                    return wasNull[0];
+                default:
+                    break;
+            }
+            if (method.getName().startsWith("get") && args != null && args.length == 1) {
+                int column = args[0] instanceof Integer ? (Integer) args[0] : Arrays.asList(columns).indexOf(args[0]) + 1;
+                Object value = rows[row[0] - 1][column - 1];
+                wasNull[0] = value == null;
+                return convert(value, method.getReturnType());
+            }
+            return NO_ANSWER;
+        });
+    }
+
+    /* Marks a method the handler leaves to the defaults below */
+    private static final Object NO_ANSWER = new Object();
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, String description, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(StubJdbc.class.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return description + "@" + Integer.toHexString(System.identityHashCode(proxy));
+                default:
+                    Object answer = handler.invoke(proxy, method, args);
+                    return answer == NO_ANSWER ? defaultValue(method) : answer;
+            }
+        });
+    }
+
+    private static Object defaultValue(Method method) {
+        return defaultValueOf(method.getReturnType());
+    }
+
+    private static Object convert(Object value, Class<?> type) {
+        if (value == null) {
+            return defaultValueOf(type);
+        }
+        if (type == int.class) {
+            return ((Number) value).intValue();
+        }
+        if (type == long.class) {
+            return ((Number) value).longValue();
+        }
+        if (type == double.class) {
+            return ((Number) value).doubleValue();
+        }
+        if (type == String.class) {
+            return value.toString();
+        }
+        return value;
+    }
+
+    /* Null for objects, zero or false for primitives */
+    private static Object defaultValueOf(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == double.class) {
+            return 0.0;
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        return 0;
+    }
+
+    private static int sqlType(Object value) {
+        if (value instanceof Integer || value instanceof Long) {
+            return Types.INTEGER;
+        }
+        if (value instanceof BigDecimal || value instanceof Double) {
+            return Types.NUMERIC;
+        }
+        if (value instanceof Timestamp) {
+            return Types.TIMESTAMP;
+        }
+        return Types.VARCHAR;
+    }
+}